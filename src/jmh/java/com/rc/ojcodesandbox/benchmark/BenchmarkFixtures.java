@@ -0,0 +1,88 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import com.rc.ojcodesandbox.JavaCodeSandboxTemplate;
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.runner.JavaRunnerPool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：BenchmarkFixtures 基准测试共用的样例代码和沙箱
+ * @Date：2026/10/18 22:00
+ */
+final class BenchmarkFixtures {
+
+    /**
+     * 输出 args[0] 个字节，用于测量不同输出大小的开销
+     */
+    static final String OUTPUT_CODE = "public class Main {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        char[] output = new char[Integer.parseInt(args[0])];\n"
+            + "        java.util.Arrays.fill(output, 'x');\n"
+            + "        System.out.print(output);\n"
+            + "    }\n"
+            + "}\n";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 读取 resources/testCode 下的样例代码
+     *
+     * @param fixture AaddB 或 unsafeCode 下的文件名（不含 .java）
+     * @return
+     */
+    static String readCode(String fixture) {
+        if ("AaddB".equals(fixture)) {
+            return ResourceUtil.readStr("testCode/AaddB/Main.java", StandardCharsets.UTF_8);
+        }
+        return ResourceUtil.readStr("testCode/unsafeCode/" + fixture + ".java", StandardCharsets.UTF_8);
+    }
+
+    static List<String> repeat(String input, int caseCount) {
+        return new ArrayList<>(Collections.nCopies(caseCount, input));
+    }
+
+    /**
+     * 不依赖 Spring 创建原生沙箱。关闭源码预检：unsafeCode 下的样例会在预检时直接被拒绝，
+     * 测不到编译、运行的开销；预检本身由 CodeScreenBenchmark 单独测量
+     *
+     * @param compileMode
+     * @param compileCacheSize 0 表示不缓存编译结果
+     * @return
+     */
+    static JavaNativeCodeSandbox newCodeSandbox(CompileMode compileMode, int compileCacheSize) {
+        CodeSandboxProperties codeSandboxProperties = new CodeSandboxProperties();
+        codeSandboxProperties.getCompile().setMode(compileMode);
+        codeSandboxProperties.getCompile().setCacheSize(compileCacheSize);
+        codeSandboxProperties.getScreen().setEnabled(false);
+        JavaNativeCodeSandbox codeSandbox = new JavaNativeCodeSandbox();
+        codeSandbox.setCodeSandboxProperties(codeSandboxProperties);
+        return codeSandbox;
+    }
+
+    /**
+     * 为沙箱启动预热 JVM 执行器，用完后需要调用 shutdown
+     *
+     * @param codeSandbox
+     * @return
+     */
+    static JavaRunnerPool startRunnerPool(JavaNativeCodeSandbox codeSandbox) {
+        CodeSandboxProperties codeSandboxProperties = codeSandbox.getCodeSandboxProperties();
+        ProcessReaper processReaper = new ProcessReaper(codeSandboxProperties.getExecute().getKillGraceMillis());
+        codeSandbox.setProcessReaper(processReaper);
+        JavaRunnerPool javaRunnerPool = new JavaRunnerPool(codeSandboxProperties.getRunner(), processReaper,
+                JavaCodeSandboxTemplate.GLOBAL_RUNNER_PATH_NAME, codeSandboxProperties.getExecute().getOutputLimit());
+        javaRunnerPool.prestart();
+        codeSandbox.setJavaRunnerPool(javaRunnerPool);
+        return javaRunnerPool;
+    }
+}
@@ -0,0 +1,99 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import com.rc.ojcodesandbox.JavaCodeSandboxTemplate;
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import com.rc.ojcodesandbox.runner.CdsArchiveManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CdsBenchmark 用户程序 JVM 使用 CDS 归档前后的单用例耗时
+ * @Date：2026/10/19 10:30
+ * 两组 cds 参数的差值即每个用例节省的启动时间；样例程序使用 Scanner、集合、Stream 和格式化输出
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CdsBenchmark {
+
+    private static final String STARTUP_CODE = "import java.util.*;\n"
+            + "import java.util.stream.*;\n"
+            + "public class Main {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        Scanner scanner = new Scanner(System.in);\n"
+            + "        int n = scanner.nextInt();\n"
+            + "        List<Integer> list = new ArrayList<>();\n"
+            + "        for (int i = 0; i < n; i++) {\n"
+            + "            list.add(scanner.nextInt());\n"
+            + "        }\n"
+            + "        Map<Integer, Long> countMap = list.stream().collect(Collectors.groupingBy(x -> x, TreeMap::new, Collectors.counting()));\n"
+            + "        System.out.printf(\"%d %s%n\", list.stream().mapToInt(Integer::intValue).sum(), countMap);\n"
+            + "    }\n"
+            + "}\n";
+
+    @Param({"false", "true"})
+    private boolean cds;
+
+    private JavaNativeCodeSandbox codeSandbox;
+
+    private CdsArchiveManager cdsArchiveManager;
+
+    private File userCodeFile;
+
+    private List<String> inputList;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        codeSandbox = BenchmarkFixtures.newCodeSandbox(CompileMode.IN_MEMORY, 0);
+        if (cds) {
+            cdsArchiveManager = new CdsArchiveManager(new CodeSandboxProperties.Cds(), JavaCodeSandboxTemplate.GLOBAL_CDS_PATH_NAME);
+            if (!cdsArchiveManager.refresh()) {
+                throw new IllegalStateException("当前 JDK 不支持 CDS 归档");
+            }
+            codeSandbox.setCdsArchiveManager(cdsArchiveManager);
+        }
+        userCodeFile = codeSandbox.saveCodeToFile(STARTUP_CODE);
+        ExecuteMessage compileMessage = codeSandbox.compileFile(userCodeFile);
+        if (compileMessage.getExitValue() != null && compileMessage.getExitValue() != 0) {
+            throw new IllegalStateException("样例代码编译失败：" + compileMessage.getErrorMessage());
+        }
+        inputList = Collections.singletonList("5 3 1 4 1 5");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        codeSandbox.deleteFile(userCodeFile);
+        if (cdsArchiveManager != null) {
+            cdsArchiveManager.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<ExecuteMessage> runCase() {
+        return codeSandbox.runFile(userCodeFile, inputList, InputModeEnum.STDIN);
+    }
+}
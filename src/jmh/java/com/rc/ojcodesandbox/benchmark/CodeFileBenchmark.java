@@ -0,0 +1,71 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CodeFileBenchmark 模板第 1、2 步：保存代码文件、编译
+ * @Date：2026/10/18 22:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeFileBenchmark {
+
+    @Param({"IN_MEMORY", "PROCESS"})
+    private CompileMode compileMode;
+
+    private JavaNativeCodeSandbox codeSandbox;
+
+    private String code;
+
+    private File userCodeFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 不缓存编译结果，每次都真正编译
+        codeSandbox = BenchmarkFixtures.newCodeSandbox(compileMode, 0);
+        code = BenchmarkFixtures.readCode("AaddB");
+        userCodeFile = codeSandbox.saveCodeToFile(code);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        codeSandbox.deleteFile(userCodeFile);
+    }
+
+    /**
+     * 借出工作目录、写入源码、清理归还
+     */
+    @Benchmark
+    public boolean saveCodeToFile() {
+        File file = codeSandbox.saveCodeToFile(code);
+        return codeSandbox.deleteFile(file);
+    }
+
+    @Benchmark
+    public ExecuteMessage compileFile() {
+        return codeSandbox.compileFile(userCodeFile);
+    }
+}
@@ -0,0 +1,77 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import cn.hutool.dfa.FoundWord;
+import cn.hutool.dfa.WordTree;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.screen.CodeScreener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CodeScreenBenchmark 模板第 0 步：源码预检
+ * @Date：2026/10/19 15:00
+ * wordTree 为 JavaNativeCodeSandboxOld 中 hutool WordTree 的做法，使用相同的关键词作为对照
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeScreenBenchmark {
+
+    /**
+     * AaddB 通过预检，需要扫描全文；其余在 import 处命中
+     */
+    @Param({"AaddB", "ReadFileError", "runFileError"})
+    private String fixture;
+
+    /**
+     * 源码重复的次数，模拟较长的提交
+     */
+    @Param({"1", "100"})
+    private int repeat;
+
+    private CodeScreener codeScreener;
+
+    private WordTree wordTree;
+
+    private String code;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CodeSandboxProperties.Screen screen = new CodeSandboxProperties.Screen();
+        codeScreener = new CodeScreener(screen);
+        wordTree = new WordTree();
+        wordTree.addWords(screen.getRules().get("java"));
+        String fixtureCode = BenchmarkFixtures.readCode(fixture);
+        StringBuilder builder = new StringBuilder(fixtureCode.length() * repeat);
+        for (int i = 0; i < repeat; i++) {
+            builder.append(fixtureCode);
+        }
+        code = builder.toString();
+    }
+
+    @Benchmark
+    public String codeScreener() {
+        return codeScreener.screen("java", null, code);
+    }
+
+    @Benchmark
+    public FoundWord wordTree() {
+        return wordTree.matchWord(code);
+    }
+}
@@ -0,0 +1,66 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteCodeBenchmark JavaNativeCodeSandbox 端到端执行
+ * @Date：2026/10/18 22:00
+ * AaddB 为正常提交；ReadFileError 输出整个配置文件；MemoryError 触发堆内存溢出，测量出错用例的处理开销。
+ * SleepError 要等到超时、WriteFileError 会改动仓库文件，不纳入
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecuteCodeBenchmark {
+
+    @Param({"AaddB", "ReadFileError", "MemoryError"})
+    private String fixture;
+
+    @Param({"1", "10", "100"})
+    private int caseCount;
+
+    /**
+     * 编译缓存命中时跳过编译，对应同一份代码重复提交（如重判）
+     */
+    @Param({"0", "256"})
+    private int compileCacheSize;
+
+    private JavaNativeCodeSandbox codeSandbox;
+
+    private ExecuteCodeRequest executeCodeRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codeSandbox = BenchmarkFixtures.newCodeSandbox(CompileMode.IN_MEMORY, compileCacheSize);
+        executeCodeRequest = new ExecuteCodeRequest();
+        executeCodeRequest.setCode(BenchmarkFixtures.readCode(fixture));
+        executeCodeRequest.setLanguage("java");
+        executeCodeRequest.setInputList(BenchmarkFixtures.repeat("1 2", caseCount));
+    }
+
+    @Benchmark
+    public ExecuteCodeResponse executeCode() {
+        return codeSandbox.executeCode(executeCodeRequest);
+    }
+}
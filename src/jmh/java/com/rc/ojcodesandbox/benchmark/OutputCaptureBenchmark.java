@@ -0,0 +1,108 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.OutputText;
+import com.rc.ojcodesandbox.model.OutputTextList;
+import com.rc.ojcodesandbox.utils.OutputCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：OutputCaptureBenchmark 用例输出从收集到序列化
+ * @Date：2026/10/19 16:00
+ * 按 8KB 一段读入 caseCount 个用例的输出，整理成 outputList 后用 Jackson 写出：
+ * stringOutput 为原来的做法（倍增扩容的数组、解码成 String），byteOutput 为字节块池 + OutputText。
+ * 配合 -prof gc 查看 gc.alloc.rate.norm（每次操作分配的字节数）：
+ * mvn -P benchmark -DskipTests verify -Djmh.args="OutputCaptureBenchmark -prof gc -rf json -rff target/jmh-result.json"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutputCaptureBenchmark {
+
+    private static final int READ_SIZE = 8192;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"10"})
+    private int caseCount;
+
+    @Param({"16", "65536", "1048576"})
+    private int outputSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] output;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        output = new byte[outputSize];
+        for (int i = 0; i < outputSize; i++) {
+            output[i] = (byte) (i % 64 == 63 ? '\n' : '0' + i % 10);
+        }
+    }
+
+    @Benchmark
+    public void stringOutput() throws IOException {
+        List<String> outputList = new ArrayList<>(caseCount);
+        for (int i = 0; i < caseCount; i++) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+            for (int off = 0; off < outputSize; off += READ_SIZE) {
+                outputStream.write(output, off, Math.min(READ_SIZE, outputSize - off));
+            }
+            outputList.add(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        }
+        write(outputList);
+    }
+
+    @Benchmark
+    public void byteOutput() throws IOException {
+        List<OutputText> outputTextList = new ArrayList<>(caseCount);
+        for (int i = 0; i < caseCount; i++) {
+            OutputCollector outputCollector = new OutputCollector(Long.MAX_VALUE);
+            for (int off = 0; off < outputSize; off += READ_SIZE) {
+                outputCollector.append(output, off, Math.min(READ_SIZE, outputSize - off));
+            }
+            outputTextList.add(outputCollector.toOutputText());
+        }
+        write(new OutputTextList(outputTextList));
+    }
+
+    private void write(List<String> outputList) throws IOException {
+        ExecuteCodeResponse executeCodeResponse = new ExecuteCodeResponse();
+        executeCodeResponse.setOutputList(outputList);
+        executeCodeResponse.setStatus(1);
+        objectMapper.writeValue(DISCARD, executeCodeResponse);
+    }
+}
@@ -0,0 +1,69 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：OutputResponseBenchmark 模板第 4 步：整理执行结果
+ * @Date：2026/10/18 22:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutputResponseBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int caseCount;
+
+    @Param({"16", "65536", "1048576"})
+    private int outputSize;
+
+    private JavaNativeCodeSandbox codeSandbox;
+
+    private List<ExecuteMessage> executeMessageList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codeSandbox = BenchmarkFixtures.newCodeSandbox(CompileMode.IN_MEMORY, 0);
+        char[] output = new char[outputSize];
+        Arrays.fill(output, 'x');
+        String message = new String(output);
+        executeMessageList = new ArrayList<>(caseCount);
+        for (int i = 0; i < caseCount; i++) {
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setExitValue(0);
+            executeMessage.setMessage(message);
+            executeMessage.setTime((long) i);
+            executeMessage.setMemory(1024L + i);
+            executeMessageList.add(executeMessage);
+        }
+    }
+
+    @Benchmark
+    public ExecuteCodeResponse getOutputResponse() {
+        return codeSandbox.getOutputResponse(executeMessageList);
+    }
+}
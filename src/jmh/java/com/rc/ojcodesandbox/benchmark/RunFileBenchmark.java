@@ -0,0 +1,86 @@
+package com.rc.ojcodesandbox.benchmark;
+
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import com.rc.ojcodesandbox.runner.JavaRunnerPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：RunFileBenchmark 模板第 3 步：执行已编译的代码
+ * @Date：2026/10/18 22:00
+ * 样例程序按输入输出指定字节数，覆盖用例数和输出大小两个维度
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunFileBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int caseCount;
+
+    @Param({"16", "65536", "1048576"})
+    private int outputSize;
+
+    /**
+     * 是否使用预热 JVM 执行器
+     */
+    @Param({"false", "true"})
+    private boolean runnerEnabled;
+
+    private JavaNativeCodeSandbox codeSandbox;
+
+    private JavaRunnerPool javaRunnerPool;
+
+    private File userCodeFile;
+
+    private List<String> inputList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codeSandbox = BenchmarkFixtures.newCodeSandbox(CompileMode.IN_MEMORY, 0);
+        if (runnerEnabled) {
+            javaRunnerPool = BenchmarkFixtures.startRunnerPool(codeSandbox);
+        }
+        userCodeFile = codeSandbox.saveCodeToFile(BenchmarkFixtures.OUTPUT_CODE);
+        ExecuteMessage compileMessage = codeSandbox.compileFile(userCodeFile);
+        if (compileMessage.getExitValue() != null && compileMessage.getExitValue() != 0) {
+            throw new IllegalStateException("样例代码编译失败：" + compileMessage.getErrorMessage());
+        }
+        inputList = BenchmarkFixtures.repeat(String.valueOf(outputSize), caseCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        codeSandbox.deleteFile(userCodeFile);
+        if (javaRunnerPool != null) {
+            javaRunnerPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<ExecuteMessage> runFile() {
+        return codeSandbox.runFile(userCodeFile, inputList, InputModeEnum.ARGS);
+    }
+}
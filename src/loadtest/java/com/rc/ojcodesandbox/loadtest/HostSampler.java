@@ -0,0 +1,102 @@
+package com.rc.ojcodesandbox.loadtest;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：HostSampler 沙箱主机资源采样
+ * @Date：2026/10/19 09:30
+ * 压测期间每秒读取一次沙箱的 /actuator/metrics，记录 CPU、内存、子进程数、排队数的平均值和峰值；
+ * 沙箱没有开放 actuator 时不采样
+ */
+public class HostSampler {
+
+    static final List<String> METRIC_NAMES = Arrays.asList(
+            "system.cpu.usage",
+            "process.cpu.usage",
+            "system.load.average.1m",
+            "jvm.memory.used",
+            "codesandbox.process.live",
+            "codesandbox.case.queued",
+            "codesandbox.admission.queued");
+
+    private static final int SAMPLE_TIMEOUT_MILLIS = 2000;
+
+    private final String url;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("host-sampler-", true));
+
+    private final Map<String, double[]> statsMap = new LinkedHashMap<>();
+
+    public HostSampler(String url) {
+        this.url = url;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止采样
+     *
+     * @return 指标名 -> {平均值, 峰值}，没有采到的指标不返回
+     */
+    public synchronized Map<String, double[]> stop() {
+        scheduler.shutdownNow();
+        Map<String, double[]> resultMap = new LinkedHashMap<>();
+        for (Map.Entry<String, double[]> entry : statsMap.entrySet()) {
+            double[] stats = entry.getValue();
+            resultMap.put(entry.getKey(), new double[]{stats[0] / stats[2], stats[1]});
+        }
+        return resultMap;
+    }
+
+    private void sample() {
+        for (String metricName : METRIC_NAMES) {
+            Double value = read(metricName);
+            if (value == null) {
+                continue;
+            }
+            synchronized (this) {
+                // 总和、峰值、次数
+                double[] stats = statsMap.computeIfAbsent(metricName, key -> new double[]{0, Double.NEGATIVE_INFINITY, 0});
+                stats[0] += value;
+                stats[1] = Math.max(stats[1], value);
+                stats[2]++;
+            }
+        }
+    }
+
+    private Double read(String metricName) {
+        try (HttpResponse httpResponse = HttpRequest.get(url + "/actuator/metrics/" + metricName)
+                .timeout(SAMPLE_TIMEOUT_MILLIS)
+                .execute()) {
+            if (!httpResponse.isOk()) {
+                return null;
+            }
+            JSONArray measurements = JSONUtil.parseObj(httpResponse.body()).getJSONArray("measurements");
+            for (int i = 0; measurements != null && i < measurements.size(); i++) {
+                JSONObject measurement = measurements.getJSONObject(i);
+                if ("VALUE".equals(measurement.getStr("statistic"))) {
+                    return measurement.getDouble("value");
+                }
+            }
+        } catch (Exception e) {
+            // 沙箱繁忙或未开放 actuator，跳过本次采样
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.rc.ojcodesandbox.loadtest;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author：rancheng
+ * @name：LoadTest 沙箱压测工具
+ * @Date：2026/10/19 09:30
+ * 按固定速率向 /executeCode 发送混合提交（正确、超时、内存溢出、编译错误），统计延迟分位数、吞吐、错误率和沙箱主机资源。
+ * 逐步提高 --qps 直到 p99 或错误率明显上升，即为单个节点的饱和点：
+ * mvn -P loadtest -DskipTests verify -Dloadtest.args="--qps=20 --concurrency=32 --duration=60 --report=target/loadtest.json"
+ */
+public class LoadTest {
+
+    private final LoadTestOptions loadTestOptions;
+
+    private final List<SubmissionKind> weightedKindList = new ArrayList<>();
+
+    private final LoadTestReport loadTestReport = new LoadTestReport();
+
+    /**
+     * 本次压测的标识，与请求序号一起组成代码末尾的注释，多次压测同一个沙箱时也不会命中上一次的编译缓存
+     */
+    private final String runId = IdUtil.fastSimpleUUID();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadTest(LoadTestOptions loadTestOptions) {
+        this.loadTestOptions = loadTestOptions;
+        for (Map.Entry<SubmissionKind, Integer> entry : loadTestOptions.getMix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                weightedKindList.add(entry.getKey());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions loadTestOptions = LoadTestOptions.parse(args);
+        System.out.println("压测参数：" + loadTestOptions);
+        LoadTest loadTest = new LoadTest(loadTestOptions);
+        LoadTestReport.print(loadTestOptions, loadTest.run());
+    }
+
+    /**
+     * 执行压测：预热 warmup 秒后统计 duration 秒，停止发送后等待在途请求结束
+     *
+     * @return 汇总结果
+     * @throws InterruptedException
+     */
+    public Map<String, Object> run() throws InterruptedException {
+        ExecutorService workerExecutor = Executors.newFixedThreadPool(loadTestOptions.getConcurrency(), new NamedThreadFactory("load-test-", true));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("load-test-scheduler-", true));
+        HostSampler hostSampler = new HostSampler(loadTestOptions.getUrl());
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / loadTestOptions.getQps());
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + TimeUnit.SECONDS.toNanos(loadTestOptions.getWarmup());
+        long endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(loadTestOptions.getDuration());
+        scheduler.scheduleAtFixedRate(() -> {
+            long intendedNanos = System.nanoTime();
+            if (intendedNanos >= endNanos) {
+                return;
+            }
+            SubmissionKind submissionKind = weightedKindList.get(ThreadLocalRandom.current().nextInt(weightedKindList.size()));
+            boolean measured = intendedNanos >= measureStartNanos;
+            workerExecutor.execute(() -> send(submissionKind, intendedNanos, measured));
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        TimeUnit.NANOSECONDS.sleep(measureStartNanos - System.nanoTime());
+        hostSampler.start();
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, endNanos - System.nanoTime()));
+        scheduler.shutdownNow();
+        workerExecutor.shutdown();
+        if (!workerExecutor.awaitTermination(loadTestOptions.getRequestTimeout(), TimeUnit.MILLISECONDS)) {
+            workerExecutor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - measureStartNanos) / 1e9;
+        return loadTestReport.summarize(loadTestOptions, elapsedSeconds, hostSampler.stop());
+    }
+
+    private void send(SubmissionKind submissionKind, long intendedNanos, boolean measured) {
+        JSONObject body = new JSONObject();
+        body.set("code", loadTestOptions.isUniqueCode()
+                ? submissionKind.getUniqueCode(runId + "-" + sequence.incrementAndGet()) : submissionKind.getCode());
+        body.set("language", "java");
+        body.set("inputList", submissionKind.getInputList());
+        LoadTestReport.Outcome outcome;
+        try (HttpResponse httpResponse = HttpRequest.post(loadTestOptions.getUrl() + "/executeCode")
+                .header("auth", loadTestOptions.getSecret())
+                .body(body.toString())
+                .timeout(loadTestOptions.getRequestTimeout())
+                .execute()) {
+            if (httpResponse.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                outcome = LoadTestReport.Outcome.REJECTED;
+            } else if (!httpResponse.isOk()) {
+                outcome = LoadTestReport.Outcome.HTTP_ERROR;
+            } else {
+                Integer status = JSONUtil.parseObj(httpResponse.body()).getInt("status");
+                outcome = status != null && status == submissionKind.getExpectedStatus()
+                        ? LoadTestReport.Outcome.OK : LoadTestReport.Outcome.MISMATCH;
+            }
+        } catch (Exception e) {
+            outcome = LoadTestReport.Outcome.FAILED;
+        }
+        if (measured) {
+            loadTestReport.record(submissionKind, System.nanoTime() - intendedNanos, outcome);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.rc.ojcodesandbox.loadtest;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @Author：rancheng
+ * @name：LoadTestOptions 压测参数
+ * @Date：2026/10/19 09:30
+ * 命令行参数格式为 --key=value，例如 --qps=50 --concurrency=32 --duration=60 --mix=ok:90,tle:4,mle:3,ce:3
+ */
+@Data
+public class LoadTestOptions {
+    /**
+     * 沙箱地址
+     */
+    private String url = "http://localhost:8080";
+    /**
+     * 请求头 auth 的值
+     */
+    private String secret = "secretKey";
+    /**
+     * 目标每秒请求数，按固定间隔发出，不因响应变慢而降速
+     */
+    private double qps = 10;
+    /**
+     * 同时在途的最大请求数，超出的请求排队，排队时间计入延迟
+     */
+    private int concurrency = 16;
+    /**
+     * 统计时长（秒）
+     */
+    private int duration = 30;
+    /**
+     * 预热时长（秒），预热期间的请求不计入统计
+     */
+    private int warmup = 5;
+    /**
+     * 单个请求的超时时间（毫秒）
+     */
+    private int requestTimeout = 60000;
+    /**
+     * 各类提交的权重
+     */
+    private Map<SubmissionKind, Integer> mix = parseMix("ok:90,tle:4,mle:3,ce:3");
+    /**
+     * 每个请求的代码末尾追加不同的注释，避开沙箱的编译缓存；
+     * 设为 false 时所有请求使用相同的代码，只测缓存命中时的容量
+     */
+    private boolean uniqueCode = true;
+    /**
+     * 结果以 JSON 写入该文件，便于比较不同版本，为空时不写
+     */
+    private String report;
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions loadTestOptions = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --key=value：" + arg);
+            }
+            String key = StrUtil.subBetween(arg, "--", "=");
+            String value = StrUtil.subAfter(arg, "=", false);
+            switch (key) {
+                case "url":
+                    loadTestOptions.setUrl(StrUtil.removeSuffix(value, "/"));
+                    break;
+                case "secret":
+                    loadTestOptions.setSecret(value);
+                    break;
+                case "qps":
+                    loadTestOptions.setQps(Double.parseDouble(value));
+                    break;
+                case "concurrency":
+                    loadTestOptions.setConcurrency(Integer.parseInt(value));
+                    break;
+                case "duration":
+                    loadTestOptions.setDuration(Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    loadTestOptions.setWarmup(Integer.parseInt(value));
+                    break;
+                case "requestTimeout":
+                    loadTestOptions.setRequestTimeout(Integer.parseInt(value));
+                    break;
+                case "mix":
+                    loadTestOptions.setMix(parseMix(value));
+                    break;
+                case "uniqueCode":
+                    loadTestOptions.setUniqueCode(Boolean.parseBoolean(value));
+                    break;
+                case "report":
+                    loadTestOptions.setReport(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数：" + key);
+            }
+        }
+        if (loadTestOptions.getQps() <= 0 || loadTestOptions.getConcurrency() <= 0 || loadTestOptions.getDuration() <= 0) {
+            throw new IllegalArgumentException("qps、concurrency、duration 必须大于 0");
+        }
+        return loadTestOptions;
+    }
+
+    /**
+     * @param mix 形如 ok:90,tle:4,mle:3,ce:3，没有列出的类型权重为 0
+     * @return
+     */
+    static Map<SubmissionKind, Integer> parseMix(String mix) {
+        Map<SubmissionKind, Integer> mixMap = new EnumMap<>(SubmissionKind.class);
+        for (String part : StrUtil.splitTrim(mix, ',')) {
+            SubmissionKind submissionKind = SubmissionKind.getEnumByValue(StrUtil.subBefore(part, ":", false));
+            if (submissionKind == null) {
+                throw new IllegalArgumentException("未知的提交类型：" + part);
+            }
+            mixMap.put(submissionKind, Integer.parseInt(StrUtil.subAfter(part, ":", false)));
+        }
+        if (mixMap.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("提交类型的权重之和必须大于 0：" + mix);
+        }
+        return mixMap;
+    }
+}
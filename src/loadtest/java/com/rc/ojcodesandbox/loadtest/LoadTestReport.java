@@ -0,0 +1,207 @@
+package com.rc.ojcodesandbox.loadtest;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @Author：rancheng
+ * @name：LoadTestReport 压测结果统计
+ * @Date：2026/10/19 09:30
+ * 延迟从计划发出时间算起，包含在压测端排队的时间，沙箱变慢时不会因为少发请求而低估延迟
+ */
+public class LoadTestReport {
+
+    /**
+     * 单个请求的结果
+     */
+    public enum Outcome {
+        /**
+         * 返回状态与提交类型的期望一致
+         */
+        OK,
+        /**
+         * 返回了结果，但状态与期望不一致（如正确代码运行出错、超时代码没有超时）
+         */
+        MISMATCH,
+        /**
+         * 准入排队已满，返回 429
+         */
+        REJECTED,
+        /**
+         * 其他非 200 的 HTTP 状态
+         */
+        HTTP_ERROR,
+        /**
+         * 连接失败、请求超时
+         */
+        FAILED
+    }
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final ConcurrentLinkedQueue<Sample> sampleQueue = new ConcurrentLinkedQueue<>();
+
+    public void record(SubmissionKind submissionKind, long latencyNanos, Outcome outcome) {
+        sampleQueue.add(new Sample(submissionKind, latencyNanos, outcome));
+    }
+
+    /**
+     * 汇总结果
+     *
+     * @param loadTestOptions
+     * @param elapsedSeconds 统计窗口的实际时长（秒）
+     * @param hostStats      HostSampler.stop() 的结果
+     * @return
+     */
+    public Map<String, Object> summarize(LoadTestOptions loadTestOptions, double elapsedSeconds, Map<String, double[]> hostStats) {
+        List<Sample> sampleList = new ArrayList<>(sampleQueue);
+        Map<String, Object> summaryMap = new LinkedHashMap<>();
+        summaryMap.put("targetQps", loadTestOptions.getQps());
+        summaryMap.put("concurrency", loadTestOptions.getConcurrency());
+        summaryMap.put("durationSeconds", loadTestOptions.getDuration());
+        summaryMap.put("uniqueCode", loadTestOptions.isUniqueCode());
+        summaryMap.put("requests", sampleList.size());
+        summaryMap.put("throughput", round(sampleList.size() / elapsedSeconds));
+        Map<Outcome, Integer> outcomeCountMap = new EnumMap<>(Outcome.class);
+        for (Sample sample : sampleList) {
+            outcomeCountMap.merge(sample.outcome, 1, Integer::sum);
+        }
+        Map<String, Object> errorRateMap = new LinkedHashMap<>();
+        for (Outcome outcome : Outcome.values()) {
+            if (outcome != Outcome.OK) {
+                errorRateMap.put(outcome.name().toLowerCase(), rate(outcomeCountMap.getOrDefault(outcome, 0), sampleList.size()));
+            }
+        }
+        summaryMap.put("errorRate", errorRateMap);
+        summaryMap.put("latencyMillis", latency(sampleList));
+        Map<String, Object> kindMap = new LinkedHashMap<>();
+        for (SubmissionKind submissionKind : SubmissionKind.values()) {
+            List<Sample> kindSampleList = new ArrayList<>();
+            int mismatch = 0;
+            for (Sample sample : sampleList) {
+                if (sample.submissionKind == submissionKind) {
+                    kindSampleList.add(sample);
+                    mismatch += sample.outcome == Outcome.MISMATCH ? 1 : 0;
+                }
+            }
+            if (kindSampleList.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> kindSummaryMap = new LinkedHashMap<>();
+            kindSummaryMap.put("requests", kindSampleList.size());
+            kindSummaryMap.put("mismatch", mismatch);
+            kindSummaryMap.put("latencyMillis", latency(kindSampleList));
+            kindMap.put(submissionKind.getValue(), kindSummaryMap);
+        }
+        summaryMap.put("kinds", kindMap);
+        Map<String, Object> hostMap = new LinkedHashMap<>();
+        for (Map.Entry<String, double[]> entry : hostStats.entrySet()) {
+            Map<String, Object> statMap = new LinkedHashMap<>();
+            statMap.put("avg", round(entry.getValue()[0]));
+            statMap.put("max", round(entry.getValue()[1]));
+            hostMap.put(entry.getKey(), statMap);
+        }
+        summaryMap.put("host", hostMap);
+        return summaryMap;
+    }
+
+    /**
+     * 输出到控制台，指定了 report 时同时写入 JSON 文件
+     *
+     * @param loadTestOptions
+     * @param summaryMap
+     */
+    @SuppressWarnings("unchecked")
+    public static void print(LoadTestOptions loadTestOptions, Map<String, Object> summaryMap) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("目标 QPS %s，并发 %s，统计 %s 秒%n", summaryMap.get("targetQps"),
+                summaryMap.get("concurrency"), summaryMap.get("durationSeconds")));
+        builder.append(String.format("请求 %s，吞吐 %s/s%n", summaryMap.get("requests"), summaryMap.get("throughput")));
+        builder.append(String.format("延迟(ms) %s%n", summaryMap.get("latencyMillis")));
+        builder.append(String.format("错误率 %s%n", summaryMap.get("errorRate")));
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) summaryMap.get("kinds")).entrySet()) {
+            Map<String, Object> kindSummaryMap = (Map<String, Object>) entry.getValue();
+            builder.append(String.format("  %-4s 请求 %s，结果不符 %s，延迟(ms) %s%n", entry.getKey(),
+                    kindSummaryMap.get("requests"), kindSummaryMap.get("mismatch"), kindSummaryMap.get("latencyMillis")));
+        }
+        Map<String, Object> hostMap = (Map<String, Object>) summaryMap.get("host");
+        if (hostMap.isEmpty()) {
+            builder.append("沙箱主机：未开放 /actuator/metrics，没有采样").append(System.lineSeparator());
+        } else {
+            builder.append("沙箱主机：").append(System.lineSeparator());
+            for (Map.Entry<String, Object> entry : hostMap.entrySet()) {
+                builder.append(String.format("  %-28s %s%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        System.out.print(builder);
+        if (loadTestOptions.getReport() != null) {
+            FileUtil.writeString(JSONUtil.toJsonPrettyStr(summaryMap), loadTestOptions.getReport(), StandardCharsets.UTF_8);
+            System.out.println("结果已写入 " + loadTestOptions.getReport());
+        }
+    }
+
+    private static Map<String, Object> latency(List<Sample> sampleList) {
+        long[] latencies = new long[sampleList.size()];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = sampleList.get(i).latencyNanos;
+        }
+        Arrays.sort(latencies);
+        Map<String, Object> latencyMap = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            latencyMap.put("p" + Math.round(percentile * 100), millis(percentile(latencies, percentile)));
+        }
+        latencyMap.put("max", millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+        return latencyMap;
+    }
+
+    /**
+     * 最近秩法取分位数
+     *
+     * @param sorted     升序
+     * @param percentile
+     * @return
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double rate(int count, int total) {
+        return total == 0 ? 0 : round((double) count / total);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static class Sample {
+
+        private final SubmissionKind submissionKind;
+
+        private final long latencyNanos;
+
+        private final Outcome outcome;
+
+        private Sample(SubmissionKind submissionKind, long latencyNanos, Outcome outcome) {
+            this.submissionKind = submissionKind;
+            this.latencyNanos = latencyNanos;
+            this.outcome = outcome;
+        }
+    }
+}
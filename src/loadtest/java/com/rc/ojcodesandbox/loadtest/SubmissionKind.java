@@ -0,0 +1,103 @@
+package com.rc.ojcodesandbox.loadtest;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：SubmissionKind 压测提交的类型
+ * @Date：2026/10/19 09:30
+ * 正确提交使用 testCode/AaddB，超时和内存溢出使用 testCode/unsafeCode 下的 SleepError、MemoryError。
+ * 沙箱按源码缓存编译结果，重复提交同一份代码只有第一次真正编译，默认在代码末尾追加一行不同的注释，见 getUniqueCode
+ */
+public enum SubmissionKind {
+
+    OK("正确", "ok", "testCode/AaddB/Main.java", Arrays.asList("1 2", "3 4"), 1),
+    TLE("超时", "tle", "testCode/unsafeCode/SleepError.java", Collections.singletonList("1"), 3),
+    MLE("内存溢出", "mle", "testCode/unsafeCode/MemoryError.java", Collections.singletonList("1"), 3),
+    CE("编译错误", "ce", null, Collections.singletonList("1"), 3);
+
+    /**
+     * 没有现成的编译错误样例，缺少分号
+     */
+    private static final String COMPILE_ERROR_CODE = "public class Main {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        System.out.println(args[0])\n"
+            + "    }\n"
+            + "}\n";
+
+    private final String text;
+
+    private final String value;
+
+    private final String resource;
+
+    private final List<String> inputList;
+
+    /**
+     * 期望的沙箱返回状态，不一致时计为结果不符
+     */
+    private final int expectedStatus;
+
+    private volatile String code;
+
+    SubmissionKind(String text, String value, String resource, List<String> inputList, int expectedStatus) {
+        this.text = text;
+        this.value = value;
+        this.resource = resource;
+        this.inputList = inputList;
+        this.expectedStatus = expectedStatus;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public List<String> getInputList() {
+        return inputList;
+    }
+
+    public int getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    public String getCode() {
+        if (code == null) {
+            code = resource == null ? COMPILE_ERROR_CODE : ResourceUtil.readStr(resource, StandardCharsets.UTF_8);
+        }
+        return code;
+    }
+
+    /**
+     * 在代码末尾追加一行注释，每个请求的源码都不同，不会命中沙箱的编译缓存，压测结果包含真实的编译开销
+     *
+     * @param tag 注释内容，同一次压测内、不同次压测之间都不能重复
+     * @return
+     */
+    public String getUniqueCode(String tag) {
+        return getCode() + "\n// loadtest " + tag + "\n";
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value
+     * @return
+     */
+    public static SubmissionKind getEnumByValue(String value) {
+        for (SubmissionKind submissionKind : SubmissionKind.values()) {
+            if (submissionKind.value.equalsIgnoreCase(value)) {
+                return submissionKind;
+            }
+        }
+        return null;
+    }
+}
@@ -1,9 +1,14 @@
 package com.rc.ojcodesandbox;
 
 
+import com.rc.ojcodesandbox.execute.ExecuteListener;
+import com.rc.ojcodesandbox.model.CompileResponse;
 import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
 import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+
 /**
  * @Author：rancheng
  * @name：CodeSandBox
@@ -11,4 +16,41 @@ import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
  */
 public interface CodeSandbox {
     ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest) throws InterruptedException;
+
+    /**
+     * 流式执行，编译和每个用例结束时回调 executeListener；不支持流式的实现执行结束后只返回最终结果
+     *
+     * @param executeCodeRequest
+     * @param executeListener
+     * @return 最终结果
+     * @throws InterruptedException
+     */
+    default ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest, ExecuteListener executeListener) throws InterruptedException {
+        return executeCode(executeCodeRequest);
+    }
+
+    /**
+     * 只编译不运行，编译成功时返回编译产物 id，之后的执行请求带上它即可直接运行
+     *
+     * @param executeCodeRequest 只使用 code 和 language
+     * @return
+     * @throws InterruptedException
+     */
+    default CompileResponse compile(ExecuteCodeRequest executeCodeRequest) throws InterruptedException {
+        return new CompileResponse(null, executeCodeRequest.getLanguage(), 2, "不支持单独编译", null);
+    }
+
+    /**
+     * 批量执行，每个请求执行完成后立即回调，回调顺序不保证与请求顺序一致
+     *
+     * @param executeCodeRequestList
+     * @param consumer               参数为请求在列表中的下标和对应的执行结果
+     * @throws InterruptedException
+     */
+    default void executeCodeBatch(List<ExecuteCodeRequest> executeCodeRequestList,
+                                  BiConsumer<Integer, ExecuteCodeResponse> consumer) throws InterruptedException {
+        for (int i = 0; i < executeCodeRequestList.size(); i++) {
+            consumer.accept(i, executeCode(executeCodeRequestList.get(i)));
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package com.rc.ojcodesandbox;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import com.rc.ojcodesandbox.cgroup.CgroupLeaf;
+import com.rc.ojcodesandbox.cgroup.CgroupManager;
+import com.rc.ojcodesandbox.checker.CheckSession;
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * @Author：rancheng
+ * @name：JavaCgroupCodeSandbox JAVA cgroup 代码沙箱
+ * @Date：2026/10/19 11:30
+ * 实现思路：
+ * 介于原生沙箱（只有 -Xmx 限制）和 docker 沙箱（每次 exec 经过守护进程）之间：
+ * 每个用例直接 fork 进程，放进 cgroup v2 的叶子中运行，由内核限制内存、CPU 和进程数；
+ * 时间取叶子的 CPU 时间，内存取叶子的峰值内存，都包含用户程序创建的子进程；
+ * 用例结束后杀死叶子中剩余的进程，叶子回收复用。cgroup 不可用时退回模板的原生执行
+ */
+@Slf4j
+@Component
+public class JavaCgroupCodeSandbox extends JavaCodeSandboxTemplate {
+
+    private CgroupManager cgroupManager;
+
+    @Autowired(required = false)
+    public void setCgroupManager(CgroupManager cgroupManager) {
+        this.cgroupManager = cgroupManager;
+    }
+
+    /**
+     * 没有通过 Spring 注入时，按默认配置创建叶子池
+     *
+     * @return
+     */
+    protected synchronized CgroupManager getCgroupManager() {
+        if (cgroupManager == null) {
+            cgroupManager = new CgroupManager(getCodeSandboxProperties().getCgroup());
+        }
+        return cgroupManager;
+    }
+
+    public static void main(String[] args) {
+        JavaCgroupCodeSandbox javaCgroupCodeSandbox = new JavaCgroupCodeSandbox();
+        ExecuteCodeRequest executeCodeRequest = new ExecuteCodeRequest();
+        executeCodeRequest.setInputList(Arrays.asList("1 2", "3 4"));
+        String code = ResourceUtil.readStr("testCode/AaddB/Main.java", StandardCharsets.UTF_8);
+//        String code = ResourceUtil.readStr("testCode/unsafeCode/SleepError.java", StandardCharsets.UTF_8);
+//        String code = ResourceUtil.readStr("testCode/unsafeCode/MemoryError.java", StandardCharsets.UTF_8);
+
+        executeCodeRequest.setCode(code);
+        executeCodeRequest.setLanguage("java");
+        ExecuteCodeResponse executeCodeResponse = javaCgroupCodeSandbox.executeCode(executeCodeRequest);
+        System.out.println(executeCodeResponse);
+    }
+
+    /**
+     * JVM 默认按宿主机的核数创建 GC、JIT 线程，按 cgroup 的 CPU 配额设置可用核数，避免线程数超过 pids.max
+     *
+     * @return
+     */
+    @Override
+    protected String getJavaOptions() {
+        if (!getCgroupManager().isAvailable()) {
+            return super.getJavaOptions();
+        }
+        return super.getJavaOptions() + " -XX:ActiveProcessorCount=" + getCgroupManager().getCpuLimit();
+    }
+
+    @Override
+    protected ExecuteMessage runTestCase(String userCodeParentPath, String input, InputModeEnum inputMode) {
+        if (inputMode == InputModeEnum.STDIN) {
+            return runTestCase(userCodeParentPath, InputSource.of(input));
+        }
+        if (!getCgroupManager().isAvailable()) {
+            return super.runTestCase(userCodeParentPath, input, inputMode);
+        }
+        List<String> runCommand = getRunCommand(userCodeParentPath);
+        // 与 Runtime.exec(String) 一致，按空白字符拆分参数
+        StringTokenizer stringTokenizer = new StringTokenizer(input);
+        while (stringTokenizer.hasMoreTokens()) {
+            runCommand.add(stringTokenizer.nextToken());
+        }
+        return runInCgroup(runCommand, null, null);
+    }
+
+    @Override
+    protected ExecuteMessage runTestCase(String userCodeParentPath, InputSource stdin, CheckSession checkSession) {
+        if (!getCgroupManager().isAvailable()) {
+            return super.runTestCase(userCodeParentPath, stdin, checkSession);
+        }
+        return runInCgroup(getRunCommand(userCodeParentPath), stdin, checkSession);
+    }
+
+    private List<String> getRunCommand(String userCodeParentPath) {
+        List<String> runCommand = new ArrayList<>();
+        runCommand.add("java");
+        runCommand.addAll(Arrays.asList(getJavaOptions().split(" ")));
+        runCommand.addAll(Arrays.asList("-cp", userCodeParentPath, "Main"));
+        return runCommand;
+    }
+
+    /**
+     * 借出叶子运行用例，用叶子的统计值代替按进程采样的结果
+     *
+     * @param runCommand
+     * @param stdin        为 null 时关闭进程的标准输入
+     * @param checkSession 为 null 时不比较
+     * @return
+     */
+    private ExecuteMessage runInCgroup(List<String> runCommand, InputSource stdin, CheckSession checkSession) {
+        CgroupManager manager = getCgroupManager();
+        CgroupLeaf leaf;
+        try {
+            leaf = manager.lease();
+        } catch (IOException e) {
+            throw new RuntimeException("执行错误", e);
+        }
+        try {
+            Process runProcess = new ProcessBuilder(leaf.wrap(runCommand)).start();
+            ExecuteMessage executeMessage = runProcess(runProcess, stdin, getCodeSandboxProperties().getExecute().getTimeOut(), checkSession);
+            Long cpuTimeMillis = leaf.getCpuTimeMillis();
+            if (cpuTimeMillis != null) {
+                executeMessage.setTime(cpuTimeMillis);
+            }
+            Long peakMemoryKb = leaf.getPeakMemoryKb();
+            if (peakMemoryKb != null) {
+                executeMessage.setMemory(peakMemoryKb);
+            }
+            if (leaf.isOomKilled()) {
+                markMemoryLimitExceeded(executeMessage);
+            }
+            logExecuteMessage(executeMessage);
+            return executeMessage;
+        } catch (IOException e) {
+            throw new RuntimeException("执行错误", e);
+        } finally {
+            manager.release(leaf);
+        }
+    }
+}
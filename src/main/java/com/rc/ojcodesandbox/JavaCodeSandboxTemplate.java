@@ -2,23 +2,64 @@ package com.rc.ojcodesandbox;
 
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.io.resource.ResourceUtil;
-import cn.hutool.core.lang.UUID;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.dfa.FoundWord;
-import cn.hutool.dfa.WordTree;
 import com.rc.ojcodesandbox.CodeSandbox;
+import com.rc.ojcodesandbox.artifact.Artifact;
+import com.rc.ojcodesandbox.artifact.ArtifactNotFoundException;
+import com.rc.ojcodesandbox.artifact.ArtifactStore;
 import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.checker.CheckCase;
+import com.rc.ojcodesandbox.checker.CheckSession;
+import com.rc.ojcodesandbox.checker.CustomOutputChecker;
+import com.rc.ojcodesandbox.checker.ExactOutputChecker;
+import com.rc.ojcodesandbox.checker.OutputChecker;
+import com.rc.ojcodesandbox.checker.TokenOutputChecker;
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.compile.CompileResult;
+import com.rc.ojcodesandbox.compile.JavaMemoryCompiler;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.execute.ExecuteListener;
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.execute.ProcessStatsSampler;
+import com.rc.ojcodesandbox.execute.TestCaseExecutor;
+import com.rc.ojcodesandbox.metrics.CodeSandboxMetrics;
+import com.rc.ojcodesandbox.model.CaseResult;
+import com.rc.ojcodesandbox.model.CheckResult;
+import com.rc.ojcodesandbox.model.CompileResponse;
 import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
 import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
 import com.rc.ojcodesandbox.model.ExecuteMessage;
 import com.rc.ojcodesandbox.model.JudgeInfo;
+import com.rc.ojcodesandbox.model.OutputText;
+import com.rc.ojcodesandbox.model.OutputTextList;
+import com.rc.ojcodesandbox.model.enums.CaseVerdictEnum;
+import com.rc.ojcodesandbox.model.enums.CheckerTypeEnum;
+import com.rc.ojcodesandbox.model.enums.ExecuteVerdictEnum;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import com.rc.ojcodesandbox.runner.CdsArchiveManager;
+import com.rc.ojcodesandbox.screen.CodeScreener;
+import com.rc.ojcodesandbox.testcase.TestCaseSet;
+import com.rc.ojcodesandbox.testcase.TestCaseStore;
 import com.rc.ojcodesandbox.utils.ProcessUtils;
+import com.rc.ojcodesandbox.utils.RateLimitedLogger;
+import com.rc.ojcodesandbox.workspace.WorkspaceManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * @Author：rancheng
@@ -36,45 +77,533 @@ import java.util.List;
 public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
     private static final String GLOBAL_CODE_DIR_NAME = "tempCode";
     private static final String GLOBAL_JAVA_CLASS_NAME = "Main.java";
-    private static final long TIME_OUT = 5000L;
+    /**
+     * 启动用户程序 JVM 的基本参数
+     */
+    private static final String JAVA_OPTIONS = "-Xmx256m -Dfile.encoding=UTF-8";
     public static final String GLOBAL_CODE_PATH_NAME;
+    /**
+     * 预热 JVM 执行器的 class 文件目录
+     */
+    public static final String GLOBAL_RUNNER_PATH_NAME;
+    /**
+     * 容器池中各容器挂载的工作目录
+     */
+    public static final String GLOBAL_DOCKER_PATH_NAME;
+    /**
+     * 各语言预热使用的目录（预编译头、构建缓存等）
+     */
+    public static final String GLOBAL_LANGUAGE_PATH_NAME;
+    /**
+     * 工作目录放在磁盘上时的根目录
+     */
+    public static final String GLOBAL_WORKSPACE_PATH_NAME;
+    /**
+     * 测试用例库的默认根目录
+     */
+    public static final String GLOBAL_TEST_CASE_PATH_NAME;
+    /**
+     * CDS 归档的默认目录
+     */
+    public static final String GLOBAL_CDS_PATH_NAME;
+    /**
+     * 编译产物的默认目录
+     */
+    public static final String GLOBAL_ARTIFACT_PATH_NAME;
+    /**
+     * 用例评测结果中错误信息的最大长度
+     */
+    private static final int CASE_MESSAGE_LENGTH = 256;
+    /**
+     * 每个用例、每次编译都会输出的日志，每秒最多 20 条
+     */
+    protected static final RateLimitedLogger RATE_LIMITED_LOG = new RateLimitedLogger(log, 20, 1000L);
+    /**
+     * 流式执行时当前请求的监听，用例在请求线程上提交，runFile 等方法从这里取出交给执行引擎
+     */
+    private static final ThreadLocal<ExecuteListener> EXECUTE_LISTENER = new ThreadLocal<>();
 
     static {
         // 获取项目的根目录
         String userDir = System.getProperty("user.dir");
         GLOBAL_CODE_PATH_NAME = userDir + File.separator + GLOBAL_CODE_DIR_NAME;
+        GLOBAL_RUNNER_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "runner";
+        GLOBAL_DOCKER_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "docker";
+        GLOBAL_LANGUAGE_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "language";
+        GLOBAL_WORKSPACE_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "workspace";
+        GLOBAL_TEST_CASE_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "testCase";
+        GLOBAL_CDS_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "cds";
+        GLOBAL_ARTIFACT_PATH_NAME = GLOBAL_CODE_PATH_NAME + File.separator + "artifact";
         // 判断全局代码⽬录是否存在，没有则新建 /temp
         if (!FileUtil.exist(GLOBAL_CODE_PATH_NAME)) {
             FileUtil.mkdir(GLOBAL_CODE_PATH_NAME);
         }
     }
 
+    private CodeSandboxProperties codeSandboxProperties = new CodeSandboxProperties();
+
+    private JavaMemoryCompiler javaMemoryCompiler;
+
+    private TestCaseExecutor testCaseExecutor;
+
+    private ProcessReaper processReaper;
+
+    private ProcessStatsSampler processStatsSampler;
+
+    private WorkspaceManager workspaceManager;
+
+    private TestCaseStore testCaseStore;
+
+    private CodeSandboxMetrics codeSandboxMetrics;
+
+    private CdsArchiveManager cdsArchiveManager;
+
+    private ArtifactStore artifactStore;
+
+    private CodeScreener codeScreener;
+
+    @Autowired(required = false)
+    public void setCodeSandboxProperties(CodeSandboxProperties codeSandboxProperties) {
+        this.codeSandboxProperties = codeSandboxProperties;
+    }
+
+    @Autowired(required = false)
+    public void setJavaMemoryCompiler(JavaMemoryCompiler javaMemoryCompiler) {
+        this.javaMemoryCompiler = javaMemoryCompiler;
+    }
+
+    @Autowired(required = false)
+    public void setTestCaseExecutor(TestCaseExecutor testCaseExecutor) {
+        this.testCaseExecutor = testCaseExecutor;
+    }
+
+    @Autowired(required = false)
+    public void setProcessReaper(ProcessReaper processReaper) {
+        this.processReaper = processReaper;
+    }
+
+    @Autowired(required = false)
+    public void setProcessStatsSampler(ProcessStatsSampler processStatsSampler) {
+        this.processStatsSampler = processStatsSampler;
+    }
+
+    @Autowired(required = false)
+    public void setWorkspaceManager(WorkspaceManager workspaceManager) {
+        this.workspaceManager = workspaceManager;
+    }
+
+    @Autowired(required = false)
+    public void setTestCaseStore(TestCaseStore testCaseStore) {
+        this.testCaseStore = testCaseStore;
+    }
+
+    @Autowired(required = false)
+    public void setCodeSandboxMetrics(CodeSandboxMetrics codeSandboxMetrics) {
+        this.codeSandboxMetrics = codeSandboxMetrics;
+    }
+
+    /**
+     * 没有注入时（main 方法直接 new）不使用 CDS 归档
+     *
+     * @param cdsArchiveManager
+     */
+    @Autowired(required = false)
+    public void setCdsArchiveManager(CdsArchiveManager cdsArchiveManager) {
+        this.cdsArchiveManager = cdsArchiveManager;
+    }
+
+    @Autowired(required = false)
+    public void setArtifactStore(ArtifactStore artifactStore) {
+        this.artifactStore = artifactStore;
+    }
+
+    @Autowired(required = false)
+    public void setCodeScreener(CodeScreener codeScreener) {
+        this.codeScreener = codeScreener;
+    }
+
+    public CodeSandboxProperties getCodeSandboxProperties() {
+        return codeSandboxProperties;
+    }
+
+    /**
+     * 没有通过 Spring 注入时（main 方法直接 new），按默认配置创建编译器
+     *
+     * @return
+     */
+    protected synchronized JavaMemoryCompiler getJavaMemoryCompiler() {
+        if (javaMemoryCompiler == null) {
+            javaMemoryCompiler = new JavaMemoryCompiler(codeSandboxProperties.getCompile().getCacheSize(),
+                    codeSandboxProperties.getCompile().getRelease());
+        }
+        return javaMemoryCompiler;
+    }
+
+    protected synchronized TestCaseExecutor getTestCaseExecutor() {
+        if (testCaseExecutor == null) {
+            CodeSandboxProperties.Execute execute = codeSandboxProperties.getExecute();
+            testCaseExecutor = new TestCaseExecutor(execute.getGlobalConcurrency(), execute.getPerRequestConcurrency());
+        }
+        return testCaseExecutor;
+    }
+
+    protected synchronized ProcessReaper getProcessReaper() {
+        if (processReaper == null) {
+            processReaper = new ProcessReaper(codeSandboxProperties.getExecute().getKillGraceMillis());
+        }
+        return processReaper;
+    }
+
+    protected synchronized ProcessStatsSampler getProcessStatsSampler() {
+        if (processStatsSampler == null) {
+            processStatsSampler = new ProcessStatsSampler(codeSandboxProperties.getExecute().getSampleIntervalMillis());
+        }
+        return processStatsSampler;
+    }
+
+    protected synchronized WorkspaceManager getWorkspaceManager() {
+        if (workspaceManager == null) {
+            workspaceManager = new WorkspaceManager(codeSandboxProperties.getWorkspace(), GLOBAL_WORKSPACE_PATH_NAME);
+        }
+        return workspaceManager;
+    }
+
+    protected synchronized TestCaseStore getTestCaseStore() {
+        if (testCaseStore == null) {
+            testCaseStore = new TestCaseStore(StrUtil.blankToDefault(codeSandboxProperties.getTestCase().getRoot(), GLOBAL_TEST_CASE_PATH_NAME));
+        }
+        return testCaseStore;
+    }
+
+    protected synchronized ArtifactStore getArtifactStore() {
+        if (artifactStore == null) {
+            artifactStore = new ArtifactStore(codeSandboxProperties.getArtifact(), GLOBAL_ARTIFACT_PATH_NAME);
+        }
+        return artifactStore;
+    }
+
+    protected synchronized CodeScreener getCodeScreener() {
+        if (codeScreener == null) {
+            codeScreener = new CodeScreener(codeSandboxProperties.getScreen());
+        }
+        return codeScreener;
+    }
+
+    protected synchronized CodeSandboxMetrics getCodeSandboxMetrics() {
+        if (codeSandboxMetrics == null) {
+            codeSandboxMetrics = CodeSandboxMetrics.global();
+        }
+        return codeSandboxMetrics;
+    }
+
+    /**
+     * 指标中的语言标签
+     *
+     * @return
+     */
+    protected String getLanguageName() {
+        return LanguageEnum.JAVA.getValue();
+    }
+
     /**
-     * 代码沙箱执行用户提交代码
+     * 代码沙箱执行用户提交代码，每个阶段的耗时和执行结论记录到指标中
      *
      * @param executeCodeRequest
      * @return
      */
     @Override
     public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest) {
-        List<String> inputList = executeCodeRequest.getInputList();
-        String code = executeCodeRequest.getCode();
-        String language = executeCodeRequest.getLanguage();
-        //1.将用户代码保存为文件
-        File userCodeFile = saveCodeToFile(code);
-        //2.编译代码，得到class文件，存放在.java文件目录下
-        ExecuteMessage compileFileExecuteMessage = compileFile(userCodeFile);
-        System.out.println(compileFileExecuteMessage);
-        //3.执行代码，得到输出结果
-        List<ExecuteMessage> executeMessageList = runFile(userCodeFile, inputList);
-        //4.收集整理输出结果
-        ExecuteCodeResponse executeCodeResponse = getOutputResponse(executeMessageList);
-        //5.文件清理
-        boolean b = deleteFile(userCodeFile);
-        if (!b) {
-            log.error("deleteFile error,userCodeFilePath = {}", userCodeFile.getParent());
+        return executeCode(executeCodeRequest, null);
+    }
+
+    /**
+     * 流式执行：编译结束、每个用例结束时回调 executeListener；
+     * 用例输出回调后不再保留，返回结果的 outputList 为空，其他字段与非流式执行一致
+     *
+     * @param executeCodeRequest
+     * @param executeListener    为 null 时与非流式执行相同
+     * @return
+     */
+    @Override
+    public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest, ExecuteListener executeListener) {
+        CodeSandboxMetrics metrics = getCodeSandboxMetrics();
+        String language = getLanguageName();
+        String artifactId = executeCodeRequest.getArtifactId();
+        long start = System.nanoTime();
+        //0.预检源码，命中禁止的关键词时不再保存、编译；编译产物在编译时已经预检过
+        if (StrUtil.isBlank(artifactId)) {
+            ExecuteCodeResponse rejectedResponse = screenCode(executeCodeRequest.getProblemId(), executeCodeRequest.getCode());
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_SCREEN, start);
+            if (rejectedResponse != null) {
+                metrics.recordVerdict(language, ExecuteVerdictEnum.REJECTED);
+                return rejectedResponse;
+            }
+            start = System.nanoTime();
         }
-        return executeCodeResponse;
+        //1.将用户代码保存为文件，带编译产物 id 时复制已编译的产物
+        File userCodeFile = StrUtil.isNotBlank(artifactId) ? restoreArtifact(artifactId) : saveCodeToFile(executeCodeRequest.getCode());
+        metrics.recordStage(language, CodeSandboxMetrics.STAGE_SAVE, start);
+        ExecuteMessage compileFileExecuteMessage = null;
+        List<ExecuteMessage> executeMessageList = null;
+        ExecuteCodeResponse executeCodeResponse = null;
+        try {
+            //2.编译代码，得到class文件，存放在.java文件目录下
+            start = System.nanoTime();
+            compileFileExecuteMessage = StrUtil.isNotBlank(artifactId) ? compiledMessage() : compileFile(userCodeFile);
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_COMPILE, start);
+            if (executeListener != null) {
+                executeListener.onCompiled(compileFileExecuteMessage);
+            }
+            if (compileFileExecuteMessage.getExitValue() != null && compileFileExecuteMessage.getExitValue() != 0) {
+                //编译失败不再执行用例，与批量执行一致
+                executeCodeResponse = new ExecuteCodeResponse(new ArrayList<>(),
+                        compileFileExecuteMessage.getErrorMessage(), 3, new JudgeInfo(), null);
+                return executeCodeResponse;
+            }
+            //3.执行代码，得到输出结果
+            start = System.nanoTime();
+            EXECUTE_LISTENER.set(executeListener == null ? null : new ExecuteListener() {
+                @Override
+                public void onCase(int index, ExecuteMessage executeMessage) {
+                    executeListener.onCase(index, executeMessage);
+                    // 输出已经推送，不再随 executeMessageList 保留到请求结束
+                    executeMessage.setOutput(null);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return executeListener.isCancelled();
+                }
+            });
+            try {
+                executeMessageList = runRequest(userCodeFile, executeCodeRequest);
+            } finally {
+                EXECUTE_LISTENER.remove();
+            }
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_RUN, start);
+            //4.收集整理输出结果
+            start = System.nanoTime();
+            executeCodeResponse = getOutputResponse(executeMessageList, StrUtil.isNotBlank(executeCodeRequest.getChecker()));
+            if (executeListener != null) {
+                executeCodeResponse.setOutputList(new ArrayList<>());
+            }
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_COLLECT, start);
+            return executeCodeResponse;
+        } finally {
+            //5.文件清理，执行出错时也要清理
+            start = System.nanoTime();
+            boolean b = deleteFile(userCodeFile);
+            if (!b) {
+                log.error("deleteFile error,userCodeFilePath = {}", userCodeFile.getParent());
+            }
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_CLEANUP, start);
+            metrics.recordVerdict(language, CodeSandboxMetrics.getVerdict(compileFileExecuteMessage, executeMessageList, executeCodeResponse));
+        }
+    }
+
+    /**
+     * 批量执行：相同源码只保存、编译一次；源码、输入用例、输入方式都相同的请求只执行一次，共用结果
+     *
+     * @param executeCodeRequestList
+     * @param consumer
+     */
+    @Override
+    public void executeCodeBatch(List<ExecuteCodeRequest> executeCodeRequestList,
+                                 BiConsumer<Integer, ExecuteCodeResponse> consumer) {
+        CodeSandboxMetrics metrics = getCodeSandboxMetrics();
+        String language = getLanguageName();
+        Map<List<String>, List<Integer>> sourceGroupMap = new LinkedHashMap<>();
+        Map<List<String>, ExecuteCodeResponse> rejectedResponseMap = new HashMap<>();
+        for (int i = 0; i < executeCodeRequestList.size(); i++) {
+            ExecuteCodeRequest executeCodeRequest = executeCodeRequestList.get(i);
+            if (StrUtil.isBlank(executeCodeRequest.getArtifactId())) {
+                // 题目可以追加关键词，按源码和题目预检，未通过的请求不进入分组
+                List<String> screenKey = Arrays.asList(executeCodeRequest.getCode(), executeCodeRequest.getProblemId());
+                long start = System.nanoTime();
+                ExecuteCodeResponse rejectedResponse = rejectedResponseMap.containsKey(screenKey) ? rejectedResponseMap.get(screenKey)
+                        : screenCode(executeCodeRequest.getProblemId(), executeCodeRequest.getCode());
+                rejectedResponseMap.put(screenKey, rejectedResponse);
+                metrics.recordStage(language, CodeSandboxMetrics.STAGE_SCREEN, start);
+                if (rejectedResponse != null) {
+                    metrics.recordVerdict(language, ExecuteVerdictEnum.REJECTED);
+                    consumer.accept(i, rejectedResponse);
+                    continue;
+                }
+            }
+            // 带编译产物 id 的请求按产物分组，不看 code
+            List<String> sourceKey = StrUtil.isNotBlank(executeCodeRequest.getArtifactId())
+                    ? Arrays.asList(null, executeCodeRequest.getArtifactId()) : Arrays.asList(executeCodeRequest.getCode(), null);
+            sourceGroupMap.computeIfAbsent(sourceKey, key -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<List<String>, List<Integer>> entry : sourceGroupMap.entrySet()) {
+            executeSourceGroup(entry.getKey().get(0), entry.getKey().get(1), entry.getValue(), executeCodeRequestList, consumer);
+        }
+    }
+
+    /**
+     * 执行源码相同的一组请求
+     *
+     * @param code
+     * @param artifactId             不为空时忽略 code，使用编译产物
+     * @param indexList
+     * @param executeCodeRequestList
+     * @param consumer
+     */
+    private void executeSourceGroup(String code, String artifactId, List<Integer> indexList, List<ExecuteCodeRequest> executeCodeRequestList,
+                                    BiConsumer<Integer, ExecuteCodeResponse> consumer) {
+        CodeSandboxMetrics metrics = getCodeSandboxMetrics();
+        String language = getLanguageName();
+        File userCodeFile = null;
+        int finished = 0;
+        try {
+            long start = System.nanoTime();
+            userCodeFile = artifactId != null ? restoreArtifact(artifactId) : saveCodeToFile(code);
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_SAVE, start);
+            start = System.nanoTime();
+            ExecuteMessage compileFileExecuteMessage = artifactId != null ? compiledMessage() : compileFile(userCodeFile);
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_COMPILE, start);
+            ExecuteCodeResponse compileErrorResponse = null;
+            if (compileFileExecuteMessage.getExitValue() != null && compileFileExecuteMessage.getExitValue() != 0) {
+                compileErrorResponse = new ExecuteCodeResponse(new ArrayList<>(),
+                        compileFileExecuteMessage.getErrorMessage(), 3, new JudgeInfo(), null);
+            }
+            Map<List<Object>, ExecuteCodeResponse> responseMap = new HashMap<>();
+            for (Integer index : indexList) {
+                ExecuteCodeRequest executeCodeRequest = executeCodeRequestList.get(index);
+                ExecuteCodeResponse executeCodeResponse = compileErrorResponse;
+                List<ExecuteMessage> executeMessageList = null;
+                if (executeCodeResponse == null) {
+                    InputModeEnum inputMode = InputModeEnum.getEnumByValue(executeCodeRequest.getInputMode());
+                    List<Object> runKey = Arrays.asList(inputMode, executeCodeRequest.getInputList(),
+                            executeCodeRequest.getProblemId(), executeCodeRequest.getTestCaseVersion(),
+                            executeCodeRequest.getChecker(), executeCodeRequest.getExpectedOutputList(),
+                            executeCodeRequest.getCheckerEpsilon());
+                    executeCodeResponse = responseMap.get(runKey);
+                    if (executeCodeResponse == null) {
+                        start = System.nanoTime();
+                        executeMessageList = runRequest(userCodeFile, executeCodeRequest);
+                        metrics.recordStage(language, CodeSandboxMetrics.STAGE_RUN, start);
+                        start = System.nanoTime();
+                        executeCodeResponse = getOutputResponse(executeMessageList, StrUtil.isNotBlank(executeCodeRequest.getChecker()));
+                        metrics.recordStage(language, CodeSandboxMetrics.STAGE_COLLECT, start);
+                        responseMap.put(runKey, executeCodeResponse);
+                    }
+                }
+                metrics.recordVerdict(language, CodeSandboxMetrics.getVerdict(compileFileExecuteMessage, executeMessageList, executeCodeResponse));
+                consumer.accept(index, executeCodeResponse);
+                finished++;
+            }
+        } catch (Exception e) {
+            log.error("execute batch group error", e);
+            ExecuteCodeResponse errorResponse = getErrorResponse(e);
+            for (int i = finished; i < indexList.size(); i++) {
+                metrics.recordVerdict(language, ExecuteVerdictEnum.SYSTEM_ERROR);
+                consumer.accept(indexList.get(i), errorResponse);
+            }
+        } finally {
+            long start = System.nanoTime();
+            if (userCodeFile != null && !deleteFile(userCodeFile)) {
+                log.error("deleteFile error,userCodeFilePath = {}", userCodeFile.getParent());
+            }
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_CLEANUP, start);
+        }
+    }
+
+    /**
+     * 只编译不运行，编译成功时把产物保存到产物库，之后的执行请求带上返回的 artifactId 即可直接运行
+     *
+     * @param executeCodeRequest 只使用 code、problemId
+     * @return
+     */
+    @Override
+    public CompileResponse compile(ExecuteCodeRequest executeCodeRequest) {
+        CodeSandboxMetrics metrics = getCodeSandboxMetrics();
+        String language = getLanguageName();
+        long start = System.nanoTime();
+        ExecuteCodeResponse rejectedResponse = screenCode(executeCodeRequest.getProblemId(), executeCodeRequest.getCode());
+        metrics.recordStage(language, CodeSandboxMetrics.STAGE_SCREEN, start);
+        if (rejectedResponse != null) {
+            metrics.recordVerdict(language, ExecuteVerdictEnum.REJECTED);
+            return new CompileResponse(null, language, 3, rejectedResponse.getMessage(), null);
+        }
+        start = System.nanoTime();
+        File userCodeFile = saveCodeToFile(executeCodeRequest.getCode());
+        metrics.recordStage(language, CodeSandboxMetrics.STAGE_SAVE, start);
+        try {
+            start = System.nanoTime();
+            ExecuteMessage compileFileExecuteMessage = compileFile(userCodeFile);
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_COMPILE, start);
+            if (compileFileExecuteMessage.getExitValue() != null && compileFileExecuteMessage.getExitValue() != 0) {
+                metrics.recordVerdict(language, ExecuteVerdictEnum.COMPILE_ERROR);
+                return new CompileResponse(null, language, 3, compileFileExecuteMessage.getErrorMessage(), compileFileExecuteMessage.getTime());
+            }
+            Artifact artifact = getArtifactStore().save(language, userCodeFile.getParentFile());
+            return new CompileResponse(artifact.getArtifactId(), language, 1, null, compileFileExecuteMessage.getTime());
+        } catch (IOException e) {
+            log.error("save artifact error", e);
+            return new CompileResponse(null, language, 2, e.getMessage(), null);
+        } finally {
+            start = System.nanoTime();
+            if (!deleteFile(userCodeFile)) {
+                log.error("deleteFile error,userCodeFilePath = {}", userCodeFile.getParent());
+            }
+            metrics.recordStage(language, CodeSandboxMetrics.STAGE_CLEANUP, start);
+        }
+    }
+
+    /**
+     * 0.预检源码
+     *
+     * @param problemId
+     * @param code
+     * @return 命中禁止的关键词时返回拒绝的结果（与编译错误相同的状态），通过时返回 null
+     */
+    protected ExecuteCodeResponse screenCode(String problemId, String code) {
+        String keyword = getCodeScreener().screen(getLanguageName(), problemId, code);
+        if (keyword == null) {
+            return null;
+        }
+        return new ExecuteCodeResponse(new ArrayList<>(), CodeScreener.getRejectMessage(keyword), 3, new JudgeInfo(), null);
+    }
+
+    /**
+     * 1.借出工作目录并复制编译产物，代替保存源码和编译
+     *
+     * @param artifactId
+     * @return 工作目录中的源码文件
+     * @throws ArtifactNotFoundException 产物不存在、已被淘汰或不是本语言编译的
+     */
+    protected File restoreArtifact(String artifactId) {
+        Artifact artifact = getArtifactStore().get(artifactId);
+        if (artifact == null) {
+            throw new ArtifactNotFoundException("编译产物不存在或已过期：" + artifactId);
+        }
+        if (!getLanguageName().equals(artifact.getLanguage())) {
+            throw new ArtifactNotFoundException("编译产物的语言为 " + artifact.getLanguage() + "，与请求不一致");
+        }
+        File userCodeParentDir = getWorkspaceManager().acquire();
+        try {
+            getArtifactStore().copyTo(artifact, userCodeParentDir);
+        } catch (NoSuchFileException e) {
+            getWorkspaceManager().release(userCodeParentDir);
+            throw new ArtifactNotFoundException("编译产物不存在或已过期：" + artifactId);
+        } catch (IOException | RuntimeException e) {
+            getWorkspaceManager().release(userCodeParentDir);
+            throw new RuntimeException("复制编译产物错误", e);
+        }
+        return new File(userCodeParentDir, getSourceFileName());
+    }
+
+    /**
+     * 使用编译产物时代替编译结果
+     *
+     * @return
+     */
+    private static ExecuteMessage compiledMessage() {
+        ExecuteMessage executeMessage = new ExecuteMessage();
+        executeMessage.setExitValue(0);
+        executeMessage.setTime(0L);
+        return executeMessage;
     }
 
     /**
@@ -83,11 +612,23 @@ public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
      * @return
      */
     public File saveCodeToFile(String code) {
-        //1.把⽤户的代码隔离存放,uuid生成的父目录，user.dir/tempCode/UUID
-        String userCodeParentPath = GLOBAL_CODE_PATH_NAME + File.separator + UUID.randomUUID();
-        String userCodePath = userCodeParentPath + File.separator + GLOBAL_JAVA_CLASS_NAME;
-        File userCodeFile = FileUtil.writeString(code, userCodePath, StandardCharsets.UTF_8);
-        return userCodeFile;
+        //1.把⽤户的代码隔离存放，每次提交借用一个独立的空工作目录
+        File userCodeParentDir = getWorkspaceManager().acquire();
+        try {
+            return FileUtil.writeString(code, new File(userCodeParentDir, getSourceFileName()), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            getWorkspaceManager().release(userCodeParentDir);
+            throw e;
+        }
+    }
+
+    /**
+     * 源码文件名
+     *
+     * @return
+     */
+    protected String getSourceFileName() {
+        return GLOBAL_JAVA_CLASS_NAME;
     }
 
     /**
@@ -96,13 +637,35 @@ public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
      * @return
      */
     public ExecuteMessage compileFile(File userCodeFile) {
+        CompileMode compileMode = codeSandboxProperties.getCompile().getMode();
+        if (compileMode == CompileMode.IN_MEMORY && getJavaMemoryCompiler().isAvailable()) {
+            return compileInMemory(userCodeFile);
+        }
+        return compileByProcess(userCodeFile);
+    }
+
+    /**
+     * fork javac 进程编译
+     *
+     * @param userCodeFile
+     * @return
+     */
+    protected ExecuteMessage compileByProcess(File userCodeFile) {
         //2.编译代码，得到class文件
-        String compileCmd = String.format("javac -encoding utf-8 %s", userCodeFile.getAbsolutePath());
+        String release = codeSandboxProperties.getCompile().getRelease();
+        String compileCmd = StrUtil.isBlank(release)
+                ? String.format("javac -encoding utf-8 %s", userCodeFile.getAbsolutePath())
+                : String.format("javac -encoding utf-8 --release %s %s", release, userCodeFile.getAbsolutePath());
         ExecuteMessage executeMessage;
         try {
             Process compileProcess = Runtime.getRuntime().exec(compileCmd);
-            executeMessage = ProcessUtils.runProcessAndGetMessage(compileProcess, "编译");
-            System.out.println("编译执行信息：" + executeMessage);
+            ProcessReaper.Deadline deadline = getProcessReaper().register(compileProcess, codeSandboxProperties.getExecute().getTimeOut());
+            try {
+                executeMessage = ProcessUtils.runProcessAndGetMessage(compileProcess, "编译");
+            } finally {
+                deadline.finish();
+            }
+            RATE_LIMITED_LOG.info("编译执行信息：exitValue = {}, time = {}ms", executeMessage.getExitValue(), executeMessage.getTime());
             if (executeMessage.getExitValue() != 0) {
                 return executeMessage;
             }
@@ -114,41 +677,369 @@ public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
     }
 
     /**
-     * 3.执行文件获得 代码运行结果
+     * 进程内编译，相同源码命中缓存时跳过编译，只把缓存的 class 文件写到代码目录下
+     *
+     * @param userCodeFile
+     * @return
+     */
+    protected ExecuteMessage compileInMemory(File userCodeFile) {
+        long start = System.currentTimeMillis();
+        String code = FileUtil.readString(userCodeFile, StandardCharsets.UTF_8);
+        CompileResult compileResult = getJavaMemoryCompiler().compile(userCodeFile.getName(), code);
+        ExecuteMessage executeMessage = new ExecuteMessage();
+        if (compileResult.isSuccess()) {
+            String userCodeParentPath = userCodeFile.getParent();
+            for (Map.Entry<String, byte[]> entry : compileResult.getClasses().entrySet()) {
+                String classFilePath = userCodeParentPath + File.separator
+                        + entry.getKey().replace('.', File.separatorChar) + ".class";
+                FileUtil.writeBytes(entry.getValue(), classFilePath);
+            }
+            executeMessage.setExitValue(0);
+            executeMessage.setMessage(compileResult.getMessage());
+        } else {
+            executeMessage.setExitValue(1);
+            executeMessage.setErrorMessage(compileResult.getMessage());
+        }
+        executeMessage.setTime(System.currentTimeMillis() - start);
+        RATE_LIMITED_LOG.info("编译执行信息：exitValue = {}, time = {}ms, cacheHit = {}", executeMessage.getExitValue(),
+                executeMessage.getTime(), compileResult.isCacheHit());
+        return executeMessage;
+    }
+
+    /**
+     * 3.按请求执行用例：指定了题目 id 时使用测试用例库中的用例，否则使用请求中的输入用例；
+     * 指定了比较方式时边运行边与期望输出比较
+     *
+     * @param userCodeFile
+     * @param executeCodeRequest
+     * @return
+     */
+    protected List<ExecuteMessage> runRequest(File userCodeFile, ExecuteCodeRequest executeCodeRequest) {
+        CheckerTypeEnum checkerType = CheckerTypeEnum.getEnumByValue(executeCodeRequest.getChecker());
+        InputModeEnum inputMode = InputModeEnum.getEnumByValue(executeCodeRequest.getInputMode());
+        if (StrUtil.isNotBlank(executeCodeRequest.getProblemId())) {
+            TestCaseSet testCaseSet = getTestCaseStore().get(executeCodeRequest.getProblemId(), executeCodeRequest.getTestCaseVersion());
+            if (testCaseSet == null) {
+                throw new IllegalArgumentException("测试用例不存在：" + executeCodeRequest.getProblemId()
+                        + "/" + executeCodeRequest.getTestCaseVersion());
+            }
+            if (checkerType == null) {
+                return runFileWithInputSources(userCodeFile, testCaseSet.toInputSources());
+            }
+            OutputChecker outputChecker = createChecker(checkerType, executeCodeRequest, testCaseSet);
+            return runFileWithChecker(userCodeFile, testCaseSet.toCheckCases(), outputChecker);
+        }
+        if (checkerType == null) {
+            return runFile(userCodeFile, executeCodeRequest.getInputList(), inputMode);
+        }
+        List<String> inputList = executeCodeRequest.getInputList();
+        List<String> expectedOutputList = executeCodeRequest.getExpectedOutputList();
+        if (inputMode != InputModeEnum.STDIN) {
+            throw new IllegalArgumentException("输出比较需要使用标准输入传递用例");
+        }
+        if (expectedOutputList == null || expectedOutputList.size() != inputList.size()) {
+            throw new IllegalArgumentException("期望输出的数量与输入用例不一致");
+        }
+        List<CheckCase> checkCaseList = new ArrayList<>(inputList.size());
+        for (int i = 0; i < inputList.size(); i++) {
+            checkCaseList.add(new CheckCase(InputSource.of(inputList.get(i)), InputSource.of(expectedOutputList.get(i)), null, null));
+        }
+        return runFileWithChecker(userCodeFile, checkCaseList, createChecker(checkerType, executeCodeRequest, null));
+    }
+
+    /**
+     * 按比较方式创建比较器
+     *
+     * @param checkerType
+     * @param executeCodeRequest
+     * @param testCaseSet        用例不来自测试用例库时为 null
+     * @return
+     */
+    protected OutputChecker createChecker(CheckerTypeEnum checkerType, ExecuteCodeRequest executeCodeRequest, TestCaseSet testCaseSet) {
+        CodeSandboxProperties.Checker checkerProperties = codeSandboxProperties.getChecker();
+        switch (checkerType) {
+            case EXACT:
+                return new ExactOutputChecker();
+            case WHITESPACE:
+                return new TokenOutputChecker(null);
+            case FLOAT:
+                Double epsilon = executeCodeRequest.getCheckerEpsilon();
+                return new TokenOutputChecker(epsilon != null ? epsilon : checkerProperties.getFloatEpsilon());
+            default:
+                if (testCaseSet == null || testCaseSet.getCheckerPath() == null) {
+                    throw new IllegalArgumentException("自定义评测程序需要先上传到测试用例库");
+                }
+                try {
+                    return new CustomOutputChecker(testCaseSet.getCheckerPath(), checkerProperties.getCustomTimeOut());
+                } catch (IOException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+        }
+    }
+
+    /**
+     * 3.执行文件获得 代码运行结果，输入用例作为命令行参数传入
      *
      * @param userCodeFile
      * @param inputList
      * @return List<ExecuteMessage>
      */
     public List<ExecuteMessage> runFile(File userCodeFile, List<String> inputList) {
+        return runFile(userCodeFile, inputList, InputModeEnum.ARGS);
+    }
+
+    /**
+     * 3.执行文件获得 代码运行结果，多个用例并行执行，结果顺序与输入一致
+     *
+     * @param userCodeFile
+     * @param inputList
+     * @param inputMode    输入用例的传递方式
+     * @return List<ExecuteMessage>
+     */
+    public List<ExecuteMessage> runFile(File userCodeFile, List<String> inputList, InputModeEnum inputMode) {
         //获得编译后代码的父路径
         String userCodeParentPath = userCodeFile.getParent();
         //3.执行代码，得到输出结果
-        List<ExecuteMessage> executeMessageList = new ArrayList<>();
-        for (String inputArg : inputList) {
-//            System.out.println("运行的绝对路径是:"+userCodeParentPath);
-            String runCmd = String.format("java -Xmx256m -Dfile.encoding=UTF-8 -cp %s Main %s", userCodeParentPath, inputArg);
-            try {
-                Process runProcess = Runtime.getRuntime().exec(runCmd);
-                //超时控制
-                //定义一个守护线程，等待TimeOut时间，查看程序是否结束，如果运行超出时间，杀死该代码程序
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(TIME_OUT);
-                        System.out.println("代码运行超时，中断");
-                        runProcess.destroy();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                }).start();
-                ExecuteMessage executeMessage = ProcessUtils.runProcessAndGetMessage(runProcess, "运行");
-                System.out.println("代码执行信息：" + executeMessage);
-                executeMessageList.add(executeMessage);
-            } catch (Exception e) {
+        return getTestCaseExecutor().executeAll(inputList, timedCase(input -> runTestCase(userCodeParentPath, input, inputMode)),
+                getExecuteListener());
+    }
+
+    /**
+     * 3.执行文件获得 代码运行结果，每个输入源依次写入程序的标准输入（如测试用例库中的文件）
+     *
+     * @param userCodeFile
+     * @param inputSourceList
+     * @return List<ExecuteMessage>
+     */
+    public List<ExecuteMessage> runFileWithInputSources(File userCodeFile, List<InputSource> inputSourceList) {
+        String userCodeParentPath = userCodeFile.getParent();
+        return getTestCaseExecutor().executeAll(inputSourceList, timedCase(stdin -> runTestCase(userCodeParentPath, stdin)),
+                getExecuteListener());
+    }
+
+    /**
+     * 3.执行文件并比较输出，某个用例不一致后不再执行后面的用例
+     *
+     * @param userCodeFile
+     * @param checkCaseList
+     * @param outputChecker
+     * @return List<ExecuteMessage> 每个用例的 checkResult 为比较结论
+     */
+    public List<ExecuteMessage> runFileWithChecker(File userCodeFile, List<CheckCase> checkCaseList, OutputChecker outputChecker) {
+        String userCodeParentPath = userCodeFile.getParent();
+        return getTestCaseExecutor().executeAll(checkCaseList, timedCase(checkCase -> {
+            try (CheckSession checkSession = outputChecker.open(checkCase)) {
+                return runTestCase(userCodeParentPath, checkCase.getInput(), checkSession);
+            } catch (IOException e) {
                 throw new RuntimeException("执行错误", e);
             }
+        }), getExecuteListener());
+    }
+
+    /**
+     * 当前请求的流式执行监听，需要在提交用例的请求线程上调用
+     *
+     * @return 非流式执行时为 null
+     */
+    protected ExecuteListener getExecuteListener() {
+        return EXECUTE_LISTENER.get();
+    }
+
+    /**
+     * 包装单个用例的执行，耗时记录到指标中
+     *
+     * @param runner
+     * @param <T>
+     * @return
+     */
+    protected <T> Function<T, ExecuteMessage> timedCase(Function<T, ExecuteMessage> runner) {
+        CodeSandboxMetrics metrics = getCodeSandboxMetrics();
+        String language = getLanguageName();
+        return input -> {
+            long start = System.nanoTime();
+            try {
+                return runner.apply(input);
+            } finally {
+                metrics.recordCase(language, start);
+            }
+        };
+    }
+
+    /**
+     * 执行单个输入用例
+     *
+     * @param userCodeParentPath
+     * @param input
+     * @param inputMode
+     * @return
+     */
+    protected ExecuteMessage runTestCase(String userCodeParentPath, String input, InputModeEnum inputMode) {
+        if (inputMode == InputModeEnum.STDIN) {
+            // 标准输入模式下输入不经过命令行，不受参数长度限制
+            return runTestCase(userCodeParentPath, InputSource.of(input));
+        }
+//        System.out.println("运行的绝对路径是:"+userCodeParentPath);
+        String runCmd = String.format("java %s -cp %s Main %s", getJavaOptions(), userCodeParentPath, input);
+        return runCommand(runCmd, null);
+    }
+
+    /**
+     * 执行单个输入用例，输入写入程序的标准输入
+     *
+     * @param userCodeParentPath
+     * @param stdin
+     * @return
+     */
+    protected ExecuteMessage runTestCase(String userCodeParentPath, InputSource stdin) {
+        return runTestCase(userCodeParentPath, stdin, null);
+    }
+
+    /**
+     * 执行单个输入用例，输入写入程序的标准输入，输出交给 checkSession 比较
+     *
+     * @param userCodeParentPath
+     * @param stdin
+     * @param checkSession       为 null 时不比较
+     * @return
+     */
+    protected ExecuteMessage runTestCase(String userCodeParentPath, InputSource stdin, CheckSession checkSession) {
+        return runCommand(String.format("java %s -cp %s Main", getJavaOptions(), userCodeParentPath), stdin, checkSession);
+    }
+
+    /**
+     * 启动用户程序 JVM 的参数，CDS 归档可用时加上归档参数
+     *
+     * @return
+     */
+    protected String getJavaOptions() {
+        List<String> cdsOptions = cdsArchiveManager == null ? null : cdsArchiveManager.getJvmOptions();
+        if (cdsOptions == null || cdsOptions.isEmpty()) {
+            return JAVA_OPTIONS;
+        }
+        return JAVA_OPTIONS + " " + String.join(" ", cdsOptions);
+    }
+
+    private ExecuteMessage runCommand(String runCmd, InputSource stdin) {
+        return runCommand(runCmd, stdin, null);
+    }
+
+    private ExecuteMessage runCommand(String runCmd, InputSource stdin, CheckSession checkSession) {
+        try {
+            Process runProcess = Runtime.getRuntime().exec(runCmd);
+            ExecuteMessage executeMessage = runProcess(runProcess, stdin, codeSandboxProperties.getExecute().getTimeOut(), checkSession);
+            logExecuteMessage(executeMessage);
+            return executeMessage;
+        } catch (Exception e) {
+            throw new RuntimeException("执行错误", e);
+        }
+    }
+
+    /**
+     * 只记录执行概况，不输出程序的完整输出
+     *
+     * @param executeMessage
+     */
+    protected void logExecuteMessage(ExecuteMessage executeMessage) {
+        RATE_LIMITED_LOG.info("代码执行信息：exitValue = {}, time = {}ms, memory = {}KB, timeout = {}", executeMessage.getExitValue(),
+                executeMessage.getTime(), executeMessage.getMemory(), Boolean.TRUE.equals(executeMessage.getTimeout()));
+    }
+
+    /**
+     * 等待已启动的用例进程结束：登记超时、采样内存和 CPU 时间、收集输出
+     *
+     * @param runProcess
+     * @param stdin      为 null 时关闭进程的标准输入
+     * @param timeOut    超时时间（毫秒）
+     * @return
+     */
+    protected ExecuteMessage runProcess(Process runProcess, InputSource stdin, long timeOut) {
+        return runProcess(runProcess, stdin, timeOut, null);
+    }
+
+    /**
+     * 等待已启动的用例进程结束，stdout 同时交给 checkSession 比较，不一致时提前结束进程
+     *
+     * @param runProcess
+     * @param stdin        为 null 时关闭进程的标准输入
+     * @param timeOut      超时时间（毫秒）
+     * @param checkSession 为 null 时不比较
+     * @return
+     */
+    protected ExecuteMessage runProcess(Process runProcess, InputSource stdin, long timeOut, CheckSession checkSession) {
+        //超时控制，交给共享的回收器，进程结束后取消截止时间；被中断或出错时进程可能仍在运行，先杀死再取消
+        ProcessReaper.Deadline deadline = getProcessReaper().register(runProcess, timeOut);
+        ProcessStatsSampler.Sample sample = getProcessStatsSampler().track(runProcess);
+        ExecuteMessage executeMessage;
+        try {
+            executeMessage = ProcessUtils.runProcessAndGetMessage(runProcess, "运行",
+                    codeSandboxProperties.getExecute().getOutputLimit(), stdin, checkSession);
+        } finally {
+            deadline.finish();
+            sample.stop();
+        }
+        applySample(executeMessage, sample);
+        if (deadline.isTimedOut()) {
+            markTimeout(executeMessage);
+        }
+        return executeMessage;
+    }
+
+    /**
+     * 用采样结果替换墙钟时间：time 为用户态 + 内核态 CPU 时间（毫秒），memory 为峰值常驻内存（KB）。
+     * 口径按平台固定，不按进程切换：支持采样的平台（Linux）time 一律为 CPU 时间，进程在第一次采样前就已结束时
+     * time、memory 为 null，表示无法获取；不支持采样的平台 time 一律为墙钟时间，memory 为 null
+     *
+     * @param executeMessage
+     * @param sample
+     */
+    protected void applySample(ExecuteMessage executeMessage, ProcessStatsSampler.Sample sample) {
+        if (!getProcessStatsSampler().isSupported()) {
+            executeMessage.setMemory(null);
+            return;
+        }
+        executeMessage.setTime(sample.getCpuTimeMillis());
+        executeMessage.setMemory(sample.getPeakMemoryKb());
+    }
+
+    /**
+     * 拿不到输出流的执行方式（执行器、容器）在程序结束后一次性比较完整输出
+     *
+     * @param executeMessage
+     * @param checkSession
+     * @return
+     */
+    protected ExecuteMessage checkOutput(ExecuteMessage executeMessage, CheckSession checkSession) {
+        if (StrUtil.isBlank(executeMessage.getErrorMessage()) && !Boolean.TRUE.equals(executeMessage.getTimeout())
+                && !Boolean.TRUE.equals(executeMessage.getOutputLimitExceeded())
+                && !Boolean.TRUE.equals(executeMessage.getMemoryLimitExceeded())) {
+            executeMessage.setCheckResult(checkSession.check(executeMessage.getOutput()));
+            executeMessage.setOutput(OutputText.EMPTY);
+        }
+        return executeMessage;
+    }
+
+    /**
+     * 标记用例运行超时，没有错误输出时补充超时信息，保证 getOutputResponse 能识别出错误
+     *
+     * @param executeMessage
+     */
+    protected void markTimeout(ExecuteMessage executeMessage) {
+        executeMessage.setTimeout(true);
+        if (StrUtil.isBlank(executeMessage.getErrorMessage())) {
+            executeMessage.setErrorMessage("代码运行超时");
+        }
+    }
+
+    /**
+     * 标记用例超出内存上限，被内核杀死的程序没有错误输出，补充错误信息
+     *
+     * @param executeMessage
+     */
+    protected void markMemoryLimitExceeded(ExecuteMessage executeMessage) {
+        executeMessage.setMemoryLimitExceeded(true);
+        if (StrUtil.isBlank(executeMessage.getErrorMessage())) {
+            executeMessage.setErrorMessage("代码运行内存超出限制");
         }
-        return executeMessageList;
     }
 
     /**
@@ -158,10 +1049,27 @@ public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
      * @return
      */
     public ExecuteCodeResponse getOutputResponse(List<ExecuteMessage> executeMessageList) {
+        return getOutputResponse(executeMessageList, false);
+    }
+
+    /**
+     * 4.根据执行信息列表，封装代码沙箱的执行结果的返回
+     *
+     * @param executeMessageList
+     * @param checked            是否开启了输出比较，开启时返回各用例的评测结果，不返回输出
+     * @return
+     */
+    public ExecuteCodeResponse getOutputResponse(List<ExecuteMessage> executeMessageList, boolean checked) {
         ExecuteCodeResponse executeCodeResponse = new ExecuteCodeResponse();
-        List<String> outputList = new ArrayList<>();
+        List<OutputText> outputList = new ArrayList<>();
+        List<CaseResult> caseResultList = new ArrayList<>();
         long maxTime = 0;
+        Long maxMemory = null;
+        int finished = 0;
         for (ExecuteMessage executeMessage : executeMessageList) {
+            if (checked) {
+                caseResultList.add(getCaseResult(executeMessage));
+            }
             if (StrUtil.isNotBlank(executeMessage.getErrorMessage())) {
                 String errorMessage = executeMessage.getErrorMessage();
                 executeCodeResponse.setMessage(errorMessage);
@@ -174,23 +1082,65 @@ public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
             if (time != null) {
                 maxTime = Math.max(maxTime, time);
             }
-            outputList.add(executeMessage.getMessage());
+            Long memory = executeMessage.getMemory();
+            if (memory != null) {
+                maxMemory = maxMemory == null ? memory : Math.max(maxMemory, memory);
+            }
+            if (!checked) {
+                outputList.add(executeMessage.getOutput());
+            }
+            finished++;
         }
         //状态为1，正常运行完成
-        executeCodeResponse.setOutputList(outputList);
-        if (outputList.size() == executeMessageList.size()) {
+        executeCodeResponse.setOutputList(new OutputTextList(outputList));
+        if (finished == executeMessageList.size()) {
             //代码正确运行
             executeCodeResponse.setStatus(1);
         }
         JudgeInfo judgeInfo = new JudgeInfo();
         executeCodeResponse.setJudgeInfo(judgeInfo);
         //代码沙箱只负责返回代码沙箱的运行信息，并不是判题信息,
-        //要借助第三方库来获取内存占用
-//        judgeInfo.setMemory();
+        //内存取所有用例的峰值内存最大值（KB），平台不支持采样时为 null
+        judgeInfo.setMemory(maxMemory);
         judgeInfo.setTime(maxTime);
+        if (checked) {
+            //开启输出比较时，判题信息为第一个没有通过的用例的结果
+            executeCodeResponse.setCaseResultList(caseResultList);
+            judgeInfo.setMessage(CaseVerdictEnum.ACCEPTED.getValue());
+            for (CaseResult caseResult : caseResultList) {
+                if (!CaseVerdictEnum.ACCEPTED.getValue().equals(caseResult.getVerdict())) {
+                    judgeInfo.setMessage(caseResult.getVerdict());
+                    break;
+                }
+            }
+        }
         return executeCodeResponse;
     }
 
+    private CaseResult getCaseResult(ExecuteMessage executeMessage) {
+        CaseResult caseResult = new CaseResult();
+        CheckResult checkResult = executeMessage.getCheckResult();
+        CaseVerdictEnum verdict;
+        String message = executeMessage.getErrorMessage();
+        if (checkResult != null) {
+            verdict = checkResult.getVerdict();
+            message = checkResult.getMessage();
+        } else if (Boolean.TRUE.equals(executeMessage.getTimeout())) {
+            verdict = CaseVerdictEnum.TIME_LIMIT_EXCEEDED;
+        } else if (Boolean.TRUE.equals(executeMessage.getOutputLimitExceeded())) {
+            verdict = CaseVerdictEnum.OUTPUT_LIMIT_EXCEEDED;
+        } else if (Boolean.TRUE.equals(executeMessage.getMemoryLimitExceeded())) {
+            verdict = CaseVerdictEnum.MEMORY_LIMIT_EXCEEDED;
+        } else {
+            verdict = CaseVerdictEnum.RUNTIME_ERROR;
+        }
+        caseResult.setVerdict(verdict.getValue());
+        caseResult.setMessage(StrUtil.maxLength(message, CASE_MESSAGE_LENGTH));
+        caseResult.setTime(executeMessage.getTime());
+        caseResult.setMemory(executeMessage.getMemory());
+        return caseResult;
+    }
+
     /**
      * 5.删除用户文件
      *
@@ -199,9 +1149,7 @@ public abstract class JavaCodeSandboxTemplate implements CodeSandbox {
      */
     public boolean deleteFile(File userCodeFile) {
         if (userCodeFile.getParentFile() != null) {
-            boolean del = FileUtil.del(userCodeFile.getParent());
-            System.out.println("删除：" + (del ? "成功" : "失败"));
-            return del;
+            return getWorkspaceManager().release(userCodeFile.getParentFile());
         }
         return true;
     }
@@ -1,27 +1,33 @@
 package com.rc.ojcodesandbox;
 
-import cn.hutool.core.date.StopWatch;
 import cn.hutool.core.io.resource.ResourceUtil;
 import cn.hutool.core.util.ArrayUtil;
 import com.github.dockerjava.api.DockerClient;
-import com.github.dockerjava.api.async.ResultCallback;
-import com.github.dockerjava.api.command.*;
-import com.github.dockerjava.api.model.*;
-import com.github.dockerjava.core.DockerClientBuilder;
-import com.github.dockerjava.core.command.ExecStartResultCallback;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.docker.ContainerPool;
+import com.rc.ojcodesandbox.docker.DockerClientFactory;
+import com.rc.ojcodesandbox.docker.DockerExecPipeline;
+import com.rc.ojcodesandbox.checker.CheckCase;
+import com.rc.ojcodesandbox.checker.CheckSession;
+import com.rc.ojcodesandbox.checker.OutputChecker;
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.metrics.CodeSandboxMetrics;
 import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
 import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
 import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 /**
  * @Author：rancheng
@@ -32,7 +38,7 @@ import java.util.concurrent.TimeUnit;
  * 依赖于 JAVA进程管理类：Process
  * 1.将用户代码code 保存为文件
  * 2.编译代码生成class文件
- * 3.创建容器，把文件复制到容器内，上传class文件到docker镜像当中，
+ * 3.每个用例从容器池借出一个容器，把class文件复制到容器挂载的工作目录中，
  * 3.docker执行代码 得到输出结果
  * 4.收集整理输出结果
  * 5.文件清理
@@ -43,8 +49,44 @@ import java.util.concurrent.TimeUnit;
  */
 @Component
 public class JavaDockerCodeSandbox extends JavaCodeSandboxTemplate {
-    private static final long TIME_OUT = 5000L;
-    private static final boolean FIRST_INIT = true;
+
+    private ContainerPool containerPool;
+
+    private DockerExecPipeline dockerExecPipeline;
+
+    @Autowired(required = false)
+    public void setContainerPool(ContainerPool containerPool) {
+        this.containerPool = containerPool;
+    }
+
+    @Autowired(required = false)
+    public void setDockerExecPipeline(DockerExecPipeline dockerExecPipeline) {
+        this.dockerExecPipeline = dockerExecPipeline;
+    }
+
+    /**
+     * 没有通过 Spring 注入时，按默认配置创建 docker 客户端和容器池
+     *
+     * @return
+     */
+    protected synchronized ContainerPool getContainerPool() {
+        if (containerPool == null) {
+            CodeSandboxProperties.Docker dockerProperties = getCodeSandboxProperties().getDocker();
+            DockerClientConfig dockerClientConfig = DockerClientFactory.createConfig(dockerProperties);
+            DockerClient dockerClient = DockerClientFactory.createDockerClient(dockerClientConfig,
+                    DockerClientFactory.createHttpClient(dockerClientConfig, dockerProperties));
+            containerPool = new ContainerPool(dockerClient, dockerProperties, GLOBAL_DOCKER_PATH_NAME);
+        }
+        return containerPool;
+    }
+
+    protected synchronized DockerExecPipeline getDockerExecPipeline() {
+        if (dockerExecPipeline == null) {
+            dockerExecPipeline = new DockerExecPipeline(getContainerPool().getDockerClient(),
+                    getCodeSandboxProperties().getDocker().getExecCreateThreads());
+        }
+        return dockerExecPipeline;
+    }
 
     public static void main(String[] args) {
         JavaDockerCodeSandbox javaNativeCodeSandbox = new JavaDockerCodeSandbox();
@@ -63,146 +105,126 @@ public class JavaDockerCodeSandbox extends JavaCodeSandboxTemplate {
     }
 
     /**
-     * 创建容器，把文件复制到容器内,在容器中执行输入用例，返回执行结果
+     * 每个用例从容器池借出一个容器，把文件复制到容器内,在容器中执行输入用例，返回执行结果
      * @param userCodeFile
      * @param inputList
      * @return
      */
     @Override
-    public List<ExecuteMessage> runFile(File userCodeFile, List<String> inputList) {
-        //获取默认的docker Client
-        DockerClient dockerClient = DockerClientBuilder.getInstance().build();
-        //拉取镜像
-        String image = "openjdk:8-alpine";
-        if (FIRST_INIT) {
-            PullImageCmd pullImageCmd = dockerClient.pullImageCmd(image);
-            PullImageResultCallback pullImageResultCallback = new PullImageResultCallback() {
-                @Override
-                public void onNext(PullResponseItem item) {
-                    System.out.println("下载镜像： " + item.getStatus());
-                    super.onNext(item);
-                }
-            };
+    public List<ExecuteMessage> runFile(File userCodeFile, List<String> inputList, InputModeEnum inputMode) {
+        return runInLeasedContainer(userCodeFile, inputList, (containerId, input) -> runInContainer(containerId, input, inputMode));
+    }
+
+    /**
+     * 输入用例写入容器中程序的标准输入
+     *
+     * @param userCodeFile
+     * @param inputSourceList
+     * @return
+     */
+    @Override
+    public List<ExecuteMessage> runFileWithInputSources(File userCodeFile, List<InputSource> inputSourceList) {
+        return runInLeasedContainer(userCodeFile, inputSourceList, (containerId, stdin) -> getDockerExecPipeline()
+                .submit(containerId, runCmdArray(), stdin, getCodeSandboxProperties().getExecute().getTimeOut(),
+                        getCodeSandboxProperties().getExecute().getOutputLimit()));
+    }
+
+    /**
+     * 容器中的 exec 只能拿到完整输出，每个用例结束后再比较；不一致时后面的用例会被取消
+     *
+     * @param userCodeFile
+     * @param checkCaseList
+     * @param outputChecker
+     * @return
+     */
+    @Override
+    public List<ExecuteMessage> runFileWithChecker(File userCodeFile, List<CheckCase> checkCaseList, OutputChecker outputChecker) {
+        return runInLeasedContainer(userCodeFile, checkCaseList, (containerId, checkCase) -> {
+            CheckSession checkSession;
             try {
-                pullImageCmd.exec(pullImageResultCallback).awaitCompletion();
-            } catch (InterruptedException e) {
-                System.out.println("拉取镜像异常");
-                throw new RuntimeException(e);
+                checkSession = outputChecker.open(checkCase);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            System.out.println("镜像下载完成");
-        }
-        //创建容器
-        // 创建一个可以交互的容器，能接受多次的输入输出，不用每一次的提交代码都去创建一个容器
-        CreateContainerCmd containerCmd = dockerClient.createContainerCmd(image);
-        HostConfig hostConfig = new HostConfig();
-        hostConfig.setBinds(new Bind(userCodeFile.getParent(), new Volume("/app")));
-        hostConfig.withMemory(100 * 1024 * 1024L);
-        hostConfig.withCpuCount(1L);
-        CreateContainerResponse createContainerResponse = containerCmd
-                .withNetworkDisabled(true)
-                .withHostConfig(hostConfig)
-                .withAttachStdout(true)
-                .withAttachStdin(true)
-                .withAttachStderr(true)
-                .withTty(true)//创建一个docker中断，我们可以通过这个终端交互
-                .exec();
-        System.out.println(createContainerResponse);
-        //获得容器的id
-        String containerId = createContainerResponse.getId();
-
-        // 启动容器
-        dockerClient.startContainerCmd(containerId).exec();
+            return getDockerExecPipeline()
+                    .submit(containerId, runCmdArray(), checkCase.getInput(), getCodeSandboxProperties().getExecute().getTimeOut(),
+                            getCodeSandboxProperties().getExecute().getOutputLimit())
+                    .thenApply(executeMessage -> checkOutput(executeMessage, checkSession))
+                    .whenComplete((executeMessage, throwable) -> checkSession.close());
+        });
+    }
+
+    /**
+     * 每个用例各借一个容器执行：用例之间不共用容器的内存、CPU 限制，一个用例占满内存不会导致其他用例被杀死；
+     * 同时执行的用例数不超过单个请求的并发上限和容器池大小，结果顺序与输入一致
+     *
+     * @param userCodeFile
+     * @param inputList
+     * @param submitter    在借出的容器中异步执行单个用例
+     * @param <T>
+     * @return
+     */
+    private <T> List<ExecuteMessage> runInLeasedContainer(File userCodeFile, List<T> inputList,
+                                                          BiFunction<String, T, CompletableFuture<ExecuteMessage>> submitter) {
+        ContainerPool containerPool = getContainerPool();
+        CodeSandboxMetrics metrics = getCodeSandboxMetrics();
         //docker exec [dockerId/dockerName] java -cp /app Main args1,args2
         //执行命令并获取结果
-        List<ExecuteMessage> executeMessageList = new ArrayList<>();
-        for (String inputArgs : inputList) {
-            //处理传入参数
-            String[] inputArgsArray = inputArgs.split(" ");
-            //加入到执行命令的数组中
-            String[] cmdArray = ArrayUtil.append(new String[]{"java", "-cp", "/app", "Main"}, inputArgsArray);
-            ExecCreateCmdResponse execCreateCmdResponse = dockerClient.execCreateCmd(containerId)
-                    .withCmd(cmdArray)
-                    .withAttachStdout(true)
-                    .withAttachStdin(true)
-                    .withAttachStderr(true)
-                    .exec();
-
-            System.out.println("创建执行命令" + execCreateCmdResponse);
-            ExecuteMessage executeMessage = new ExecuteMessage();
-            final String[] message = {null};
-            final String[] errorMessage = {null};
-            StopWatch stopWatch = new StopWatch();
-            long runTime = 0l;
-            // 判断是否超时
-            final boolean[] timeout = {true};
-            String execId = execCreateCmdResponse.getId();
-            ExecStartResultCallback execStartResultCallback = new ExecStartResultCallback() {
-                @Override
-                public void onComplete() {
-                    // 如果执⾏完成，则表示没超时
-                    timeout[0] = false;
-                    super.onComplete();
-                }
-                @Override
-                public void onNext(Frame frame) {
-                    StreamType streamType = frame.getStreamType();
-                    if (StreamType.STDERR.equals(streamType)) {
-                        errorMessage[0] = new String(frame.getPayload());
-                        System.out.println("输出错误结果: " + errorMessage[0]);
-                    } else {
-                        message[0] = new String(frame.getPayload());
-                        System.out.println("输出结果: "  + message[0]);
-                    }
-                    super.onNext(frame);
-                }
-            };
-            // 获取占⽤的内存
-            StatsCmd statsCmd = dockerClient.statsCmd(containerId);
-            Long[] maxMemory = {null};
-            ResultCallback<Statistics> statisticsResultCallback = statsCmd.exec(new ResultCallback<Statistics>() {
-                @Override
-                public void onNext(Statistics statistics) {
-                    System.out.println("内存占⽤：" + statistics.getMemoryStats().getUsage());
-                    maxMemory[0] = Math.max(statistics.getMemoryStats().getUsage(), maxMemory[0]);
-                }
-                @Override
-                public void close() throws IOException {
-                }
-                @Override
-                public void onStart(Closeable closeable) {
-                }
-                @Override
-                public void onError(Throwable throwable) {
-                }
-                @Override
-                public void onComplete() {
-                }
-            });
-            statsCmd.exec(statisticsResultCallback);
-
-            //通过docker终端运行 java代码
+        return getTestCaseExecutor().executeAllAsync(inputList, input -> {
+            ContainerPool.PooledContainer pooledContainer = containerPool.lease(userCodeFile.getParent());
+            long start = System.nanoTime();
+            CompletableFuture<ExecuteMessage> execFuture;
             try {
-                stopWatch.start();
-                dockerClient
-                        .execStartCmd(execId)
-                        .exec(execStartResultCallback)
-                        .awaitCompletion(TIME_OUT, TimeUnit.MILLISECONDS );
-                stopWatch.stop();
-                runTime = stopWatch.getLastTaskTimeMillis();
-                statsCmd.close();
-            } catch (InterruptedException e) {
-                System.out.println("执行程序异常");
-                throw new RuntimeException(e);
+                execFuture = submitter.apply(pooledContainer.getId(), input);
+            } catch (RuntimeException e) {
+                containerPool.release(pooledContainer, true);
+                throw e;
             }
-            executeMessage.setErrorMessage(errorMessage[0]);
-            executeMessage.setMessage(message[0]);
-            executeMessage.setTime(runTime);
-            executeMessage.setMemory(maxMemory[0]);
-            executeMessageList.add(executeMessage);
-        }
-
-        return executeMessageList;
+            // 先归还容器再通知执行器：执行器的回调可能等待提交线程持有的锁，而提交线程可能正在等待容器
+            // 超时、输出超限或被取消（前面的用例已经出错）时，容器里可能还留着没结束的进程，不再复用
+            CompletableFuture<ExecuteMessage> caseFuture = execFuture
+                    .whenComplete((executeMessage, throwable) -> containerPool.releaseAsync(pooledContainer, throwable != null
+                            || Boolean.TRUE.equals(executeMessage.getTimeout())
+                            || Boolean.TRUE.equals(executeMessage.getOutputLimitExceeded())))
+                    .thenApply(executeMessage -> {
+                        if (Boolean.TRUE.equals(executeMessage.getTimeout())) {
+                            markTimeout(executeMessage);
+                        }
+                        return executeMessage;
+                    })
+                    .whenComplete((executeMessage, throwable) -> metrics.recordCase(getLanguageName(), start));
+            // 取消不会沿着 thenApply 向前传递，这里手动取消 exec，尽快关闭连接并归还容器
+            caseFuture.whenComplete((executeMessage, throwable) -> {
+                if (caseFuture.isCancelled()) {
+                    execFuture.cancel(true);
+                }
+            });
+            return caseFuture;
+        }, getExecuteListener(), containerPool.getPoolSize());
     }
 
+    private static String[] runCmdArray() {
+        return new String[]{"java", "-cp", ContainerPool.CONTAINER_WORK_DIR, "Main"};
+    }
 
+    /**
+     * 在容器中异步执行单个输入用例
+     *
+     * @param containerId
+     * @param input
+     * @param inputMode
+     * @return
+     */
+    private CompletableFuture<ExecuteMessage> runInContainer(String containerId, String input, InputModeEnum inputMode) {
+        String[] cmdArray = runCmdArray();
+        InputSource stdin = null;
+        if (inputMode == InputModeEnum.STDIN) {
+            stdin = InputSource.of(input);
+        } else {
+            //处理传入参数，加入到执行命令的数组中
+            cmdArray = ArrayUtil.append(cmdArray, input.split(" "));
+        }
+        return getDockerExecPipeline().submit(containerId, cmdArray, stdin, getCodeSandboxProperties().getExecute().getTimeOut(),
+                getCodeSandboxProperties().getExecute().getOutputLimit());
+    }
 }
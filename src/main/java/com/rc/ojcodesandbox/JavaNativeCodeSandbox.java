@@ -1,12 +1,24 @@
 package com.rc.ojcodesandbox;
 
 import cn.hutool.core.io.resource.ResourceUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.checker.CheckSession;
+import com.rc.ojcodesandbox.execute.InputSource;
 import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
 import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import com.rc.ojcodesandbox.runner.JavaRunnerPool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
 
 /**
  * @Author：rancheng
@@ -14,10 +26,33 @@ import java.util.Arrays;
  * @Date：2024/6/15 21:31
  * 实现思路：
  * JAva原生代码实现，直接复用代码模板代码
+ * 开启 codesandbox.runner.enabled 后，用例交给预热好的执行器 JVM 运行，省去每个用例的 JVM 启动时间
  */
+@Slf4j
 @Component
 public class JavaNativeCodeSandbox extends JavaCodeSandboxTemplate {
 
+    private JavaRunnerPool javaRunnerPool;
+
+    @Autowired(required = false)
+    public void setJavaRunnerPool(JavaRunnerPool javaRunnerPool) {
+        this.javaRunnerPool = javaRunnerPool;
+    }
+
+    /**
+     * 没有通过 Spring 注入时，按配置决定是否创建执行器池
+     *
+     * @return 未开启时返回 null
+     */
+    protected synchronized JavaRunnerPool getJavaRunnerPool() {
+        CodeSandboxProperties codeSandboxProperties = getCodeSandboxProperties();
+        if (javaRunnerPool == null && codeSandboxProperties.getRunner().isEnabled()) {
+            javaRunnerPool = new JavaRunnerPool(codeSandboxProperties.getRunner(), getProcessReaper(),
+                    GLOBAL_RUNNER_PATH_NAME, codeSandboxProperties.getExecute().getOutputLimit());
+        }
+        return javaRunnerPool;
+    }
+
     public static void main(String[] args) {
         JavaDockerCodeSandbox javaNativeCodeSandbox = new JavaDockerCodeSandbox();
         ExecuteCodeRequest executeCodeRequest = new ExecuteCodeRequest();
@@ -39,4 +74,76 @@ public class JavaNativeCodeSandbox extends JavaCodeSandboxTemplate {
     public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest) {
         return super.executeCode(executeCodeRequest);
     }
+
+    /**
+     * 优先在预热的执行器中运行，执行器不可用时退回到启动新 JVM 的方式
+     *
+     * @param userCodeParentPath
+     * @param input
+     * @param inputMode
+     * @return
+     */
+    @Override
+    protected ExecuteMessage runTestCase(String userCodeParentPath, String input, InputModeEnum inputMode) {
+        if (inputMode == InputModeEnum.STDIN) {
+            return runTestCase(userCodeParentPath, InputSource.of(input));
+        }
+        if (getJavaRunnerPool() == null) {
+            return super.runTestCase(userCodeParentPath, input, inputMode);
+        }
+        try {
+            return runInRunner(userCodeParentPath, splitArgs(input), new byte[0]);
+        } catch (IOException e) {
+            log.warn("runner unavailable, fallback to new process", e);
+            return super.runTestCase(userCodeParentPath, input, inputMode);
+        }
+    }
+
+    /**
+     * 标准输入方式执行，执行器在同一个 JVM 中运行，需要先读出全部输入；
+     * 执行器只返回完整输出，开启输出比较时在程序结束后再比较
+     *
+     * @param userCodeParentPath
+     * @param stdin
+     * @param checkSession
+     * @return
+     */
+    @Override
+    protected ExecuteMessage runTestCase(String userCodeParentPath, InputSource stdin, CheckSession checkSession) {
+        if (getJavaRunnerPool() == null) {
+            return super.runTestCase(userCodeParentPath, stdin, checkSession);
+        }
+        ExecuteMessage executeMessage;
+        try {
+            executeMessage = runInRunner(userCodeParentPath, new ArrayList<>(), stdin.readAllBytes());
+        } catch (IOException e) {
+            log.warn("runner unavailable, fallback to new process", e);
+            return super.runTestCase(userCodeParentPath, stdin, checkSession);
+        }
+        return checkSession == null ? executeMessage : checkOutput(executeMessage, checkSession);
+    }
+
+    private ExecuteMessage runInRunner(String userCodeParentPath, List<String> args, byte[] stdin) throws IOException {
+        ExecuteMessage executeMessage = getJavaRunnerPool().run(userCodeParentPath, args, stdin,
+                getCodeSandboxProperties().getExecute().getTimeOut());
+        if (Boolean.TRUE.equals(executeMessage.getTimeout())) {
+            markTimeout(executeMessage);
+        }
+        return executeMessage;
+    }
+
+    /**
+     * 与命令行传参一致，按空白字符拆分输入用例
+     *
+     * @param inputArg
+     * @return
+     */
+    private List<String> splitArgs(String inputArg) {
+        List<String> args = new ArrayList<>();
+        StringTokenizer stringTokenizer = new StringTokenizer(inputArg);
+        while (stringTokenizer.hasMoreTokens()) {
+            args.add(stringTokenizer.nextToken());
+        }
+        return args;
+    }
 }
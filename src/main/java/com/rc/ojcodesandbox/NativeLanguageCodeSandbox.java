@@ -0,0 +1,113 @@
+package com.rc.ojcodesandbox;
+
+import com.rc.ojcodesandbox.checker.CheckSession;
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.language.LanguageStrategy;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import com.rc.ojcodesandbox.utils.ProcessUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * @Author：rancheng
+ * @name：NativeLanguageCodeSandbox 非 Java 语言的原生代码沙箱
+ * @Date：2026/10/18 18:30
+ * 沿用模板的执行流程，只把源码文件名、编译命令、运行命令换成对应语言的
+ */
+@Slf4j
+public class NativeLanguageCodeSandbox extends JavaCodeSandboxTemplate {
+
+    private final LanguageStrategy languageStrategy;
+
+    public NativeLanguageCodeSandbox(LanguageStrategy languageStrategy) {
+        this.languageStrategy = languageStrategy;
+    }
+
+    public LanguageStrategy getLanguageStrategy() {
+        return languageStrategy;
+    }
+
+    @Override
+    protected String getLanguageName() {
+        return languageStrategy.getLanguage().getValue();
+    }
+
+    @Override
+    protected String getSourceFileName() {
+        return languageStrategy.getSourceFileName();
+    }
+
+    @Override
+    public ExecuteMessage compileFile(File userCodeFile) {
+        List<String> compileCommand = languageStrategy.getCompileCommand(userCodeFile.getParent());
+        if (compileCommand == null) {
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setExitValue(0);
+            return executeMessage;
+        }
+        try {
+            Process compileProcess = start(compileCommand, userCodeFile.getParent());
+            ProcessReaper.Deadline deadline = getProcessReaper().register(compileProcess,
+                    getCodeSandboxProperties().getExecute().getTimeOut());
+            ExecuteMessage executeMessage;
+            try {
+                executeMessage = ProcessUtils.runProcessAndGetMessage(compileProcess, "编译");
+            } finally {
+                deadline.finish();
+            }
+            if (deadline.isTimedOut()) {
+                executeMessage.setExitValue(1);
+                executeMessage.setErrorMessage("编译超时");
+            }
+            RATE_LIMITED_LOG.info("编译执行信息：language = {}, exitValue = {}, time = {}ms", getLanguageName(),
+                    executeMessage.getExitValue(), executeMessage.getTime());
+            return executeMessage;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected ExecuteMessage runTestCase(String userCodeParentPath, String input, InputModeEnum inputMode) {
+        if (inputMode == InputModeEnum.STDIN) {
+            return runTestCase(userCodeParentPath, InputSource.of(input));
+        }
+        List<String> runCommand = new ArrayList<>(languageStrategy.getRunCommand(userCodeParentPath));
+        // 与 Runtime.exec(String) 一致，按空白字符拆分参数
+        StringTokenizer stringTokenizer = new StringTokenizer(input);
+        while (stringTokenizer.hasMoreTokens()) {
+            runCommand.add(stringTokenizer.nextToken());
+        }
+        return run(runCommand, userCodeParentPath, null, null);
+    }
+
+    @Override
+    protected ExecuteMessage runTestCase(String userCodeParentPath, InputSource stdin, CheckSession checkSession) {
+        return run(languageStrategy.getRunCommand(userCodeParentPath), userCodeParentPath, stdin, checkSession);
+    }
+
+    private ExecuteMessage run(List<String> runCommand, String userCodeParentPath, InputSource stdin, CheckSession checkSession) {
+        try {
+            Process runProcess = start(runCommand, userCodeParentPath);
+            long timeOut = getCodeSandboxProperties().getExecute().getTimeOut() * languageStrategy.getTimeOutFactor();
+            ExecuteMessage executeMessage = runProcess(runProcess, stdin, timeOut, checkSession);
+            logExecuteMessage(executeMessage);
+            return executeMessage;
+        } catch (Exception e) {
+            throw new RuntimeException("执行错误", e);
+        }
+    }
+
+    private Process start(List<String> command, String workDir) throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder(command).directory(new File(workDir));
+        processBuilder.environment().putAll(languageStrategy.getEnvironment());
+        return processBuilder.start();
+    }
+}
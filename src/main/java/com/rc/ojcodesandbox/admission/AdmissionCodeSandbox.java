@@ -0,0 +1,185 @@
+package com.rc.ojcodesandbox.admission;
+
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.CodeSandbox;
+import com.rc.ojcodesandbox.execute.ExecuteListener;
+import com.rc.ojcodesandbox.metrics.CodeSandboxMetrics;
+import com.rc.ojcodesandbox.model.CompileResponse;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.JudgeInfo;
+import com.rc.ojcodesandbox.model.enums.ExecuteVerdictEnum;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import com.rc.ojcodesandbox.model.enums.PriorityEnum;
+import com.rc.ojcodesandbox.screen.CodeScreener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * @Author：rancheng
+ * @name：AdmissionCodeSandbox 带准入控制的代码沙箱
+ * @Date：2026/10/18 17:00
+ * 获得执行槽位后才交给实际的沙箱执行；源码未通过预检的请求直接拒绝，不排队、不占用槽位
+ */
+public class AdmissionCodeSandbox implements CodeSandbox {
+
+    private final CodeSandbox codeSandbox;
+
+    private final AdmissionController admissionController;
+
+    private CodeSandboxMetrics codeSandboxMetrics = CodeSandboxMetrics.global();
+
+    private CodeScreener codeScreener;
+
+    public AdmissionCodeSandbox(CodeSandbox codeSandbox, AdmissionController admissionController) {
+        this.codeSandbox = codeSandbox;
+        this.admissionController = admissionController;
+    }
+
+    public void setCodeSandboxMetrics(CodeSandboxMetrics codeSandboxMetrics) {
+        this.codeSandboxMetrics = codeSandboxMetrics;
+    }
+
+    /**
+     * 没有设置时不在排队前预检，由实际的沙箱在编译前预检
+     *
+     * @param codeScreener
+     */
+    public void setCodeScreener(CodeScreener codeScreener) {
+        this.codeScreener = codeScreener;
+    }
+
+    /**
+     * @param executeCodeRequest
+     * @return
+     * @throws AdmissionRejectedException 排队已满或排队超时
+     * @throws InterruptedException
+     */
+    @Override
+    public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest) throws InterruptedException {
+        String rejectMessage = screen(executeCodeRequest);
+        if (rejectMessage != null) {
+            return new ExecuteCodeResponse(new ArrayList<>(), rejectMessage, 3, new JudgeInfo(), null);
+        }
+        PriorityEnum priority = PriorityEnum.getEnumByValue(executeCodeRequest.getPriority());
+        AdmissionController.Permit permit = acquire(priority, executeCodeRequest.getTenantId());
+        try {
+            return codeSandbox.executeCode(executeCodeRequest);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 流式执行同样先获得槽位，排队期间不会有回调
+     *
+     * @param executeCodeRequest
+     * @param executeListener
+     * @return
+     * @throws AdmissionRejectedException 排队已满或排队超时
+     * @throws InterruptedException
+     */
+    @Override
+    public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest, ExecuteListener executeListener) throws InterruptedException {
+        String rejectMessage = screen(executeCodeRequest);
+        if (rejectMessage != null) {
+            return new ExecuteCodeResponse(new ArrayList<>(), rejectMessage, 3, new JudgeInfo(), null);
+        }
+        PriorityEnum priority = PriorityEnum.getEnumByValue(executeCodeRequest.getPriority());
+        AdmissionController.Permit permit = acquire(priority, executeCodeRequest.getTenantId());
+        try {
+            return codeSandbox.executeCode(executeCodeRequest, executeListener);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 编译同样占用一个槽位
+     *
+     * @param executeCodeRequest
+     * @return
+     * @throws AdmissionRejectedException 排队已满或排队超时
+     * @throws InterruptedException
+     */
+    @Override
+    public CompileResponse compile(ExecuteCodeRequest executeCodeRequest) throws InterruptedException {
+        String rejectMessage = screen(executeCodeRequest);
+        if (rejectMessage != null) {
+            return new CompileResponse(null, LanguageEnum.getEnumByValue(executeCodeRequest.getLanguage()).getValue(), 3, rejectMessage, null);
+        }
+        PriorityEnum priority = PriorityEnum.getEnumByValue(executeCodeRequest.getPriority());
+        AdmissionController.Permit permit = acquire(priority, executeCodeRequest.getTenantId());
+        try {
+            return codeSandbox.compile(executeCodeRequest);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 整个批次占用一个槽位，优先级和租户取第一个请求的，未指定优先级时按重判处理
+     *
+     * @param executeCodeRequestList
+     * @param consumer
+     * @throws AdmissionRejectedException 排队已满或排队超时
+     * @throws InterruptedException
+     */
+    @Override
+    public void executeCodeBatch(List<ExecuteCodeRequest> executeCodeRequestList,
+                                 BiConsumer<Integer, ExecuteCodeResponse> consumer) throws InterruptedException {
+        if (executeCodeRequestList.isEmpty()) {
+            return;
+        }
+        ExecuteCodeRequest first = executeCodeRequestList.get(0);
+        PriorityEnum priority = first.getPriority() == null ? PriorityEnum.REJUDGE : PriorityEnum.getEnumByValue(first.getPriority());
+        AdmissionController.Permit permit = acquire(priority, first.getTenantId());
+        try {
+            codeSandbox.executeCodeBatch(executeCodeRequestList, consumer);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 排队前预检源码，批量执行的请求由实际的沙箱逐个预检
+     *
+     * @param executeCodeRequest
+     * @return 未通过时返回拒绝信息，通过、使用编译产物或语言不支持时返回 null
+     */
+    private String screen(ExecuteCodeRequest executeCodeRequest) {
+        LanguageEnum language = LanguageEnum.getEnumByValue(executeCodeRequest.getLanguage());
+        if (codeScreener == null || language == null || StrUtil.isNotBlank(executeCodeRequest.getArtifactId())) {
+            return null;
+        }
+        long start = System.nanoTime();
+        String keyword = codeScreener.screen(language.getValue(), executeCodeRequest.getProblemId(), executeCodeRequest.getCode());
+        codeSandboxMetrics.recordStage(language.getValue(), CodeSandboxMetrics.STAGE_SCREEN, start);
+        if (keyword == null) {
+            return null;
+        }
+        codeSandboxMetrics.recordVerdict(language.getValue(), ExecuteVerdictEnum.REJECTED);
+        return CodeScreener.getRejectMessage(keyword);
+    }
+
+    /**
+     * 获取槽位，排队时间记录到指标中（被拒绝的不记录）
+     *
+     * @param priority
+     * @param tenantId
+     * @return
+     * @throws InterruptedException
+     */
+    private AdmissionController.Permit acquire(PriorityEnum priority, String tenantId) throws InterruptedException {
+        long start = System.nanoTime();
+        AdmissionController.Permit permit = admissionController.acquire(priority, tenantId);
+        codeSandboxMetrics.recordQueueWait(CodeSandboxMetrics.QUEUE_ADMISSION, System.nanoTime() - start);
+        return permit;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+}
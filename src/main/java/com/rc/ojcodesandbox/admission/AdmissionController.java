@@ -0,0 +1,270 @@
+package com.rc.ojcodesandbox.admission;
+
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.model.enums.PriorityEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：AdmissionController 提交准入控制
+ * @Date：2026/10/18 17:00
+ * 1.同时执行的提交数不超过 slots，其余按优先级排队
+ * 2.高优先级的排队提交总是先于低优先级的提交获得槽位
+ * 3.同一优先级内按租户轮流获得槽位，一个租户的大量提交不会挡住其他租户
+ * 4.排队总数有上限，超出后立即拒绝；排队超过等待时间也会被拒绝
+ */
+@Slf4j
+public class AdmissionController {
+
+    private static final String DEFAULT_TENANT = "default";
+
+    private final int slots;
+
+    private final int maxQueueSize;
+
+    private final long queueTimeoutMillis;
+
+    /**
+     * 各优先级的排队队列，按租户分组，LinkedHashMap 的顺序即租户轮转顺序。所有状态由 this 加锁保护
+     */
+    private final EnumMap<PriorityEnum, LinkedHashMap<String, ArrayDeque<Ticket>>> waiting = new EnumMap<>(PriorityEnum.class);
+
+    private final EnumMap<PriorityEnum, Integer> queuedByPriority = new EnumMap<>(PriorityEnum.class);
+
+    private int running;
+
+    private int queued;
+
+    private long admittedCount;
+
+    private long rejectedCount;
+
+    private long totalWaitMillis;
+
+    private long maxWaitMillis;
+
+    public AdmissionController(int slots, int maxQueueSize, long queueTimeoutMillis) {
+        this.slots = Math.max(1, slots);
+        this.maxQueueSize = Math.max(0, maxQueueSize);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        for (PriorityEnum priority : PriorityEnum.values()) {
+            waiting.put(priority, new LinkedHashMap<>());
+            queuedByPriority.put(priority, 0);
+        }
+    }
+
+    /**
+     * 按 CPU 核数和物理内存估算槽位数：取 核数 与 物理内存 / 单个提交预留内存 的较小值
+     *
+     * @param memoryPerSlotMb 单个提交预留的内存（MB）
+     * @return
+     */
+    public static int defaultSlots(long memoryPerSlotMb) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        long totalMemory = totalMemorySize();
+        if (memoryPerSlotMb <= 0 || totalMemory <= 0) {
+            return processors;
+        }
+        long totalMemoryMb = totalMemory / 1024 / 1024;
+        return (int) Math.max(1, Math.min(processors, totalMemoryMb / memoryPerSlotMb));
+    }
+
+    /**
+     * 通过 MBean 属性读取物理内存，不直接调用 com.sun.management 的接口：
+     * JDK 14 起 TotalPhysicalMemorySize 已废弃，改为 TotalMemorySize（容器内为容器的内存上限），旧版本 JDK 只有前者
+     *
+     * @return 读取不到时返回 -1
+     */
+    private static long totalMemorySize() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (String attribute : new String[]{"TotalMemorySize", "TotalPhysicalMemorySize"}) {
+            try {
+                Object value = mBeanServer.getAttribute(new ObjectName(ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME), attribute);
+                if (value instanceof Number) {
+                    return ((Number) value).longValue();
+                }
+            } catch (Exception e) {
+                log.debug("读取 {} 失败：{}", attribute, e.toString());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 申请执行槽位，排队时阻塞当前线程
+     *
+     * @param priority
+     * @param tenantId
+     * @return 执行结束后必须 close 归还槽位
+     * @throws AdmissionRejectedException 队列已满或排队超时
+     * @throws InterruptedException
+     */
+    public Permit acquire(PriorityEnum priority, String tenantId) throws InterruptedException {
+        String tenant = StrUtil.isBlank(tenantId) ? DEFAULT_TENANT : tenantId;
+        Ticket ticket;
+        synchronized (this) {
+            if (running < slots && queued == 0) {
+                running++;
+                recordAdmitted(0);
+                return new Permit();
+            }
+            if (queued >= maxQueueSize) {
+                rejectedCount++;
+                throw new AdmissionRejectedException("排队人数已满，请稍后重试");
+            }
+            ticket = new Ticket(priority, tenant);
+            waiting.get(priority).computeIfAbsent(tenant, key -> new ArrayDeque<>()).addLast(ticket);
+            queuedByPriority.put(priority, queuedByPriority.get(priority) + 1);
+            queued++;
+        }
+        boolean granted;
+        try {
+            granted = ticket.latch.await(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                if (ticket.granted) {
+                    release();
+                } else {
+                    removeTicket(ticket);
+                }
+            }
+            throw e;
+        }
+        if (!granted) {
+            synchronized (this) {
+                // 超时和被唤醒同时发生时以已分配为准
+                if (!ticket.granted) {
+                    removeTicket(ticket);
+                    rejectedCount++;
+                    throw new AdmissionRejectedException("排队超时，请稍后重试");
+                }
+            }
+        }
+        return new Permit();
+    }
+
+    public synchronized AdmissionStats getStats() {
+        AdmissionStats admissionStats = new AdmissionStats();
+        admissionStats.setSlots(slots);
+        admissionStats.setRunning(running);
+        admissionStats.setQueued(queued);
+        Map<String, Integer> queuedMap = new LinkedHashMap<>();
+        for (Map.Entry<PriorityEnum, Integer> entry : queuedByPriority.entrySet()) {
+            queuedMap.put(entry.getKey().getValue(), entry.getValue());
+        }
+        admissionStats.setQueuedByPriority(queuedMap);
+        admissionStats.setAdmittedCount(admittedCount);
+        admissionStats.setRejectedCount(rejectedCount);
+        admissionStats.setAvgWaitMillis(admittedCount == 0 ? 0 : totalWaitMillis / admittedCount);
+        admissionStats.setMaxWaitMillis(maxWaitMillis);
+        return admissionStats;
+    }
+
+    private synchronized void release() {
+        running--;
+        dispatch();
+    }
+
+    /**
+     * 把空闲槽位分配给排队的提交：优先级从高到低，同一优先级内取轮转顺序中第一个租户的队首，
+     * 然后把该租户移到末尾
+     */
+    private void dispatch() {
+        while (running < slots && queued > 0) {
+            Ticket ticket = pollNext();
+            if (ticket == null) {
+                return;
+            }
+            running++;
+            ticket.granted = true;
+            recordAdmitted(System.currentTimeMillis() - ticket.enqueueTime);
+            ticket.latch.countDown();
+        }
+    }
+
+    private Ticket pollNext() {
+        for (Map.Entry<PriorityEnum, LinkedHashMap<String, ArrayDeque<Ticket>>> entry : waiting.entrySet()) {
+            Iterator<Map.Entry<String, ArrayDeque<Ticket>>> iterator = entry.getValue().entrySet().iterator();
+            if (!iterator.hasNext()) {
+                continue;
+            }
+            Map.Entry<String, ArrayDeque<Ticket>> tenantEntry = iterator.next();
+            ArrayDeque<Ticket> tenantQueue = tenantEntry.getValue();
+            Ticket ticket = tenantQueue.pollFirst();
+            iterator.remove();
+            if (!tenantQueue.isEmpty()) {
+                entry.getValue().put(tenantEntry.getKey(), tenantQueue);
+            }
+            queuedByPriority.put(entry.getKey(), queuedByPriority.get(entry.getKey()) - 1);
+            queued--;
+            return ticket;
+        }
+        return null;
+    }
+
+    private void removeTicket(Ticket ticket) {
+        LinkedHashMap<String, ArrayDeque<Ticket>> tenantQueues = waiting.get(ticket.priority);
+        ArrayDeque<Ticket> tenantQueue = tenantQueues.get(ticket.tenant);
+        if (tenantQueue != null && tenantQueue.remove(ticket)) {
+            if (tenantQueue.isEmpty()) {
+                tenantQueues.remove(ticket.tenant);
+            }
+            queuedByPriority.put(ticket.priority, queuedByPriority.get(ticket.priority) - 1);
+            queued--;
+        }
+    }
+
+    private void recordAdmitted(long waitMillis) {
+        admittedCount++;
+        totalWaitMillis += waitMillis;
+        maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+    }
+
+    private static class Ticket {
+
+        private final PriorityEnum priority;
+
+        private final String tenant;
+
+        private final long enqueueTime = System.currentTimeMillis();
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private boolean granted;
+
+        private Ticket(PriorityEnum priority, String tenant) {
+            this.priority = priority;
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * 已获得的执行槽位
+     */
+    public class Permit implements AutoCloseable {
+
+        private boolean released;
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release();
+            }
+        }
+    }
+}
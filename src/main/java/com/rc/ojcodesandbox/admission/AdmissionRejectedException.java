@@ -0,0 +1,15 @@
+package com.rc.ojcodesandbox.admission;
+
+/**
+ * @Author：rancheng
+ * @name：AdmissionRejectedException 排队已满或排队超时，拒绝执行
+ * @Date：2026/10/18 17:00
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
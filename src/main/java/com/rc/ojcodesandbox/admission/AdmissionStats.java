@@ -0,0 +1,46 @@
+package com.rc.ojcodesandbox.admission;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * @Author：rancheng
+ * @name：AdmissionStats 准入控制统计
+ * @Date：2026/10/18 17:00
+ */
+@Data
+public class AdmissionStats {
+    /**
+     * 并发执行槽位数
+     */
+    private int slots;
+    /**
+     * 正在执行的提交数
+     */
+    private int running;
+    /**
+     * 排队中的提交数
+     */
+    private int queued;
+    /**
+     * 各优先级排队中的提交数
+     */
+    private Map<String, Integer> queuedByPriority;
+    /**
+     * 累计准入数
+     */
+    private long admittedCount;
+    /**
+     * 累计拒绝数（队列满 + 排队超时）
+     */
+    private long rejectedCount;
+    /**
+     * 平均排队时间（毫秒）
+     */
+    private long avgWaitMillis;
+    /**
+     * 最长排队时间（毫秒）
+     */
+    private long maxWaitMillis;
+}
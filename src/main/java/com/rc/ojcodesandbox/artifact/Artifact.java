@@ -0,0 +1,30 @@
+package com.rc.ojcodesandbox.artifact;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * @Author：rancheng
+ * @name：Artifact 一次编译的产物
+ * @Date：2026/10/19 14:00
+ * 目录中是编译后工作目录的完整内容（源码、class 文件或可执行文件），运行时复制到新的工作目录
+ */
+@Data
+public class Artifact {
+    private String artifactId;
+    /**
+     * 编译时的语言
+     */
+    private String language;
+    /**
+     * 产物目录
+     */
+    private Path dir;
+    /**
+     * 产物目录中文件的总字节数
+     */
+    private long bytes;
+    private long createTime;
+    private volatile long lastAccessTime;
+}
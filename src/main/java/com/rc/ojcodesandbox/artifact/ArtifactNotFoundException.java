@@ -0,0 +1,15 @@
+package com.rc.ojcodesandbox.artifact;
+
+/**
+ * @Author：rancheng
+ * @name：ArtifactNotFoundException 编译产物不存在、已被淘汰或语言不一致，需要重新编译
+ * @Date：2026/10/19 14:00
+ */
+public class ArtifactNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ArtifactNotFoundException(String message) {
+        super(message);
+    }
+}
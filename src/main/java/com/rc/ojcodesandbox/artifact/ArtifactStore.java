@@ -0,0 +1,289 @@
+package com.rc.ojcodesandbox.artifact;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.lang.UUID;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * @Author：rancheng
+ * @name：ArtifactStore 本地编译产物库
+ * @Date：2026/10/19 14:00
+ * 1.编译成功后把工作目录的内容复制到 root/instance-[pid]/[artifactId]，重判、hack 等需要多次运行同一份代码时不再重新编译
+ * 2.运行时把产物复制到新借出的工作目录，用户程序改动工作目录中的文件不会影响之后的运行
+ * 3.按最近使用顺序淘汰：总大小超过 maxBytes 时淘汰最久未使用的，超过 expireMillis 没有使用的由清理线程删除
+ * 4.产物只在本实例内有效，实例退出时删除；启动时清理进程已退出的其他实例遗留的目录
+ */
+@Slf4j
+public class ArtifactStore {
+
+    private static final String INSTANCE_PREFIX = "instance-";
+
+    private final CodeSandboxProperties.Artifact artifactProperties;
+
+    private final Path rootPath;
+
+    private final Path instanceDir;
+
+    /**
+     * artifactId -> 产物，accessOrder = true，迭代顺序即淘汰顺序
+     */
+    private final LinkedHashMap<String, Artifact> artifactMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytesUsed;
+
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private final ScheduledExecutorService sweepScheduler;
+
+    /**
+     * @param artifactProperties
+     * @param defaultRootPath    没有配置 root 时使用的根目录
+     */
+    public ArtifactStore(CodeSandboxProperties.Artifact artifactProperties, String defaultRootPath) {
+        this.artifactProperties = artifactProperties;
+        this.rootPath = Paths.get(StrUtil.blankToDefault(artifactProperties.getRoot(), defaultRootPath)).toAbsolutePath();
+        this.instanceDir = rootPath.resolve(INSTANCE_PREFIX + RuntimeUtil.getPid());
+        // 进程号被复用时目录可能已经存在，其中的产物不属于本实例
+        FileUtil.del(instanceDir.toFile());
+        FileUtil.mkdir(instanceDir.toFile());
+        log.info("artifact root: {}", instanceDir);
+        sweepOrphanInstances();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("artifact-sweeper-", true));
+        long sweepInterval = artifactProperties.getSweepIntervalMillis();
+        executor.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+        this.sweepScheduler = executor;
+    }
+
+    /**
+     * 保存编译后的工作目录
+     *
+     * @param language
+     * @param sourceDir 编译后的工作目录
+     * @return
+     * @throws IOException 复制失败或单个产物超过空间上限
+     */
+    public Artifact save(String language, File sourceDir) throws IOException {
+        String artifactId = UUID.fastUUID().toString(true);
+        Path dir = instanceDir.resolve(artifactId);
+        long bytes;
+        try {
+            bytes = copyTree(sourceDir.toPath(), dir);
+            if (bytes > artifactProperties.getMaxBytes()) {
+                throw new IOException("编译产物超出空间上限：" + bytes + " bytes");
+            }
+        } catch (IOException | RuntimeException e) {
+            FileUtil.del(dir.toFile());
+            throw e;
+        }
+        long now = System.currentTimeMillis();
+        Artifact artifact = new Artifact();
+        artifact.setArtifactId(artifactId);
+        artifact.setLanguage(language);
+        artifact.setDir(dir);
+        artifact.setBytes(bytes);
+        artifact.setCreateTime(now);
+        artifact.setLastAccessTime(now);
+        List<Artifact> evictedList;
+        synchronized (this) {
+            artifactMap.put(artifactId, artifact);
+            bytesUsed += bytes;
+            evictedList = evict(now);
+        }
+        remove(evictedList);
+        return artifact;
+    }
+
+    /**
+     * 获取产物并刷新最近使用时间
+     *
+     * @param artifactId
+     * @return 不存在或已过期时返回 null
+     */
+    public Artifact get(String artifactId) {
+        long now = System.currentTimeMillis();
+        Artifact artifact;
+        List<Artifact> evictedList;
+        synchronized (this) {
+            artifact = artifactMap.get(artifactId);
+            if (artifact != null) {
+                artifact.setLastAccessTime(now);
+            }
+            evictedList = evict(now);
+        }
+        remove(evictedList);
+        return artifact == null || evictedList.contains(artifact) ? null : artifact;
+    }
+
+    /**
+     * 把产物复制到工作目录。复制期间产物被淘汰时抛出 NoSuchFileException
+     *
+     * @param artifact
+     * @param targetDir
+     * @throws IOException
+     */
+    public void copyTo(Artifact artifact, File targetDir) throws IOException {
+        copyTree(artifact.getDir(), targetDir.toPath());
+    }
+
+    /**
+     * 删除产物
+     *
+     * @param artifactId
+     * @return 是否存在
+     */
+    public boolean delete(String artifactId) {
+        Artifact artifact;
+        synchronized (this) {
+            artifact = artifactMap.remove(artifactId);
+            if (artifact == null) {
+                return false;
+            }
+            bytesUsed -= artifact.getBytes();
+        }
+        FileUtil.del(artifact.getDir().toFile());
+        return true;
+    }
+
+    public synchronized int getCount() {
+        return artifactMap.size();
+    }
+
+    public synchronized long getBytesUsed() {
+        return bytesUsed;
+    }
+
+    /**
+     * 因空间上限或过期被淘汰的产物数
+     *
+     * @return
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public void shutdown() {
+        sweepScheduler.shutdownNow();
+        synchronized (this) {
+            artifactMap.clear();
+            bytesUsed = 0;
+        }
+        FileUtil.del(instanceDir.toFile());
+    }
+
+    /**
+     * 删除过期的产物
+     */
+    void sweep() {
+        try {
+            List<Artifact> evictedList;
+            synchronized (this) {
+                evictedList = evict(System.currentTimeMillis());
+            }
+            remove(evictedList);
+        } catch (Exception e) {
+            log.error("sweep artifact error", e);
+        }
+    }
+
+    /**
+     * 按最近使用顺序移出过期或超出空间上限的产物，需要持有锁
+     *
+     * @param now
+     * @return 被移出的产物，目录在锁外删除
+     */
+    private List<Artifact> evict(long now) {
+        List<Artifact> evictedList = new ArrayList<>();
+        Iterator<Artifact> iterator = artifactMap.values().iterator();
+        while (iterator.hasNext()) {
+            Artifact artifact = iterator.next();
+            // 越靠后的产物最近使用时间越晚，第一个不需要淘汰的之后都不需要淘汰
+            if (bytesUsed <= artifactProperties.getMaxBytes()
+                    && now - artifact.getLastAccessTime() <= artifactProperties.getExpireMillis()) {
+                break;
+            }
+            iterator.remove();
+            bytesUsed -= artifact.getBytes();
+            evictedList.add(artifact);
+        }
+        evictedCount.addAndGet(evictedList.size());
+        return evictedList;
+    }
+
+    private void remove(List<Artifact> artifactList) {
+        for (Artifact artifact : artifactList) {
+            log.info("evict artifact {}, language = {}, bytes = {}", artifact.getArtifactId(), artifact.getLanguage(), artifact.getBytes());
+            FileUtil.del(artifact.getDir().toFile());
+        }
+    }
+
+    /**
+     * 清理进程已经退出的其他实例遗留的目录，只在有 /proc 的系统上判断
+     */
+    private void sweepOrphanInstances() {
+        if (!new File("/proc/self").exists()) {
+            return;
+        }
+        try (DirectoryStream<Path> instanceDirs = Files.newDirectoryStream(rootPath, INSTANCE_PREFIX + "*")) {
+            for (Path dir : instanceDirs) {
+                String pid = dir.getFileName().toString().substring(INSTANCE_PREFIX.length());
+                if (!dir.equals(instanceDir) && !new File("/proc", pid).exists()) {
+                    log.info("sweep orphan artifact instance {}", dir);
+                    FileUtil.del(dir.toFile());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("list artifact root error: {}", rootPath);
+        }
+    }
+
+    /**
+     * 复制目录树，保留文件权限（可执行文件）
+     *
+     * @param sourceDir
+     * @param targetDir
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    private static long copyTree(Path sourceDir, Path targetDir) throws IOException {
+        long bytes = 0;
+        try (Stream<Path> pathStream = Files.walk(sourceDir)) {
+            Iterator<Path> iterator = pathStream.iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                Path target = targetDir.resolve(sourceDir.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(path, target, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+                    bytes += Files.size(target);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // 遍历期间目录被删除
+            throw e.getCause();
+        }
+        return bytes;
+    }
+}
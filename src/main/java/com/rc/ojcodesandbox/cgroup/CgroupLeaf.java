@@ -0,0 +1,203 @@
+package com.rc.ojcodesandbox.cgroup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：CgroupLeaf 执行单个用例的叶子 cgroup
+ * @Date：2026/10/19 11:30
+ * 由 CgroupManager 借出和回收，一次只运行一个用例。统计值都是相对借出时的增量：
+ * 1.CPU 时间取 cpu.stat 中 usage_usec 的增量，包含用户程序创建的所有子进程
+ * 2.峰值内存取 memory.peak，借出时通过同一个文件描述符重置（内核 6.12+），不能重置时叶子不复用
+ * 3.memory.events 中 oom_kill 增加说明用例因超出 memory.max 被内核杀死
+ */
+public class CgroupLeaf {
+
+    private static final String CGROUP_PROCS = "cgroup.procs";
+
+    private static final String CPU_STAT = "cpu.stat";
+
+    private static final String MEMORY_PEAK = "memory.peak";
+
+    private static final String MEMORY_EVENTS = "memory.events";
+
+    private static final int READ_BUFFER_SIZE = 64;
+
+    private final Path dir;
+
+    private long cpuUsageBaseUsec;
+
+    private long oomKillBase;
+
+    private FileChannel peakChannel;
+
+    private boolean peakReset;
+
+    CgroupLeaf(Path dir) {
+        this.dir = dir;
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    /**
+     * 在叶子中启动命令：sh 先把自己写入 cgroup.procs 再 exec 成目标程序，程序从第一条指令起就受限制；
+     * 写入失败时 sh 直接退出，不会在 cgroup 之外运行
+     *
+     * @param command
+     * @return
+     */
+    public List<String> wrap(List<String> command) {
+        List<String> wrapped = new ArrayList<>(command.size() + 4);
+        wrapped.addAll(Arrays.asList("/bin/sh", "-c", "echo $$ > \"$0\" && exec \"$@\"", dir.resolve(CGROUP_PROCS).toString()));
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    /**
+     * 借出时记录统计基线
+     */
+    void begin() {
+        cpuUsageBaseUsec = readKeyed(CPU_STAT, "usage_usec", 0L);
+        oomKillBase = readKeyed(MEMORY_EVENTS, "oom_kill", 0L);
+        peakReset = false;
+        closePeakChannel();
+        Path peakPath = dir.resolve(MEMORY_PEAK);
+        if (!Files.exists(peakPath)) {
+            return;
+        }
+        try {
+            peakChannel = FileChannel.open(peakPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            peakChannel.write(ByteBuffer.wrap("reset\n".getBytes(StandardCharsets.US_ASCII)));
+            peakReset = true;
+        } catch (IOException e) {
+            // 内核 6.12 以下 memory.peak 只读，记录的是叶子创建以来的峰值
+            closePeakChannel();
+        }
+    }
+
+    /**
+     * 用例结束后的统计基线不再需要
+     */
+    void end() {
+        closePeakChannel();
+    }
+
+    /**
+     * 叶子能否复用：memory.peak 无法重置时，复用后读到的会是以前用例的峰值
+     *
+     * @return
+     */
+    boolean isReusable() {
+        return peakReset || !Files.exists(dir.resolve(MEMORY_PEAK));
+    }
+
+    /**
+     * 本次用例的 CPU 时间（毫秒），读取失败时为 null
+     *
+     * @return
+     */
+    public Long getCpuTimeMillis() {
+        long usage = readKeyed(CPU_STAT, "usage_usec", -1L);
+        return usage < 0 ? null : Math.max(0, usage - cpuUsageBaseUsec) / 1000L;
+    }
+
+    /**
+     * 本次用例的峰值内存（KB），内核不支持 memory.peak（5.19 以下）时为 null
+     *
+     * @return
+     */
+    public Long getPeakMemoryKb() {
+        String peak;
+        try {
+            if (peakChannel != null) {
+                ByteBuffer byteBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+                peakChannel.read(byteBuffer, 0);
+                byteBuffer.flip();
+                peak = StandardCharsets.US_ASCII.decode(byteBuffer).toString();
+            } else {
+                // 不能重置时叶子只用一次，创建以来的峰值就是本次用例的峰值
+                peak = read(MEMORY_PEAK);
+            }
+            return Long.parseLong(peak.trim()) / 1024L;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 本次用例是否因超出内存上限被杀死
+     *
+     * @return
+     */
+    public boolean isOomKilled() {
+        return readKeyed(MEMORY_EVENTS, "oom_kill", 0L) > oomKillBase;
+    }
+
+    /**
+     * 叶子中仍在运行的进程号
+     *
+     * @return
+     * @throws IOException
+     */
+    List<String> readProcs() throws IOException {
+        List<String> pidList = new ArrayList<>();
+        for (String line : Files.readAllLines(dir.resolve(CGROUP_PROCS), StandardCharsets.US_ASCII)) {
+            if (!line.trim().isEmpty()) {
+                pidList.add(line.trim());
+            }
+        }
+        return pidList;
+    }
+
+    void write(String fileName, String value) throws IOException {
+        Files.write(dir.resolve(fileName), value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String read(String fileName) throws IOException {
+        return new String(Files.readAllBytes(dir.resolve(fileName)), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 读取 "key value" 每行一项格式的文件（cpu.stat、memory.events）
+     *
+     * @param fileName
+     * @param key
+     * @param defaultValue 文件不存在或没有该项时返回
+     * @return
+     */
+    private long readKeyed(String fileName, String key, long defaultValue) {
+        try {
+            for (String line : read(fileName).split("\n")) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens.length == 2 && tokens[0].equals(key)) {
+                    return Long.parseLong(tokens[1]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 控制器没有启用或内核版本不支持
+        }
+        return defaultValue;
+    }
+
+    private void closePeakChannel() {
+        if (peakChannel != null) {
+            try {
+                peakChannel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            peakChannel = null;
+        }
+    }
+}
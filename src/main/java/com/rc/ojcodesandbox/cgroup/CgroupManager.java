@@ -0,0 +1,316 @@
+package com.rc.ojcodesandbox.cgroup;
+
+import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author：rancheng
+ * @name：CgroupManager cgroup v2 叶子池
+ * @Date：2026/10/19 11:30
+ * 目录结构为 root/oj-codesandbox/instance-[pid]/leaf-N：
+ * 1.启动时在 root 和中间目录的 cgroup.subtree_control 中启用 memory、cpu、pids 控制器，
+ * 并清理已退出的其他实例遗留的目录；任一步失败则不可用，由调用方退回原生执行
+ * 2.叶子创建时写入 memory.max、memory.swap.max、cpu.max、pids.max，之后借出、回收复用，不再反复 mkdir/rmdir
+ * 3.回收时通过 cgroup.kill 杀死用户程序留下的所有进程，等 cgroup.procs 清空后放回池中；
+ * 进程杀不掉或峰值内存无法重置的叶子直接删除
+ */
+@Slf4j
+public class CgroupManager {
+
+    private static final List<String> CONTROLLERS = Arrays.asList("memory", "cpu", "pids");
+
+    private static final List<String> DEFAULT_ROOTS = Arrays.asList("/sys/fs/cgroup", "/sys/fs/cgroup/unified");
+
+    private static final String BASE_NAME = "oj-codesandbox";
+
+    private static final String INSTANCE_PREFIX = "instance-";
+
+    private static final String LEAF_PREFIX = "leaf-";
+
+    private static final long CPU_PERIOD_USEC = 100000L;
+
+    private final CodeSandboxProperties.Cgroup cgroupProperties;
+
+    private final Path instanceDir;
+
+    private final boolean available;
+
+    private final ConcurrentLinkedDeque<CgroupLeaf> idleLeaves = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger leafSeq = new AtomicInteger();
+
+    private final AtomicInteger leasedCount = new AtomicInteger();
+
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    public CgroupManager(CodeSandboxProperties.Cgroup cgroupProperties) {
+        this.cgroupProperties = cgroupProperties;
+        Path root = resolveRoot(cgroupProperties.getRoot());
+        Path baseDir = root == null ? null : root.resolve(BASE_NAME);
+        this.instanceDir = baseDir == null ? null : baseDir.resolve(INSTANCE_PREFIX + RuntimeUtil.getPid());
+        boolean ready = false;
+        if (root == null) {
+            log.warn("cgroup v2 not found, cgroup sandbox disabled");
+        } else {
+            try {
+                List<String> controllers = readControllers(root);
+                if (!controllers.containsAll(CONTROLLERS)) {
+                    throw new IOException("cgroup.controllers 缺少控制器：" + controllers);
+                }
+                enableControllers(root);
+                Files.createDirectories(baseDir);
+                enableControllers(baseDir);
+                sweepOrphanInstances(baseDir);
+                Files.createDirectories(instanceDir);
+                enableControllers(instanceDir);
+                for (int i = 0; i < cgroupProperties.getPoolSize(); i++) {
+                    idleLeaves.offer(newLeaf());
+                }
+                ready = true;
+                log.info("cgroup root: {}, memory.max = {}, cpu = {}, pids.max = {}", instanceDir,
+                        cgroupProperties.getMemoryMax(), cgroupProperties.getCpuCount(), cgroupProperties.getPidsMax());
+            } catch (IOException | RuntimeException e) {
+                log.warn("cgroup unavailable under {}, cgroup sandbox disabled: {}", root, e.toString());
+            }
+        }
+        this.available = ready;
+    }
+
+    /**
+     * 查找 cgroup v2 的根目录：配置了 root 时直接使用，否则取第一个 cgroup.controllers 中包含所需控制器的挂载点
+     *
+     * @param configuredRoot
+     * @return 找不到时返回 null
+     */
+    static Path resolveRoot(String configuredRoot) {
+        if (StrUtil.isNotBlank(configuredRoot)) {
+            return Paths.get(configuredRoot);
+        }
+        for (String defaultRoot : DEFAULT_ROOTS) {
+            Path root = Paths.get(defaultRoot);
+            try {
+                if (Files.isReadable(root.resolve("cgroup.controllers")) && readControllers(root).containsAll(CONTROLLERS)) {
+                    return root;
+                }
+            } catch (IOException e) {
+                // 继续查找下一个
+            }
+        }
+        return null;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * 借出一个空闲的叶子，没有空闲时新建
+     *
+     * @return
+     * @throws IOException
+     */
+    public CgroupLeaf lease() throws IOException {
+        if (!available) {
+            throw new IOException("cgroup 不可用");
+        }
+        CgroupLeaf leaf = idleLeaves.poll();
+        if (leaf == null || !Files.isDirectory(leaf.getDir())) {
+            leaf = newLeaf();
+        }
+        leaf.begin();
+        leasedCount.incrementAndGet();
+        return leaf;
+    }
+
+    /**
+     * 回收叶子：杀死其中剩余的进程，清空后放回池中
+     *
+     * @param leaf
+     */
+    public void release(CgroupLeaf leaf) {
+        leasedCount.decrementAndGet();
+        leaf.end();
+        boolean empty = killAll(leaf);
+        if (empty && leaf.isReusable() && idleLeaves.size() < cgroupProperties.getPoolSize()) {
+            idleLeaves.offer(leaf);
+            return;
+        }
+        if (!empty) {
+            discardedCount.incrementAndGet();
+            log.warn("cgroup leaf still has processes, discarded: {}", leaf.getDir());
+        }
+        remove(leaf.getDir());
+    }
+
+    public int getLeasedCount() {
+        return leasedCount.get();
+    }
+
+    public int getIdleCount() {
+        return idleLeaves.size();
+    }
+
+    /**
+     * 回收时进程杀不掉而被丢弃的叶子数
+     *
+     * @return
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    /**
+     * 每个用例可用的整数 CPU 核数，用于设置用户程序 JVM 的 ActiveProcessorCount
+     *
+     * @return
+     */
+    public int getCpuLimit() {
+        return Math.max(1, (int) Math.ceil(cgroupProperties.getCpuCount()));
+    }
+
+    public void shutdown() {
+        if (!available) {
+            return;
+        }
+        CgroupLeaf leaf;
+        while ((leaf = idleLeaves.poll()) != null) {
+            remove(leaf.getDir());
+        }
+        removeInstance(instanceDir);
+    }
+
+    private CgroupLeaf newLeaf() throws IOException {
+        Path dir = instanceDir.resolve(LEAF_PREFIX + leafSeq.incrementAndGet());
+        Files.createDirectories(dir);
+        CgroupLeaf leaf = new CgroupLeaf(dir);
+        leaf.write("memory.max", String.valueOf(cgroupProperties.getMemoryMax()));
+        leaf.write("cpu.max", Math.max(1000L, (long) (cgroupProperties.getCpuCount() * CPU_PERIOD_USEC)) + " " + CPU_PERIOD_USEC);
+        leaf.write("pids.max", String.valueOf(cgroupProperties.getPidsMax()));
+        if (Files.exists(dir.resolve("memory.swap.max"))) {
+            // 没有开启 swap 记账时不存在
+            leaf.write("memory.swap.max", "0");
+        }
+        return leaf;
+    }
+
+    /**
+     * 杀死叶子中的所有进程并等待退出
+     *
+     * @param leaf
+     * @return 叶子是否已清空
+     */
+    private boolean killAll(CgroupLeaf leaf) {
+        try {
+            List<String> pidList = leaf.readProcs();
+            if (pidList.isEmpty()) {
+                return true;
+            }
+            if (Files.exists(leaf.getDir().resolve("cgroup.kill"))) {
+                leaf.write("cgroup.kill", "1");
+            } else {
+                // 内核 5.14 以下没有 cgroup.kill
+                List<String> command = new ArrayList<>(Arrays.asList("kill", "-9"));
+                command.addAll(pidList);
+                new ProcessBuilder(command).start().waitFor(cgroupProperties.getKillTimeoutMillis(), TimeUnit.MILLISECONDS);
+            }
+            long deadline = System.currentTimeMillis() + cgroupProperties.getKillTimeoutMillis();
+            while (!leaf.readProcs().isEmpty()) {
+                if (System.currentTimeMillis() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void enableControllers(Path dir) throws IOException {
+        List<String> enabled = readTokens(dir.resolve("cgroup.subtree_control"));
+        StringBuilder builder = new StringBuilder();
+        for (String controller : CONTROLLERS) {
+            if (!enabled.contains(controller)) {
+                builder.append(builder.length() == 0 ? "" : " ").append('+').append(controller);
+            }
+        }
+        if (builder.length() > 0) {
+            Files.write(dir.resolve("cgroup.subtree_control"), builder.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * 清理进程已经退出的其他实例遗留的目录
+     *
+     * @param baseDir
+     */
+    private void sweepOrphanInstances(Path baseDir) throws IOException {
+        try (DirectoryStream<Path> instanceDirs = Files.newDirectoryStream(baseDir, INSTANCE_PREFIX + "*")) {
+            for (Path dir : instanceDirs) {
+                String pid = dir.getFileName().toString().substring(INSTANCE_PREFIX.length());
+                if (!dir.equals(instanceDir) && !new File("/proc", pid).exists()) {
+                    log.info("remove orphan cgroup: {}", dir);
+                    removeInstance(dir);
+                }
+            }
+        }
+    }
+
+    private void removeInstance(Path dir) {
+        try (DirectoryStream<Path> leafDirs = Files.newDirectoryStream(dir, LEAF_PREFIX + "*")) {
+            for (Path leafDir : leafDirs) {
+                CgroupLeaf leaf = new CgroupLeaf(leafDir);
+                killAll(leaf);
+                remove(leafDir);
+            }
+        } catch (IOException e) {
+            log.warn("list cgroup error: {}", dir);
+        }
+        remove(dir);
+    }
+
+    /**
+     * cgroup 目录中的控制文件不能删除，只能对目录本身 rmdir
+     *
+     * @param dir
+     */
+    private void remove(Path dir) {
+        try {
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            log.warn("remove cgroup error: {}, {}", dir, e.toString());
+        }
+    }
+
+    private static List<String> readControllers(Path root) throws IOException {
+        return readTokens(root.resolve("cgroup.controllers"));
+    }
+
+    private static List<String> readTokens(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        String content = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+        return content.isEmpty() ? new ArrayList<>() : Arrays.asList(content.split("\\s+"));
+    }
+}
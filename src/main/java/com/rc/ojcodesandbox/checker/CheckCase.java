@@ -0,0 +1,35 @@
+package com.rc.ojcodesandbox.checker;
+
+import com.rc.ojcodesandbox.execute.InputSource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * @Author：rancheng
+ * @name：CheckCase 需要比较输出的单个用例
+ * @Date：2026/10/18 21:00
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckCase {
+    /**
+     * 标准输入
+     */
+    private InputSource input;
+    /**
+     * 期望输出
+     */
+    private InputSource expected;
+    /**
+     * 输入文件，用例来自测试用例库时才有，自定义评测程序需要
+     */
+    private Path inputPath;
+    /**
+     * 期望输出文件，用例来自测试用例库时才有，自定义评测程序需要
+     */
+    private Path expectedPath;
+}
@@ -0,0 +1,69 @@
+package com.rc.ojcodesandbox.checker;
+
+import com.rc.ojcodesandbox.model.CheckResult;
+import com.rc.ojcodesandbox.model.OutputText;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author：rancheng
+ * @name：CheckSession 单个用例的一次输出比较
+ * @Date：2026/10/18 21:00
+ * feed 在读取 stdout 的线程中调用，finish 在程序结束后调用，两者不会并发
+ */
+public interface CheckSession extends Closeable {
+
+    /**
+     * 写入一段程序输出
+     *
+     * @param bytes
+     * @param off
+     * @param len
+     * @return false 表示已经确定不一致，可以直接结束程序
+     */
+    boolean feed(byte[] bytes, int off, int len);
+
+    /**
+     * 是否已经提前确定不一致
+     *
+     * @return
+     */
+    boolean isRejected();
+
+    /**
+     * 程序输出结束，给出结论
+     *
+     * @return
+     */
+    CheckResult finish();
+
+    @Override
+    void close();
+
+    /**
+     * 一次写入完整输出，用于拿不到输出流、只能拿到完整输出的执行方式
+     *
+     * @param output
+     * @return
+     */
+    default CheckResult check(String output) {
+        byte[] bytes = output == null ? new byte[0] : output.getBytes(StandardCharsets.UTF_8);
+        feed(bytes, 0, bytes.length);
+        return finish();
+    }
+
+    /**
+     * 一次写入完整输出，只含 ASCII 字符的输出直接比较原始字节，不再解码、编码
+     *
+     * @param output
+     * @return
+     */
+    default CheckResult check(OutputText output) {
+        if (output == null || !output.isPlain()) {
+            return check(output == null ? null : output.toString());
+        }
+        feed(output.bytes(), 0, output.length());
+        return finish();
+    }
+}
@@ -0,0 +1,197 @@
+package com.rc.ojcodesandbox.checker;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.model.CheckResult;
+import com.rc.ojcodesandbox.model.enums.CaseVerdictEnum;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CustomOutputChecker 自定义评测程序
+ * @Date：2026/10/18 21:00
+ * 1.评测程序是与测试用例一起上传的 C++ 源码，第一次使用时编译到同一目录，之后直接复用
+ * 2.按 testlib 的约定调用：checker 输入文件 程序输出文件 期望输出文件，退出码 0 通过，1、2 答案错误，其他为评测程序错误
+ * 3.评测程序需要完整的输出文件，程序输出边产生边写到临时文件，不在内存中保留
+ */
+public class CustomOutputChecker implements OutputChecker {
+
+    /**
+     * 评测程序输出中最多保留的字节数
+     */
+    private static final int MESSAGE_LENGTH = 256;
+
+    private static final Map<String, Object> COMPILE_LOCK_MAP = new ConcurrentHashMap<>();
+
+    private final Path checkerPath;
+
+    private final long timeOut;
+
+    /**
+     * @param checkerSourcePath 评测程序源码
+     * @param timeOut           评测程序单次运行的超时时间（毫秒）
+     * @throws IOException 编译失败
+     */
+    public CustomOutputChecker(Path checkerSourcePath, long timeOut) throws IOException {
+        this.checkerPath = compile(checkerSourcePath);
+        this.timeOut = timeOut;
+    }
+
+    @Override
+    public CheckSession open(CheckCase checkCase) throws IOException {
+        if (checkCase.getInputPath() == null || checkCase.getExpectedPath() == null) {
+            throw new IllegalArgumentException("自定义评测程序只能用于测试用例库中的用例");
+        }
+        Path outputPath = Files.createTempFile("checker-output-", ".out");
+        return new Session(checkCase, outputPath);
+    }
+
+    /**
+     * 编译评测程序，源码没有变化时复用已编译的文件
+     *
+     * @param sourcePath
+     * @return
+     * @throws IOException
+     */
+    private static Path compile(Path sourcePath) throws IOException {
+        Path binaryPath = sourcePath.resolveSibling("checker");
+        synchronized (COMPILE_LOCK_MAP.computeIfAbsent(binaryPath.toString(), key -> new Object())) {
+            if (Files.isExecutable(binaryPath)
+                    && Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(sourcePath)) >= 0) {
+                return binaryPath;
+            }
+            Path tempPath = sourcePath.resolveSibling(".checker-" + System.nanoTime());
+            List<String> command = Arrays.asList("g++", "-O2", "-std=c++17", "-o", tempPath.toString(), sourcePath.toString());
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try {
+                String compileMessage;
+                try (InputStream inputStream = process.getInputStream()) {
+                    compileMessage = IoUtil.read(inputStream, StandardCharsets.UTF_8);
+                }
+                if (process.waitFor() != 0) {
+                    throw new IOException("评测程序编译失败：" + compileMessage);
+                }
+                Files.move(tempPath, binaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+                throw new IOException("评测程序编译被中断", e);
+            } finally {
+                FileUtil.del(tempPath.toFile());
+            }
+            return binaryPath;
+        }
+    }
+
+    private class Session implements CheckSession {
+
+        private final CheckCase checkCase;
+
+        private final Path outputPath;
+
+        private final FileChannel outputChannel;
+
+        private CheckResult result;
+
+        private Session(CheckCase checkCase, Path outputPath) throws IOException {
+            this.checkCase = checkCase;
+            this.outputPath = outputPath;
+            this.outputChannel = FileChannel.open(outputPath, StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public boolean feed(byte[] bytes, int off, int len) {
+            if (result != null) {
+                return false;
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, off, len);
+                while (buffer.hasRemaining()) {
+                    outputChannel.write(buffer);
+                }
+            } catch (IOException e) {
+                result = new CheckResult(CaseVerdictEnum.CHECKER_ERROR, "保存程序输出失败：" + e.getMessage());
+            }
+            return result == null;
+        }
+
+        @Override
+        public boolean isRejected() {
+            return result != null;
+        }
+
+        @Override
+        public CheckResult finish() {
+            if (result == null) {
+                result = runChecker();
+            }
+            return result;
+        }
+
+        private CheckResult runChecker() {
+            File messageFile = null;
+            try {
+                outputChannel.close();
+                messageFile = File.createTempFile("checker-message-", ".txt");
+                Process process = new ProcessBuilder(checkerPath.toString(), checkCase.getInputPath().toString(),
+                        outputPath.toString(), checkCase.getExpectedPath().toString())
+                        .redirectErrorStream(true)
+                        .redirectOutput(messageFile)
+                        .start();
+                IoUtil.close(process.getOutputStream());
+                if (!process.waitFor(timeOut, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                    return new CheckResult(CaseVerdictEnum.CHECKER_ERROR, "评测程序运行超时");
+                }
+                String message = readMessage(messageFile);
+                switch (process.exitValue()) {
+                    case 0:
+                        return new CheckResult(CaseVerdictEnum.ACCEPTED, message);
+                    case 1:
+                    case 2:
+                        return new CheckResult(CaseVerdictEnum.WRONG_ANSWER, message);
+                    default:
+                        return new CheckResult(CaseVerdictEnum.CHECKER_ERROR, message);
+                }
+            } catch (IOException e) {
+                return new CheckResult(CaseVerdictEnum.CHECKER_ERROR, "评测程序运行失败：" + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new CheckResult(CaseVerdictEnum.CHECKER_ERROR, "评测被中断");
+            } finally {
+                if (messageFile != null) {
+                    FileUtil.del(messageFile);
+                }
+            }
+        }
+
+        private String readMessage(File messageFile) throws IOException {
+            try (InputStream inputStream = Files.newInputStream(messageFile.toPath())) {
+                byte[] bytes = IoUtil.readBytes(inputStream, MESSAGE_LENGTH);
+                return StrUtil.emptyToNull(new String(bytes, StandardCharsets.UTF_8).trim());
+            }
+        }
+
+        @Override
+        public void close() {
+            IoUtil.close(outputChannel);
+            FileUtil.del(outputPath.toFile());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.rc.ojcodesandbox.checker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * @Author：rancheng
+ * @name：ExactOutputChecker 精确比较
+ * @Date：2026/10/18 21:00
+ * 逐字节比较，\r\n 与 \n 视为相同，忽略两边末尾的空行
+ */
+public class ExactOutputChecker implements OutputChecker {
+
+    @Override
+    public CheckSession open(CheckCase checkCase) throws IOException {
+        return new Session(new ExpectedReader(checkCase.getExpected()));
+    }
+
+    private static class Session extends StreamCheckSession {
+
+        private int line = 1;
+
+        /**
+         * 还没有确认的换行数：后面还有内容时才需要与期望输出比较，到末尾时忽略
+         */
+        private long pendingNewlines;
+
+        /**
+         * 当前行最后 SNIPPET_LENGTH 个字节，环形存放
+         */
+        private final byte[] lineTail = new byte[SNIPPET_LENGTH];
+
+        private int column;
+
+        private Session(ExpectedReader expectedReader) {
+            super(expectedReader);
+        }
+
+        @Override
+        protected void compare(byte[] bytes, int off, int len) throws IOException {
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                int b = bytes[i] & 0xff;
+                if (b == '\r') {
+                    continue;
+                }
+                if (b == '\n') {
+                    pendingNewlines++;
+                    continue;
+                }
+                for (; pendingNewlines > 0; pendingNewlines--) {
+                    if (!match('\n', bytes, i, end)) {
+                        return;
+                    }
+                }
+                if (!match(b, bytes, i + 1, end)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        protected void finishCompare() throws IOException {
+            // 程序输出已结束，期望输出剩下的只能是换行
+            int newlines = 0;
+            int expected;
+            while ((expected = nextExpected()) == '\n') {
+                newlines++;
+            }
+            if (expected != -1) {
+                String prefix = newlines == 0 ? lineTail() : "";
+                reject("第 " + (line + newlines) + " 行不一致，期望：" + prefix + expectedRest(expected)
+                        + "，实际：" + prefix + EOF_MARK);
+            }
+        }
+
+        private boolean match(int actual, byte[] bytes, int restFrom, int end) throws IOException {
+            int expected = nextExpected();
+            if (expected == actual) {
+                if (actual == '\n') {
+                    line++;
+                    column = 0;
+                } else {
+                    lineTail[column % SNIPPET_LENGTH] = (byte) actual;
+                    column++;
+                }
+                return true;
+            }
+            String prefix = lineTail();
+            reject("第 " + line + " 行不一致，期望：" + prefix + expectedRest(expected)
+                    + "，实际：" + prefix + actualRest(actual, bytes, restFrom, end));
+            return false;
+        }
+
+        private int nextExpected() throws IOException {
+            int b;
+            do {
+                b = expectedReader.read();
+            } while (b == '\r');
+            return b;
+        }
+
+        private String lineTail() {
+            int count = Math.min(column, SNIPPET_LENGTH);
+            byte[] bytes = new byte[count];
+            for (int i = 0; i < count; i++) {
+                bytes[i] = lineTail[(column - count + i) % SNIPPET_LENGTH];
+            }
+            return (column > SNIPPET_LENGTH ? "..." : "") + snippet(bytes, 0, count);
+        }
+
+        /**
+         * 期望输出当前行剩下的内容
+         */
+        private String expectedRest(int first) throws IOException {
+            if (first == -1) {
+                return EOF_MARK;
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            int b = first;
+            while (b != -1 && b != '\n' && outputStream.size() <= SNIPPET_LENGTH) {
+                outputStream.write(b);
+                b = nextExpected();
+            }
+            byte[] bytes = outputStream.toByteArray();
+            return snippet(bytes, 0, bytes.length);
+        }
+
+        /**
+         * 程序输出当前行剩下的内容，只取本次已经读到的部分
+         */
+        private String actualRest(int first, byte[] bytes, int restFrom, int end) {
+            if (first == '\n') {
+                return "";
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            outputStream.write(first);
+            for (int i = restFrom; i < end && bytes[i] != '\n' && bytes[i] != '\r' && outputStream.size() <= SNIPPET_LENGTH; i++) {
+                outputStream.write(bytes[i]);
+            }
+            byte[] rest = outputStream.toByteArray();
+            return snippet(rest, 0, rest.length);
+        }
+    }
+}
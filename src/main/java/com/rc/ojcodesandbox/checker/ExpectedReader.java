@@ -0,0 +1,59 @@
+package com.rc.ojcodesandbox.checker;
+
+import com.rc.ojcodesandbox.execute.InputSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * @Author：rancheng
+ * @name：ExpectedReader 按字节读取期望输出
+ * @Date：2026/10/18 21:00
+ */
+class ExpectedReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ReadableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private boolean eof;
+
+    ExpectedReader(InputSource source) throws IOException {
+        this.channel = source.openChannel();
+        buffer.flip();
+    }
+
+    /**
+     * 读取下一个字节
+     *
+     * @return 到达末尾返回 -1
+     * @throws IOException
+     */
+    int read() throws IOException {
+        while (!buffer.hasRemaining()) {
+            if (eof) {
+                return -1;
+            }
+            buffer.clear();
+            int n = channel.read(buffer);
+            buffer.flip();
+            if (n == -1) {
+                eof = true;
+            }
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // 只读通道，关闭失败不影响结果
+        }
+    }
+}
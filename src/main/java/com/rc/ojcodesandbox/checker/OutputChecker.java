@@ -0,0 +1,21 @@
+package com.rc.ojcodesandbox.checker;
+
+import java.io.IOException;
+
+/**
+ * @Author：rancheng
+ * @name：OutputChecker 输出比较器
+ * @Date：2026/10/18 21:00
+ * 每个用例开一个 CheckSession，程序输出边产生边比较，不需要先收集完整输出
+ */
+public interface OutputChecker {
+
+    /**
+     * 开始比较一个用例
+     *
+     * @param checkCase
+     * @return
+     * @throws IOException 打开期望输出失败
+     */
+    CheckSession open(CheckCase checkCase) throws IOException;
+}
@@ -0,0 +1,109 @@
+package com.rc.ojcodesandbox.checker;
+
+import com.rc.ojcodesandbox.model.CheckResult;
+import com.rc.ojcodesandbox.model.enums.CaseVerdictEnum;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author：rancheng
+ * @name：StreamCheckSession 与期望输出逐字节对照的比较过程
+ * @Date：2026/10/18 21:00
+ * 发现第一处不一致后不再读取后续输出，只保留附近的一小段差异
+ */
+abstract class StreamCheckSession implements CheckSession {
+
+    /**
+     * 差异片段中每一侧最多展示的字节数
+     */
+    static final int SNIPPET_LENGTH = 32;
+
+    static final String EOF_MARK = "[EOF]";
+
+    protected final ExpectedReader expectedReader;
+
+    private CheckResult result;
+
+    StreamCheckSession(ExpectedReader expectedReader) {
+        this.expectedReader = expectedReader;
+    }
+
+    @Override
+    public boolean feed(byte[] bytes, int off, int len) {
+        if (result != null) {
+            return false;
+        }
+        try {
+            compare(bytes, off, len);
+        } catch (IOException e) {
+            result = new CheckResult(CaseVerdictEnum.CHECKER_ERROR, "读取期望输出失败：" + e.getMessage());
+        }
+        return result == null;
+    }
+
+    @Override
+    public boolean isRejected() {
+        return result != null;
+    }
+
+    @Override
+    public CheckResult finish() {
+        if (result == null) {
+            try {
+                finishCompare();
+            } catch (IOException e) {
+                result = new CheckResult(CaseVerdictEnum.CHECKER_ERROR, "读取期望输出失败：" + e.getMessage());
+            }
+        }
+        if (result == null) {
+            result = CheckResult.accepted();
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        expectedReader.close();
+    }
+
+    /**
+     * 比较一段程序输出，不一致时调用 reject 并停止
+     *
+     * @param bytes
+     * @param off
+     * @param len
+     * @throws IOException
+     */
+    protected abstract void compare(byte[] bytes, int off, int len) throws IOException;
+
+    /**
+     * 程序输出结束，检查期望输出是否还有剩余，不一致时调用 reject
+     *
+     * @throws IOException
+     */
+    protected abstract void finishCompare() throws IOException;
+
+    protected void reject(String message) {
+        result = new CheckResult(CaseVerdictEnum.WRONG_ANSWER, message);
+    }
+
+    static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0b;
+    }
+
+    /**
+     * 截取差异片段，超出部分用 ... 表示
+     *
+     * @param bytes
+     * @param off
+     * @param len
+     * @return
+     */
+    static String snippet(byte[] bytes, int off, int len) {
+        if (len <= SNIPPET_LENGTH) {
+            return new String(bytes, off, len, StandardCharsets.UTF_8);
+        }
+        return new String(bytes, off, SNIPPET_LENGTH, StandardCharsets.UTF_8) + "...";
+    }
+}
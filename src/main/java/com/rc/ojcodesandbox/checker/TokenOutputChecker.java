@@ -0,0 +1,138 @@
+package com.rc.ojcodesandbox.checker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * @Author：rancheng
+ * @name：TokenOutputChecker 忽略空白 / 浮点误差比较
+ * @Date：2026/10/18 21:00
+ * 按空白字符拆分后逐个比较；epsilon 不为空时，两边都是数字的允许绝对误差或相对误差不超过 epsilon
+ */
+public class TokenOutputChecker implements OutputChecker {
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private final Double epsilon;
+
+    public TokenOutputChecker(Double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public CheckSession open(CheckCase checkCase) throws IOException {
+        return new Session(new ExpectedReader(checkCase.getExpected()), epsilon);
+    }
+
+    static boolean tokenEquals(byte[] actual, int actualLen, byte[] expected, int expectedLen, Double epsilon) {
+        if (actualLen == expectedLen) {
+            int i = 0;
+            while (i < actualLen && actual[i] == expected[i]) {
+                i++;
+            }
+            if (i == actualLen) {
+                return true;
+            }
+        }
+        if (epsilon == null) {
+            return false;
+        }
+        String actualText = new String(actual, 0, actualLen, StandardCharsets.ISO_8859_1);
+        String expectedText = new String(expected, 0, expectedLen, StandardCharsets.ISO_8859_1);
+        if (!NUMBER_PATTERN.matcher(actualText).matches() || !NUMBER_PATTERN.matcher(expectedText).matches()) {
+            return false;
+        }
+        double actualValue = Double.parseDouble(actualText);
+        double expectedValue = Double.parseDouble(expectedText);
+        double diff = Math.abs(actualValue - expectedValue);
+        return diff <= epsilon || diff <= epsilon * Math.abs(expectedValue);
+    }
+
+    private static class Session extends StreamCheckSession {
+
+        private final Double epsilon;
+
+        private byte[] token = new byte[64];
+
+        private int tokenLen;
+
+        private byte[] expectedToken = new byte[64];
+
+        private int expectedLen;
+
+        private long index;
+
+        private Session(ExpectedReader expectedReader, Double epsilon) {
+            super(expectedReader);
+            this.epsilon = epsilon;
+        }
+
+        @Override
+        protected void compare(byte[] bytes, int off, int len) throws IOException {
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                byte b = bytes[i];
+                if (isWhitespace(b)) {
+                    if (tokenLen > 0 && !matchToken()) {
+                        return;
+                    }
+                    tokenLen = 0;
+                } else {
+                    if (tokenLen == token.length) {
+                        token = Arrays.copyOf(token, token.length << 1);
+                    }
+                    token[tokenLen++] = b;
+                }
+            }
+        }
+
+        @Override
+        protected void finishCompare() throws IOException {
+            if (tokenLen > 0 && !matchToken()) {
+                return;
+            }
+            if (readExpectedToken()) {
+                reject("第 " + (index + 1) + " 个数据不一致，期望：" + snippet(expectedToken, 0, expectedLen)
+                        + "，实际：" + EOF_MARK);
+            }
+        }
+
+        private boolean matchToken() throws IOException {
+            index++;
+            if (!readExpectedToken()) {
+                reject("第 " + index + " 个数据不一致，期望：" + EOF_MARK + "，实际：" + snippet(token, 0, tokenLen));
+                return false;
+            }
+            if (!tokenEquals(token, tokenLen, expectedToken, expectedLen, epsilon)) {
+                reject("第 " + index + " 个数据不一致，期望：" + snippet(expectedToken, 0, expectedLen)
+                        + "，实际：" + snippet(token, 0, tokenLen));
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * 读取期望输出的下一个数据
+         *
+         * @return 期望输出已结束返回 false
+         * @throws IOException
+         */
+        private boolean readExpectedToken() throws IOException {
+            int b;
+            do {
+                b = expectedReader.read();
+            } while (b != -1 && isWhitespace(b));
+            expectedLen = 0;
+            while (b != -1 && !isWhitespace(b)) {
+                if (expectedLen == expectedToken.length) {
+                    expectedToken = Arrays.copyOf(expectedToken, expectedToken.length << 1);
+                }
+                expectedToken[expectedLen++] = (byte) b;
+                b = expectedReader.read();
+            }
+            return expectedLen > 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.rc.ojcodesandbox.compile;
+
+/**
+ * @Author：rancheng
+ * @name：CompileMode 编译方式
+ * @Date：2026/10/18 10:50
+ */
+public enum CompileMode {
+    /**
+     * 每次提交都 fork 一个 javac 进程编译（原有方式，保留用于对比测试）
+     */
+    PROCESS,
+    /**
+     * 在沙箱 JVM 内通过 javax.tools 编译，class 文件输出到内存
+     */
+    IN_MEMORY
+}
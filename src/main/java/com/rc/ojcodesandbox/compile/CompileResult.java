@@ -0,0 +1,30 @@
+package com.rc.ojcodesandbox.compile;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * @Author：rancheng
+ * @name：CompileResult 内存编译结果
+ * @Date：2026/10/18 10:50
+ */
+@Data
+public class CompileResult {
+    /**
+     * 是否编译成功
+     */
+    private boolean success;
+    /**
+     * 编译产物，类全名 -> 字节码
+     */
+    private Map<String, byte[]> classes;
+    /**
+     * 编译诊断信息
+     */
+    private String message;
+    /**
+     * 是否命中编译缓存
+     */
+    private boolean cacheHit;
+}
@@ -0,0 +1,59 @@
+package com.rc.ojcodesandbox.compile;
+
+import cn.hutool.crypto.SecureUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author：rancheng
+ * @name：CompiledClassCache 以源码哈希为 key 的编译结果缓存
+ * @Date：2026/10/18 10:50
+ * 重判时同一份代码会被反复提交，命中缓存后直接跳过编译
+ */
+public class CompiledClassCache {
+
+    private final int maxSize;
+
+    private final Map<String, CompileResult> cache;
+
+    public CompiledClassCache(int maxSize) {
+        this.maxSize = maxSize;
+        // accessOrder = true，按访问顺序淘汰最久未使用的编译结果
+        this.cache = new LinkedHashMap<String, CompileResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompileResult> eldest) {
+                return size() > CompiledClassCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 计算源码的内容哈希
+     *
+     * @param code
+     * @return
+     */
+    public static String hash(String code) {
+        return SecureUtil.sha256(code);
+    }
+
+    public synchronized CompileResult get(String key) {
+        return cache.get(key);
+    }
+
+    public synchronized void put(String key, CompileResult compileResult) {
+        if (maxSize <= 0) {
+            return;
+        }
+        cache.put(key, compileResult);
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+}
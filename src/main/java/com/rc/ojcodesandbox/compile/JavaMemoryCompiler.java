@@ -0,0 +1,162 @@
+package com.rc.ojcodesandbox.compile;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @Author：rancheng
+ * @name：JavaMemoryCompiler 进程内编译器
+ * @Date：2026/10/18 10:50
+ * 复用同一个 JavaCompiler，避免每次提交都启动 javac 进程（JVM 启动 + 编译器类加载）
+ * StandardJavaFileManager 不是线程安全的，这里用一个简单的对象池复用
+ * 编译在沙箱进程内进行：类路径置空，用户代码看不到沙箱自己的依赖；关闭注解处理，
+ * 否则类路径上的注解处理器（如 lombok）会在沙箱进程内执行
+ */
+@Slf4j
+public class JavaMemoryCompiler {
+
+    private static final List<String> COMPILE_OPTIONS = Arrays.asList("-encoding", "utf-8", "-nowarn", "-proc:none");
+
+    private final JavaCompiler javaCompiler;
+
+    private final CompiledClassCache compiledClassCache;
+
+    private final Queue<StandardJavaFileManager> fileManagerPool = new ConcurrentLinkedQueue<>();
+
+    private final List<String> compileOptions;
+
+    public JavaMemoryCompiler(int cacheSize) {
+        this(cacheSize, null);
+    }
+
+    /**
+     * @param cacheSize
+     * @param release   目标 Java 版本（--release），为空时与沙箱所在的 JDK 一致
+     */
+    public JavaMemoryCompiler(int cacheSize, String release) {
+        // 运行在 JRE 上时获取不到编译器，返回 null
+        this.javaCompiler = ToolProvider.getSystemJavaCompiler();
+        this.compiledClassCache = new CompiledClassCache(cacheSize);
+        List<String> options = new ArrayList<>(COMPILE_OPTIONS);
+        if (StrUtil.isNotBlank(release)) {
+            options.add("--release");
+            options.add(release);
+        }
+        this.compileOptions = Collections.unmodifiableList(options);
+    }
+
+    /**
+     * 当前运行环境是否支持进程内编译
+     *
+     * @return
+     */
+    public boolean isAvailable() {
+        return javaCompiler != null;
+    }
+
+    public CompiledClassCache getCompiledClassCache() {
+        return compiledClassCache;
+    }
+
+    /**
+     * 编译源码，相同源码直接返回缓存结果
+     *
+     * @param fileName 源文件名，如 Main.java
+     * @param code     源码
+     * @return
+     */
+    public CompileResult compile(String fileName, String code) {
+        String key = CompiledClassCache.hash(fileName + "\n" + code);
+        CompileResult cached = compiledClassCache.get(key);
+        if (cached != null) {
+            CompileResult compileResult = new CompileResult();
+            compileResult.setSuccess(cached.isSuccess());
+            compileResult.setClasses(cached.getClasses());
+            compileResult.setMessage(cached.getMessage());
+            compileResult.setCacheHit(true);
+            return compileResult;
+        }
+        CompileResult compileResult = doCompile(fileName, code);
+        compiledClassCache.put(key, compileResult);
+        return compileResult;
+    }
+
+    private CompileResult doCompile(String fileName, String code) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("当前运行环境不支持进程内编译，请使用 JDK 启动或切换为 PROCESS 编译方式");
+        }
+        StandardJavaFileManager standardFileManager = borrowFileManager();
+        DiagnosticCollector<JavaFileObject> diagnosticCollector = new DiagnosticCollector<>();
+        MemoryJavaFileManager memoryFileManager = new MemoryJavaFileManager(standardFileManager);
+        CompileResult compileResult = new CompileResult();
+        try {
+            JavaCompiler.CompilationTask task = javaCompiler.getTask(null, memoryFileManager, diagnosticCollector,
+                    compileOptions, null, Collections.singletonList(new MemoryJavaFileManager.SourceFile(fileName, code)));
+            boolean success = Boolean.TRUE.equals(task.call());
+            compileResult.setSuccess(success);
+            compileResult.setMessage(formatDiagnostics(diagnosticCollector));
+            if (success) {
+                compileResult.setClasses(Collections.unmodifiableMap(memoryFileManager.getClassBytes()));
+            }
+        } finally {
+            fileManagerPool.offer(standardFileManager);
+        }
+        return compileResult;
+    }
+
+    private StandardJavaFileManager borrowFileManager() {
+        StandardJavaFileManager fileManager = fileManagerPool.poll();
+        if (fileManager == null) {
+            fileManager = javaCompiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+            try {
+                // 相当于 -classpath 为空，不使用 java.class.path，也不回退到当前目录
+                fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.<File>emptyList());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return fileManager;
+    }
+
+    private String formatDiagnostics(DiagnosticCollector<JavaFileObject> diagnosticCollector) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnosticCollector.getDiagnostics()) {
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append("\n");
+            }
+            stringBuilder.append(diagnostic.toString());
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * 关闭池中的文件管理器
+     */
+    public void close() {
+        StandardJavaFileManager fileManager;
+        while ((fileManager = fileManagerPool.poll()) != null) {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                log.warn("close file manager error", e);
+            }
+        }
+    }
+}
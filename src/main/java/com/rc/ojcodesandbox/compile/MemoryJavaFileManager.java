@@ -0,0 +1,71 @@
+package com.rc.ojcodesandbox.compile;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author：rancheng
+ * @name：MemoryJavaFileManager 把编译输出的 class 文件写到内存中
+ * @Date：2026/10/18 10:50
+ * 一次编译对应一个实例，底层的 StandardJavaFileManager 由调用方复用
+ */
+class MemoryJavaFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+    private final Map<String, ByteArrayOutputStream> classBytes = new LinkedHashMap<>();
+
+    MemoryJavaFileManager(JavaFileManager fileManager) {
+        super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        classBytes.put(className, outputStream);
+        return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+            @Override
+            public OutputStream openOutputStream() {
+                return outputStream;
+            }
+        };
+    }
+
+    /**
+     * 不关闭底层的文件管理器，留给下一次编译复用
+     */
+    @Override
+    public void close() {
+    }
+
+    Map<String, byte[]> getClassBytes() {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : classBytes.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return result;
+    }
+
+    /**
+     * 内存中的源码文件
+     */
+    static class SourceFile extends SimpleJavaFileObject {
+        private final String code;
+
+        SourceFile(String fileName, String code) {
+            super(URI.create("string:///" + fileName), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
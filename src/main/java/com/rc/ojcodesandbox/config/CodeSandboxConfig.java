@@ -0,0 +1,259 @@
+package com.rc.ojcodesandbox.config;
+
+import cn.hutool.core.util.StrUtil;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.rc.ojcodesandbox.JavaCgroupCodeSandbox;
+import com.rc.ojcodesandbox.JavaCodeSandboxTemplate;
+import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.NativeLanguageCodeSandbox;
+import com.rc.ojcodesandbox.admission.AdmissionCodeSandbox;
+import com.rc.ojcodesandbox.admission.AdmissionController;
+import com.rc.ojcodesandbox.artifact.ArtifactStore;
+import com.rc.ojcodesandbox.cgroup.CgroupManager;
+import com.rc.ojcodesandbox.compile.JavaMemoryCompiler;
+import com.rc.ojcodesandbox.docker.ContainerPool;
+import com.rc.ojcodesandbox.docker.DockerClientFactory;
+import com.rc.ojcodesandbox.docker.DockerExecPipeline;
+import com.rc.ojcodesandbox.docker.MeteredDockerHttpClient;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.execute.ProcessStatsSampler;
+import com.rc.ojcodesandbox.execute.TestCaseExecutor;
+import com.rc.ojcodesandbox.job.ExecuteJobManager;
+import com.rc.ojcodesandbox.language.CLanguageStrategy;
+import com.rc.ojcodesandbox.language.CodeSandboxRegistry;
+import com.rc.ojcodesandbox.language.CppLanguageStrategy;
+import com.rc.ojcodesandbox.language.GoLanguageStrategy;
+import com.rc.ojcodesandbox.language.LanguageStrategy;
+import com.rc.ojcodesandbox.language.PythonLanguageStrategy;
+import com.rc.ojcodesandbox.metrics.CodeSandboxMeterBinder;
+import com.rc.ojcodesandbox.metrics.CodeSandboxMetrics;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import com.rc.ojcodesandbox.runner.CdsArchiveManager;
+import com.rc.ojcodesandbox.runner.JavaRunnerPool;
+import com.rc.ojcodesandbox.screen.CodeScreener;
+import com.rc.ojcodesandbox.testcase.TestCaseStore;
+import com.rc.ojcodesandbox.workspace.WorkspaceManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxConfig 代码沙箱共享组件
+ * @Date：2026/10/18 10:50
+ * 各个沙箱实现共用同一份组件（编译器、编译缓存等）
+ */
+@Configuration
+public class CodeSandboxConfig {
+
+    @Bean(destroyMethod = "close")
+    public JavaMemoryCompiler javaMemoryCompiler(CodeSandboxProperties codeSandboxProperties) {
+        return new JavaMemoryCompiler(codeSandboxProperties.getCompile().getCacheSize(),
+                codeSandboxProperties.getCompile().getRelease());
+    }
+
+    @Bean
+    public CodeSandboxMetrics codeSandboxMetrics(MeterRegistry meterRegistry) {
+        return new CodeSandboxMetrics(meterRegistry);
+    }
+
+    /**
+     * 各组件的状态指标（子进程、容器、排队等），由 actuator 在采集时读取
+     */
+    @Bean
+    public CodeSandboxMeterBinder codeSandboxMeterBinder(ProcessReaper processReaper, TestCaseExecutor testCaseExecutor,
+                                                         WorkspaceManager workspaceManager, ArtifactStore artifactStore,
+                                                         AdmissionController admissionController,
+                                                         ObjectProvider<JavaRunnerPool> javaRunnerPool, ObjectProvider<CgroupManager> cgroupManager,
+                                                         ContainerPool containerPool, MeteredDockerHttpClient dockerHttpClient) {
+        CodeSandboxMeterBinder codeSandboxMeterBinder = new CodeSandboxMeterBinder();
+        codeSandboxMeterBinder.setProcessReaper(processReaper);
+        codeSandboxMeterBinder.setTestCaseExecutor(testCaseExecutor);
+        codeSandboxMeterBinder.setWorkspaceManager(workspaceManager);
+        codeSandboxMeterBinder.setArtifactStore(artifactStore);
+        codeSandboxMeterBinder.setAdmissionController(admissionController);
+        codeSandboxMeterBinder.setJavaRunnerPool(javaRunnerPool.getIfAvailable());
+        codeSandboxMeterBinder.setCgroupManager(cgroupManager.getIfAvailable());
+        codeSandboxMeterBinder.setContainerPool(containerPool);
+        codeSandboxMeterBinder.setDockerHttpClient(dockerHttpClient);
+        return codeSandboxMeterBinder;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public TestCaseExecutor testCaseExecutor(CodeSandboxProperties codeSandboxProperties) {
+        CodeSandboxProperties.Execute execute = codeSandboxProperties.getExecute();
+        return new TestCaseExecutor(execute.getGlobalConcurrency(), execute.getPerRequestConcurrency());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ProcessReaper processReaper(CodeSandboxProperties codeSandboxProperties) {
+        return new ProcessReaper(codeSandboxProperties.getExecute().getKillGraceMillis());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public WorkspaceManager workspaceManager(CodeSandboxProperties codeSandboxProperties) {
+        return new WorkspaceManager(codeSandboxProperties.getWorkspace(), JavaCodeSandboxTemplate.GLOBAL_WORKSPACE_PATH_NAME);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ArtifactStore artifactStore(CodeSandboxProperties codeSandboxProperties) {
+        return new ArtifactStore(codeSandboxProperties.getArtifact(), JavaCodeSandboxTemplate.GLOBAL_ARTIFACT_PATH_NAME);
+    }
+
+    @Bean
+    public CodeScreener codeScreener(CodeSandboxProperties codeSandboxProperties) {
+        return new CodeScreener(codeSandboxProperties.getScreen());
+    }
+
+    @Bean
+    public TestCaseStore testCaseStore(CodeSandboxProperties codeSandboxProperties) {
+        String root = codeSandboxProperties.getTestCase().getRoot();
+        return new TestCaseStore(StrUtil.blankToDefault(root, JavaCodeSandboxTemplate.GLOBAL_TEST_CASE_PATH_NAME));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ProcessStatsSampler processStatsSampler(CodeSandboxProperties codeSandboxProperties) {
+        return new ProcessStatsSampler(codeSandboxProperties.getExecute().getSampleIntervalMillis());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "codesandbox.cds", name = "enabled", havingValue = "true")
+    public CdsArchiveManager cdsArchiveManager(CodeSandboxProperties codeSandboxProperties) {
+        CodeSandboxProperties.Cds cds = codeSandboxProperties.getCds();
+        CdsArchiveManager cdsArchiveManager = new CdsArchiveManager(cds,
+                StrUtil.blankToDefault(cds.getDir(), JavaCodeSandboxTemplate.GLOBAL_CDS_PATH_NAME));
+        cdsArchiveManager.start();
+        return cdsArchiveManager;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "codesandbox.runner", name = "enabled", havingValue = "true")
+    public JavaRunnerPool javaRunnerPool(CodeSandboxProperties codeSandboxProperties, ProcessReaper processReaper,
+                                         ObjectProvider<CdsArchiveManager> cdsArchiveManager) {
+        JavaRunnerPool javaRunnerPool = new JavaRunnerPool(codeSandboxProperties.getRunner(), processReaper,
+                JavaCodeSandboxTemplate.GLOBAL_RUNNER_PATH_NAME, codeSandboxProperties.getExecute().getOutputLimit());
+        javaRunnerPool.setCdsArchiveManager(cdsArchiveManager.getIfAvailable());
+        if (codeSandboxProperties.getRunner().isPrestart()) {
+            javaRunnerPool.prestart();
+        }
+        return javaRunnerPool;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "codesandbox.cgroup", name = "enabled", havingValue = "true")
+    public CgroupManager cgroupManager(CodeSandboxProperties codeSandboxProperties) {
+        return new CgroupManager(codeSandboxProperties.getCgroup());
+    }
+
+    @Bean
+    public DockerClientConfig dockerClientConfig(CodeSandboxProperties codeSandboxProperties) {
+        return DockerClientFactory.createConfig(codeSandboxProperties.getDocker());
+    }
+
+    @Bean(destroyMethod = "close")
+    public MeteredDockerHttpClient dockerHttpClient(DockerClientConfig dockerClientConfig, CodeSandboxProperties codeSandboxProperties) {
+        return DockerClientFactory.createHttpClient(dockerClientConfig, codeSandboxProperties.getDocker());
+    }
+
+    /**
+     * 全局共享一个 docker 客户端，底层 http 连接由 dockerHttpClient 负责关闭
+     */
+    @Bean(destroyMethod = "")
+    public DockerClient dockerClient(DockerClientConfig dockerClientConfig, MeteredDockerHttpClient dockerHttpClient) {
+        return DockerClientFactory.createDockerClient(dockerClientConfig, dockerHttpClient);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public DockerExecPipeline dockerExecPipeline(DockerClient dockerClient, CodeSandboxProperties codeSandboxProperties) {
+        return new DockerExecPipeline(dockerClient, codeSandboxProperties.getDocker().getExecCreateThreads());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ContainerPool containerPool(DockerClient dockerClient, CodeSandboxProperties codeSandboxProperties) {
+        ContainerPool containerPool = new ContainerPool(dockerClient,
+                codeSandboxProperties.getDocker(), JavaCodeSandboxTemplate.GLOBAL_DOCKER_PATH_NAME);
+        if (codeSandboxProperties.getDocker().isPrestart()) {
+            containerPool.prestart();
+        }
+        return containerPool;
+    }
+
+    @Bean
+    public AdmissionController admissionController(CodeSandboxProperties codeSandboxProperties) {
+        CodeSandboxProperties.Admission admission = codeSandboxProperties.getAdmission();
+        int slots = admission.getSlots() > 0 ? admission.getSlots() : AdmissionController.defaultSlots(admission.getMemoryPerSlotMb());
+        return new AdmissionController(slots, admission.getMaxQueueSize(), admission.getQueueTimeoutMillis());
+    }
+
+    /**
+     * 按语言路由的沙箱，Java 开启 cgroup 且可用时使用 cgroup 沙箱，否则使用原生沙箱；其他语言只注册工具链已安装的
+     */
+    @Bean
+    public CodeSandboxRegistry codeSandboxRegistry(CodeSandboxProperties codeSandboxProperties, JavaNativeCodeSandbox javaNativeCodeSandbox,
+                                                   JavaCgroupCodeSandbox javaCgroupCodeSandbox, ObjectProvider<CgroupManager> cgroupManager,
+                                                   TestCaseExecutor testCaseExecutor, ProcessReaper processReaper,
+                                                   ProcessStatsSampler processStatsSampler, WorkspaceManager workspaceManager,
+                                                   ArtifactStore artifactStore, CodeScreener codeScreener, TestCaseStore testCaseStore,
+                                                   CodeSandboxMetrics codeSandboxMetrics) {
+        CodeSandboxProperties.Language language = codeSandboxProperties.getLanguage();
+        CodeSandboxRegistry codeSandboxRegistry = new CodeSandboxRegistry();
+        if (language.getEnabled().contains(LanguageEnum.JAVA.getValue())) {
+            CgroupManager availableCgroupManager = cgroupManager.getIfAvailable();
+            codeSandboxRegistry.register(LanguageEnum.JAVA, availableCgroupManager != null && availableCgroupManager.isAvailable()
+                    ? javaCgroupCodeSandbox : javaNativeCodeSandbox);
+        }
+        List<LanguageStrategy> languageStrategyList = Arrays.asList(
+                new CLanguageStrategy(),
+                new CppLanguageStrategy(language.isCppPrecompiledHeader()),
+                new PythonLanguageStrategy(),
+                new GoLanguageStrategy(JavaCodeSandboxTemplate.GLOBAL_LANGUAGE_PATH_NAME + File.separator + "go-cache"));
+        for (LanguageStrategy languageStrategy : languageStrategyList) {
+            if (!language.getEnabled().contains(languageStrategy.getLanguage().getValue())
+                    || !CodeSandboxRegistry.isAvailable(languageStrategy)) {
+                continue;
+            }
+            NativeLanguageCodeSandbox nativeLanguageCodeSandbox = new NativeLanguageCodeSandbox(languageStrategy);
+            nativeLanguageCodeSandbox.setCodeSandboxProperties(codeSandboxProperties);
+            nativeLanguageCodeSandbox.setTestCaseExecutor(testCaseExecutor);
+            nativeLanguageCodeSandbox.setProcessReaper(processReaper);
+            nativeLanguageCodeSandbox.setProcessStatsSampler(processStatsSampler);
+            nativeLanguageCodeSandbox.setWorkspaceManager(workspaceManager);
+            nativeLanguageCodeSandbox.setArtifactStore(artifactStore);
+            nativeLanguageCodeSandbox.setCodeScreener(codeScreener);
+            nativeLanguageCodeSandbox.setTestCaseStore(testCaseStore);
+            nativeLanguageCodeSandbox.setCodeSandboxMetrics(codeSandboxMetrics);
+            codeSandboxRegistry.register(nativeLanguageCodeSandbox);
+        }
+        if (language.isWarmUp()) {
+            codeSandboxRegistry.warmUpAsync(JavaCodeSandboxTemplate.GLOBAL_LANGUAGE_PATH_NAME);
+        }
+        return codeSandboxRegistry;
+    }
+
+    /**
+     * 对外提供服务的沙箱：排队前预检 + 准入控制 + 按语言路由
+     */
+    @Bean
+    public AdmissionCodeSandbox admissionCodeSandbox(CodeSandboxRegistry codeSandboxRegistry, AdmissionController admissionController,
+                                                     CodeScreener codeScreener, CodeSandboxMetrics codeSandboxMetrics) {
+        AdmissionCodeSandbox admissionCodeSandbox = new AdmissionCodeSandbox(codeSandboxRegistry, admissionController);
+        admissionCodeSandbox.setCodeSandboxMetrics(codeSandboxMetrics);
+        admissionCodeSandbox.setCodeScreener(codeScreener);
+        return admissionCodeSandbox;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecuteJobManager executeJobManager(CodeSandboxProperties codeSandboxProperties, AdmissionCodeSandbox admissionCodeSandbox,
+                                               CodeSandboxMetrics codeSandboxMetrics) {
+        ExecuteJobManager executeJobManager = new ExecuteJobManager(admissionCodeSandbox, codeSandboxProperties.getJob());
+        executeJobManager.setCodeSandboxMetrics(codeSandboxMetrics);
+        return executeJobManager;
+    }
+}
@@ -0,0 +1,435 @@
+package com.rc.ojcodesandbox.config;
+
+import com.rc.ojcodesandbox.compile.CompileMode;
+import com.rc.ojcodesandbox.workspace.WorkspaceType;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxProperties 代码沙箱配置，对应 application.yml 中的 codesandbox.*
+ * @Date：2026/10/18 10:50
+ * 不通过 Spring 启动（如各沙箱的 main 方法）时使用这里的默认值
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "codesandbox")
+public class CodeSandboxProperties {
+
+    private Compile compile = new Compile();
+
+    private Execute execute = new Execute();
+
+    private Runner runner = new Runner();
+
+    private Docker docker = new Docker();
+
+    private Job job = new Job();
+
+    private Stream stream = new Stream();
+
+    private Admission admission = new Admission();
+
+    private Language language = new Language();
+
+    private Workspace workspace = new Workspace();
+
+    private TestCase testCase = new TestCase();
+
+    private Checker checker = new Checker();
+
+    private Cds cds = new Cds();
+
+    private Cgroup cgroup = new Cgroup();
+
+    private Artifact artifact = new Artifact();
+
+    private Screen screen = new Screen();
+
+    @Data
+    public static class Compile {
+        /**
+         * 编译方式
+         */
+        private CompileMode mode = CompileMode.IN_MEMORY;
+        /**
+         * 编译缓存最多保存的源码份数，0 表示不缓存
+         */
+        private int cacheSize = 256;
+        /**
+         * 目标 Java 版本（javac --release），为空时与沙箱所在的 JDK 一致；
+         * 用例在其他版本的 JVM 中运行时（如 docker 镜像为 openjdk:8）需要设置，否则 class 文件版本过高无法加载
+         */
+        private String release;
+    }
+
+    @Data
+    public static class Execute {
+        /**
+         * 全局同时执行的用例数上限
+         */
+        private int globalConcurrency = Runtime.getRuntime().availableProcessors();
+        /**
+         * 单个请求同时执行的用例数上限
+         */
+        private int perRequestConcurrency = 4;
+        /**
+         * 单个用例的运行超时时间（毫秒）
+         */
+        private long timeOut = 5000L;
+        /**
+         * 超时后先 destroy，经过该宽限时间（毫秒）仍存活则强制杀死
+         */
+        private long killGraceMillis = 1000L;
+        /**
+         * 单个用例 stdout/stderr 各自的输出上限（字节），超出后杀死进程
+         */
+        private long outputLimit = 8 * 1024 * 1024L;
+        /**
+         * 子进程峰值内存、CPU 时间的采样间隔（毫秒），仅 Linux 生效
+         */
+        private long sampleIntervalMillis = 10L;
+    }
+
+    @Data
+    public static class Runner {
+        /**
+         * 原生沙箱是否使用预热 JVM 执行用例。
+         * 执行器会先后运行不同提交的代码，JDK 的静态状态在提交之间共享，用户代码也能通过反射读写执行器本身，
+         * 隔离性远弱于每个用例单独启动 JVM：只能在运行可信代码（如出题人的标准程序、内部压测）时开启，
+         * 不能用于评测用户提交，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 执行器 JVM 数量
+         */
+        private int poolSize = 4;
+        /**
+         * 单个执行器最多执行的用例数，达到后销毁重建
+         */
+        private int maxRuns = 100;
+        /**
+         * 执行器 JVM 的最大堆内存
+         */
+        private String heap = "256m";
+        /**
+         * 执行器 JVM 的其它启动参数
+         */
+        private List<String> jvmOptions = new ArrayList<>(Arrays.asList("-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1"));
+        /**
+         * 启动时是否提前把执行器池填满
+         */
+        private boolean prestart = true;
+    }
+
+    @Data
+    public static class Docker {
+        /**
+         * 执行用例的镜像
+         */
+        private String image = "openjdk:8-alpine";
+        /**
+         * 容器数量；每个用例独占一个容器，单次提交同时执行的用例数不超过它
+         */
+        private int poolSize = 2;
+        /**
+         * 单个容器最多被借出的次数，达到后删除重建
+         */
+        private int maxLeases = 50;
+        /**
+         * 等待空闲容器的最长时间（毫秒）
+         */
+        private long leaseTimeout = 30000L;
+        /**
+         * 容器内存上限（字节）
+         */
+        private long memory = 100 * 1024 * 1024L;
+        /**
+         * 容器 CPU 数
+         */
+        private long cpuCount = 1L;
+        /**
+         * 启动时是否提前创建容器，关闭时在第一次提交时创建
+         */
+        private boolean prestart = false;
+        /**
+         * docker 守护进程地址，为空时按环境变量 DOCKER_HOST 或平台默认值
+         */
+        private String dockerHost;
+        /**
+         * 与 docker 守护进程之间的最大连接数，exec/stats 的流式请求会一直占用连接到结束
+         */
+        private int maxConnections = 100;
+        /**
+         * 建立连接超时时间
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        /**
+         * 读取响应超时时间，需要大于用例的运行超时时间
+         */
+        private Duration responseTimeout = Duration.ofSeconds(45);
+        /**
+         * 创建 exec 的线程数
+         */
+        private int execCreateThreads = 4;
+    }
+
+    @Data
+    public static class Job {
+        /**
+         * 执行异步任务的线程数
+         */
+        private int workerThreads = Runtime.getRuntime().availableProcessors();
+        /**
+         * 等待执行的任务数上限，超出后拒绝提交
+         */
+        private int queueCapacity = 1000;
+        /**
+         * 保留的任务记录数上限（含已结束的任务）
+         */
+        private int maxJobs = 10000;
+        /**
+         * 已结束任务的保留时间（毫秒），超过后无法再查询
+         */
+        private long retentionMillis = 10 * 60 * 1000L;
+        /**
+         * 长轮询的最长等待时间（毫秒）
+         */
+        private long maxWaitMillis = 30000L;
+        /**
+         * 回调请求的超时时间（毫秒）
+         */
+        private long callbackTimeout = 5000L;
+        /**
+         * 回调失败后的重试次数
+         */
+        private int callbackRetries = 2;
+        /**
+         * 允许回调的主机，支持 *.example.com 匹配子域名；为空时不允许回调，
+         * 避免通过 callbackUrl 让沙箱向内网地址发请求（SSRF）
+         */
+        private List<String> callbackAllowedHosts = new ArrayList<>();
+        /**
+         * 允许回调的协议
+         */
+        private List<String> callbackAllowedSchemes = new ArrayList<>(Arrays.asList("http", "https"));
+    }
+
+    /**
+     * 边执行边返回的接口（/executeCode/batch、/executeCode/stream）：
+     * 响应在单独的线程池中写出，整个请求（含排队、编译、执行）超过 timeout 后连接被关闭，剩余的请求、用例不再执行
+     */
+    @Data
+    public static class Stream {
+        /**
+         * 单个请求的最长时间（毫秒），小于等于 0 表示不限制；未设置时 Spring MVC 默认只有 30 秒
+         */
+        private long timeout = 10 * 60 * 1000L;
+        /**
+         * 写出响应的线程数，即同时进行的流式请求数，超出的请求排队
+         */
+        private int threads = 64;
+    }
+
+    @Data
+    public static class Admission {
+        /**
+         * 同时执行的提交数，0 表示按 CPU 核数和物理内存自动计算
+         */
+        private int slots = 0;
+        /**
+         * 自动计算槽位数时，单个提交预留的内存（MB）
+         */
+        private long memoryPerSlotMb = 512L;
+        /**
+         * 排队的提交数上限，超出后直接拒绝
+         */
+        private int maxQueueSize = 200;
+        /**
+         * 最长排队时间（毫秒），超过后拒绝
+         */
+        private long queueTimeoutMillis = 60000L;
+    }
+
+    @Data
+    public static class Language {
+        /**
+         * 启用的语言，工具链未安装的语言会被跳过。
+         * Java 以外的语言直接作为宿主机进程运行，没有内存、进程数、CPU 限制，
+         * 默认只启用 Java，只在已经隔离的环境（容器、虚拟机）中部署时再开启
+         */
+        private List<String> enabled = new ArrayList<>(Arrays.asList("java"));
+        /**
+         * 启动时在后台预热各语言
+         */
+        private boolean warmUp = true;
+        /**
+         * C++ 是否预编译 bits/stdc++.h，预热时生成，需要几秒到几十秒
+         */
+        private boolean cppPrecompiledHeader = false;
+    }
+
+    @Data
+    public static class Workspace {
+        /**
+         * 工作目录所在的存储
+         */
+        private WorkspaceType type = WorkspaceType.AUTO;
+        /**
+         * 自定义根目录（如挂载的 tmpfs），设置后忽略 type
+         */
+        private String root;
+        /**
+         * 池中保留的空闲目录数
+         */
+        private int poolSize = 16;
+        /**
+         * 借出超过该时间（毫秒）仍未归还的目录视为泄漏，由清理线程删除
+         */
+        private long staleMillis = 10 * 60 * 1000L;
+        /**
+         * 清理线程的执行间隔（毫秒）
+         */
+        private long sweepIntervalMillis = 60 * 1000L;
+    }
+
+    @Data
+    public static class TestCase {
+        /**
+         * 测试用例库根目录，为空时使用 tempCode/testCase
+         */
+        private String root;
+    }
+
+    @Data
+    public static class Checker {
+        /**
+         * float 比较默认允许的绝对/相对误差
+         */
+        private double floatEpsilon = 1e-6;
+        /**
+         * 自定义评测程序单次运行的超时时间（毫秒）
+         */
+        private long customTimeOut = 10000L;
+    }
+
+    @Data
+    public static class Cds {
+        /**
+         * 为用户程序的 JVM 生成并使用 JDK 类的共享归档（AppCDS），JDK 11 以下不支持时自动跳过。
+         * 默认关闭：JDK 12 起自带默认 CDS 归档，CdsBenchmark 在 JDK 17 上测不出启动时间的差别，
+         * 生成归档反而增加启动耗时和磁盘占用；运行在 JDK 11 等没有默认归档的版本上时再开启
+         */
+        private boolean enabled = false;
+        /**
+         * 归档存放目录，为空时使用 tempCode/cds
+         */
+        private String dir;
+        /**
+         * 检查 JDK 是否变化的间隔（毫秒），变化后重新生成归档
+         */
+        private long checkIntervalMillis = 10 * 60 * 1000L;
+        /**
+         * 生成归档时每个步骤（编译、采集类列表、导出归档）的超时时间（毫秒）
+         */
+        private long buildTimeOut = 60000L;
+    }
+
+    @Data
+    public static class Cgroup {
+        /**
+         * Java 提交是否使用 cgroup 沙箱执行，需要 root 或委派给当前用户的 cgroup v2，不可用时仍使用原生沙箱
+         */
+        private boolean enabled = false;
+        /**
+         * cgroup v2 挂载点或委派的 cgroup 目录，为空时自动查找（/sys/fs/cgroup、/sys/fs/cgroup/unified）
+         */
+        private String root;
+        /**
+         * 单个用例的内存上限（字节，memory.max），包含 JVM 自身的开销
+         */
+        private long memoryMax = 512 * 1024 * 1024L;
+        /**
+         * 单个用例可用的 CPU 核数（cpu.max），可以是小数
+         */
+        private double cpuCount = 1.0;
+        /**
+         * 单个用例的进程和线程数上限（pids.max），JVM 自身需要几十个线程
+         */
+        private long pidsMax = 128L;
+        /**
+         * 池中保留的空闲叶子 cgroup 数
+         */
+        private int poolSize = 16;
+        /**
+         * 回收叶子 cgroup 时等待其中进程退出的最长时间（毫秒），超过后丢弃该 cgroup
+         */
+        private long killTimeoutMillis = 1000L;
+    }
+
+    @Data
+    public static class Artifact {
+        /**
+         * 编译产物存放目录，为空时使用 tempCode/artifact
+         */
+        private String root;
+        /**
+         * 编译产物占用空间上限（字节），超出时淘汰最久未使用的
+         */
+        private long maxBytes = 256 * 1024 * 1024L;
+        /**
+         * 超过该时间（毫秒）没有使用的编译产物被删除
+         */
+        private long expireMillis = 30 * 60 * 1000L;
+        /**
+         * 清理线程的执行间隔（毫秒）
+         */
+        private long sweepIntervalMillis = 60 * 1000L;
+    }
+
+    @Data
+    public static class Screen {
+        /**
+         * 保存、编译之前按关键词检查源码，命中时直接拒绝
+         */
+        private boolean enabled = true;
+        /**
+         * 语言 -> 禁止出现的关键词（区分大小写，只能是 ASCII 字符）。
+         * 注释和字符串中的内容不检查；关键词首尾是标识符字符时要求在标识符边界上，execl 不会命中 execlp，需要分别列出；
+         * 以引号开头的关键词与完整的字符串匹配。
+         * 类名、方法名可以放在字符串里通过反射调用（Class.forName("java.lang.Run" + "time")），
+         * 所以 java 同时禁止反射入口本身（forName、getMethod、invoke 等），不依赖类名出现在代码中
+         */
+        private Map<String, List<String>> rules = defaultRules();
+        /**
+         * 题目 id -> 额外禁止的关键词，对所有语言生效
+         */
+        private Map<String, List<String>> problemRules = new LinkedHashMap<>();
+
+        private static Map<String, List<String>> defaultRules() {
+            Map<String, List<String>> rules = new LinkedHashMap<>();
+            rules.put("java", new ArrayList<>(Arrays.asList("Runtime.getRuntime", "ProcessBuilder", "Files.", "java.nio.file",
+                    "FileOutputStream", "FileWriter", "RandomAccessFile", "java.net.", "java.lang.reflect", "sun.misc",
+                    "forName", "getMethod", "getDeclaredMethod", "getConstructor", "getDeclaredConstructor", "invoke",
+                    "MethodHandles", "ClassLoader", "loadClass")));
+            List<String> cRules = Arrays.asList("system(", "popen(", "fork(", "execl", "execlp", "execle", "execv", "execvp",
+                    "execve", "execvpe", "unlink(", "<sys/socket.h>");
+            rules.put("c", new ArrayList<>(cRules));
+            rules.put("cpp", new ArrayList<>(cRules));
+            rules.put("python", new ArrayList<>(Arrays.asList("subprocess", "socket", "shutil", "ctypes", "__import__",
+                    "os.system", "os.popen", "os.fork", "os.execl", "os.execle", "os.execlp", "os.execlpe", "os.execv", "os.execve",
+                    "os.execvp", "os.execvpe", "os.remove", "os.unlink", "os.kill")));
+            rules.put("go", new ArrayList<>(Arrays.asList("\"os/exec\"", "\"syscall\"", "\"net\"", "\"unsafe\"",
+                    "os.Remove", "os.RemoveAll", "os.Create", "os.Open", "os.OpenFile")));
+            return rules;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.rc.ojcodesandbox.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.Resource;
+
+/**
+ * @Author：rancheng
+ * @name：WebAsyncConfig 异步请求的超时时间和线程池
+ * @Date：2026/10/19 18:30
+ * StreamingResponseBody 在 Spring MVC 的异步线程池中写出，默认超时 30 秒，默认线程池与其他异步任务共用；
+ * 批量执行、流式执行经常超过 30 秒，这里改用 codesandbox.stream 配置的超时时间和单独的线程池
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Resource
+    private CodeSandboxProperties codeSandboxProperties;
+
+    @Bean
+    public ThreadPoolTaskExecutor streamTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, codeSandboxProperties.getStream().getThreads());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        long timeout = codeSandboxProperties.getStream().getTimeout();
+        // -1 表示不超时
+        configurer.setDefaultTimeout(timeout > 0 ? timeout : -1);
+        configurer.setTaskExecutor(streamTaskExecutor());
+    }
+}
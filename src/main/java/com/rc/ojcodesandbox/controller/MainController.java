@@ -1,17 +1,52 @@
 package com.rc.ojcodesandbox.controller;
 
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rc.ojcodesandbox.CodeSandbox;
-import com.rc.ojcodesandbox.JavaNativeCodeSandbox;
+import com.rc.ojcodesandbox.admission.AdmissionCodeSandbox;
+import com.rc.ojcodesandbox.admission.AdmissionRejectedException;
+import com.rc.ojcodesandbox.admission.AdmissionStats;
+import com.rc.ojcodesandbox.artifact.ArtifactNotFoundException;
+import com.rc.ojcodesandbox.artifact.ArtifactStore;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.job.ExecuteJobManager;
+import com.rc.ojcodesandbox.job.JobRejectedException;
+import com.rc.ojcodesandbox.model.BatchExecuteResult;
+import com.rc.ojcodesandbox.model.CompileResponse;
 import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
 import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteJob;
+import com.rc.ojcodesandbox.model.TestCase;
+import com.rc.ojcodesandbox.model.enums.CheckerTypeEnum;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import com.rc.ojcodesandbox.model.enums.PriorityEnum;
+import com.rc.ojcodesandbox.testcase.TestCaseSet;
+import com.rc.ojcodesandbox.testcase.TestCaseStore;
+import com.rc.ojcodesandbox.workspace.WorkspaceManager;
+import com.rc.ojcodesandbox.workspace.WorkspaceStats;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @Author：rancheng
@@ -27,29 +62,435 @@ public class MainController {
     public static final String AUTH_REQUEST_SECRET = "secretKey";
 
     @Resource
-    private JavaNativeCodeSandbox javaNativeCodeSandbox;
+    private AdmissionCodeSandbox admissionCodeSandbox;
+
+    @Resource
+    private ExecuteJobManager executeJobManager;
+
+    @Resource
+    private CodeSandboxProperties codeSandboxProperties;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Resource
+    private WorkspaceManager workspaceManager;
+
+    @Resource
+    private TestCaseStore testCaseStore;
+
+    @Resource
+    private ArtifactStore artifactStore;
+
     @GetMapping("/health")
     public String healthCheck(){
         return "ok";
     }
 
     /**
-     * 执行代码
+     * 执行代码，请求带 artifactId 时直接运行 /compile 的编译产物，产物不存在或已过期时返回 404，需要重新编译
      * @param executeCodeRequest
      * @return
      */
     @PostMapping("/executeCode")
     public ExecuteCodeResponse executeCode(@RequestBody ExecuteCodeRequest executeCodeRequest, HttpServletRequest request, HttpServletResponse response){
 
-        String authHeader = request.getHeader(AUTH_REQUEST_HEADER);
-        if(!AUTH_REQUEST_SECRET.equals(authHeader)){
-            response.setStatus(403);
+        if(!checkAuth(request, response)){
             return null;
         }
         if(executeCodeRequest == null){
             throw new RuntimeException("请求参数为空");
         }
-        return javaNativeCodeSandbox.executeCode(executeCodeRequest);
+        if(!isExecuteRequestValid(executeCodeRequest)){
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+        try {
+            return admissionCodeSandbox.executeCode(executeCodeRequest);
+        } catch (AdmissionRejectedException e) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return null;
+        } catch (ArtifactNotFoundException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return null;
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("执行被中断", e);
+        }
+    }
+
+    /**
+     * 只编译不运行，返回编译产物 id；之后可以带着它多次调用 /executeCode（含 stream、batch、async），
+     * 重判、hack 等场景不再重复编译
+     * @param executeCodeRequest 只使用 code、language 和准入相关字段
+     * @return
+     */
+    @PostMapping("/compile")
+    public ResponseEntity<CompileResponse> compile(@RequestBody ExecuteCodeRequest executeCodeRequest,
+                                                   HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        if(executeCodeRequest == null){
+            throw new RuntimeException("请求参数为空");
+        }
+        if(!isPriorityValid(executeCodeRequest)){
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(admissionCodeSandbox.compile(executeCodeRequest));
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("编译被中断", e);
+        }
+    }
+
+    /**
+     * 提前删除不再需要的编译产物
+     * @param artifactId
+     * @return
+     */
+    @DeleteMapping("/artifact/{artifactId}")
+    public ResponseEntity<Void> deleteArtifact(@PathVariable String artifactId,
+                                               HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        return artifactStore.delete(artifactId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 异步执行代码，立即返回任务 id，不占用请求线程等待执行结束
+     * @param executeCodeRequest
+     * @param callbackUrl 执行结束后以 POST 方式把任务结果推送到该地址，可不传；
+     *                    只能是 codesandbox.job.callback-allowed-hosts 中的主机，否则返回 400
+     * @return
+     */
+    @PostMapping("/executeCode/async")
+    public ResponseEntity<ExecuteJob> submitExecuteCode(@RequestBody ExecuteCodeRequest executeCodeRequest,
+                                                        @RequestParam(required = false) String callbackUrl,
+                                                        HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        if(executeCodeRequest == null){
+            throw new RuntimeException("请求参数为空");
+        }
+        if(!isExecuteRequestValid(executeCodeRequest)){
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(executeJobManager.submit(executeCodeRequest, callbackUrl));
+        } catch (JobRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 批量执行代码，每个请求执行完成后立即以一行 JSON（NDJSON）返回 BatchExecuteResult，
+     * 返回顺序为完成顺序，通过 index 对应请求。
+     * 整个批次最长执行 codesandbox.stream.timeout（默认 10 分钟），超时后连接关闭，剩余的请求不再执行，
+     * 客户端没有收到的 index 需要重新提交
+     * @param executeCodeRequestList
+     * @return
+     */
+    @PostMapping(value = "/executeCode/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> executeCodeBatch(@RequestBody List<ExecuteCodeRequest> executeCodeRequestList,
+                                                                  HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        if(executeCodeRequestList == null){
+            throw new RuntimeException("请求参数为空");
+        }
+        for (ExecuteCodeRequest executeCodeRequest : executeCodeRequestList) {
+            if (executeCodeRequest != null && !isExecuteRequestValid(executeCodeRequest)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        StreamingResponseBody body = outputStream -> {
+            try {
+                admissionCodeSandbox.executeCodeBatch(executeCodeRequestList,
+                        (index, executeCodeResponse) -> writeLine(outputStream, new BatchExecuteResult(index, executeCodeResponse)));
+            } catch (AdmissionRejectedException e) {
+                // 已经开始输出，无法再返回 429，逐个返回沙箱错误
+                for (int i = 0; i < executeCodeRequestList.size(); i++) {
+                    writeLine(outputStream, new BatchExecuteResult(i, new ExecuteCodeResponse(null, e.getMessage(), 2, null, null)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (UncheckedIOException e) {
+                // 客户端断开或超时，剩余的请求已经不再执行
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    /**
+     * 流式执行代码（Server-Sent Events）：编译结束推送 compile 事件，每个用例结束立即推送 case 事件，
+     * 最后推送 result 事件，result 中不再包含已推送过的用例输出。客户端断开后不再执行剩余用例。
+     * 整个请求最长执行 codesandbox.stream.timeout（默认 10 分钟），超时后连接关闭、不推送 result 事件，
+     * 客户端没有收到 result 时应视为失败
+     * @param executeCodeRequest
+     * @return
+     */
+    @PostMapping(value = "/executeCode/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> executeCodeStream(@RequestBody ExecuteCodeRequest executeCodeRequest,
+                                                                   HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        if(executeCodeRequest == null){
+            throw new RuntimeException("请求参数为空");
+        }
+        if(!isExecuteRequestValid(executeCodeRequest)){
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            SseExecuteListener listener = new SseExecuteListener(outputStream, objectMapper);
+            ExecuteCodeResponse executeCodeResponse;
+            try {
+                executeCodeResponse = admissionCodeSandbox.executeCode(executeCodeRequest, listener);
+            } catch (AdmissionRejectedException e) {
+                // 已经开始输出，无法再返回 429
+                executeCodeResponse = new ExecuteCodeResponse(null, e.getMessage(), 2, null, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                executeCodeResponse = new ExecuteCodeResponse(null, e.getMessage(), 2, null, null);
+            }
+            listener.onResult(executeCodeResponse);
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).header("Cache-Control", "no-cache").body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, BatchExecuteResult batchExecuteResult) {
+        if (Thread.currentThread().isInterrupted()) {
+            // 请求超时后写出线程被中断，被打断的用例结果不完整，不再写出，同时结束剩余的请求
+            throw new UncheckedIOException(new InterruptedIOException("批量执行超时"));
+        }
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(batchExecuteResult);
+            synchronized (outputStream) {
+                outputStream.write(line);
+                outputStream.write('\n');
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 查询异步任务
+     * @param jobId
+     * @param waitMillis 大于 0 时长轮询：任务未结束则最多等待这么久，期间结束立即返回
+     * @return
+     */
+    @GetMapping("/executeCode/job/{jobId}")
+    public DeferredResult<ResponseEntity<ExecuteJob>> getExecuteJob(@PathVariable String jobId,
+                                                                    @RequestParam(defaultValue = "0") long waitMillis,
+                                                                    HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        long timeout = Math.min(Math.max(waitMillis, 0), codeSandboxProperties.getJob().getMaxWaitMillis());
+        DeferredResult<ResponseEntity<ExecuteJob>> deferredResult = new DeferredResult<>(timeout > 0 ? timeout : null,
+                () -> toResponseEntity(executeJobManager.get(jobId)));
+        ExecuteJob executeJob = executeJobManager.get(jobId);
+        CompletableFuture<ExecuteJob> completion = executeJobManager.getCompletion(jobId);
+        if (executeJob == null || completion == null || timeout <= 0 || completion.isDone()) {
+            deferredResult.setResult(toResponseEntity(completion != null && completion.isDone() ? completion.getNow(executeJob) : executeJob));
+            return deferredResult;
+        }
+        // 等待期间不占用 Servlet 线程，任务结束时直接写回结果
+        completion.thenAccept(finishedJob -> deferredResult.setResult(ResponseEntity.ok(finishedJob)));
+        return deferredResult;
+    }
+
+    /**
+     * 准入控制统计：槽位、排队深度、排队时间
+     * @return
+     */
+    @GetMapping("/admission/stats")
+    public AdmissionStats getAdmissionStats(HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        return admissionCodeSandbox.getAdmissionController().getStats();
+    }
+
+    /**
+     * 工作目录统计：使用中、空闲的目录数和占用空间
+     * @return
+     */
+    @GetMapping("/workspace/stats")
+    public WorkspaceStats getWorkspaceStats(HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        return workspaceManager.getStats();
+    }
+
+    /**
+     * 上传测试用例，保存到沙箱本地，之后执行时只需传题目 id 和版本
+     * @param problemId
+     * @param version
+     * @param testCaseList
+     * @return
+     */
+    @PutMapping("/testCase/{problemId}/{version}")
+    public ResponseEntity<TestCaseSet> saveTestCase(@PathVariable String problemId, @PathVariable String version,
+                                                    @RequestBody List<TestCase> testCaseList,
+                                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        try {
+            return ResponseEntity.ok(testCaseStore.save(problemId, version, testCaseList));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 上传自定义评测程序（C++ 源码，testlib 约定），需要先上传用例
+     * @param problemId
+     * @param version
+     * @param checkerCode
+     * @return
+     */
+    @PutMapping("/testCase/{problemId}/{version}/checker")
+    public ResponseEntity<TestCaseSet> saveChecker(@PathVariable String problemId, @PathVariable String version,
+                                                   @RequestBody String checkerCode,
+                                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        try {
+            TestCaseSet testCaseSet = testCaseStore.saveChecker(problemId, version, checkerCode);
+            return testCaseSet == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(testCaseSet);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 查询测试用例是否已上传
+     * @param problemId
+     * @param version
+     * @return
+     */
+    @GetMapping("/testCase/{problemId}/{version}")
+    public ResponseEntity<TestCaseSet> getTestCase(@PathVariable String problemId, @PathVariable String version,
+                                                   HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        try {
+            TestCaseSet testCaseSet = testCaseStore.get(problemId, version);
+            return testCaseSet == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(testCaseSet);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 删除测试用例
+     * @param problemId
+     * @param version
+     * @return
+     */
+    @DeleteMapping("/testCase/{problemId}/{version}")
+    public ResponseEntity<Void> deleteTestCase(@PathVariable String problemId, @PathVariable String version,
+                                               HttpServletRequest request, HttpServletResponse response){
+        if(!checkAuth(request, response)){
+            return null;
+        }
+        try {
+            return testCaseStore.delete(problemId, version) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<ExecuteJob> toResponseEntity(ExecuteJob executeJob) {
+        if (executeJob == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(executeJob);
+    }
+
+    /**
+     * 执行前检查优先级，不支持的优先级返回 400；流式、批量接口开始输出后无法再修改状态码，异步任务在后台执行，都需要提前检查
+     * @param executeCodeRequest
+     * @return
+     */
+    private static boolean isPriorityValid(ExecuteCodeRequest executeCodeRequest){
+        try {
+            PriorityEnum.getEnumByValue(executeCodeRequest.getPriority());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 执行前检查请求参数，不合法时返回 400，不排队、不保存和编译源码：
+     * 1.优先级、输入方式、比较方式必须支持
+     * 2.指定了题目时测试用例必须存在，自定义评测程序必须已上传
+     * 3.不使用测试用例库而开启输出比较时，必须使用标准输入，期望输出与输入用例一一对应
+     * @param executeCodeRequest
+     * @return
+     */
+    private boolean isExecuteRequestValid(ExecuteCodeRequest executeCodeRequest){
+        if(!isPriorityValid(executeCodeRequest)){
+            return false;
+        }
+        try {
+            InputModeEnum inputMode = InputModeEnum.getEnumByValue(executeCodeRequest.getInputMode());
+            CheckerTypeEnum checkerType = CheckerTypeEnum.getEnumByValue(executeCodeRequest.getChecker());
+            if (StrUtil.isNotBlank(executeCodeRequest.getProblemId())) {
+                TestCaseSet testCaseSet = testCaseStore.get(executeCodeRequest.getProblemId(), executeCodeRequest.getTestCaseVersion());
+                return testCaseSet != null && (checkerType != CheckerTypeEnum.CUSTOM || testCaseSet.getCheckerPath() != null);
+            }
+            if (checkerType == null) {
+                return true;
+            }
+            List<String> inputList = executeCodeRequest.getInputList();
+            List<String> expectedOutputList = executeCodeRequest.getExpectedOutputList();
+            return checkerType != CheckerTypeEnum.CUSTOM
+                    && inputMode == InputModeEnum.STDIN
+                    && inputList != null && expectedOutputList != null && expectedOutputList.size() == inputList.size();
+        } catch (IllegalArgumentException e) {
+            // 输入方式、比较方式不支持，或题目 id、版本不合法
+            return false;
+        }
+    }
+
+    /**
+     * 鉴权，不通过时设置 403
+     * @param request
+     * @param response
+     * @return
+     */
+    private boolean checkAuth(HttpServletRequest request, HttpServletResponse response){
+        String authHeader = request.getHeader(AUTH_REQUEST_HEADER);
+        if(!AUTH_REQUEST_SECRET.equals(authHeader)){
+            response.setStatus(403);
+            return false;
+        }
+        return true;
     }
 
 }
@@ -0,0 +1,85 @@
+package com.rc.ojcodesandbox.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rc.ojcodesandbox.execute.ExecuteListener;
+import com.rc.ojcodesandbox.model.ExecuteCaseEvent;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author：rancheng
+ * @name：SseExecuteListener 把执行过程写成 Server-Sent Events
+ * @Date：2026/10/19 13:00
+ * 事件依次为：compile（编译结果）、case（每个用例结束时一条，按完成顺序）、result（最终结果）。
+ * 写入失败说明客户端已经断开，之后不再写入，还没开始的用例也不再执行；
+ * 请求超时（codesandbox.stream.timeout）后写出线程被中断，同样视为断开，被打断的用例结果不完整，不再推送
+ */
+public class SseExecuteListener implements ExecuteListener {
+
+    public static final String EVENT_COMPILE = "compile";
+
+    public static final String EVENT_CASE = "case";
+
+    public static final String EVENT_RESULT = "result";
+
+    private final OutputStream outputStream;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean cancelled;
+
+    public SseExecuteListener(OutputStream outputStream, ObjectMapper objectMapper) {
+        this.outputStream = outputStream;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onCompiled(ExecuteMessage compileMessage) {
+        send(EVENT_COMPILE, compileMessage);
+    }
+
+    @Override
+    public void onCase(int index, ExecuteMessage executeMessage) {
+        send(EVENT_CASE, new ExecuteCaseEvent(index, executeMessage));
+    }
+
+    /**
+     * 最终结果，之后不再有事件
+     *
+     * @param executeCodeResponse
+     */
+    public void onResult(ExecuteCodeResponse executeCodeResponse) {
+        send(EVENT_RESULT, executeCodeResponse);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void send(String event, Object data) {
+        if (cancelled) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            cancelled = true;
+            return;
+        }
+        try {
+            // JSON 中的换行都已转义，整条数据放在一行 data 中
+            byte[] json = objectMapper.writeValueAsBytes(data);
+            synchronized (outputStream) {
+                outputStream.write(("event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+                outputStream.write(json);
+                outputStream.write("\n\n".getBytes(StandardCharsets.UTF_8));
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            cancelled = true;
+        }
+    }
+}
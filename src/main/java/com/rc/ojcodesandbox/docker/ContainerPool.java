@@ -0,0 +1,394 @@
+package com.rc.ojcodesandbox.docker;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.PullResponseItem;
+import com.github.dockerjava.api.model.StreamType;
+import com.github.dockerjava.api.model.Volume;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author：rancheng
+ * @name：ContainerPool 预热容器池
+ * @Date：2026/10/18 13:30
+ * 原来每次提交都要创建、启动一个新容器，而且用完不删除。这里维护一组已经启动、禁用网络的容器：
+ * 1.每个容器把宿主机上自己的工作目录挂载到 /app，借出时把 class 文件复制进工作目录
+ * 2.归还时以 root 杀死容器中除 PID 1 以外的所有进程、清空 /tmp 等可写目录和工作目录，确认只剩 PID 1 后放回池中；
+ * 容器根文件系统只读，/tmp 为 tmpfs，用户程序不能在其他位置留下文件给下一次提交
+ * 3.借出前检查容器是否还在运行，挂掉的容器删除后重新创建
+ * 4.借出次数达到 maxLeases，或者执行过程中出现超时等异常的容器直接删除，后台补充新容器
+ * 5.同一次提交的用例可以各借一个容器并行执行，用例结束时在回调线程上调用 releaseAsync 异步清理归还
+ */
+@Slf4j
+public class ContainerPool {
+
+    public static final String CONTAINER_WORK_DIR = "/app";
+
+    /**
+     * 清理容器：kill -1 不会杀死 PID 1 和执行命令的 shell 自己；
+     * PID 1（tail）不回收子进程，被杀死的进程会留下僵尸，不算残留。输出残留进程的 pid，为空表示已清理干净
+     */
+    private static final String[] CLEAN_CMD = {"sh", "-c", "kill -9 -1 2>/dev/null; sleep 0.05; "
+            + "rm -rf /tmp/* /tmp/.[!.]* /dev/shm/* 2>/dev/null; "
+            + "for p in /proc/[0-9]*; do n=${p#/proc/}; [ \"$n\" = 1 ] || [ \"$n\" = $$ ] "
+            + "|| grep -q '^State:.*Z' $p/status 2>/dev/null || echo $n; done"};
+
+    private static final long CLEAN_TIMEOUT_MILLIS = 5000L;
+
+    private final DockerClient dockerClient;
+
+    private final CodeSandboxProperties.Docker dockerProperties;
+
+    private final String workspaceRoot;
+
+    private final LinkedBlockingQueue<PooledContainer> idleContainers = new LinkedBlockingQueue<>();
+
+    private final Semaphore slots;
+
+    private final AtomicInteger containerCount = new AtomicInteger();
+
+    private final ExecutorService maintainExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("container-pool-", true));
+
+    /**
+     * 清理归还的容器，同时借出的容器不超过 poolSize，线程数与之相同即可
+     */
+    private final ExecutorService releaseExecutor;
+
+    private volatile boolean imageReady;
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param dockerClient     docker 客户端
+     * @param dockerProperties 容器池配置
+     * @param workspaceRoot    各容器工作目录的宿主机根目录
+     */
+    public ContainerPool(DockerClient dockerClient, CodeSandboxProperties.Docker dockerProperties, String workspaceRoot) {
+        this.dockerClient = dockerClient;
+        this.dockerProperties = dockerProperties;
+        this.workspaceRoot = workspaceRoot;
+        this.slots = new Semaphore(dockerProperties.getPoolSize());
+        this.releaseExecutor = Executors.newFixedThreadPool(Math.max(1, dockerProperties.getPoolSize()),
+                new NamedThreadFactory("container-release-", true));
+    }
+
+    /**
+     * 后台创建容器，直到池满
+     */
+    public void prestart() {
+        for (int i = 0; i < dockerProperties.getPoolSize(); i++) {
+            maintainExecutor.execute(this::replenish);
+        }
+    }
+
+    /**
+     * 借出一个容器，并把 class 文件复制到容器的工作目录
+     *
+     * @param userCodeParentPath 用户代码目录
+     * @return
+     */
+    public PooledContainer lease(String userCodeParentPath) {
+        try {
+            if (!slots.tryAcquire(dockerProperties.getLeaseTimeout(), TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("没有可用的容器");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待容器被中断", e);
+        }
+        PooledContainer pooledContainer;
+        try {
+            pooledContainer = takeHealthyContainer();
+            pooledContainer.leaseCount++;
+            FileUtil.copyFilesFromDir(new File(userCodeParentPath), new File(pooledContainer.workspace), true);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return pooledContainer;
+    }
+
+    /**
+     * 归还容器
+     *
+     * @param pooledContainer
+     * @param dirty           执行过程中是否出现超时等异常，异常的容器直接删除
+     */
+    public void release(PooledContainer pooledContainer, boolean dirty) {
+        try {
+            boolean reusable = !shutdown && !dirty && pooledContainer.leaseCount < dockerProperties.getMaxLeases()
+                    && containerCount.get() <= dockerProperties.getPoolSize()
+                    && cleanProcesses(pooledContainer) && wipeWorkspace(pooledContainer);
+            if (reusable) {
+                idleContainers.offer(pooledContainer);
+            } else {
+                removeAsync(pooledContainer);
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * 异步归还容器：清理容器要执行 docker 命令，不能占用 exec 回调线程和超时调度线程
+     *
+     * @param pooledContainer
+     * @param dirty
+     */
+    public void releaseAsync(PooledContainer pooledContainer, boolean dirty) {
+        try {
+            releaseExecutor.execute(() -> release(pooledContainer, dirty));
+        } catch (RejectedExecutionException e) {
+            // 容器池已关闭
+            release(pooledContainer, true);
+        }
+    }
+
+    private PooledContainer takeHealthyContainer() {
+        PooledContainer pooledContainer;
+        while ((pooledContainer = idleContainers.poll()) != null) {
+            if (isRunning(pooledContainer)) {
+                return pooledContainer;
+            }
+            log.warn("container {} is not running, replace it", pooledContainer.id);
+            containerCount.decrementAndGet();
+            remove(pooledContainer);
+        }
+        containerCount.incrementAndGet();
+        try {
+            return createContainer();
+        } catch (RuntimeException e) {
+            containerCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isRunning(PooledContainer pooledContainer) {
+        try {
+            InspectContainerResponse inspectContainerResponse = dockerClient.inspectContainerCmd(pooledContainer.id).exec();
+            return Boolean.TRUE.equals(inspectContainerResponse.getState().getRunning());
+        } catch (RuntimeException e) {
+            log.warn("inspect container {} error", pooledContainer.id, e);
+            return false;
+        }
+    }
+
+    /**
+     * 创建并启动一个容器
+     *
+     * @return
+     */
+    private PooledContainer createContainer() {
+        ensureImage();
+        String workspace = workspaceRoot + File.separator + UUID.randomUUID();
+        FileUtil.mkdir(workspace);
+        HostConfig hostConfig = new HostConfig();
+        hostConfig.setBinds(new Bind(workspace, new Volume(CONTAINER_WORK_DIR)));
+        hostConfig.withMemory(dockerProperties.getMemory());
+        hostConfig.withCpuCount(dockerProperties.getCpuCount());
+        // 只有工作目录和 /tmp 可写，归还时都会清空
+        hostConfig.withReadonlyRootfs(true);
+        hostConfig.withTmpFs(Collections.singletonMap("/tmp", "rw,nosuid,size=64m"));
+        CreateContainerResponse createContainerResponse = dockerClient.createContainerCmd(dockerProperties.getImage())
+                .withNetworkDisabled(true)
+                .withHostConfig(hostConfig)
+                // 容器只作为执行环境，用一个不退出的进程保持运行，用例通过 exec 执行
+                .withCmd("tail", "-f", "/dev/null")
+                .exec();
+        String containerId = createContainerResponse.getId();
+        PooledContainer pooledContainer = new PooledContainer(containerId, workspace);
+        try {
+            dockerClient.startContainerCmd(containerId).exec();
+        } catch (RuntimeException e) {
+            remove(pooledContainer);
+            throw e;
+        }
+        log.info("container {} created", containerId);
+        return pooledContainer;
+    }
+
+    /**
+     * 镜像不存在时拉取，只检查一次
+     */
+    private synchronized void ensureImage() {
+        if (imageReady) {
+            return;
+        }
+        String image = dockerProperties.getImage();
+        try {
+            dockerClient.inspectImageCmd(image).exec();
+        } catch (NotFoundException e) {
+            PullImageResultCallback pullImageResultCallback = new PullImageResultCallback() {
+                @Override
+                public void onNext(PullResponseItem item) {
+                    log.info("下载镜像：{}", item.getStatus());
+                    super.onNext(item);
+                }
+            };
+            try {
+                dockerClient.pullImageCmd(image).exec(pullImageResultCallback).awaitCompletion();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("拉取镜像异常", interruptedException);
+            }
+            log.info("镜像下载完成：{}", image);
+        }
+        imageReady = true;
+    }
+
+    /**
+     * 以 root 杀死用户程序留下的后台进程并清空 /tmp，确认只剩 PID 1
+     *
+     * @param pooledContainer
+     * @return 是否清理干净，失败的容器不再复用
+     */
+    private boolean cleanProcesses(PooledContainer pooledContainer) {
+        try {
+            String execId = dockerClient.execCreateCmd(pooledContainer.id)
+                    .withUser("root")
+                    .withCmd(CLEAN_CMD)
+                    .withAttachStdout(true)
+                    .withAttachStderr(true)
+                    .exec()
+                    .getId();
+            StringBuilder remaining = new StringBuilder();
+            boolean completed = dockerClient.execStartCmd(execId).exec(new ResultCallback.Adapter<Frame>() {
+                @Override
+                public void onNext(Frame frame) {
+                    if (StreamType.STDOUT.equals(frame.getStreamType())) {
+                        remaining.append(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                    }
+                }
+            }).awaitCompletion(CLEAN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (!completed || remaining.toString().trim().length() > 0) {
+                log.warn("container {} still has processes after clean: {}", pooledContainer.id, remaining.toString().trim());
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("clean container {} error", pooledContainer.id, e);
+            return false;
+        }
+    }
+
+    private boolean wipeWorkspace(PooledContainer pooledContainer) {
+        File[] files = new File(pooledContainer.workspace).listFiles();
+        if (files == null) {
+            return false;
+        }
+        for (File file : files) {
+            if (!FileUtil.del(file)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void replenish() {
+        if (shutdown || containerCount.incrementAndGet() > dockerProperties.getPoolSize()) {
+            containerCount.decrementAndGet();
+            return;
+        }
+        try {
+            idleContainers.offer(createContainer());
+        } catch (RuntimeException e) {
+            containerCount.decrementAndGet();
+            log.warn("create container error", e);
+        }
+    }
+
+    private void removeAsync(PooledContainer pooledContainer) {
+        containerCount.decrementAndGet();
+        maintainExecutor.execute(() -> {
+            remove(pooledContainer);
+            if (dockerProperties.isPrestart()) {
+                replenish();
+            }
+        });
+    }
+
+    private void remove(PooledContainer pooledContainer) {
+        try {
+            dockerClient.removeContainerCmd(pooledContainer.id).withForce(true).exec();
+        } catch (NotFoundException e) {
+            // 容器已经不存在
+        } catch (RuntimeException e) {
+            log.warn("remove container {} error", pooledContainer.id, e);
+        }
+        FileUtil.del(pooledContainer.workspace);
+    }
+
+    public DockerClient getDockerClient() {
+        return dockerClient;
+    }
+
+    public int getPoolSize() {
+        return dockerProperties.getPoolSize();
+    }
+
+    public int getContainerCount() {
+        return containerCount.get();
+    }
+
+    public int getIdleCount() {
+        return idleContainers.size();
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        maintainExecutor.shutdownNow();
+        releaseExecutor.shutdown();
+        PooledContainer pooledContainer;
+        while ((pooledContainer = idleContainers.poll()) != null) {
+            containerCount.decrementAndGet();
+            remove(pooledContainer);
+        }
+    }
+
+    /**
+     * 池中的一个容器
+     */
+    @Getter
+    public static class PooledContainer {
+
+        private final String id;
+
+        /**
+         * 挂载到容器 /app 的宿主机目录
+         */
+        private final String workspace;
+
+        private int leaseCount;
+
+        PooledContainer(String id, String workspace) {
+            this.id = id;
+            this.workspace = workspace;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.rc.ojcodesandbox.docker;
+
+import cn.hutool.core.util.StrUtil;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.github.dockerjava.core.DockerClientImpl;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+
+/**
+ * @Author：rancheng
+ * @name：DockerClientFactory 创建共享的 docker 客户端
+ * @Date：2026/10/18 14:10
+ * 使用 httpclient5 传输层，连接池中的连接会被保持并复用，不再每次提交都新建一个客户端
+ */
+public class DockerClientFactory {
+
+    private DockerClientFactory() {
+    }
+
+    public static DockerClientConfig createConfig(CodeSandboxProperties.Docker dockerProperties) {
+        DefaultDockerClientConfig.Builder builder = DefaultDockerClientConfig.createDefaultConfigBuilder();
+        if (StrUtil.isNotBlank(dockerProperties.getDockerHost())) {
+            builder.withDockerHost(dockerProperties.getDockerHost());
+        }
+        return builder.build();
+    }
+
+    public static MeteredDockerHttpClient createHttpClient(DockerClientConfig dockerClientConfig,
+                                                           CodeSandboxProperties.Docker dockerProperties) {
+        ApacheDockerHttpClient apacheDockerHttpClient = new ApacheDockerHttpClient.Builder()
+                .dockerHost(dockerClientConfig.getDockerHost())
+                .sslConfig(dockerClientConfig.getSSLConfig())
+                .maxConnections(dockerProperties.getMaxConnections())
+                .connectionTimeout(dockerProperties.getConnectionTimeout())
+                .responseTimeout(dockerProperties.getResponseTimeout())
+                .build();
+        return new MeteredDockerHttpClient(apacheDockerHttpClient, dockerProperties.getMaxConnections());
+    }
+
+    public static DockerClient createDockerClient(DockerClientConfig dockerClientConfig, MeteredDockerHttpClient dockerHttpClient) {
+        return DockerClientImpl.getInstance(dockerClientConfig, dockerHttpClient);
+    }
+}
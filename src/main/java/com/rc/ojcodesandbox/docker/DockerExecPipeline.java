@@ -0,0 +1,198 @@
+package com.rc.ojcodesandbox.docker;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.ExecStartCmd;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.utils.OutputCollector;
+import com.rc.ojcodesandbox.utils.ProcessUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @Author：rancheng
+ * @name：DockerExecPipeline 异步执行容器命令
+ * @Date：2026/10/18 14:10
+ * exec 的创建在少量线程上完成，启动和输出读取全部走 docker-java 的异步回调，
+ * 调用方拿到 CompletableFuture，不需要每个用例占用一个线程等待结果。
+ * 超时由一个调度线程统一处理：到期后关闭回调，结果标记为超时。
+ * 输出可能分成多个 Frame 返回，按 stdout、stderr 分别追加到收集器中，超出上限时立即结束。
+ * 不返回内存：容器的内存统计是整个容器的（含其他进程和页缓存），且大约每秒才采样一次，不能作为单个用例的峰值内存，
+ * memory 为 null 表示无法获取；内存上限由容器的 memory 限制保证
+ */
+@Slf4j
+public class DockerExecPipeline {
+
+    private final DockerClient dockerClient;
+
+    private final ExecutorService createExecutor;
+
+    private final ScheduledExecutorService timeoutScheduler;
+
+    public DockerExecPipeline(DockerClient dockerClient, int createThreads) {
+        this.dockerClient = dockerClient;
+        this.createExecutor = Executors.newFixedThreadPool(createThreads, new NamedThreadFactory("docker-exec-", true));
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("docker-exec-timeout-", true));
+    }
+
+    /**
+     * 在容器中异步执行命令
+     *
+     * @param containerId 容器 id
+     * @param cmdArray    命令
+     * @param stdin       标准输入，为 null 时不传
+     * @param timeOut     超时时间（毫秒）
+     * @param outputLimit stdout、stderr 各自的输出上限（字节）
+     * @return
+     */
+    public CompletableFuture<ExecuteMessage> submit(String containerId, String[] cmdArray, InputSource stdin, long timeOut,
+                                                    long outputLimit) {
+        return CompletableFuture
+                .supplyAsync(() -> dockerClient.execCreateCmd(containerId)
+                        .withCmd(cmdArray)
+                        .withAttachStdout(true)
+                        .withAttachStdin(true)
+                        .withAttachStderr(true)
+                        .exec()
+                        .getId(), createExecutor)
+                .thenCompose(execId -> start(execId, stdin, timeOut, outputLimit));
+    }
+
+    private CompletableFuture<ExecuteMessage> start(String execId, InputSource stdin, long timeOut,
+                                                    long outputLimit) {
+        ExecTask execTask = new ExecTask(outputLimit);
+        execTask.startTime = System.currentTimeMillis();
+        ExecStartCmd execStartCmd = dockerClient.execStartCmd(execId);
+        if (stdin != null) {
+            try {
+                execStartCmd.withStdIn(Channels.newInputStream(stdin.openChannel()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        execTask.execCallback = execStartCmd.exec(new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+                byte[] payload = frame.getPayload();
+                OutputCollector collector = StreamType.STDERR.equals(frame.getStreamType())
+                        ? execTask.errorCollector : execTask.outputCollector;
+                if (payload != null && !collector.append(payload, 0, payload.length)) {
+                    execTask.finish(false);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                log.warn("exec {} error", execId, throwable);
+                execTask.finish(false);
+                super.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                // 如果执⾏完成，则表示没超时
+                execTask.exitValue = inspectExitValue(execId);
+                execTask.finish(false);
+                super.onComplete();
+            }
+        });
+        execTask.timeoutFuture = timeoutScheduler.schedule(() -> execTask.finish(true), timeOut, TimeUnit.MILLISECONDS);
+        // 调用方取消时（前面的用例已经出错）同样释放连接
+        execTask.future.whenComplete((executeMessage, throwable) -> execTask.release());
+        return execTask.future;
+    }
+
+    /**
+     * 查询 exec 的退出码，程序崩溃时通常没有 stderr，只能通过退出码识别
+     *
+     * @param execId
+     * @return 查询失败时返回 null
+     */
+    private Integer inspectExitValue(String execId) {
+        try {
+            Long exitCode = dockerClient.inspectExecCmd(execId).exec().getExitCodeLong();
+            return exitCode == null ? null : exitCode.intValue();
+        } catch (RuntimeException e) {
+            log.warn("inspect exec {} error: {}", execId, e.toString());
+            return null;
+        }
+    }
+
+    public void shutdown() {
+        createExecutor.shutdownNow();
+        timeoutScheduler.shutdownNow();
+    }
+
+    /**
+     * 单次 exec 的状态
+     */
+    private static class ExecTask {
+
+        private final CompletableFuture<ExecuteMessage> future = new CompletableFuture<>();
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private volatile ResultCallback<Frame> execCallback;
+
+        private volatile ScheduledFuture<?> timeoutFuture;
+
+        private final OutputCollector outputCollector;
+
+        private final OutputCollector errorCollector;
+
+        private volatile Integer exitValue;
+
+        private volatile long startTime;
+
+        private ExecTask(long outputLimit) {
+            this.outputCollector = new OutputCollector(outputLimit);
+            this.errorCollector = new OutputCollector(outputLimit);
+        }
+
+        private void finish(boolean timeout) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setOutput(outputCollector.toOutputText());
+            String errorMessage = errorCollector.toText();
+            executeMessage.setErrorMessage(errorMessage.isEmpty() ? null : errorMessage);
+            executeMessage.setExitValue(exitValue);
+            if (!timeout && exitValue != null && exitValue != 0) {
+                executeMessage.setErrorMessage(ProcessUtils.getExitErrorMessage(exitValue, errorMessage));
+            }
+            if (outputCollector.isExceeded() || errorCollector.isExceeded()) {
+                executeMessage.setOutputLimitExceeded(true);
+                executeMessage.setErrorMessage("输出超出限制");
+            }
+            executeMessage.setTime(System.currentTimeMillis() - startTime);
+            if (timeout) {
+                executeMessage.setTimeout(true);
+            }
+            future.complete(executeMessage);
+        }
+
+        private void release() {
+            ScheduledFuture<?> scheduledFuture = timeoutFuture;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+            IoUtil.close(execCallback);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.rc.ojcodesandbox.docker;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author：rancheng
+ * @name：MeteredDockerHttpClient 统计连接池使用情况的 docker http 客户端
+ * @Date：2026/10/18 14:10
+ * 一个请求从发出到响应关闭之间占用一个连接（exec/stats 这类流式请求会一直占用到流关闭），
+ * 用进行中的请求数 / 最大连接数衡量连接池的饱和度
+ */
+public class MeteredDockerHttpClient implements DockerHttpClient {
+
+    private final DockerHttpClient delegate;
+
+    private final int maxConnections;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    public MeteredDockerHttpClient(DockerHttpClient delegate, int maxConnections) {
+        this.delegate = delegate;
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public Response execute(Request request) {
+        requestCount.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            return new MeteredResponse(delegate.execute(request));
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * 进行中的请求数
+     *
+     * @return
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * 连接池饱和度，0 ~ 1
+     *
+     * @return
+     */
+    public double getSaturation() {
+        return maxConnections <= 0 ? 0 : Math.min(1.0, (double) inFlight.get() / maxConnections);
+    }
+
+    private class MeteredResponse implements Response {
+
+        private final Response response;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private MeteredResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+            response.close();
+        }
+    }
+}
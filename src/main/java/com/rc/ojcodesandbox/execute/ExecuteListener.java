@@ -0,0 +1,41 @@
+package com.rc.ojcodesandbox.execute;
+
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteListener 执行过程监听
+ * @Date：2026/10/19 13:00
+ * 流式执行时随执行过程回调，不必等所有用例结束：
+ * 1.编译结束后回调一次 onCompiled
+ * 2.每个用例结束后立即回调 onCase，按完成顺序，不保证与输入顺序一致，回调可能来自不同线程
+ * 3.监听方断开后 isCancelled 返回 true，还没开始的用例不再执行
+ */
+public interface ExecuteListener {
+
+    /**
+     * 编译结束
+     *
+     * @param compileMessage exitValue 不为 0 时 errorMessage 为编译错误信息
+     */
+    default void onCompiled(ExecuteMessage compileMessage) {
+    }
+
+    /**
+     * 单个用例结束
+     *
+     * @param index          用例在输入中的下标
+     * @param executeMessage
+     */
+    default void onCase(int index, ExecuteMessage executeMessage) {
+    }
+
+    /**
+     * 监听方是否已经不再需要结果
+     *
+     * @return
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package com.rc.ojcodesandbox.execute;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Author：rancheng
+ * @name：InputSource 程序标准输入的数据来源
+ * @Date：2026/10/18 14:50
+ * 输入通过 NIO 通道分块写入子进程，字符串按块编码、文件直接 transferTo，
+ * 不需要先把整个输入转成一个大的字节数组
+ */
+public abstract class InputSource {
+
+    static final int BUFFER_SIZE = 8192;
+
+    public static final InputSource EMPTY = of("");
+
+    /**
+     * 打开一个读取通道
+     *
+     * @return
+     * @throws IOException
+     */
+    public abstract ReadableByteChannel openChannel() throws IOException;
+
+    /**
+     * 把全部输入写到目标通道
+     *
+     * @param target
+     * @return 写入的字节数
+     * @throws IOException
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        long total = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (ReadableByteChannel channel = openChannel()) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += target.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 读出全部输入，只用于无法流式传递的场景
+     *
+     * @return
+     * @throws IOException
+     */
+    public byte[] readAllBytes() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transferTo(Channels.newChannel(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    public static InputSource of(String text) {
+        return new StringInputSource(text);
+    }
+
+    public static InputSource of(Path file) {
+        return new FileInputSource(file);
+    }
+
+    /**
+     * 字符串输入，读取时按块编码为 UTF-8
+     */
+    private static class StringInputSource extends InputSource {
+
+        private final String text;
+
+        private StringInputSource(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public ReadableByteChannel openChannel() {
+            return new ReadableByteChannel() {
+                private final CharBuffer charBuffer = CharBuffer.wrap(text);
+                // 与 String.getBytes 一致，单独的代理字符等无法编码的内容替换为 ?，不能报错后停在原地
+                private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                private boolean flushed;
+                private boolean open = true;
+
+                @Override
+                public int read(ByteBuffer dst) {
+                    if (flushed) {
+                        return -1;
+                    }
+                    int start = dst.position();
+                    CoderResult coderResult = encoder.encode(charBuffer, dst, true);
+                    if (coderResult.isUnderflow()) {
+                        encoder.flush(dst);
+                        flushed = true;
+                    }
+                    int read = dst.position() - start;
+                    return read == 0 && flushed ? -1 : read;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return open;
+                }
+
+                @Override
+                public void close() {
+                    open = false;
+                }
+            };
+        }
+    }
+
+    /**
+     * 文件输入，直接通过 FileChannel.transferTo 写出
+     */
+    private static class FileInputSource extends InputSource {
+
+        private final Path file;
+
+        private FileInputSource(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public ReadableByteChannel openChannel() throws IOException {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        @Override
+        public long transferTo(WritableByteChannel target) throws IOException {
+            try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = fileChannel.size();
+                long position = 0;
+                while (position < size) {
+                    position += fileChannel.transferTo(position, size - position, target);
+                }
+                return position;
+            }
+        }
+    }
+}
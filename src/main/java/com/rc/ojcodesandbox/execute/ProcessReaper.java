@@ -0,0 +1,142 @@
+package com.rc.ojcodesandbox.execute;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author：rancheng
+ * @name：ProcessReaper 子进程超时回收器
+ * @Date：2026/10/18 11:50
+ * 所有子进程共用一个调度线程登记截止时间，代替原来每个用例一个 sleep 线程的做法：
+ * 1.进程正常结束时调用 Deadline.cancel() 取消截止任务，不会再误杀后来的进程；
+ * 等待进程的代码被中断或出错时调用 Deadline.finish()，进程仍存活则先强制杀死，不会留下没人回收的子进程
+ * 2.到期先 destroy()，过了宽限时间仍存活再 destroyForcibly()
+ */
+@Slf4j
+public class ProcessReaper {
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final long killGraceMillis;
+
+    private final Map<Deadline, Boolean> trackedDeadlines = new ConcurrentHashMap<>();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    public ProcessReaper(long killGraceMillis) {
+        this.killGraceMillis = killGraceMillis;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("process-reaper-", true));
+        // 取消的任务立即移出队列，进程很快结束时不会在队列中堆积
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 登记一个子进程，超过 timeoutMillis 仍未结束则杀死
+     *
+     * @param process
+     * @param timeoutMillis
+     * @return 截止时间句柄，进程结束后必须调用 cancel()
+     */
+    public Deadline register(Process process, long timeoutMillis) {
+        Deadline deadline = new Deadline(process);
+        trackedDeadlines.put(deadline, Boolean.TRUE);
+        deadline.future = scheduler.schedule(deadline::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+        return deadline;
+    }
+
+    /**
+     * 当前登记中的子进程数
+     *
+     * @return
+     */
+    public int getTrackedCount() {
+        return trackedDeadlines.size();
+    }
+
+    /**
+     * 累计超时被杀死的子进程数
+     *
+     * @return
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (Deadline deadline : trackedDeadlines.keySet()) {
+            deadline.process.destroyForcibly();
+        }
+        trackedDeadlines.clear();
+    }
+
+    /**
+     * 单个子进程的截止时间
+     */
+    public class Deadline {
+
+        private final Process process;
+
+        private volatile ScheduledFuture<?> future;
+
+        private volatile boolean timedOut;
+
+        private Deadline(Process process) {
+            this.process = process;
+        }
+
+        /**
+         * 等待进程的代码已经返回（正常结束、被中断或出错）：进程仍存活时先强制杀死，再取消截止任务
+         */
+        public void finish() {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+            cancel();
+        }
+
+        /**
+         * 进程已结束，取消截止任务
+         */
+        public void cancel() {
+            ScheduledFuture<?> scheduledFuture = future;
+            if (scheduledFuture != null && !timedOut) {
+                scheduledFuture.cancel(false);
+            }
+            trackedDeadlines.remove(this);
+        }
+
+        /**
+         * 是否因超时被杀死
+         *
+         * @return
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        private void expire() {
+            if (!process.isAlive()) {
+                trackedDeadlines.remove(this);
+                return;
+            }
+            timedOut = true;
+            timeoutCount.incrementAndGet();
+            log.info("代码运行超时，中断");
+            process.destroy();
+            scheduler.schedule(() -> {
+                if (process.isAlive()) {
+                    process.destroyForcibly();
+                }
+                trackedDeadlines.remove(this);
+            }, killGraceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
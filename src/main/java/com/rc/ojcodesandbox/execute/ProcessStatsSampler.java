@@ -0,0 +1,231 @@
+package com.rc.ojcodesandbox.execute;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：ProcessStatsSampler 子进程内存与 CPU 时间采样
+ * @Date：2026/10/18 15:30
+ * 仅 Linux 可用，一个调度线程按固定间隔读取所有登记进程的：
+ * 1./proc/[pid]/status 中的 VmHWM，即内核记录的峰值常驻内存
+ * 2./proc/[pid]/stat 中的 utime + stime，即用户态 + 内核态 CPU 时间
+ * 进程退出后 /proc 下的信息随之消失（JDK 在进程退出后立即回收，无法在回收前补采一次），结果取最后一次采样，
+ * 误差在一个采样间隔以内；在第一次采样前就结束的进程没有数据，结果为 null，表示无法获取，调用方不应换成其他口径的数值。
+ * 需要精确数值时使用 cgroup 沙箱，由内核记录峰值内存和 CPU 时间
+ */
+@Slf4j
+public class ProcessStatsSampler {
+
+    private static final Path PROC = Paths.get("/proc");
+
+    /**
+     * 读取不到时钟节拍数时使用的默认值
+     */
+    private static final long DEFAULT_CLOCK_TICKS_PER_SECOND = 100L;
+
+    private final boolean supported;
+
+    /**
+     * 每秒的时钟节拍数（/proc/[pid]/stat 中 utime、stime 的单位），启动时通过 getconf CLK_TCK 读取
+     */
+    private final long clockTicksPerSecond;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<Sample, Boolean> samples = new ConcurrentHashMap<>();
+
+    public ProcessStatsSampler(long sampleIntervalMillis) {
+        this.supported = Files.isReadable(PROC.resolve("self").resolve("stat"));
+        this.clockTicksPerSecond = supported ? readClockTicksPerSecond() : DEFAULT_CLOCK_TICKS_PER_SECOND;
+        if (supported) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("process-stats-", true));
+            executor.scheduleWithFixedDelay(this::sampleAll, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+            this.scheduler = executor;
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * 开始采样一个子进程
+     *
+     * @param process
+     * @return 不支持采样时返回的 Sample 中没有数据
+     */
+    public Sample track(Process process) {
+        long pid = supported ? pidOf(process) : -1;
+        Sample sample = new Sample(pid);
+        if (pid > 0) {
+            sample.sample();
+            samples.put(sample, Boolean.TRUE);
+        }
+        return sample;
+    }
+
+    public int getTrackedCount() {
+        return samples.size();
+    }
+
+    public long getClockTicksPerSecond() {
+        return clockTicksPerSecond;
+    }
+
+    private void sampleAll() {
+        for (Sample sample : samples.keySet()) {
+            sample.sample();
+        }
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        samples.clear();
+    }
+
+    private static long readClockTicksPerSecond() {
+        try {
+            Process process = new ProcessBuilder("getconf", "CLK_TCK").redirectErrorStream(true).start();
+            String output = IoUtil.read(process.getInputStream(), StandardCharsets.US_ASCII).trim();
+            if (process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                long ticks = Long.parseLong(output);
+                if (ticks > 0) {
+                    return ticks;
+                }
+            }
+            process.destroyForcibly();
+        } catch (IOException | NumberFormatException e) {
+            log.warn("read CLK_TCK error: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("CLK_TCK unavailable, use {}", DEFAULT_CLOCK_TICKS_PER_SECOND);
+        return DEFAULT_CLOCK_TICKS_PER_SECOND;
+    }
+
+    /**
+     * 获取进程号，兼容 Java 8（UNIXProcess.pid 字段）和 Java 9+（Process.pid()）
+     *
+     * @param process
+     * @return 获取失败返回 -1
+     */
+    static long pidOf(Process process) {
+        try {
+            Method pidMethod = Process.class.getMethod("pid");
+            return ((Number) pidMethod.invoke(process)).longValue();
+        } catch (ReflectiveOperationException e) {
+            // Java 8
+        }
+        try {
+            Field pidField = process.getClass().getDeclaredField("pid");
+            pidField.setAccessible(true);
+            return pidField.getLong(process);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 单个进程的采样结果
+     */
+    public class Sample {
+
+        private final long pid;
+
+        private volatile Long peakMemoryKb;
+
+        private volatile Long cpuTimeMillis;
+
+        private Sample(long pid) {
+            this.pid = pid;
+        }
+
+        private void sample() {
+            Path procDir = PROC.resolve(String.valueOf(pid));
+            try {
+                Long cpuTime = readCpuTimeMillis(procDir);
+                Long peakMemory = readPeakMemoryKb(procDir);
+                if (cpuTime != null) {
+                    cpuTimeMillis = cpuTime;
+                }
+                if (peakMemory != null) {
+                    peakMemoryKb = peakMemoryKb == null ? peakMemory : Math.max(peakMemoryKb, peakMemory);
+                }
+            } catch (IOException | RuntimeException e) {
+                // 进程已经退出
+            }
+        }
+
+        /**
+         * 停止采样
+         */
+        public void stop() {
+            samples.remove(this);
+        }
+
+        /**
+         * 是否至少采到过一次，没有采到时内存和 CPU 时间都无法获取
+         *
+         * @return
+         */
+        public boolean isAvailable() {
+            return cpuTimeMillis != null;
+        }
+
+        /**
+         * 峰值常驻内存（KB），没有采到时为 null
+         *
+         * @return
+         */
+        public Long getPeakMemoryKb() {
+            return peakMemoryKb;
+        }
+
+        /**
+         * 用户态 + 内核态 CPU 时间（毫秒），没有采到时为 null
+         *
+         * @return
+         */
+        public Long getCpuTimeMillis() {
+            return cpuTimeMillis;
+        }
+    }
+
+    private Long readCpuTimeMillis(Path procDir) throws IOException {
+        String stat = new String(Files.readAllBytes(procDir.resolve("stat")), StandardCharsets.US_ASCII);
+        // 第二列是带括号的进程名，可能包含空格，从最后一个右括号之后开始解析
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        // fields[0] 是第 3 列 state，utime、stime 分别是第 14、15 列
+        long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        return ticks * 1000L / clockTicksPerSecond;
+    }
+
+    private static Long readPeakMemoryKb(Path procDir) throws IOException {
+        for (String line : Files.readAllLines(procDir.resolve("status"), StandardCharsets.US_ASCII)) {
+            if (line.startsWith("VmHWM:")) {
+                String value = line.substring("VmHWM:".length()).trim();
+                return Long.parseLong(value.substring(0, value.indexOf(' ')));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,312 @@
+package com.rc.ojcodesandbox.execute;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @Author：rancheng
+ * @name：TestCaseExecutor 测试用例并行执行引擎
+ * @Date：2026/10/18 11:20
+ * 1.所有请求共享一个线程池，线程数即全局并发上限
+ * 2.单个请求同时在跑的用例数不超过 perRequestConcurrency，避免一个大题目占满线程池
+ * 3.返回结果与输入用例顺序一致
+ * 4.某个用例出错或输出不一致后取消排在它后面的用例（getOutputResponse 遇到第一个错误就停止），
+ * 返回的列表截止到第一个出错的用例
+ * 5.传入 ExecuteListener 时每个用例结束立即回调；监听方断开后不再提交新的用例，返回已完成的部分
+ */
+@Slf4j
+public class TestCaseExecutor {
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final int perRequestConcurrency;
+
+    /**
+     * 异步用例的全局并发上限，与线程池大小一致
+     */
+    private final Semaphore asyncPermits;
+
+    public TestCaseExecutor(int globalConcurrency, int perRequestConcurrency) {
+        this.threadPoolExecutor = new ThreadPoolExecutor(globalConcurrency, globalConcurrency,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("test-case-", true));
+        this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.perRequestConcurrency = Math.max(1, perRequestConcurrency);
+        this.asyncPermits = new Semaphore(globalConcurrency);
+    }
+
+    /**
+     * 并行执行一个请求的所有用例
+     *
+     * @param inputList 输入用例（字符串或 InputSource 等）
+     * @param runner    执行单个用例
+     * @return 按输入顺序排列的执行信息
+     */
+    public <T> List<ExecuteMessage> executeAll(List<T> inputList, Function<T, ExecuteMessage> runner) {
+        return executeAll(inputList, runner, null);
+    }
+
+    /**
+     * 并行执行一个请求的所有用例，每个用例结束后回调 executeListener
+     *
+     * @param inputList       输入用例
+     * @param runner          执行单个用例
+     * @param executeListener 为 null 时不回调
+     * @return 按输入顺序排列的执行信息
+     */
+    public <T> List<ExecuteMessage> executeAll(List<T> inputList, Function<T, ExecuteMessage> runner, ExecuteListener executeListener) {
+        int size = inputList.size();
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+        // 只有一个用例时直接在当前线程执行，省去线程切换
+        if (size == 1 || perRequestConcurrency == 1) {
+            return executeSerially(inputList, runner, executeListener);
+        }
+        List<Future<ExecuteMessage>> futureList = new ArrayList<>(size);
+        Semaphore permits = new Semaphore(perRequestConcurrency);
+        // 第一个出错用例的下标，没有出错为 size
+        AtomicInteger firstFailedIndex = new AtomicInteger(size);
+        try {
+            for (int i = 0; i < size && i < firstFailedIndex.get(); i++) {
+                permits.acquire();
+                if (isCancelled(executeListener)) {
+                    permits.release();
+                    markFailed(firstFailedIndex, i - 1, futureList);
+                    break;
+                }
+                final int index = i;
+                final T input = inputList.get(i);
+                // 检查与提交放在同一把锁里，保证取消时不会漏掉刚提交的用例
+                synchronized (futureList) {
+                    if (index >= firstFailedIndex.get()) {
+                        permits.release();
+                        break;
+                    }
+                    // 并发名额由开始执行的一方归还：用例开始执行后在执行结束（子进程已结束）时归还；
+                    // 还没开始就被取消时由 done() 归还。cancel(true) 时 done() 会立即回调，不能在那里归还正在执行的用例的名额
+                    AtomicBoolean started = new AtomicBoolean();
+                    FutureTask<ExecuteMessage> futureTask = new FutureTask<ExecuteMessage>(() -> {
+                        if (!started.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            ExecuteMessage executeMessage = runner.apply(input);
+                            if (isFailed(executeMessage)) {
+                                markFailed(firstFailedIndex, index, futureList);
+                            }
+                            if (executeListener != null) {
+                                executeListener.onCase(index, executeMessage);
+                            }
+                            return executeMessage;
+                        } finally {
+                            permits.release();
+                        }
+                    }) {
+                        @Override
+                        protected void done() {
+                            if (started.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    };
+                    futureList.add(futureTask);
+                    threadPoolExecutor.execute(futureTask);
+                }
+            }
+            return collect(futureList, firstFailedIndex);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelFrom(futureList, 0);
+            throw new RuntimeException("执行错误", e);
+        } finally {
+            // 等待已经开始的用例全部结束（被取消的用例会杀死子进程）再返回，调用方随后会删除代码目录
+            permits.acquireUninterruptibly(perRequestConcurrency);
+        }
+    }
+
+    /**
+     * 并行执行一个请求的所有用例，用例本身是异步执行的（如 docker exec），不占用线程池中的线程。
+     * 顺序、并发上限和出错后取消的规则与 executeAll 相同
+     *
+     * @param inputList 输入用例
+     * @param submitter 提交单个用例，返回执行结果的 future
+     * @return 按输入顺序排列的执行信息
+     */
+    public <T> List<ExecuteMessage> executeAllAsync(List<T> inputList, Function<T, CompletableFuture<ExecuteMessage>> submitter) {
+        return executeAllAsync(inputList, submitter, null);
+    }
+
+    /**
+     * 并行执行一个请求的所有异步用例，每个用例结束后回调 executeListener
+     *
+     * @param inputList       输入用例
+     * @param submitter       提交单个用例，返回执行结果的 future
+     * @param executeListener 为 null 时不回调
+     * @return 按输入顺序排列的执行信息
+     */
+    public <T> List<ExecuteMessage> executeAllAsync(List<T> inputList, Function<T, CompletableFuture<ExecuteMessage>> submitter,
+                                                    ExecuteListener executeListener) {
+        return executeAllAsync(inputList, submitter, executeListener, perRequestConcurrency);
+    }
+
+    /**
+     * 执行一个请求的所有异步用例，同时执行的用例数不超过 concurrency（也不超过单个请求的并发上限）
+     *
+     * @param inputList       输入用例
+     * @param submitter       提交单个用例，返回执行结果的 future
+     * @param executeListener 为 null 时不回调
+     * @param concurrency     为 1 时上一个用例结束后才提交下一个，上一个失败则不再提交
+     * @return 按输入顺序排列的执行信息
+     */
+    public <T> List<ExecuteMessage> executeAllAsync(List<T> inputList, Function<T, CompletableFuture<ExecuteMessage>> submitter,
+                                                    ExecuteListener executeListener, int concurrency) {
+        int size = inputList.size();
+        List<Future<ExecuteMessage>> futureList = new ArrayList<>(size);
+        Semaphore permits = new Semaphore(Math.max(1, Math.min(concurrency, perRequestConcurrency)));
+        AtomicInteger firstFailedIndex = new AtomicInteger(size);
+        try {
+            for (int i = 0; i < size && i < firstFailedIndex.get(); i++) {
+                permits.acquire();
+                asyncPermits.acquire();
+                if (isCancelled(executeListener)) {
+                    permits.release();
+                    asyncPermits.release();
+                    markFailed(firstFailedIndex, i - 1, futureList);
+                    break;
+                }
+                final int index = i;
+                synchronized (futureList) {
+                    if (index >= firstFailedIndex.get()) {
+                        permits.release();
+                        asyncPermits.release();
+                        break;
+                    }
+                    CompletableFuture<ExecuteMessage> future;
+                    try {
+                        future = submitter.apply(inputList.get(index));
+                    } catch (RuntimeException e) {
+                        permits.release();
+                        asyncPermits.release();
+                        throw e;
+                    }
+                    futureList.add(future);
+                    future.whenComplete((executeMessage, throwable) -> {
+                        // 先标记失败再归还许可，等待许可的提交线程拿到许可后能看到失败，不再提交后面的用例
+                        if (throwable == null && isFailed(executeMessage)) {
+                            markFailed(firstFailedIndex, index, futureList);
+                        }
+                        permits.release();
+                        asyncPermits.release();
+                        if (throwable == null && executeListener != null) {
+                            executeListener.onCase(index, executeMessage);
+                        }
+                    });
+                }
+            }
+            return collect(futureList, firstFailedIndex);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelFrom(futureList, 0);
+            throw new RuntimeException("执行错误", e);
+        } catch (RuntimeException e) {
+            cancelFrom(futureList, 0);
+            throw e;
+        }
+    }
+
+    private <T> List<ExecuteMessage> executeSerially(List<T> inputList, Function<T, ExecuteMessage> runner,
+                                                     ExecuteListener executeListener) {
+        List<ExecuteMessage> executeMessageList = new ArrayList<>();
+        for (int i = 0; i < inputList.size() && !isCancelled(executeListener); i++) {
+            ExecuteMessage executeMessage = runner.apply(inputList.get(i));
+            executeMessageList.add(executeMessage);
+            if (executeListener != null) {
+                executeListener.onCase(i, executeMessage);
+            }
+            if (isFailed(executeMessage)) {
+                break;
+            }
+        }
+        return executeMessageList;
+    }
+
+    private static boolean isCancelled(ExecuteListener executeListener) {
+        return executeListener != null && executeListener.isCancelled();
+    }
+
+    private List<ExecuteMessage> collect(List<Future<ExecuteMessage>> futureList, AtomicInteger firstFailedIndex)
+            throws InterruptedException {
+        List<ExecuteMessage> executeMessageList = new ArrayList<>();
+        for (int i = 0; i < futureList.size() && i <= firstFailedIndex.get(); i++) {
+            try {
+                executeMessageList.add(futureList.get(i).get());
+            } catch (ExecutionException e) {
+                cancelFrom(futureList, i + 1);
+                throw new RuntimeException("执行错误", e.getCause());
+            }
+        }
+        return executeMessageList;
+    }
+
+    private void markFailed(AtomicInteger firstFailedIndex, int index, List<Future<ExecuteMessage>> futureList) {
+        int current;
+        while (index < (current = firstFailedIndex.get())) {
+            if (firstFailedIndex.compareAndSet(current, index)) {
+                cancelFrom(futureList, index + 1);
+                return;
+            }
+        }
+    }
+
+    private void cancelFrom(List<Future<ExecuteMessage>> futureList, int fromIndex) {
+        // futureList 由提交线程追加，这里拷贝一份避免并发修改
+        List<Future<ExecuteMessage>> snapshot;
+        synchronized (futureList) {
+            snapshot = new ArrayList<>(futureList);
+        }
+        for (int i = fromIndex; i < snapshot.size(); i++) {
+            snapshot.get(i).cancel(true);
+        }
+    }
+
+    /**
+     * 与 getOutputResponse 的判断保持一致：有错误输出即视为该用例失败；
+     * 开启输出比较时，输出不一致也视为失败
+     *
+     * @param executeMessage
+     * @return
+     */
+    public static boolean isFailed(ExecuteMessage executeMessage) {
+        return executeMessage != null && (StrUtil.isNotBlank(executeMessage.getErrorMessage())
+                || (executeMessage.getCheckResult() != null && !executeMessage.getCheckResult().isAccepted()));
+    }
+
+    public int getActiveCount() {
+        return threadPoolExecutor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return threadPoolExecutor.getQueue().size();
+    }
+
+    public void shutdown() {
+        threadPoolExecutor.shutdownNow();
+    }
+}
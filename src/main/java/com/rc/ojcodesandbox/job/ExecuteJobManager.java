@@ -0,0 +1,306 @@
+package com.rc.ojcodesandbox.job;
+
+import cn.hutool.core.lang.UUID;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.json.JSONUtil;
+import com.rc.ojcodesandbox.CodeSandbox;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.metrics.CodeSandboxMetrics;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteJob;
+import com.rc.ojcodesandbox.model.enums.JobStatusEnum;
+import io.micrometer.core.instrument.Gauge;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteJobManager 异步执行任务管理
+ * @Date：2026/10/18 16:10
+ * 1.提交后立即返回任务 id，由固定大小的工作线程池执行，等待队列有上限，满了直接拒绝
+ * 2.结果通过轮询 / 长轮询获取，或在完成后回调 callbackUrl
+ * 3.任务记录有上限：已结束的任务超过保留时间后清理，总数超出上限时先淘汰最早结束的任务
+ */
+@Slf4j
+public class ExecuteJobManager {
+
+    private final CodeSandbox codeSandbox;
+
+    private final CodeSandboxProperties.Job jobProperties;
+
+    private final ThreadPoolExecutor workerExecutor;
+
+    private final ExecutorService callbackExecutor;
+
+    private final ScheduledExecutorService sweepScheduler;
+
+    /**
+     * 按提交顺序保存的任务，访问时需要对 jobMap 加锁
+     */
+    private final LinkedHashMap<String, JobEntry> jobMap = new LinkedHashMap<>();
+
+    private CodeSandboxMetrics codeSandboxMetrics = CodeSandboxMetrics.global();
+
+    public ExecuteJobManager(CodeSandbox codeSandbox, CodeSandboxProperties.Job jobProperties) {
+        this.codeSandbox = codeSandbox;
+        this.jobProperties = jobProperties;
+        int workerThreads = Math.max(1, jobProperties.getWorkerThreads());
+        this.workerExecutor = new ThreadPoolExecutor(workerThreads, workerThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, jobProperties.getQueueCapacity())),
+                new NamedThreadFactory("execute-job-", true), new ThreadPoolExecutor.AbortPolicy());
+        this.workerExecutor.allowCoreThreadTimeOut(true);
+        this.callbackExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("job-callback-", true));
+        this.sweepScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("job-sweeper-", true));
+        long sweepInterval = Math.max(1000L, jobProperties.getRetentionMillis() / 2);
+        this.sweepScheduler.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param executeCodeRequest
+     * @param callbackUrl        完成后回调的地址，可以为空
+     * @return 任务当前状态
+     * @throws JobRejectedException     等待队列已满
+     * @throws IllegalArgumentException 回调地址不在允许的范围内
+     */
+    public ExecuteJob submit(ExecuteCodeRequest executeCodeRequest, String callbackUrl) {
+        if (StrUtil.isNotBlank(callbackUrl) && !isCallbackAllowed(callbackUrl)) {
+            throw new IllegalArgumentException("回调地址不在允许的范围内：" + callbackUrl);
+        }
+        JobEntry jobEntry = new JobEntry(UUID.fastUUID().toString(true), callbackUrl);
+        synchronized (jobMap) {
+            jobMap.put(jobEntry.jobId, jobEntry);
+            evictIfFull();
+        }
+        try {
+            workerExecutor.execute(() -> run(jobEntry, executeCodeRequest));
+        } catch (RejectedExecutionException e) {
+            synchronized (jobMap) {
+                jobMap.remove(jobEntry.jobId);
+            }
+            throw new JobRejectedException("任务队列已满，请稍后重试");
+        }
+        return jobEntry.toExecuteJob();
+    }
+
+    /**
+     * 回调地址的协议、主机是否在配置的允许列表中
+     *
+     * @param callbackUrl
+     * @return 地址无法解析时返回 false
+     */
+    boolean isCallbackAllowed(String callbackUrl) {
+        URI uri;
+        try {
+            uri = new URI(callbackUrl);
+        } catch (URISyntaxException e) {
+            return false;
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (scheme == null || host == null || uri.getRawUserInfo() != null) {
+            return false;
+        }
+        boolean schemeAllowed = false;
+        for (String allowedScheme : jobProperties.getCallbackAllowedSchemes()) {
+            schemeAllowed |= allowedScheme.equalsIgnoreCase(scheme);
+        }
+        if (!schemeAllowed) {
+            return false;
+        }
+        for (String allowedHost : jobProperties.getCallbackAllowedHosts()) {
+            if (allowedHost.startsWith("*.")
+                    ? StrUtil.endWithIgnoreCase(host, allowedHost.substring(1))
+                    : allowedHost.equalsIgnoreCase(host)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查询任务
+     *
+     * @param jobId
+     * @return 任务不存在或已被清理时返回 null
+     */
+    public ExecuteJob get(String jobId) {
+        JobEntry jobEntry = getEntry(jobId);
+        return jobEntry == null ? null : jobEntry.toExecuteJob();
+    }
+
+    /**
+     * 任务结束时完成的 future，用于长轮询
+     *
+     * @param jobId
+     * @return 任务不存在或已被清理时返回 null
+     */
+    public CompletableFuture<ExecuteJob> getCompletion(String jobId) {
+        JobEntry jobEntry = getEntry(jobId);
+        return jobEntry == null ? null : jobEntry.completion;
+    }
+
+    /**
+     * 注入指标，同时注册排队任务数
+     *
+     * @param codeSandboxMetrics
+     */
+    public void setCodeSandboxMetrics(CodeSandboxMetrics codeSandboxMetrics) {
+        this.codeSandboxMetrics = codeSandboxMetrics;
+        Gauge.builder("codesandbox.job.queued", this, ExecuteJobManager::getQueueSize)
+                .description("等待执行的异步任务数").register(codeSandboxMetrics.getMeterRegistry());
+    }
+
+    public int getJobCount() {
+        synchronized (jobMap) {
+            return jobMap.size();
+        }
+    }
+
+    public int getQueueSize() {
+        return workerExecutor.getQueue().size();
+    }
+
+    public void shutdown() {
+        workerExecutor.shutdownNow();
+        callbackExecutor.shutdownNow();
+        sweepScheduler.shutdownNow();
+    }
+
+    private JobEntry getEntry(String jobId) {
+        if (StrUtil.isBlank(jobId)) {
+            return null;
+        }
+        synchronized (jobMap) {
+            return jobMap.get(jobId);
+        }
+    }
+
+    private void run(JobEntry jobEntry, ExecuteCodeRequest executeCodeRequest) {
+        codeSandboxMetrics.recordQueueWait(CodeSandboxMetrics.QUEUE_JOB, System.nanoTime() - jobEntry.submitNanos);
+        jobEntry.status = JobStatusEnum.RUNNING;
+        try {
+            ExecuteCodeResponse executeCodeResponse = codeSandbox.executeCode(executeCodeRequest);
+            jobEntry.finish(JobStatusEnum.SUCCEED, executeCodeResponse, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jobEntry.finish(JobStatusEnum.FAILED, null, "任务被中断");
+        } catch (Exception e) {
+            log.error("execute job error, jobId = {}", jobEntry.jobId, e);
+            jobEntry.finish(JobStatusEnum.FAILED, null, e.getMessage());
+        }
+        if (StrUtil.isNotBlank(jobEntry.callbackUrl)) {
+            callbackExecutor.execute(() -> callback(jobEntry));
+        }
+    }
+
+    /**
+     * 回调通知，失败时按配置次数重试
+     *
+     * @param jobEntry
+     */
+    private void callback(JobEntry jobEntry) {
+        String body = JSONUtil.toJsonStr(jobEntry.toExecuteJob());
+        int attempts = Math.max(0, jobProperties.getCallbackRetries()) + 1;
+        for (int i = 0; i < attempts; i++) {
+            try (HttpResponse httpResponse = HttpRequest.post(jobEntry.callbackUrl)
+                    // 不跟随重定向，避免被重定向到允许列表以外的地址
+                    .setFollowRedirects(false)
+                    .body(body)
+                    .timeout((int) jobProperties.getCallbackTimeout())
+                    .execute()) {
+                if (httpResponse.isOk()) {
+                    return;
+                }
+                log.warn("job callback failed, jobId = {}, status = {}", jobEntry.jobId, httpResponse.getStatus());
+            } catch (Exception e) {
+                log.warn("job callback failed, jobId = {}, error = {}", jobEntry.jobId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理超过保留时间的已结束任务
+     */
+    void sweep() {
+        long expireBefore = System.currentTimeMillis() - jobProperties.getRetentionMillis();
+        synchronized (jobMap) {
+            jobMap.values().removeIf(jobEntry -> jobEntry.finishTime != null && jobEntry.finishTime < expireBefore);
+        }
+    }
+
+    /**
+     * 任务数超出上限时，按提交顺序淘汰已结束的任务。未结束的任务数受线程池和等待队列限制，不会无限增长
+     */
+    private void evictIfFull() {
+        Iterator<Map.Entry<String, JobEntry>> iterator = jobMap.entrySet().iterator();
+        while (jobMap.size() > jobProperties.getMaxJobs() && iterator.hasNext()) {
+            if (iterator.next().getValue().finishTime != null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class JobEntry {
+
+        private final String jobId;
+
+        private final String callbackUrl;
+
+        private final long createTime = System.currentTimeMillis();
+
+        private final long submitNanos = System.nanoTime();
+
+        private final CompletableFuture<ExecuteJob> completion = new CompletableFuture<>();
+
+        private volatile JobStatusEnum status = JobStatusEnum.WAITING;
+
+        private volatile ExecuteCodeResponse response;
+
+        private volatile String message;
+
+        private volatile Long finishTime;
+
+        private JobEntry(String jobId, String callbackUrl) {
+            this.jobId = jobId;
+            this.callbackUrl = callbackUrl;
+        }
+
+        private void finish(JobStatusEnum status, ExecuteCodeResponse response, String message) {
+            this.response = response;
+            this.message = message;
+            this.finishTime = System.currentTimeMillis();
+            this.status = status;
+            completion.complete(toExecuteJob());
+        }
+
+        private ExecuteJob toExecuteJob() {
+            ExecuteJob executeJob = new ExecuteJob();
+            executeJob.setJobId(jobId);
+            executeJob.setStatus(status.getValue());
+            executeJob.setResponse(response);
+            executeJob.setMessage(message);
+            executeJob.setCreateTime(createTime);
+            executeJob.setFinishTime(finishTime);
+            return executeJob;
+        }
+    }
+}
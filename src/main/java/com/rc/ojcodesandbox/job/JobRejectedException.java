@@ -0,0 +1,15 @@
+package com.rc.ojcodesandbox.job;
+
+/**
+ * @Author：rancheng
+ * @name：JobRejectedException 任务队列已满，拒绝提交
+ * @Date：2026/10/18 16:10
+ */
+public class JobRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
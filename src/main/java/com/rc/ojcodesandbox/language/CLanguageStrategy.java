@@ -0,0 +1,42 @@
+package com.rc.ojcodesandbox.language;
+
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：CLanguageStrategy C 语言，gcc 编译
+ * @Date：2026/10/18 18:30
+ */
+public class CLanguageStrategy implements LanguageStrategy {
+
+    @Override
+    public LanguageEnum getLanguage() {
+        return LanguageEnum.C;
+    }
+
+    @Override
+    public String getSourceFileName() {
+        return "Main.c";
+    }
+
+    @Override
+    public List<String> getCompileCommand(String userCodeParentPath) {
+        return Arrays.asList("gcc", "-O2", "-std=c11", "-o", userCodeParentPath + File.separator + "Main",
+                userCodeParentPath + File.separator + getSourceFileName(), "-lm");
+    }
+
+    @Override
+    public List<String> getRunCommand(String userCodeParentPath) {
+        return Collections.singletonList(userCodeParentPath + File.separator + "Main");
+    }
+
+    @Override
+    public List<String> getVersionCommand() {
+        return Arrays.asList("gcc", "--version");
+    }
+}
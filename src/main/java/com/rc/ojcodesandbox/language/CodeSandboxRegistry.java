@@ -0,0 +1,166 @@
+package com.rc.ojcodesandbox.language;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.rc.ojcodesandbox.CodeSandbox;
+import com.rc.ojcodesandbox.NativeLanguageCodeSandbox;
+import com.rc.ojcodesandbox.execute.ExecuteListener;
+import com.rc.ojcodesandbox.model.CompileResponse;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.JudgeInfo;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxRegistry 多语言代码沙箱注册表
+ * @Date：2026/10/18 18:30
+ * 按请求的 language 路由到对应语言的沙箱。Java 使用原生沙箱（进程内编译、预热 JVM 等快速路径），
+ * 其他语言使用按 LanguageStrategy 编译运行的 NativeLanguageCodeSandbox；
+ * 需要更重的快速路径（如常驻解释器池）的语言可以直接注册自己的 CodeSandbox 实现
+ */
+@Slf4j
+public class CodeSandboxRegistry implements CodeSandbox {
+
+    private final Map<LanguageEnum, CodeSandbox> codeSandboxMap = new EnumMap<>(LanguageEnum.class);
+
+    public void register(LanguageEnum language, CodeSandbox codeSandbox) {
+        codeSandboxMap.put(language, codeSandbox);
+    }
+
+    public void register(NativeLanguageCodeSandbox codeSandbox) {
+        register(codeSandbox.getLanguageStrategy().getLanguage(), codeSandbox);
+    }
+
+    public CodeSandbox getCodeSandbox(LanguageEnum language) {
+        return language == null ? null : codeSandboxMap.get(language);
+    }
+
+    /**
+     * 已注册（工具链可用）的语言
+     *
+     * @return
+     */
+    public List<String> getSupportedLanguages() {
+        List<String> languageList = new ArrayList<>();
+        for (LanguageEnum language : codeSandboxMap.keySet()) {
+            languageList.add(language.getValue());
+        }
+        return languageList;
+    }
+
+    @Override
+    public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest) throws InterruptedException {
+        CodeSandbox codeSandbox = getCodeSandbox(LanguageEnum.getEnumByValue(executeCodeRequest.getLanguage()));
+        if (codeSandbox == null) {
+            return unsupportedResponse(executeCodeRequest.getLanguage());
+        }
+        return codeSandbox.executeCode(executeCodeRequest);
+    }
+
+    @Override
+    public ExecuteCodeResponse executeCode(ExecuteCodeRequest executeCodeRequest, ExecuteListener executeListener) throws InterruptedException {
+        CodeSandbox codeSandbox = getCodeSandbox(LanguageEnum.getEnumByValue(executeCodeRequest.getLanguage()));
+        if (codeSandbox == null) {
+            return unsupportedResponse(executeCodeRequest.getLanguage());
+        }
+        return codeSandbox.executeCode(executeCodeRequest, executeListener);
+    }
+
+    @Override
+    public CompileResponse compile(ExecuteCodeRequest executeCodeRequest) throws InterruptedException {
+        CodeSandbox codeSandbox = getCodeSandbox(LanguageEnum.getEnumByValue(executeCodeRequest.getLanguage()));
+        if (codeSandbox == null) {
+            return new CompileResponse(null, executeCodeRequest.getLanguage(), 2, "不支持的语言：" + executeCodeRequest.getLanguage(), null);
+        }
+        return codeSandbox.compile(executeCodeRequest);
+    }
+
+    /**
+     * 按语言分组后交给各语言的沙箱批量执行
+     *
+     * @param executeCodeRequestList
+     * @param consumer
+     * @throws InterruptedException
+     */
+    @Override
+    public void executeCodeBatch(List<ExecuteCodeRequest> executeCodeRequestList,
+                                 BiConsumer<Integer, ExecuteCodeResponse> consumer) throws InterruptedException {
+        Map<CodeSandbox, List<Integer>> groupMap = new LinkedHashMap<>();
+        for (int i = 0; i < executeCodeRequestList.size(); i++) {
+            String language = executeCodeRequestList.get(i).getLanguage();
+            CodeSandbox codeSandbox = getCodeSandbox(LanguageEnum.getEnumByValue(language));
+            if (codeSandbox == null) {
+                consumer.accept(i, unsupportedResponse(language));
+                continue;
+            }
+            groupMap.computeIfAbsent(codeSandbox, key -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<CodeSandbox, List<Integer>> entry : groupMap.entrySet()) {
+            List<Integer> indexList = entry.getValue();
+            List<ExecuteCodeRequest> groupRequestList = new ArrayList<>(indexList.size());
+            for (Integer index : indexList) {
+                groupRequestList.add(executeCodeRequestList.get(index));
+            }
+            entry.getKey().executeCodeBatch(groupRequestList,
+                    (groupIndex, executeCodeResponse) -> consumer.accept(indexList.get(groupIndex), executeCodeResponse));
+        }
+    }
+
+    /**
+     * 在后台线程中依次预热各语言
+     *
+     * @param warmUpRootPath 每个语言使用其中以语言名命名的子目录
+     */
+    public void warmUpAsync(String warmUpRootPath) {
+        Thread thread = new NamedThreadFactory("language-warm-up-", true).newThread(() -> {
+            for (CodeSandbox codeSandbox : codeSandboxMap.values()) {
+                if (codeSandbox instanceof NativeLanguageCodeSandbox) {
+                    LanguageStrategy languageStrategy = ((NativeLanguageCodeSandbox) codeSandbox).getLanguageStrategy();
+                    languageStrategy.warmUp(warmUpRootPath + File.separator + languageStrategy.getLanguage().getValue());
+                }
+            }
+        });
+        thread.start();
+    }
+
+    /**
+     * 检查语言的工具链是否可用
+     *
+     * @param languageStrategy
+     * @return
+     */
+    public static boolean isAvailable(LanguageStrategy languageStrategy) {
+        try {
+            Process process = new ProcessBuilder(languageStrategy.getVersionCommand())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.to(new File(File.separatorChar == '\\' ? "NUL" : "/dev/null")))
+                    .start();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            return process.exitValue() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static ExecuteCodeResponse unsupportedResponse(String language) {
+        ExecuteCodeResponse executeCodeResponse = new ExecuteCodeResponse();
+        executeCodeResponse.setOutputList(new ArrayList<>());
+        executeCodeResponse.setMessage("不支持的语言：" + language);
+        executeCodeResponse.setStatus(2);
+        executeCodeResponse.setJudgeInfo(new JudgeInfo());
+        return executeCodeResponse;
+    }
+}
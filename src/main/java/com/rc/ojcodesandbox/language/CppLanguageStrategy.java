@@ -0,0 +1,101 @@
+package com.rc.ojcodesandbox.language;
+
+import cn.hutool.core.io.FileUtil;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CppLanguageStrategy C++，g++ 编译
+ * @Date：2026/10/18 18:30
+ * 开启预编译头后，预热时把 bits/stdc++.h 预编译成 .gch，编译时通过 -I 优先找到它，
+ * 使用万能头的代码编译时间能缩短一半以上。预编译头的编译参数必须与用户代码一致
+ */
+@Slf4j
+public class CppLanguageStrategy implements LanguageStrategy {
+
+    private static final List<String> COMPILE_FLAGS = Arrays.asList("-O2", "-std=c++17");
+
+    private final boolean precompiledHeader;
+
+    /**
+     * 预编译头生成成功后才加入 -I
+     */
+    private volatile String precompiledHeaderPath;
+
+    public CppLanguageStrategy(boolean precompiledHeader) {
+        this.precompiledHeader = precompiledHeader;
+    }
+
+    @Override
+    public LanguageEnum getLanguage() {
+        return LanguageEnum.CPP;
+    }
+
+    @Override
+    public String getSourceFileName() {
+        return "Main.cpp";
+    }
+
+    @Override
+    public List<String> getCompileCommand(String userCodeParentPath) {
+        List<String> command = new ArrayList<>();
+        command.add("g++");
+        command.addAll(COMPILE_FLAGS);
+        if (precompiledHeaderPath != null) {
+            command.add("-I");
+            command.add(precompiledHeaderPath);
+        }
+        command.add("-o");
+        command.add(userCodeParentPath + File.separator + "Main");
+        command.add(userCodeParentPath + File.separator + getSourceFileName());
+        return command;
+    }
+
+    @Override
+    public List<String> getRunCommand(String userCodeParentPath) {
+        return Collections.singletonList(userCodeParentPath + File.separator + "Main");
+    }
+
+    @Override
+    public List<String> getVersionCommand() {
+        return Arrays.asList("g++", "--version");
+    }
+
+    @Override
+    public void warmUp(String warmUpPath) {
+        if (!precompiledHeader) {
+            return;
+        }
+        File header = new File(warmUpPath, "bits" + File.separator + "stdc++.h");
+        // 预编译头不可用时会按普通头文件展开，include_next 跳过当前目录找到系统的万能头
+        FileUtil.writeString("#ifndef OJ_CODESANDBOX_PCH\n#define OJ_CODESANDBOX_PCH\n"
+                + "#include_next <bits/stdc++.h>\n#endif\n", header, StandardCharsets.UTF_8);
+        List<String> command = new ArrayList<>();
+        command.add("g++");
+        command.addAll(COMPILE_FLAGS);
+        command.addAll(Arrays.asList("-x", "c++-header", header.getAbsolutePath(), "-o", header.getAbsolutePath() + ".gch"));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(warmUpPath, "pch.log")))
+                    .start();
+            if (process.waitFor(120, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                precompiledHeaderPath = warmUpPath;
+                log.info("c++ precompiled header ready: {}", header.getAbsolutePath() + ".gch");
+            } else {
+                process.destroyForcibly();
+                log.warn("c++ precompiled header build failed, see {}", new File(warmUpPath, "pch.log").getAbsolutePath());
+            }
+        } catch (Exception e) {
+            log.warn("c++ precompiled header build error", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.rc.ojcodesandbox.language;
+
+import cn.hutool.core.io.FileUtil;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：GoLanguageStrategy Go，go build 编译
+ * @Date：2026/10/18 18:30
+ * 构建缓存放在固定目录，预热时编译一次标准库，之后的编译只需要编译用户代码
+ */
+@Slf4j
+public class GoLanguageStrategy implements LanguageStrategy {
+
+    private final Map<String, String> environment = new HashMap<>();
+
+    public GoLanguageStrategy(String buildCachePath) {
+        environment.put("GOCACHE", buildCachePath);
+        environment.put("GO111MODULE", "off");
+        environment.put("CGO_ENABLED", "0");
+    }
+
+    @Override
+    public LanguageEnum getLanguage() {
+        return LanguageEnum.GO;
+    }
+
+    @Override
+    public String getSourceFileName() {
+        return "Main.go";
+    }
+
+    @Override
+    public List<String> getCompileCommand(String userCodeParentPath) {
+        return Arrays.asList("go", "build", "-o", userCodeParentPath + File.separator + "Main",
+                userCodeParentPath + File.separator + getSourceFileName());
+    }
+
+    @Override
+    public List<String> getRunCommand(String userCodeParentPath) {
+        return Collections.singletonList(userCodeParentPath + File.separator + "Main");
+    }
+
+    @Override
+    public List<String> getVersionCommand() {
+        return Arrays.asList("go", "version");
+    }
+
+    @Override
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    @Override
+    public void warmUp(String warmUpPath) {
+        File source = FileUtil.writeString("package main\n\nimport (\n\t\"bufio\"\n\t\"fmt\"\n\t\"os\"\n)\n\n"
+                        + "func main() {\n\tfmt.Fprintln(bufio.NewWriter(os.Stdout))\n}\n",
+                new File(warmUpPath, getSourceFileName()), StandardCharsets.UTF_8);
+        ProcessBuilder processBuilder = new ProcessBuilder(getCompileCommand(source.getParent()))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(warmUpPath, "warmup.log")));
+        processBuilder.environment().putAll(environment);
+        try {
+            Process process = processBuilder.start();
+            if (!process.waitFor(300, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (Exception e) {
+            log.warn("go build cache warm up error", e);
+        }
+    }
+}
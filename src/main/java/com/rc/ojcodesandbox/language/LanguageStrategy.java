@@ -0,0 +1,74 @@
+package com.rc.ojcodesandbox.language;
+
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author：rancheng
+ * @name：LanguageStrategy 单个语言的编译、运行方式
+ * @Date：2026/10/18 18:30
+ * 命令中的路径均为绝对路径，进程的工作目录是用户代码所在目录
+ */
+public interface LanguageStrategy {
+
+    LanguageEnum getLanguage();
+
+    /**
+     * 源码文件名
+     *
+     * @return
+     */
+    String getSourceFileName();
+
+    /**
+     * 编译命令
+     *
+     * @param userCodeParentPath 用户代码所在目录
+     * @return 不需要编译时返回 null
+     */
+    List<String> getCompileCommand(String userCodeParentPath);
+
+    /**
+     * 运行命令，命令行参数模式下输入用例会追加在后面
+     *
+     * @param userCodeParentPath
+     * @return
+     */
+    List<String> getRunCommand(String userCodeParentPath);
+
+    /**
+     * 检查工具链是否安装的命令
+     *
+     * @return
+     */
+    List<String> getVersionCommand();
+
+    /**
+     * 运行超时时间相对于 codesandbox.execute.time-out 的倍数，解释型语言适当放宽
+     *
+     * @return
+     */
+    default int getTimeOutFactor() {
+        return 1;
+    }
+
+    /**
+     * 编译、运行时额外的环境变量
+     *
+     * @return
+     */
+    default Map<String, String> getEnvironment() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * 预热，如生成预编译头、填充编译缓存，启动时在后台执行一次
+     *
+     * @param warmUpPath 可以自由使用的目录
+     */
+    default void warmUp(String warmUpPath) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.rc.ojcodesandbox.language;
+
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：PythonLanguageStrategy Python 3
+ * @Date：2026/10/18 18:30
+ * 编译阶段只做语法检查，语法错误作为编译错误返回，不再逐个用例运行
+ */
+public class PythonLanguageStrategy implements LanguageStrategy {
+
+    @Override
+    public LanguageEnum getLanguage() {
+        return LanguageEnum.PYTHON;
+    }
+
+    @Override
+    public String getSourceFileName() {
+        return "Main.py";
+    }
+
+    @Override
+    public List<String> getCompileCommand(String userCodeParentPath) {
+        return Arrays.asList("python3", "-m", "py_compile", userCodeParentPath + File.separator + getSourceFileName());
+    }
+
+    @Override
+    public List<String> getRunCommand(String userCodeParentPath) {
+        // -B 不写 .pyc，-u 不缓冲输出，被超时杀死时已输出的内容不会丢
+        return Arrays.asList("python3", "-B", "-u", userCodeParentPath + File.separator + getSourceFileName());
+    }
+
+    @Override
+    public List<String> getVersionCommand() {
+        return Arrays.asList("python3", "--version");
+    }
+
+    @Override
+    public int getTimeOutFactor() {
+        return 3;
+    }
+}
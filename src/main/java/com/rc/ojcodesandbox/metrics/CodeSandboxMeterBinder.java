@@ -0,0 +1,109 @@
+package com.rc.ojcodesandbox.metrics;
+
+import com.rc.ojcodesandbox.admission.AdmissionController;
+import com.rc.ojcodesandbox.artifact.ArtifactStore;
+import com.rc.ojcodesandbox.cgroup.CgroupManager;
+import com.rc.ojcodesandbox.docker.ContainerPool;
+import com.rc.ojcodesandbox.docker.MeteredDockerHttpClient;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.execute.TestCaseExecutor;
+import com.rc.ojcodesandbox.runner.JavaRunnerPool;
+import com.rc.ojcodesandbox.workspace.WorkspaceManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Setter;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxMeterBinder 沙箱组件的状态指标
+ * @Date：2026/10/18 23:10
+ * 只读取各组件已经维护的计数，采集时不会访问 docker 或遍历进程；没有配置的组件不注册。
+ * 依赖 CodeSandboxMetrics 的组件（如 ExecuteJobManager）在注入指标时自行注册，避免与注册表循环依赖
+ */
+@Setter
+public class CodeSandboxMeterBinder implements MeterBinder {
+
+    private ProcessReaper processReaper;
+
+    private TestCaseExecutor testCaseExecutor;
+
+    private WorkspaceManager workspaceManager;
+
+    private ArtifactStore artifactStore;
+
+    private AdmissionController admissionController;
+
+    private JavaRunnerPool javaRunnerPool;
+
+    private CgroupManager cgroupManager;
+
+    private ContainerPool containerPool;
+
+    private MeteredDockerHttpClient dockerHttpClient;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (processReaper != null) {
+            Gauge.builder("codesandbox.process.live", processReaper, ProcessReaper::getTrackedCount)
+                    .description("运行中的子进程数（编译和用例）").register(registry);
+            FunctionCounter.builder("codesandbox.process.timeout", processReaper, ProcessReaper::getTimeoutCount)
+                    .description("超时被杀死的子进程数").register(registry);
+        }
+        if (testCaseExecutor != null) {
+            Gauge.builder("codesandbox.case.active", testCaseExecutor, TestCaseExecutor::getActiveCount)
+                    .description("正在执行的用例数").register(registry);
+            Gauge.builder("codesandbox.case.queued", testCaseExecutor, TestCaseExecutor::getQueueSize)
+                    .description("等待执行的用例数").register(registry);
+        }
+        if (workspaceManager != null) {
+            Gauge.builder("codesandbox.workspace.leased", workspaceManager, WorkspaceManager::getLeasedCount)
+                    .description("借出中的工作目录数").register(registry);
+            Gauge.builder("codesandbox.workspace.idle", workspaceManager, WorkspaceManager::getIdleCount)
+                    .description("空闲的工作目录数").register(registry);
+        }
+        if (artifactStore != null) {
+            Gauge.builder("codesandbox.artifact.count", artifactStore, ArtifactStore::getCount)
+                    .description("保留的编译产物数").register(registry);
+            Gauge.builder("codesandbox.artifact.bytes", artifactStore, ArtifactStore::getBytesUsed)
+                    .description("编译产物占用的字节数").register(registry);
+            FunctionCounter.builder("codesandbox.artifact.evicted", artifactStore, ArtifactStore::getEvictedCount)
+                    .description("因空间上限或过期淘汰的编译产物数").register(registry);
+        }
+        if (admissionController != null) {
+            Gauge.builder("codesandbox.admission.running", admissionController, controller -> controller.getStats().getRunning())
+                    .description("占用中的执行槽位数").register(registry);
+            Gauge.builder("codesandbox.admission.queued", admissionController, controller -> controller.getStats().getQueued())
+                    .description("排队等待槽位的请求数").register(registry);
+            FunctionCounter.builder("codesandbox.admission.rejected", admissionController, controller -> controller.getStats().getRejectedCount())
+                    .description("被拒绝的请求数").register(registry);
+        }
+        if (javaRunnerPool != null) {
+            Gauge.builder("codesandbox.runner.total", javaRunnerPool, JavaRunnerPool::getRunnerCount)
+                    .description("预热执行器数").register(registry);
+            Gauge.builder("codesandbox.runner.idle", javaRunnerPool, JavaRunnerPool::getIdleCount)
+                    .description("空闲的预热执行器数").register(registry);
+        }
+        if (cgroupManager != null && cgroupManager.isAvailable()) {
+            Gauge.builder("codesandbox.cgroup.leased", cgroupManager, CgroupManager::getLeasedCount)
+                    .description("借出中的叶子 cgroup 数").register(registry);
+            Gauge.builder("codesandbox.cgroup.idle", cgroupManager, CgroupManager::getIdleCount)
+                    .description("空闲的叶子 cgroup 数").register(registry);
+            FunctionCounter.builder("codesandbox.cgroup.discarded", cgroupManager, CgroupManager::getDiscardedCount)
+                    .description("进程杀不掉而丢弃的叶子 cgroup 数").register(registry);
+        }
+        if (containerPool != null) {
+            Gauge.builder("codesandbox.container.live", containerPool, ContainerPool::getContainerCount)
+                    .description("容器池中的容器数").register(registry);
+            Gauge.builder("codesandbox.container.idle", containerPool, ContainerPool::getIdleCount)
+                    .description("空闲的容器数").register(registry);
+        }
+        if (dockerHttpClient != null) {
+            Gauge.builder("codesandbox.docker.inflight", dockerHttpClient, MeteredDockerHttpClient::getInFlight)
+                    .description("进行中的 docker 请求数").register(registry);
+            Gauge.builder("codesandbox.docker.connections.max", dockerHttpClient, MeteredDockerHttpClient::getMaxConnections)
+                    .description("docker 连接池上限").register(registry);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.rc.ojcodesandbox.metrics;
+
+import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.CaseVerdictEnum;
+import com.rc.ojcodesandbox.model.enums.ExecuteVerdictEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxMetrics 沙箱执行流程的指标
+ * @Date：2026/10/18 23:10
+ * 1.codesandbox.stage：各阶段耗时（预检、保存、编译、执行、整理结果、清理），按 stage、language 区分
+ * 2.codesandbox.case：单个用例的执行耗时，按 language 区分
+ * 3.codesandbox.verdict：按执行结论计数
+ * 4.codesandbox.queue.wait：排队等待时间，按 queue（admission 准入排队、job 异步任务排队）区分
+ * 耗时指标都发布直方图桶，由 Prometheus 端按 histogram_quantile 计算分位数
+ */
+public class CodeSandboxMetrics {
+
+    public static final String STAGE_SCREEN = "screen";
+
+    public static final String STAGE_SAVE = "save";
+
+    public static final String STAGE_COMPILE = "compile";
+
+    public static final String STAGE_RUN = "run";
+
+    public static final String STAGE_COLLECT = "collect";
+
+    public static final String STAGE_CLEANUP = "cleanup";
+
+    public static final String QUEUE_ADMISSION = "admission";
+
+    public static final String QUEUE_JOB = "job";
+
+    /**
+     * 直方图桶的范围，超出范围的值落在边界桶中
+     */
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(60);
+
+    private static final String OUT_OF_MEMORY = "OutOfMemoryError";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 按标签缓存已注册的指标，热路径上不再重复构建
+     */
+    private final Map<List<String>, Timer> timerMap = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Counter> counterMap = new ConcurrentHashMap<>();
+
+    public CodeSandboxMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 没有通过 Spring 注入时使用全局注册表，没有添加任何注册表时不记录
+     *
+     * @return
+     */
+    public static CodeSandboxMetrics global() {
+        return new CodeSandboxMetrics(Metrics.globalRegistry);
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param language
+     * @param stage
+     * @param startNanos System.nanoTime() 取得的开始时间
+     */
+    public void recordStage(String language, String stage, long startNanos) {
+        timer("codesandbox.stage", "执行流程各阶段耗时", "language", language, "stage", stage)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录单个用例的执行耗时
+     *
+     * @param language
+     * @param startNanos
+     */
+    public void recordCase(String language, long startNanos) {
+        timer("codesandbox.case", "单个用例执行耗时", "language", language)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录排队等待时间
+     *
+     * @param queue
+     * @param waitNanos
+     */
+    public void recordQueueWait(String queue, long waitNanos) {
+        timer("codesandbox.queue.wait", "排队等待时间", "queue", queue)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordVerdict(String language, ExecuteVerdictEnum verdict) {
+        List<String> key = Arrays.asList("codesandbox.verdict", language, verdict.getValue());
+        counterMap.computeIfAbsent(key, k -> Counter.builder("codesandbox.verdict")
+                .description("按执行结论统计的执行次数")
+                .tag("language", language)
+                .tag("verdict", verdict.getValue())
+                .register(meterRegistry)).increment();
+    }
+
+    /**
+     * 根据编译和执行结果判断本次执行的结论
+     *
+     * @param compileMessage     编译信息，编译前出错时为 null
+     * @param executeMessageList 各用例的执行信息，没有执行时为 null
+     * @param executeCodeResponse
+     * @return
+     */
+    public static ExecuteVerdictEnum getVerdict(ExecuteMessage compileMessage, List<ExecuteMessage> executeMessageList,
+                                                ExecuteCodeResponse executeCodeResponse) {
+        if (compileMessage != null && compileMessage.getExitValue() != null && compileMessage.getExitValue() != 0) {
+            return ExecuteVerdictEnum.COMPILE_ERROR;
+        }
+        if (executeCodeResponse == null || executeCodeResponse.getStatus() == null || executeCodeResponse.getStatus() == 2) {
+            return ExecuteVerdictEnum.SYSTEM_ERROR;
+        }
+        if (executeMessageList != null) {
+            for (ExecuteMessage executeMessage : executeMessageList) {
+                if (Boolean.TRUE.equals(executeMessage.getTimeout())) {
+                    return ExecuteVerdictEnum.TIMEOUT;
+                }
+                if (Boolean.TRUE.equals(executeMessage.getOutputLimitExceeded())) {
+                    return ExecuteVerdictEnum.OUTPUT_LIMIT_EXCEEDED;
+                }
+                if (Boolean.TRUE.equals(executeMessage.getMemoryLimitExceeded())
+                        || StrUtil.contains(executeMessage.getErrorMessage(), OUT_OF_MEMORY)) {
+                    return ExecuteVerdictEnum.MEMORY_LIMIT_EXCEEDED;
+                }
+            }
+        }
+        if (executeCodeResponse.getStatus() == 3) {
+            return ExecuteVerdictEnum.RUNTIME_ERROR;
+        }
+        if (executeCodeResponse.getJudgeInfo() != null && executeCodeResponse.getJudgeInfo().getMessage() != null
+                && !CaseVerdictEnum.ACCEPTED.getValue().equals(executeCodeResponse.getJudgeInfo().getMessage())) {
+            return ExecuteVerdictEnum.WRONG_ANSWER;
+        }
+        return ExecuteVerdictEnum.SUCCESS;
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        String[] keyParts = Arrays.copyOf(tags, tags.length + 1);
+        keyParts[tags.length] = name;
+        return timerMap.computeIfAbsent(Arrays.asList(keyParts), key -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry));
+    }
+}
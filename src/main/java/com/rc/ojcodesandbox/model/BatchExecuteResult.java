@@ -0,0 +1,24 @@
+package com.rc.ojcodesandbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author：rancheng
+ * @name：BatchExecuteResult 批量执行中单个请求的结果，按完成顺序逐行返回
+ * @Date：2026/10/18 17:50
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExecuteResult {
+    /**
+     * 请求在批量列表中的下标
+     */
+    private Integer index;
+    /**
+     * 执行结果
+     */
+    private ExecuteCodeResponse response;
+}
@@ -0,0 +1,28 @@
+package com.rc.ojcodesandbox.model;
+
+import lombok.Data;
+
+/**
+ * @Author：rancheng
+ * @name：CaseResult 开启输出比较时单个用例的评测结果，代替完整输出返回
+ * @Date：2026/10/18 21:00
+ */
+@Data
+public class CaseResult {
+    /**
+     * 评测结果，见 CaseVerdictEnum 的 value
+     */
+    private String verdict;
+    /**
+     * 差异片段或错误信息
+     */
+    private String message;
+    /**
+     * 消耗时间
+     */
+    private Long time;
+    /**
+     * 消耗内存kb
+     */
+    private Long memory;
+}
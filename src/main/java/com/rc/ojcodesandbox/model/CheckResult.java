@@ -0,0 +1,32 @@
+package com.rc.ojcodesandbox.model;
+
+import com.rc.ojcodesandbox.model.enums.CaseVerdictEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author：rancheng
+ * @name：CheckResult 输出比较的结论
+ * @Date：2026/10/18 21:00
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckResult {
+
+    private CaseVerdictEnum verdict;
+
+    /**
+     * 不一致时的差异片段，或评测程序的输出
+     */
+    private String message;
+
+    public static CheckResult accepted() {
+        return new CheckResult(CaseVerdictEnum.ACCEPTED, null);
+    }
+
+    public boolean isAccepted() {
+        return verdict == CaseVerdictEnum.ACCEPTED;
+    }
+}
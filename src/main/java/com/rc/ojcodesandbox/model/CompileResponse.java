@@ -0,0 +1,33 @@
+package com.rc.ojcodesandbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author：rancheng
+ * @name：CompileResponse 单独编译的结果
+ * @Date：2026/10/19 14:00
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompileResponse {
+    /**
+     * 编译产物 id，之后的执行请求带上它即可直接运行；编译失败时为 null
+     */
+    private String artifactId;
+    private String language;
+    /**
+     * 1：编译成功，2：沙箱错误，3：编译错误
+     */
+    private Integer status;
+    /**
+     * 编译错误或沙箱错误信息
+     */
+    private String message;
+    /**
+     * 编译耗时（毫秒）
+     */
+    private Long time;
+}
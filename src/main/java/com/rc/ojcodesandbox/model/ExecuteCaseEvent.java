@@ -0,0 +1,24 @@
+package com.rc.ojcodesandbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteCaseEvent 流式执行中单个用例的结果，按完成顺序推送
+ * @Date：2026/10/19 13:00
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecuteCaseEvent {
+    /**
+     * 用例在输入中的下标
+     */
+    private Integer index;
+    /**
+     * 执行信息，message 为该用例的完整输出
+     */
+    private ExecuteMessage executeMessage;
+}
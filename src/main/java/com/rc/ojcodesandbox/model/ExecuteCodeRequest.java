@@ -25,9 +25,45 @@ public class ExecuteCodeRequest {
      * 输入代码
      */
     private String code;
+    /**
+     * /compile 返回的编译产物 id，设置时忽略 code，直接运行已编译的程序；language 需要与编译时一致
+     */
+    private String artifactId;
     /**
      * 编译语言
      */
     private String language;
+    /**
+     * 输入用例的传递方式：args（命令行参数，默认）、stdin（标准输入）
+     */
+    private String inputMode;
+    /**
+     * 题目 id，与 testCaseVersion 同时设置时使用测试用例库中的用例（通过标准输入传入），忽略 inputList
+     */
+    private String problemId;
+    /**
+     * 测试用例版本
+     */
+    private String testCaseVersion;
+    /**
+     * 输出比较方式：exact、whitespace、float、custom，为空时不比较，直接返回输出
+     */
+    private String checker;
+    /**
+     * 各用例的期望输出，不使用测试用例库且开启输出比较时必填，与 inputList 一一对应
+     */
+    private List<String> expectedOutputList;
+    /**
+     * float 比较允许的绝对/相对误差，为空时使用配置的默认值
+     */
+    private Double checkerEpsilon;
+    /**
+     * 优先级：contest（比赛）、practice（练习，默认）、rejudge（重判）
+     */
+    private String priority;
+    /**
+     * 租户标识，同一优先级内按租户轮流调度，为空时视为同一个租户
+     */
+    private String tenantId;
 
 }
@@ -33,4 +33,8 @@ public class ExecuteCodeResponse {
      * 代码执行信息，堆栈/内存的使用，代码执行时间
      */
     private JudgeInfo judgeInfo;
+    /**
+     * 开启输出比较时各用例的评测结果，此时 outputList 为空，不再返回完整输出
+     */
+    private List<CaseResult> caseResultList;
 }
@@ -0,0 +1,36 @@
+package com.rc.ojcodesandbox.model;
+
+import lombok.Data;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteJob 异步执行任务的查询结果
+ * @Date：2026/10/18 16:10
+ */
+@Data
+public class ExecuteJob {
+    /**
+     * 任务 id
+     */
+    private String jobId;
+    /**
+     * 任务状态，取值见 JobStatusEnum.value
+     */
+    private String status;
+    /**
+     * 沙箱执行结果，任务完成前为 null
+     */
+    private ExecuteCodeResponse response;
+    /**
+     * 任务失败时的错误信息
+     */
+    private String message;
+    /**
+     * 提交时间（毫秒时间戳）
+     */
+    private Long createTime;
+    /**
+     * 结束时间（毫秒时间戳），未结束为 null
+     */
+    private Long finishTime;
+}
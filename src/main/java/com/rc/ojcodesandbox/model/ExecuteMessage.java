@@ -1,5 +1,6 @@
 package com.rc.ojcodesandbox.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -12,7 +13,11 @@ public class ExecuteMessage {
 
     private Integer exitValue;
 
-    private String message;
+    /**
+     * 标准输出，按字节保存，读取 message 时才解码
+     */
+    @JsonIgnore
+    private OutputText output;
 
     private String errorMessage;
 
@@ -20,4 +25,31 @@ public class ExecuteMessage {
 
     private Long memory;
 
+    /**
+     * 是否运行超时被杀死
+     */
+    private Boolean timeout;
+
+    /**
+     * 是否输出超出限制被杀死
+     */
+    private Boolean outputLimitExceeded;
+
+    /**
+     * 是否超出内存上限被杀死（cgroup 沙箱）
+     */
+    private Boolean memoryLimitExceeded;
+
+    /**
+     * 开启输出比较时的比较结论，程序没有正常结束时为 null
+     */
+    private CheckResult checkResult;
+
+    public String getMessage() {
+        return output == null ? null : output.toString();
+    }
+
+    public void setMessage(String message) {
+        this.output = message == null ? null : OutputText.of(message);
+    }
 }
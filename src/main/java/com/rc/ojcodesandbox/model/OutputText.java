@@ -0,0 +1,122 @@
+package com.rc.ojcodesandbox.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author：rancheng
+ * @name：OutputText 按字节保存的程序输出
+ * @Date：2026/10/19 16:00
+ * 输出从收集到返回一直保存为 UTF-8 字节，toString 时才解码，不提前创建 String；
+ * 程序输出的解码结果与原来逐行读取再用 \n 拼接一致：末尾的一个换行在 wrap 时去掉，\r\n 和单独的 \r 统一为 \n
+ */
+public final class OutputText {
+
+    public static final OutputText EMPTY = of("");
+
+    private final byte[] bytes;
+
+    private final int length;
+
+    /**
+     * 只包含 ASCII 字符且没有 \r，字节可以原样写出，不需要解码
+     */
+    private final boolean plain;
+
+    /**
+     * 由 String 创建时保留原文，toString 直接返回
+     */
+    private final String text;
+
+    private OutputText(byte[] bytes, int length, String text) {
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = bytes[i] >= 0 && bytes[i] != '\r';
+        }
+        this.bytes = bytes;
+        this.length = length;
+        this.plain = ascii;
+        this.text = text;
+    }
+
+    /**
+     * 程序输出：直接使用数组，不复制，调用方之后不能再修改
+     *
+     * @param bytes
+     * @param length 有效长度，末尾的一个换行会被去掉
+     * @return
+     */
+    public static OutputText wrap(byte[] bytes, int length) {
+        int end = length;
+        if (end > 0 && bytes[end - 1] == '\n') {
+            end--;
+            if (end > 0 && bytes[end - 1] == '\r') {
+                end--;
+            }
+        } else if (end > 0 && bytes[end - 1] == '\r') {
+            end--;
+        }
+        return new OutputText(bytes, end, null);
+    }
+
+    /**
+     * 已经是 String 的信息（编译信息、测试数据等），toString 原样返回
+     *
+     * @param text
+     * @return
+     */
+    public static OutputText of(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new OutputText(bytes, bytes.length, text);
+    }
+
+    /**
+     * @return 字节数
+     */
+    public int length() {
+        return length;
+    }
+
+    public boolean isPlain() {
+        return plain;
+    }
+
+    /**
+     * 原始字节，只读，有效长度为 length()
+     *
+     * @return
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        if (text != null) {
+            return text;
+        }
+        String decoded = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        if (plain || decoded.indexOf('\r') < 0) {
+            return decoded;
+        }
+        return decoded.replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutputText)) {
+            return false;
+        }
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
@@ -0,0 +1,65 @@
+package com.rc.ojcodesandbox.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * @Author：rancheng
+ * @name：OutputTextList 按需解码的输出列表
+ * @Date：2026/10/19 16:00
+ * 作为 ExecuteCodeResponse 的 outputList，对调用方仍是只读的 List<String>，get 时才解码；
+ * Jackson 直接写到字节流时，只含 ASCII 的输出按原始字节写出，整个过程不创建 String
+ */
+@JsonSerialize(using = OutputTextList.Serializer.class)
+public class OutputTextList extends AbstractList<String> implements RandomAccess {
+
+    private final List<OutputText> outputTextList;
+
+    public OutputTextList(List<OutputText> outputTextList) {
+        this.outputTextList = outputTextList;
+    }
+
+    @Override
+    public String get(int index) {
+        OutputText outputText = outputTextList.get(index);
+        return outputText == null ? null : outputText.toString();
+    }
+
+    @Override
+    public int size() {
+        return outputTextList.size();
+    }
+
+    public static class Serializer extends StdSerializer<OutputTextList> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serializer() {
+            super(OutputTextList.class);
+        }
+
+        @Override
+        public void serialize(OutputTextList value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(value, value.size());
+            for (OutputText outputText : value.outputTextList) {
+                if (outputText == null) {
+                    gen.writeNull();
+                } else if (outputText.isPlain() && gen instanceof UTF8JsonGenerator) {
+                    // 只有输出到字节流的生成器支持直接写 UTF-8 字节，控制字符和引号仍会转义
+                    gen.writeUTF8String(outputText.bytes(), 0, outputText.length());
+                } else {
+                    gen.writeString(outputText.toString());
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+}
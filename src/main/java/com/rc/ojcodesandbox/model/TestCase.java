@@ -0,0 +1,24 @@
+package com.rc.ojcodesandbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author：rancheng
+ * @name：TestCase 上传到测试用例库的单个用例
+ * @Date：2026/10/18 20:10
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCase {
+    /**
+     * 输入
+     */
+    private String input;
+    /**
+     * 期望输出，可以为空
+     */
+    private String output;
+}
@@ -0,0 +1,34 @@
+package com.rc.ojcodesandbox.model.enums;
+
+/**
+ * @Author：rancheng
+ * @name：CaseVerdictEnum 单个用例的评测结果
+ * @Date：2026/10/18 21:00
+ */
+public enum CaseVerdictEnum {
+
+    ACCEPTED("通过", "Accepted"),
+    WRONG_ANSWER("答案错误", "Wrong Answer"),
+    RUNTIME_ERROR("运行错误", "Runtime Error"),
+    TIME_LIMIT_EXCEEDED("运行超时", "Time Limit Exceeded"),
+    OUTPUT_LIMIT_EXCEEDED("输出超出限制", "Output Limit Exceeded"),
+    MEMORY_LIMIT_EXCEEDED("内存超出限制", "Memory Limit Exceeded"),
+    CHECKER_ERROR("评测程序错误", "Checker Error");
+
+    private final String text;
+
+    private final String value;
+
+    CaseVerdictEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.rc.ojcodesandbox.model.enums;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * @Author：rancheng
+ * @name：CheckerTypeEnum 输出比较方式
+ * @Date：2026/10/18 21:00
+ */
+public enum CheckerTypeEnum {
+
+    /**
+     * 逐字节比较，忽略 \r 和末尾的空行
+     */
+    EXACT("精确比较", "exact"),
+    /**
+     * 按空白字符拆分后逐个比较，忽略空白字符的数量和种类
+     */
+    WHITESPACE("忽略空白比较", "whitespace"),
+    /**
+     * 在 whitespace 的基础上，两边都是数字时允许误差
+     */
+    FLOAT("浮点误差比较", "float"),
+    /**
+     * 测试用例库中上传的评测程序（testlib 约定：checker input output answer，退出码 0 为通过）
+     */
+    CUSTOM("自定义评测程序", "custom");
+
+    private final String text;
+
+    private final String value;
+
+    CheckerTypeEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value
+     * @return 为空时返回 null，表示不比较、直接返回输出
+     */
+    public static CheckerTypeEnum getEnumByValue(String value) {
+        if (StrUtil.isBlank(value)) {
+            return null;
+        }
+        for (CheckerTypeEnum anEnum : CheckerTypeEnum.values()) {
+            if (anEnum.value.equalsIgnoreCase(value)) {
+                return anEnum;
+            }
+        }
+        throw new IllegalArgumentException("不支持的比较方式：" + value);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.rc.ojcodesandbox.model.enums;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteVerdictEnum 一次执行的结论，用于指标统计
+ * @Date：2026/10/18 23:10
+ */
+public enum ExecuteVerdictEnum {
+
+    SUCCESS("运行成功", "success"),
+    REJECTED("代码未通过预检", "rejected"),
+    WRONG_ANSWER("答案错误", "wrong_answer"),
+    COMPILE_ERROR("编译错误", "compile_error"),
+    RUNTIME_ERROR("运行错误", "runtime_error"),
+    TIMEOUT("运行超时", "timeout"),
+    MEMORY_LIMIT_EXCEEDED("内存溢出", "memory_limit_exceeded"),
+    OUTPUT_LIMIT_EXCEEDED("输出超出限制", "output_limit_exceeded"),
+    SYSTEM_ERROR("沙箱错误", "system_error");
+
+    private final String text;
+
+    private final String value;
+
+    ExecuteVerdictEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
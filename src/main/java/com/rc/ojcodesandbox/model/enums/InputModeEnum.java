@@ -0,0 +1,55 @@
+package com.rc.ojcodesandbox.model.enums;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * @Author：rancheng
+ * @name：InputModeEnum 输入用例的传递方式
+ * @Date：2026/10/18 14:50
+ */
+public enum InputModeEnum {
+
+    /**
+     * 作为 main 方法的命令行参数传入（按空白字符拆分）
+     */
+    ARGS("命令行参数", "args"),
+    /**
+     * 写入程序的标准输入
+     */
+    STDIN("标准输入", "stdin");
+
+    private final String text;
+
+    private final String value;
+
+    InputModeEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举，为空时默认使用命令行参数
+     *
+     * @param value
+     * @return
+     */
+    public static InputModeEnum getEnumByValue(String value) {
+        if (StrUtil.isBlank(value)) {
+            return ARGS;
+        }
+        for (InputModeEnum anEnum : InputModeEnum.values()) {
+            if (anEnum.value.equalsIgnoreCase(value)) {
+                return anEnum;
+            }
+        }
+        throw new IllegalArgumentException("不支持的输入方式：" + value);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
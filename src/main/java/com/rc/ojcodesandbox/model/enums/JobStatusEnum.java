@@ -0,0 +1,46 @@
+package com.rc.ojcodesandbox.model.enums;
+
+/**
+ * @Author：rancheng
+ * @name：JobStatusEnum 异步执行任务状态
+ * @Date：2026/10/18 16:10
+ */
+public enum JobStatusEnum {
+
+    WAITING("等待中", "waiting"),
+    RUNNING("执行中", "running"),
+    /**
+     * 沙箱正常返回了结果（用户代码本身的错误体现在 response.status 中）
+     */
+    SUCCEED("已完成", "succeed"),
+    /**
+     * 沙箱执行过程中抛出异常
+     */
+    FAILED("执行失败", "failed");
+
+    private final String text;
+
+    private final String value;
+
+    JobStatusEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 是否已经结束
+     *
+     * @return
+     */
+    public boolean isFinished() {
+        return this == SUCCEED || this == FAILED;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
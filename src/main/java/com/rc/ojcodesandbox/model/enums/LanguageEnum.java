@@ -0,0 +1,55 @@
+package com.rc.ojcodesandbox.model.enums;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * @Author：rancheng
+ * @name：LanguageEnum 支持的编程语言
+ * @Date：2026/10/18 18:30
+ */
+public enum LanguageEnum {
+
+    JAVA("Java", "java"),
+    C("C", "c"),
+    CPP("C++", "cpp"),
+    PYTHON("Python", "python"),
+    GO("Go", "go");
+
+    private final String text;
+
+    private final String value;
+
+    LanguageEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举，也接受 text（如 C++），为空时默认 Java
+     *
+     * @param value
+     * @return 不支持的语言返回 null
+     */
+    public static LanguageEnum getEnumByValue(String value) {
+        if (StrUtil.isBlank(value)) {
+            return JAVA;
+        }
+        for (LanguageEnum anEnum : LanguageEnum.values()) {
+            if (anEnum.value.equalsIgnoreCase(value) || anEnum.text.equalsIgnoreCase(value)) {
+                return anEnum;
+            }
+        }
+        if ("python3".equalsIgnoreCase(value)) {
+            return PYTHON;
+        }
+        return null;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rc.ojcodesandbox.model.enums;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * @Author：rancheng
+ * @name：PriorityEnum 提交的调度优先级，声明顺序即优先顺序
+ * @Date：2026/10/18 17:00
+ */
+public enum PriorityEnum {
+
+    CONTEST("比赛", "contest"),
+    PRACTICE("练习", "practice"),
+    REJUDGE("重判", "rejudge");
+
+    private final String text;
+
+    private final String value;
+
+    PriorityEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举，为空时默认为练习
+     *
+     * @param value
+     * @return
+     */
+    public static PriorityEnum getEnumByValue(String value) {
+        if (StrUtil.isBlank(value)) {
+            return PRACTICE;
+        }
+        for (PriorityEnum anEnum : PriorityEnum.values()) {
+            if (anEnum.value.equalsIgnoreCase(value)) {
+                return anEnum;
+            }
+        }
+        throw new IllegalArgumentException("不支持的优先级：" + value);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,243 @@
+package com.rc.ojcodesandbox.runner;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.resource.ResourceUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ReUtil;
+import cn.hutool.crypto.SecureUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：CdsArchiveManager 用户程序 JVM 的类数据共享（AppCDS）归档
+ * @Date：2026/10/19 10:30
+ * 用户程序每次启动 JVM 都要加载、校验一批相同的 JDK 类，这里提前把它们导出为共享归档，启动时直接映射：
+ * 1.运行训练程序（resources/cds/CdsTraining.java）采集加载的类，只保留 JDK 的类，导出静态归档
+ * 2.归档按 JDK（java.home + 版本）命名，定期检查 PATH 上的 java，JDK 变化后重新生成并删除旧归档
+ * 3.归档先在临时目录生成，用 -Xshare:on 验证能正常映射后再原子替换，损坏的归档会导致 JVM 崩溃
+ * JDK 11 以下不支持时不生成，getJvmOptions() 返回空列表；JDK 不一致时 JVM 会忽略归档照常启动
+ */
+@Slf4j
+public class CdsArchiveManager {
+
+    private static final String TRAINING_RESOURCE = "cds/CdsTraining.java";
+
+    private static final String TRAINING_CLASS = "CdsTraining";
+
+    private static final String TRAINING_INPUT = "5\n3 1 4 1 5\n";
+
+    private static final List<String> JDK_CLASS_PREFIXES = Arrays.asList("java/", "javax/", "jdk/", "sun/", "com/sun/");
+
+    private static final int MIN_JAVA_VERSION = 11;
+
+    private static final String ARCHIVE_PREFIX = "jdk-";
+
+    private static final String ARCHIVE_SUFFIX = ".jsa";
+
+    private final CodeSandboxProperties.Cds cdsProperties;
+
+    private final File archiveDir;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("cds-archive-", true));
+
+    private volatile List<String> jvmOptions = Collections.emptyList();
+
+    private volatile String jdkKey;
+
+    /**
+     * @param cdsProperties
+     * @param archiveDir    归档存放目录
+     */
+    public CdsArchiveManager(CodeSandboxProperties.Cds cdsProperties, String archiveDir) {
+        this.cdsProperties = cdsProperties;
+        this.archiveDir = FileUtil.mkdir(archiveDir);
+    }
+
+    /**
+     * 后台生成归档，之后按 checkIntervalMillis 检查 JDK 是否变化
+     */
+    public void start() {
+        long interval = Math.max(1000L, cdsProperties.getCheckIntervalMillis());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (IOException e) {
+                log.warn("build cds archive error: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 检查当前 JDK 的归档，没有则生成
+     *
+     * @return 归档是否可用
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public synchronized boolean refresh() throws IOException, InterruptedException {
+        String settings = exec(Arrays.asList("java", "-XshowSettings:properties", "-version"), archiveDir, null).output;
+        String specVersion = ReUtil.get("java\\.specification\\.version = (\\S+)", settings, 1);
+        if (specVersion == null || specVersion.startsWith("1.") || Integer.parseInt(specVersion) < MIN_JAVA_VERSION) {
+            if (jdkKey == null || !jvmOptions.isEmpty()) {
+                log.info("cds archive disabled, java.specification.version = {}", specVersion);
+            }
+            jdkKey = specVersion;
+            jvmOptions = Collections.emptyList();
+            return false;
+        }
+        String key = SecureUtil.md5(ReUtil.get("java\\.home = (.+)", settings, 1) + "|"
+                + ReUtil.get("java\\.vm\\.version = (\\S+)", settings, 1)).substring(0, 12);
+        File archive = new File(archiveDir, ARCHIVE_PREFIX + key + ARCHIVE_SUFFIX);
+        if (key.equals(jdkKey) && !jvmOptions.isEmpty() && archive.isFile()) {
+            return true;
+        }
+        if (!archive.isFile() || !verify(archive)) {
+            long start = System.currentTimeMillis();
+            build(archive);
+            log.info("cds archive built: {}, {}ms", archive.getName(), System.currentTimeMillis() - start);
+        }
+        // 删除其他 JDK 的旧归档
+        for (File file : FileUtil.ls(archiveDir.getAbsolutePath())) {
+            if (file.isFile() && file.getName().startsWith(ARCHIVE_PREFIX) && !file.equals(archive)) {
+                FileUtil.del(file);
+            }
+        }
+        jdkKey = key;
+        jvmOptions = Collections.unmodifiableList(Arrays.asList(
+                "-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-Xshare:auto", "-Xlog:cds=off"));
+        return true;
+    }
+
+    /**
+     * 启动用户程序 JVM 时追加的参数，归档不可用时为空列表
+     *
+     * @return
+     */
+    public List<String> getJvmOptions() {
+        return jvmOptions;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void build(File archive) throws IOException, InterruptedException {
+        File workDir = new File(archiveDir, "build-" + System.nanoTime());
+        FileUtil.mkdir(workDir);
+        try {
+            FileUtil.writeString(ResourceUtil.readStr(TRAINING_RESOURCE, StandardCharsets.UTF_8),
+                    new File(workDir, TRAINING_CLASS + ".java"), StandardCharsets.UTF_8);
+            check(exec(Arrays.asList("javac", "-encoding", "utf-8", "-d", ".", TRAINING_CLASS + ".java"), workDir, null), "编译训练程序");
+            check(exec(Arrays.asList("java", "-Xshare:off", "-XX:DumpLoadedClassList=all.lst", "-cp", ".", TRAINING_CLASS),
+                    workDir, TRAINING_INPUT), "采集类列表");
+            List<String> classList = new ArrayList<>();
+            for (String line : FileUtil.readLines(new File(workDir, "all.lst"), StandardCharsets.UTF_8)) {
+                if (isJdkClassLine(line)) {
+                    classList.add(line);
+                }
+            }
+            FileUtil.writeLines(classList, new File(workDir, "jdk.lst"), StandardCharsets.UTF_8);
+            // 不带 classpath 导出，归档中只有 JDK 的类，运行时不校验用户程序的 classpath
+            File tempArchive = new File(workDir, "jdk.jsa");
+            check(exec(Arrays.asList("java", "-Xshare:dump", "-XX:SharedClassListFile=jdk.lst",
+                    "-XX:SharedArchiveFile=" + tempArchive.getName(), "-Xlog:cds=off"), workDir, null), "导出归档");
+            if (!verify(tempArchive)) {
+                throw new IOException("归档验证失败");
+            }
+            Files.move(tempArchive.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            FileUtil.del(workDir);
+        }
+    }
+
+    /**
+     * 强制使用归档启动一次，映射失败时退出码非 0
+     *
+     * @param archive
+     * @return
+     */
+    private boolean verify(File archive) throws IOException, InterruptedException {
+        return exec(Arrays.asList("java", "-Xshare:on", "-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-version"),
+                archiveDir, null).exitValue == 0;
+    }
+
+    /**
+     * 训练程序的类、以及以训练程序为宿主的 lambda 不放进归档
+     *
+     * @param line
+     * @return
+     */
+    static boolean isJdkClassLine(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens[0].isEmpty() || tokens[0].startsWith("#")) {
+            return false;
+        }
+        if ("@lambda-form-invoker".equals(tokens[0])) {
+            return true;
+        }
+        String className = "@lambda-proxy".equals(tokens[0]) && tokens.length > 1 ? tokens[1] : tokens[0];
+        for (String prefix : JDK_CLASS_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void check(ExecResult execResult, String step) throws IOException {
+        if (execResult.exitValue != 0) {
+            throw new IOException(step + "失败：" + execResult.output);
+        }
+    }
+
+    private ExecResult exec(List<String> command, File workDir, String stdin) throws IOException, InterruptedException {
+        File outputFile = File.createTempFile("cds-", ".log", archiveDir);
+        try {
+            Process process = new ProcessBuilder(command).directory(workDir)
+                    .redirectErrorStream(true)
+                    .redirectOutput(outputFile)
+                    .start();
+            try (OutputStream outputStream = process.getOutputStream()) {
+                if (stdin != null) {
+                    outputStream.write(stdin.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (!process.waitFor(cdsProperties.getBuildTimeOut(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("执行超时：" + String.join(" ", command));
+            }
+            return new ExecResult(process.exitValue(), FileUtil.readString(outputFile, StandardCharsets.UTF_8));
+        } finally {
+            FileUtil.del(outputFile);
+        }
+    }
+
+    private static class ExecResult {
+
+        private final int exitValue;
+
+        private final String output;
+
+        private ExecResult(int exitValue, String output) {
+            this.exitValue = exitValue;
+            this.output = output;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.rc.ojcodesandbox.runner;
+
+import cn.hutool.core.io.IoUtil;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.OutputText;
+import com.rc.ojcodesandbox.utils.ProcessUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author：rancheng
+ * @name：JavaRunner 一个预热好的执行器 JVM
+ * @Date：2026/10/18 12:50
+ * 同一时间只会被一个用例使用，由 JavaRunnerPool 负责借出和归还
+ */
+@Slf4j
+public class JavaRunner {
+
+    /**
+     * 生成每个请求的令牌，用户代码无法预测，伪造不了执行器的返回信息
+     */
+    private static final SecureRandom TOKEN_RANDOM = new SecureRandom();
+
+    private final Process process;
+
+    private final DataInputStream protocolIn;
+
+    private final DataOutputStream protocolOut;
+
+    private int runCount;
+
+    /**
+     * 执行器出现异常（超时、用户代码调用 System.exit、遗留线程等），不能再复用
+     */
+    private boolean broken;
+
+    private JavaRunner(Process process) {
+        this.process = process;
+        this.protocolIn = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        this.protocolOut = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+    }
+
+    /**
+     * 启动执行器 JVM，等待其就绪
+     *
+     * @param command 启动命令
+     * @return
+     * @throws IOException
+     */
+    static JavaRunner start(List<String> command) throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        // 执行器自身的 stderr 没有人读，直接丢弃，避免管道写满
+        processBuilder.redirectError(ProcessBuilder.Redirect.to(new File(File.separatorChar == '\\' ? "NUL" : "/dev/null")));
+        Process process = processBuilder.start();
+        JavaRunner javaRunner = new JavaRunner(process);
+        try {
+            int magic = javaRunner.protocolIn.readInt();
+            if (magic != JavaRunnerMain.READY_MAGIC) {
+                throw new IOException("执行器启动失败，握手信息错误");
+            }
+        } catch (IOException e) {
+            javaRunner.destroy();
+            throw e;
+        }
+        return javaRunner;
+    }
+
+    /**
+     * 在执行器中运行一个用例
+     *
+     * @param classDir      class 文件目录
+     * @param args          main 方法参数
+     * @param input         标准输入
+     * @param processReaper 超时回收器，超时后直接杀死整个执行器
+     * @param timeOut       超时时间（毫秒）
+     * @return
+     */
+    ExecuteMessage run(String classDir, List<String> args, byte[] input, ProcessReaper processReaper, long timeOut) {
+        runCount++;
+        ExecuteMessage executeMessage = new ExecuteMessage();
+        ProcessReaper.Deadline deadline = processReaper.register(process, timeOut);
+        long token = TOKEN_RANDOM.nextLong();
+        try {
+            protocolOut.writeLong(token);
+            protocolOut.writeUTF(classDir);
+            protocolOut.writeInt(args.size());
+            for (String arg : args) {
+                protocolOut.writeUTF(arg);
+            }
+            protocolOut.writeInt(input.length);
+            protocolOut.write(input);
+            protocolOut.flush();
+
+            if (protocolIn.readInt() != JavaRunnerMain.RESPONSE_MAGIC || protocolIn.readLong() != token) {
+                // 用户代码直接写了原始 stdout（FileDescriptor.out），协议被破坏或返回信息是伪造的
+                throw new IOException("执行器返回信息错误");
+            }
+            int exitCode = protocolIn.readInt();
+            boolean exited = protocolIn.readBoolean();
+            boolean dirty = protocolIn.readBoolean();
+            boolean outputLimitExceeded = protocolIn.readBoolean();
+            long time = protocolIn.readLong();
+            OutputText output = readOutput();
+            OutputText errorOutput = readOutput();
+            if (exited) {
+                // 用户代码调用了 System.exit，以 JVM 的退出码为准
+                process.waitFor(timeOut, TimeUnit.MILLISECONDS);
+                exitCode = process.isAlive() ? 1 : process.exitValue();
+            }
+            broken = exited || dirty;
+            executeMessage.setExitValue(exitCode);
+            executeMessage.setOutput(output);
+            executeMessage.setTime(time);
+            if (outputLimitExceeded) {
+                executeMessage.setOutputLimitExceeded(true);
+                executeMessage.setErrorMessage("输出超出限制");
+            } else if (exitCode != 0) {
+                executeMessage.setErrorMessage(ProcessUtils.getExitErrorMessage(exitCode, errorOutput.toString()));
+            }
+        } catch (IOException e) {
+            broken = true;
+            executeMessage.setExitValue(1);
+            if (!deadline.isTimedOut()) {
+                log.warn("runner process error", e);
+                executeMessage.setErrorMessage("执行器异常退出");
+            }
+        } catch (InterruptedException e) {
+            broken = true;
+            Thread.currentThread().interrupt();
+        } finally {
+            deadline.cancel();
+        }
+        if (deadline.isTimedOut()) {
+            broken = true;
+            executeMessage.setTimeout(true);
+        }
+        return executeMessage;
+    }
+
+    /**
+     * 读出的数组直接作为输出，不再复制、解码
+     *
+     * @return
+     * @throws IOException
+     */
+    private OutputText readOutput() throws IOException {
+        int length = protocolIn.readInt();
+        byte[] bytes = new byte[length];
+        protocolIn.readFully(bytes);
+        return OutputText.wrap(bytes, length);
+    }
+
+    int getRunCount() {
+        return runCount;
+    }
+
+    boolean isReusable() {
+        return !broken && process.isAlive();
+    }
+
+    void destroy() {
+        IoUtil.close(protocolOut);
+        IoUtil.close(protocolIn);
+        process.destroyForcibly();
+    }
+}
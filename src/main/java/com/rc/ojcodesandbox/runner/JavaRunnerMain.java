@@ -0,0 +1,262 @@
+package com.rc.ojcodesandbox.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TimeZone;
+
+/**
+ * @Author：rancheng
+ * @name：JavaRunnerMain 预热 JVM 中常驻的执行器入口
+ * @Date：2026/10/18 12:50
+ * 运行在子 JVM 中，通过 stdin/stdout 与沙箱通信，每次请求：
+ * 1.用新的 ClassLoader 加载 class 目录下的 Main
+ * 2.替换 System.in/out/err，执行 main(args)
+ * 3.把退出码、耗时、输出写回沙箱
+ * 用户代码通过 FileDescriptor.out 仍能写到协议使用的 stdout：每个请求带一个沙箱生成的随机令牌，返回时原样带回，
+ * 令牌不一致或返回信息之前有多余的字节都视为执行器被破坏，销毁后不再复用。
+ * 同一个 JVM 会先后运行不同提交的代码，系统属性、默认 Locale 和时区在每个用例结束后恢复，
+ * 但 JDK 内部的其它静态状态无法隔离，用户代码也能通过反射读到执行器的内部状态，只能用于可信的代码。
+ * 注意：这个类由沙箱写到临时目录后在子 JVM 中加载，只能依赖 JDK，不能引用项目中的其它类
+ */
+public class JavaRunnerMain {
+
+    public static final int READY_MAGIC = 0x4F4A5230;
+
+    public static final int RESPONSE_MAGIC = 0x4F4A5231;
+
+    private static final Object RESPONSE_LOCK = new Object();
+
+    private static DataOutputStream protocolOut;
+
+    private static CaseContext currentCase;
+
+    public static void main(String[] args) throws IOException {
+        long outputLimit = args.length > 0 ? Long.parseLong(args[0]) : Long.MAX_VALUE;
+        // 协议使用原始的 stdin/stdout，用户代码的输入输出全部重定向到内存
+        DataInputStream protocolIn = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        protocolOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(new PrintStream(new LimitedOutputStream(0), true));
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+        // 用户代码调用 System.exit 时，在退出前把当前用例已有的输出写回去
+        Runtime.getRuntime().addShutdownHook(new Thread(JavaRunnerMain::respondOnExit));
+
+        protocolOut.writeInt(READY_MAGIC);
+        protocolOut.flush();
+        while (true) {
+            CaseContext caseContext;
+            try {
+                caseContext = readRequest(protocolIn, outputLimit);
+            } catch (EOFException e) {
+                // 沙箱关闭了管道，正常退出
+                return;
+            }
+            runCase(caseContext);
+            respond(caseContext);
+        }
+    }
+
+    private static CaseContext readRequest(DataInputStream protocolIn, long outputLimit) throws IOException {
+        CaseContext caseContext = new CaseContext();
+        caseContext.token = protocolIn.readLong();
+        caseContext.classDir = protocolIn.readUTF();
+        int argc = protocolIn.readInt();
+        caseContext.args = new String[argc];
+        for (int i = 0; i < argc; i++) {
+            caseContext.args[i] = protocolIn.readUTF();
+        }
+        int inputLength = protocolIn.readInt();
+        byte[] input = new byte[inputLength];
+        protocolIn.readFully(input);
+        caseContext.input = input;
+        caseContext.out = new LimitedOutputStream(outputLimit);
+        caseContext.err = new LimitedOutputStream(outputLimit);
+        return caseContext;
+    }
+
+    private static void runCase(CaseContext caseContext) {
+        PrintStream originalErr = System.err;
+        Properties originalProperties = (Properties) System.getProperties().clone();
+        Locale originalLocale = Locale.getDefault();
+        TimeZone originalTimeZone = TimeZone.getDefault();
+        PrintStream out = new PrintStream(caseContext.out, true);
+        PrintStream err = new PrintStream(caseContext.err, true);
+        System.setIn(new ByteArrayInputStream(caseContext.input));
+        System.setOut(out);
+        System.setErr(err);
+        currentCase = caseContext;
+        int threadCountBefore = Thread.activeCount();
+        long start = System.nanoTime();
+        URLClassLoader classLoader = null;
+        try {
+            // 父加载器使用系统类加载器的父级，用户代码看不到执行器本身
+            classLoader = new URLClassLoader(new URL[]{new File(caseContext.classDir).toURI().toURL()},
+                    ClassLoader.getSystemClassLoader().getParent());
+            Class<?> mainClass = Class.forName("Main", true, classLoader);
+            Method mainMethod = mainClass.getMethod("main", String[].class);
+            mainMethod.setAccessible(true);
+            Thread mainThread = new Thread(() -> invokeMain(mainMethod, caseContext), "main");
+            mainThread.start();
+            mainThread.join();
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            err.println("错误: 找不到或无法加载主类 Main");
+            caseContext.exitCode = 1;
+        } catch (Throwable e) {
+            e.printStackTrace(err);
+            caseContext.exitCode = 1;
+            caseContext.dirty = true;
+        } finally {
+            caseContext.timeMillis = caseContext.cpuTimeMillis >= 0
+                    ? caseContext.cpuTimeMillis : (System.nanoTime() - start) / 1000000L;
+            out.flush();
+            err.flush();
+            System.setOut(new PrintStream(new LimitedOutputStream(0), true));
+            System.setErr(originalErr);
+            System.setIn(new ByteArrayInputStream(new byte[0]));
+            // 不让用户代码修改的全局设置影响下一个提交
+            System.setProperties(originalProperties);
+            Locale.setDefault(originalLocale);
+            TimeZone.setDefault(originalTimeZone);
+            if (classLoader != null) {
+                try {
+                    classLoader.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        // 用户代码留下了仍在运行的线程，这个 JVM 不能再复用
+        if (Thread.activeCount() > threadCountBefore) {
+            caseContext.dirty = true;
+        }
+    }
+
+    private static void invokeMain(Method mainMethod, CaseContext caseContext) {
+        try {
+            mainMethod.invoke(null, (Object) caseContext.args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            System.err.print("Exception in thread \"main\" ");
+            cause.printStackTrace(System.err);
+            caseContext.exitCode = 1;
+            if (cause instanceof Error) {
+                // OOM、StackOverflow 等，执行器状态不可信
+                caseContext.dirty = true;
+            }
+        } catch (Throwable e) {
+            e.printStackTrace(System.err);
+            caseContext.exitCode = 1;
+            caseContext.dirty = true;
+        } finally {
+            // 执行器 JVM 是常驻的，进程级的 CPU 时间没有意义，只统计用户 main 线程的 CPU 时间
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+                caseContext.cpuTimeMillis = threadMXBean.getCurrentThreadCpuTime() / 1000000L;
+            }
+        }
+    }
+
+    private static void respondOnExit() {
+        CaseContext caseContext = currentCase;
+        if (caseContext == null) {
+            return;
+        }
+        caseContext.exited = true;
+        caseContext.dirty = true;
+        try {
+            respond(caseContext);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void respond(CaseContext caseContext) throws IOException {
+        synchronized (RESPONSE_LOCK) {
+            if (caseContext.responded) {
+                return;
+            }
+            caseContext.responded = true;
+            currentCase = null;
+            protocolOut.writeInt(RESPONSE_MAGIC);
+            protocolOut.writeLong(caseContext.token);
+            protocolOut.writeInt(caseContext.exitCode);
+            protocolOut.writeBoolean(caseContext.exited);
+            protocolOut.writeBoolean(caseContext.dirty);
+            protocolOut.writeBoolean(caseContext.out.exceeded || caseContext.err.exceeded);
+            protocolOut.writeLong(caseContext.timeMillis);
+            caseContext.out.writeFrame(protocolOut);
+            caseContext.err.writeFrame(protocolOut);
+            protocolOut.flush();
+        }
+    }
+
+    /**
+     * 单个用例的执行上下文
+     */
+    private static class CaseContext {
+        private long token;
+        private String classDir;
+        private String[] args;
+        private byte[] input;
+        private LimitedOutputStream out;
+        private LimitedOutputStream err;
+        private volatile int exitCode;
+        private volatile boolean exited;
+        private volatile boolean dirty;
+        private long timeMillis;
+        private volatile long cpuTimeMillis = -1;
+        private boolean responded;
+    }
+
+    /**
+     * 有上限的输出缓冲，超出上限后抛出异常中断用户代码的输出
+     */
+    private static class LimitedOutputStream extends OutputStream {
+        private final long limit;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private volatile boolean exceeded;
+
+        private LimitedOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (buffer.size() + (long) len > limit) {
+                if (limit > 0) {
+                    exceeded = true;
+                    throw new IllegalStateException("输出超出限制");
+                }
+                return;
+            }
+            buffer.write(b, off, len);
+        }
+
+        private synchronized void writeFrame(DataOutputStream dataOutputStream) throws IOException {
+            dataOutputStream.writeInt(buffer.size());
+            buffer.writeTo(dataOutputStream);
+        }
+    }
+}
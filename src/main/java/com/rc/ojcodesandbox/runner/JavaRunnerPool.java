@@ -0,0 +1,224 @@
+package com.rc.ojcodesandbox.runner;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author：rancheng
+ * @name：JavaRunnerPool 预热 JVM 执行器池
+ * @Date：2026/10/18 12:50
+ * 原生沙箱每个用例都要启动一次 java 进程，大部分耗时花在 JVM 启动上。
+ * 这里提前启动若干个执行器 JVM，用例到来时借出一个，在新的 ClassLoader 中加载 Main 执行：
+ * 1.池中执行器数量不超过 poolSize
+ * 2.执行满 maxRuns 次或者出现异常（超时、System.exit、OOM、遗留线程）后销毁，后台补充新的执行器
+ */
+@Slf4j
+public class JavaRunnerPool {
+
+    private static final String RUNNER_MAIN_CLASS = JavaRunnerMain.class.getName();
+
+    /**
+     * 执行器用到的所有 class 文件（含内部类）
+     */
+    private static final List<String> RUNNER_CLASS_FILES = Arrays.asList(
+            "JavaRunnerMain.class", "JavaRunnerMain$CaseContext.class", "JavaRunnerMain$LimitedOutputStream.class");
+
+    private final CodeSandboxProperties.Runner runnerProperties;
+
+    private final ProcessReaper processReaper;
+
+    private final List<String> command;
+
+    private final Semaphore slots;
+
+    private final LinkedBlockingQueue<JavaRunner> idleRunners = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger runnerCount = new AtomicInteger();
+
+    private final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("runner-warm-up-", true));
+
+    private volatile boolean shutdown;
+
+    private CdsArchiveManager cdsArchiveManager;
+
+    /**
+     * @param runnerProperties 执行器池配置
+     * @param processReaper    超时回收器
+     * @param runnerDir        执行器 class 文件的存放目录
+     * @param outputLimit      单个用例的输出上限（字节）
+     */
+    public JavaRunnerPool(CodeSandboxProperties.Runner runnerProperties, ProcessReaper processReaper,
+                          String runnerDir, long outputLimit) {
+        this.runnerProperties = runnerProperties;
+        this.processReaper = processReaper;
+        this.slots = new Semaphore(runnerProperties.getPoolSize());
+        extractRunnerClasses(runnerDir);
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.add("-Xmx" + runnerProperties.getHeap());
+        command.addAll(runnerProperties.getJvmOptions());
+        command.add("-Dfile.encoding=UTF-8");
+        command.add("-cp");
+        command.add(runnerDir);
+        command.add(RUNNER_MAIN_CLASS);
+        command.add(String.valueOf(outputLimit));
+        this.command = command;
+    }
+
+    /**
+     * 执行器 JVM 使用 CDS 归档启动，归档生成之前或不可用时照常启动
+     *
+     * @param cdsArchiveManager
+     */
+    public void setCdsArchiveManager(CdsArchiveManager cdsArchiveManager) {
+        this.cdsArchiveManager = cdsArchiveManager;
+    }
+
+    /**
+     * 执行器只能依赖 JDK，把它的 class 文件单独写到一个目录作为子 JVM 的 classpath，
+     * 这样打成 Spring Boot fat jar 后也能正常启动
+     *
+     * @param runnerDir
+     */
+    private void extractRunnerClasses(String runnerDir) {
+        String packageDir = runnerDir + File.separator + JavaRunnerMain.class.getPackage().getName().replace('.', File.separatorChar);
+        for (String classFile : RUNNER_CLASS_FILES) {
+            InputStream inputStream = JavaRunnerMain.class.getResourceAsStream(classFile);
+            if (inputStream == null) {
+                throw new IllegalStateException("找不到执行器 class 文件：" + classFile);
+            }
+            FileUtil.writeBytes(IoUtil.readBytes(inputStream), packageDir + File.separator + classFile);
+        }
+    }
+
+    /**
+     * 后台启动执行器，直到池满
+     */
+    public void prestart() {
+        for (int i = 0; i < runnerProperties.getPoolSize(); i++) {
+            warmUpExecutor.execute(this::warmUpOne);
+        }
+    }
+
+    private void warmUpOne() {
+        if (shutdown || runnerCount.incrementAndGet() > runnerProperties.getPoolSize()) {
+            runnerCount.decrementAndGet();
+            return;
+        }
+        try {
+            idleRunners.offer(JavaRunner.start(getCommand()));
+        } catch (IOException e) {
+            runnerCount.decrementAndGet();
+            log.warn("start runner error", e);
+        }
+    }
+
+    /**
+     * 借一个执行器运行用例
+     *
+     * @param classDir class 文件目录
+     * @param args     main 方法参数
+     * @param input    标准输入
+     * @param timeOut  超时时间（毫秒）
+     * @return
+     * @throws IOException 无法启动执行器
+     */
+    public ExecuteMessage run(String classDir, List<String> args, byte[] input, long timeOut) throws IOException {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待执行器被中断", e);
+        }
+        try {
+            JavaRunner javaRunner = borrow();
+            ExecuteMessage executeMessage;
+            try {
+                executeMessage = javaRunner.run(classDir, args, input, processReaper, timeOut);
+            } finally {
+                giveBack(javaRunner);
+            }
+            return executeMessage;
+        } finally {
+            slots.release();
+        }
+    }
+
+    private JavaRunner borrow() throws IOException {
+        JavaRunner javaRunner = idleRunners.poll();
+        if (javaRunner != null) {
+            return javaRunner;
+        }
+        runnerCount.incrementAndGet();
+        try {
+            return JavaRunner.start(getCommand());
+        } catch (IOException e) {
+            runnerCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private List<String> getCommand() {
+        List<String> cdsOptions = cdsArchiveManager == null ? null : cdsArchiveManager.getJvmOptions();
+        if (cdsOptions == null || cdsOptions.isEmpty()) {
+            return command;
+        }
+        List<String> cdsCommand = new ArrayList<>(command.size() + cdsOptions.size());
+        cdsCommand.add(command.get(0));
+        cdsCommand.addAll(cdsOptions);
+        cdsCommand.addAll(command.subList(1, command.size()));
+        return cdsCommand;
+    }
+
+    private void giveBack(JavaRunner javaRunner) {
+        if (!shutdown && javaRunner.isReusable() && javaRunner.getRunCount() < runnerProperties.getMaxRuns()
+                && runnerCount.get() <= runnerProperties.getPoolSize()) {
+            idleRunners.offer(javaRunner);
+            return;
+        }
+        // 回收后在后台补充一个新的执行器
+        javaRunner.destroy();
+        if (runnerCount.decrementAndGet() < runnerProperties.getPoolSize() && !shutdown) {
+            warmUpExecutor.execute(this::warmUpOne);
+        }
+    }
+
+    /**
+     * 当前存活的执行器数量
+     *
+     * @return
+     */
+    public int getRunnerCount() {
+        return runnerCount.get();
+    }
+
+    public int getIdleCount() {
+        return idleRunners.size();
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        warmUpExecutor.shutdownNow();
+        JavaRunner javaRunner;
+        while ((javaRunner = idleRunners.poll()) != null) {
+            javaRunner.destroy();
+        }
+    }
+}
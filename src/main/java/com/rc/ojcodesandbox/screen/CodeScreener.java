@@ -0,0 +1,79 @@
+package com.rc.ojcodesandbox.screen;
+
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author：rancheng
+ * @name：CodeScreener 源码预检
+ * @Date：2026/10/19 15:00
+ * 在保存、编译之前按关键词检查源码，命中的提交直接拒绝，不占用工作目录和编译：
+ * 1.每种语言一组关键词（rules），启动时编译成匹配器；注释和字符串中的内容不检查，关键词只在标识符边界上命中
+ * 2.题目可以追加关键词（problemRules，对所有语言生效，如禁止调用库函数的题目），
+ * 与语言的关键词合并后的匹配器在第一次使用时编译并缓存
+ * 预检只是快速过滤明显的恶意代码，真正的隔离仍由执行环境（cgroup、docker 等）保证
+ */
+public class CodeScreener {
+
+    private static final KeywordMatcher EMPTY_MATCHER = new KeywordMatcher(Collections.<String>emptyList());
+
+    private final CodeSandboxProperties.Screen screenProperties;
+
+    private final Map<String, KeywordMatcher> languageMatcherMap = new HashMap<>();
+
+    /**
+     * language/problemId -> 合并后的匹配器
+     */
+    private final Map<String, KeywordMatcher> problemMatcherMap = new ConcurrentHashMap<>();
+
+    public CodeScreener(CodeSandboxProperties.Screen screenProperties) {
+        this.screenProperties = screenProperties;
+        for (Map.Entry<String, List<String>> entry : screenProperties.getRules().entrySet()) {
+            languageMatcherMap.put(entry.getKey(), new KeywordMatcher(entry.getValue()));
+        }
+    }
+
+    /**
+     * 检查源码
+     *
+     * @param language
+     * @param problemId 为空时只检查语言的关键词
+     * @param code
+     * @return 命中的关键词，通过时返回 null
+     */
+    public String screen(String language, String problemId, String code) {
+        if (!screenProperties.isEnabled()) {
+            return null;
+        }
+        return getMatcher(language, problemId).find(code, SourceSyntax.of(language));
+    }
+
+    /**
+     * 未通过预检时返回给用户的信息
+     *
+     * @param keyword 命中的关键词
+     * @return
+     */
+    public static String getRejectMessage(String keyword) {
+        return "代码包含禁止使用的内容：" + keyword;
+    }
+
+    private KeywordMatcher getMatcher(String language, String problemId) {
+        KeywordMatcher languageMatcher = languageMatcherMap.getOrDefault(language, EMPTY_MATCHER);
+        List<String> problemRuleList = problemId == null ? null : screenProperties.getProblemRules().get(problemId);
+        if (problemRuleList == null || problemRuleList.isEmpty()) {
+            return languageMatcher;
+        }
+        return problemMatcherMap.computeIfAbsent(language + "/" + problemId, key -> {
+            List<String> keywordList = new ArrayList<>(screenProperties.getRules().getOrDefault(language, Collections.<String>emptyList()));
+            keywordList.addAll(problemRuleList);
+            return new KeywordMatcher(keywordList);
+        });
+    }
+}
@@ -0,0 +1,301 @@
+package com.rc.ojcodesandbox.screen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：KeywordMatcher 多关键词匹配器（Aho-Corasick）
+ * @Date：2026/10/19 15:00
+ * 构造时把关键词编译成确定性自动机，失配跳转已经展开到转移表中：
+ * 匹配时每个字符只查一次数组，源码只扫描一遍，不创建对象，耗时与关键词数量无关。
+ * 关键词只能包含 ASCII 字符（代码中的标识符、包名、系统调用），源码中的非 ASCII 字符直接回到初始状态。
+ * 检查源码时按 SourceSyntax 跳过注释和字符串，并要求在标识符边界上命中（Files. 不会命中 openFiles.add）；
+ * 以引号开头的关键词（如 Go 的 "os/exec"）表示整个字符串，只与完整的字符串匹配
+ */
+public class KeywordMatcher {
+
+    private static final int ALPHABET_SIZE = 128;
+
+    private static final int CODE = 0;
+
+    private static final int LINE_COMMENT = 1;
+
+    private static final int BLOCK_COMMENT = 2;
+
+    private static final int LITERAL = 3;
+
+    private final String[] keywords;
+
+    /**
+     * 转移表，next[state * ALPHABET_SIZE + c] 为读入 c 后的状态
+     */
+    private final int[] next;
+
+    /**
+     * 以该状态结尾的关键词下标，没有为 -1
+     */
+    private final int[] output;
+
+    /**
+     * 沿失配指针找到的下一个有关键词的状态，没有为 0：同一位置结尾的较短关键词
+     */
+    private final int[] dict;
+
+    public KeywordMatcher(Collection<String> keywordCollection) {
+        List<String> keywordList = new ArrayList<>();
+        for (String keyword : new LinkedHashSet<>(keywordCollection)) {
+            if (keyword == null || keyword.isEmpty()) {
+                continue;
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (keyword.charAt(i) >= ALPHABET_SIZE) {
+                    throw new IllegalArgumentException("关键词只能包含 ASCII 字符：" + keyword);
+                }
+            }
+            keywordList.add(keyword);
+        }
+        this.keywords = keywordList.toArray(new String[0]);
+        int maxStates = 1;
+        for (String keyword : keywords) {
+            maxStates += keyword.length();
+        }
+        // 1.建立字典树，0 表示没有子节点（根节点不会是任何节点的子节点）
+        int[] trie = new int[maxStates * ALPHABET_SIZE];
+        int[] terminal = new int[maxStates];
+        Arrays.fill(terminal, -1);
+        int stateCount = 1;
+        for (int k = 0; k < keywords.length; k++) {
+            int state = 0;
+            for (int i = 0; i < keywords[k].length(); i++) {
+                int index = state * ALPHABET_SIZE + keywords[k].charAt(i);
+                if (trie[index] == 0) {
+                    trie[index] = stateCount++;
+                }
+                state = trie[index];
+            }
+            if (terminal[state] < 0) {
+                terminal[state] = k;
+            }
+        }
+        // 2.按层遍历，计算失配指针并展开成完整的转移表
+        this.next = Arrays.copyOf(trie, stateCount * ALPHABET_SIZE);
+        this.output = Arrays.copyOf(terminal, stateCount);
+        this.dict = new int[stateCount];
+        int[] fail = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET_SIZE; c++) {
+            int child = next[c];
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                int index = state * ALPHABET_SIZE + c;
+                int child = next[index];
+                int fallback = next[fail[state] * ALPHABET_SIZE + c];
+                if (child == 0) {
+                    next[index] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    // 后缀是关键词时同样命中
+                    dict[child] = output[fallback] >= 0 ? fallback : dict[fallback];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找文本中最先出现（结束位置最靠前）的关键词，按原文匹配，不区分注释、字符串和标识符边界
+     *
+     * @param text
+     * @return 没有命中时返回 null
+     */
+    public String find(CharSequence text) {
+        if (keywords.length == 0 || text == null) {
+            return null;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = step(state, text.charAt(i));
+            int matched = output[state] >= 0 ? state : dict[state];
+            if (matched != 0) {
+                return keywords[output[matched]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在源码中查找最先出现的关键词：跳过注释和字符串，只在标识符边界上命中
+     *
+     * @param code
+     * @param syntax 注释、字符串的写法
+     * @return 没有命中时返回 null
+     */
+    public String find(CharSequence code, SourceSyntax syntax) {
+        if (keywords.length == 0 || code == null) {
+            return null;
+        }
+        int length = code.length();
+        int state = 0;
+        int region = CODE;
+        // 命中的关键词不能从 codeStart 之前开始，即不能跨过注释、字符串
+        int codeStart = 0;
+        int literalStart = -1;
+        char quote = 0;
+        boolean triple = false;
+        boolean rawLiteral = false;
+        boolean codeInLiteral = false;
+        String keyword;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (region == LINE_COMMENT) {
+                if (c == '\n') {
+                    region = CODE;
+                    codeStart = i + 1;
+                }
+                continue;
+            }
+            if (region == BLOCK_COMMENT) {
+                if (c == '*' && i + 1 < length && code.charAt(i + 1) == '/') {
+                    region = CODE;
+                    codeStart = ++i + 1;
+                }
+                continue;
+            }
+            if (region == LITERAL) {
+                if (c == '\\' && !rawLiteral && i + 1 < length) {
+                    // 转义字符和后一个字符一起读入，不会被当成结束引号
+                    state = step(step(state, c), code.charAt(++i));
+                    continue;
+                }
+                if (c == quote && (!triple || isTripleQuote(code, i, quote))) {
+                    int end = triple ? i + 2 : i;
+                    for (; i <= end; i++) {
+                        state = step(state, quote);
+                    }
+                    i = end;
+                    // 以引号开头的关键词只能与完整的字符串匹配
+                    if ((keyword = accept(code, state, end, Integer.MAX_VALUE, literalStart)) != null) {
+                        return keyword;
+                    }
+                    region = CODE;
+                    codeStart = end + 1;
+                    continue;
+                }
+                if (c == '\n' && !triple && !rawLiteral) {
+                    // 没有结束的字符串到行尾为止
+                    region = CODE;
+                    codeStart = i + 1;
+                    state = 0;
+                    continue;
+                }
+                state = step(state, c);
+                if (codeInLiteral && (keyword = accept(code, state, i, codeStart, -1)) != null) {
+                    return keyword;
+                }
+                continue;
+            }
+            if (syntax.isPython() ? c == '#'
+                    : c == '/' && i + 1 < length && (code.charAt(i + 1) == '/' || code.charAt(i + 1) == '*')) {
+                region = c == '#' || code.charAt(i + 1) == '/' ? LINE_COMMENT : BLOCK_COMMENT;
+                state = 0;
+                if (c == '/') {
+                    i++;
+                }
+                continue;
+            }
+            if (isQuote(code, i, syntax)) {
+                region = LITERAL;
+                quote = c;
+                literalStart = i;
+                rawLiteral = c == '`';
+                triple = syntax.isPython() && isTripleQuote(code, i, c);
+                codeInLiteral = syntax.isPython() && isFormatString(code, i);
+                state = step(0, c);
+                if (triple) {
+                    state = step(step(state, c), c);
+                    i += 2;
+                }
+                codeStart = i + 1;
+                continue;
+            }
+            state = step(state, c);
+            if ((keyword = accept(code, state, i, codeStart, -1)) != null) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    private int step(int state, char c) {
+        return c < ALPHABET_SIZE ? next[state * ALPHABET_SIZE + c] : 0;
+    }
+
+    /**
+     * 在 end 处结尾的关键词中，找出从代码区域开始、位于标识符边界上的一个，或者与 [literalStart, end] 完整的字符串相同的一个
+     */
+    private String accept(CharSequence code, int state, int end, int codeStart, int literalStart) {
+        for (int matched = output[state] >= 0 ? state : dict[state]; matched != 0; matched = dict[matched]) {
+            String keyword = keywords[output[matched]];
+            int start = end - keyword.length() + 1;
+            if (start == literalStart || start >= codeStart && isTokenBoundary(code, start, end, keyword)) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isTokenBoundary(CharSequence code, int start, int end, String keyword) {
+        if (isIdentifierPart(keyword.charAt(0)) && start > 0 && isIdentifierPart(code.charAt(start - 1))) {
+            return false;
+        }
+        return !(isIdentifierPart(keyword.charAt(keyword.length() - 1))
+                && end + 1 < code.length() && isIdentifierPart(code.charAt(end + 1)));
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return c == '_' || c == '$' || Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isQuote(CharSequence code, int i, SourceSyntax syntax) {
+        char c = code.charAt(i);
+        if (c == '`') {
+            return syntax.isRawString();
+        }
+        if (c == '\'' && !syntax.isPython()) {
+            // 标识符、数字后面的 ' 是 C++14 的数字分隔符，不是字符的开始
+            return i == 0 || !isIdentifierPart(code.charAt(i - 1));
+        }
+        return c == '"' || c == '\'';
+    }
+
+    private static boolean isTripleQuote(CharSequence code, int i, char quote) {
+        return i + 2 < code.length() && code.charAt(i + 1) == quote && code.charAt(i + 2) == quote;
+    }
+
+    /**
+     * Python 的 f 前缀字符串（f、rf、fr 等），{} 中的内容是代码
+     */
+    private static boolean isFormatString(CharSequence code, int quoteIndex) {
+        boolean format = false;
+        int i = quoteIndex - 1;
+        for (; i >= 0 && quoteIndex - i <= 2 && Character.isLetter(code.charAt(i)); i--) {
+            format |= code.charAt(i) == 'f' || code.charAt(i) == 'F';
+        }
+        return format && (i < 0 || !isIdentifierPart(code.charAt(i)));
+    }
+
+    public int size() {
+        return keywords.length;
+    }
+}
@@ -0,0 +1,55 @@
+package com.rc.ojcodesandbox.screen;
+
+/**
+ * @Author：rancheng
+ * @name：SourceSyntax 预检需要识别的注释和字符串写法
+ * @Date：2026/10/19 18:50
+ * 只区分代码、注释、字符串三种区域，不做完整的词法分析：
+ * 1.C_LIKE（Java、C、C++）：// 和 / * * / 注释，"..." 字符串，'...' 字符；
+ * 标识符或数字后面的 ' 不是字符的开始（C++14 的数字分隔符 1'000'000）
+ * 2.GO：在 C_LIKE 的基础上增加 `...` 原始字符串（不转义、可以跨行）
+ * 3.PYTHON：# 注释，'...'、"..." 字符串及三引号字符串；f 前缀字符串中的内容是代码，仍然检查
+ */
+public enum SourceSyntax {
+
+    C_LIKE(false, false),
+    GO(true, false),
+    PYTHON(false, true);
+
+    /**
+     * 是否支持反引号原始字符串
+     */
+    private final boolean rawString;
+
+    /**
+     * 是否为 Python 的写法
+     */
+    private final boolean python;
+
+    SourceSyntax(boolean rawString, boolean python) {
+        this.rawString = rawString;
+        this.python = python;
+    }
+
+    /**
+     * @param language 语言，如 java、python
+     * @return 没有单独处理的语言按 C_LIKE 识别
+     */
+    public static SourceSyntax of(String language) {
+        if ("python".equalsIgnoreCase(language)) {
+            return PYTHON;
+        }
+        if ("go".equalsIgnoreCase(language)) {
+            return GO;
+        }
+        return C_LIKE;
+    }
+
+    public boolean isRawString() {
+        return rawString;
+    }
+
+    public boolean isPython() {
+        return python;
+    }
+}
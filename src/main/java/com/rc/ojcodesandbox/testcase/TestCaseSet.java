@@ -0,0 +1,70 @@
+package com.rc.ojcodesandbox.testcase;
+
+import com.rc.ojcodesandbox.checker.CheckCase;
+import com.rc.ojcodesandbox.execute.InputSource;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：TestCaseSet 测试用例库中一个题目某个版本的全部用例
+ * @Date：2026/10/18 20:10
+ */
+@Data
+public class TestCaseSet {
+    private String problemId;
+    private String version;
+    /**
+     * 各用例的输入文件，按用例顺序排列
+     */
+    private List<Path> inputPaths;
+    /**
+     * 各用例的期望输出文件，没有上传期望输出的用例为 null
+     */
+    private List<Path> outputPaths;
+    /**
+     * 输入、输出文件的总字节数
+     */
+    private long totalBytes;
+    /**
+     * 自定义评测程序源码，没有上传时为 null
+     */
+    private Path checkerPath;
+
+    public int size() {
+        return inputPaths.size();
+    }
+
+    /**
+     * 各用例输入文件的输入源，写入子进程时直接从文件传输，不经过 Java 字符串
+     *
+     * @return
+     */
+    public List<InputSource> toInputSources() {
+        List<InputSource> inputSourceList = new ArrayList<>(inputPaths.size());
+        for (Path inputPath : inputPaths) {
+            inputSourceList.add(InputSource.of(inputPath));
+        }
+        return inputSourceList;
+    }
+
+    /**
+     * 需要比较输出的用例，每个用例都必须有期望输出
+     *
+     * @return
+     */
+    public List<CheckCase> toCheckCases() {
+        List<CheckCase> checkCaseList = new ArrayList<>(inputPaths.size());
+        for (int i = 0; i < inputPaths.size(); i++) {
+            Path outputPath = outputPaths.get(i);
+            if (outputPath == null) {
+                throw new IllegalArgumentException("第 " + (i + 1) + " 个用例没有期望输出");
+            }
+            checkCaseList.add(new CheckCase(InputSource.of(inputPaths.get(i)), InputSource.of(outputPath), inputPaths.get(i), outputPath));
+        }
+        return checkCaseList;
+    }
+}
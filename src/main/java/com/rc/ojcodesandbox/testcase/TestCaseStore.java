@@ -0,0 +1,183 @@
+package com.rc.ojcodesandbox.testcase;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.lang.UUID;
+import com.rc.ojcodesandbox.model.TestCase;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * @Author：rancheng
+ * @name：TestCaseStore 本地测试用例库
+ * @Date：2026/10/18 20:10
+ * 1.按 题目 id / 版本 保存用例，目录结构为 root/{problemId}/{version}/{序号}.in、{序号}.out，序号从 1 开始
+ * 2.上传时先写到临时目录再整体改名，读取方不会看到写了一半的版本
+ * 3.同一版本的内容应当不变，题目数据变化时由调用方升级版本号
+ * 4.自定义评测程序保存为 checker.cpp，与用例放在同一目录，需要在用例上传之后再上传
+ */
+@Slf4j
+public class TestCaseStore {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9_\\-.]{1,64}");
+
+    private static final String INPUT_SUFFIX = ".in";
+
+    private static final String OUTPUT_SUFFIX = ".out";
+
+    private static final String CHECKER_SOURCE_NAME = "checker.cpp";
+
+    private final Path rootPath;
+
+    /**
+     * problemId/version -> 用例集合，只缓存文件路径
+     */
+    private final Map<String, TestCaseSet> testCaseSetMap = new ConcurrentHashMap<>();
+
+    public TestCaseStore(String rootPath) {
+        this.rootPath = Paths.get(rootPath).toAbsolutePath();
+        FileUtil.mkdir(this.rootPath.toFile());
+    }
+
+    /**
+     * 保存一个版本的用例，已存在时整体替换
+     *
+     * @param problemId
+     * @param version
+     * @param testCaseList
+     * @return
+     * @throws IOException
+     */
+    public TestCaseSet save(String problemId, String version, List<TestCase> testCaseList) throws IOException {
+        Path versionPath = resolve(problemId, version);
+        Path tempPath = versionPath.resolveSibling("." + version + "-" + UUID.fastUUID().toString(true));
+        Files.createDirectories(tempPath);
+        try {
+            for (int i = 0; i < testCaseList.size(); i++) {
+                TestCase testCase = testCaseList.get(i);
+                String input = testCase.getInput() == null ? "" : testCase.getInput();
+                Files.write(tempPath.resolve((i + 1) + INPUT_SUFFIX), input.getBytes(StandardCharsets.UTF_8));
+                if (testCase.getOutput() != null) {
+                    Files.write(tempPath.resolve((i + 1) + OUTPUT_SUFFIX), testCase.getOutput().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            synchronized (this) {
+                testCaseSetMap.remove(key(problemId, version));
+                if (Files.exists(versionPath)) {
+                    Path oldPath = versionPath.resolveSibling("." + version + "-old-" + UUID.fastUUID().toString(true));
+                    Files.move(versionPath, oldPath, StandardCopyOption.ATOMIC_MOVE);
+                    FileUtil.del(oldPath.toFile());
+                }
+                Files.move(tempPath, versionPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            FileUtil.del(tempPath.toFile());
+        }
+        return get(problemId, version);
+    }
+
+    /**
+     * 保存自定义评测程序，已存在时替换
+     *
+     * @param problemId
+     * @param version
+     * @param checkerCode 评测程序的 C++ 源码
+     * @return 用例不存在时返回 null
+     * @throws IOException
+     */
+    public synchronized TestCaseSet saveChecker(String problemId, String version, String checkerCode) throws IOException {
+        Path versionPath = resolve(problemId, version);
+        if (!Files.isDirectory(versionPath)) {
+            return null;
+        }
+        Path tempPath = versionPath.resolve("." + CHECKER_SOURCE_NAME + "-" + UUID.fastUUID().toString(true));
+        try {
+            Files.write(tempPath, checkerCode.getBytes(StandardCharsets.UTF_8));
+            Files.move(tempPath, versionPath.resolve(CHECKER_SOURCE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+        testCaseSetMap.remove(key(problemId, version));
+        return get(problemId, version);
+    }
+
+    /**
+     * 获取一个版本的用例
+     *
+     * @param problemId
+     * @param version
+     * @return 不存在时返回 null
+     */
+    public TestCaseSet get(String problemId, String version) {
+        Path versionPath = resolve(problemId, version);
+        return testCaseSetMap.computeIfAbsent(key(problemId, version), key -> load(problemId, version, versionPath));
+    }
+
+    /**
+     * 删除一个版本的用例
+     *
+     * @param problemId
+     * @param version
+     * @return 是否存在
+     */
+    public synchronized boolean delete(String problemId, String version) {
+        Path versionPath = resolve(problemId, version);
+        testCaseSetMap.remove(key(problemId, version));
+        return Files.exists(versionPath) && FileUtil.del(versionPath.toFile());
+    }
+
+    private TestCaseSet load(String problemId, String version, Path versionPath) {
+        if (!Files.isDirectory(versionPath)) {
+            return null;
+        }
+        List<Path> inputPaths = new ArrayList<>();
+        List<Path> outputPaths = new ArrayList<>();
+        long totalBytes = 0;
+        for (int i = 1; ; i++) {
+            File inputFile = versionPath.resolve(i + INPUT_SUFFIX).toFile();
+            if (!inputFile.isFile()) {
+                break;
+            }
+            File outputFile = versionPath.resolve(i + OUTPUT_SUFFIX).toFile();
+            inputPaths.add(inputFile.toPath());
+            outputPaths.add(outputFile.isFile() ? outputFile.toPath() : null);
+            totalBytes += inputFile.length() + (outputFile.isFile() ? outputFile.length() : 0);
+        }
+        TestCaseSet testCaseSet = new TestCaseSet();
+        testCaseSet.setProblemId(problemId);
+        testCaseSet.setVersion(version);
+        testCaseSet.setInputPaths(inputPaths);
+        testCaseSet.setOutputPaths(outputPaths);
+        testCaseSet.setTotalBytes(totalBytes);
+        Path checkerPath = versionPath.resolve(CHECKER_SOURCE_NAME);
+        testCaseSet.setCheckerPath(Files.isRegularFile(checkerPath) ? checkerPath : null);
+        return testCaseSet;
+    }
+
+    private Path resolve(String problemId, String version) {
+        checkId(problemId);
+        checkId(version);
+        return rootPath.resolve(problemId).resolve(version);
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !ID_PATTERN.matcher(id).matches() || id.startsWith(".")) {
+            throw new IllegalArgumentException("非法的题目 id 或版本：" + id);
+        }
+    }
+
+    private static String key(String problemId, String version) {
+        return problemId + "/" + version;
+    }
+}
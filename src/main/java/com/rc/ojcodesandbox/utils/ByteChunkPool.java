@@ -0,0 +1,74 @@
+package com.rc.ojcodesandbox.utils;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author：rancheng
+ * @name：ByteChunkPool 固定大小字节块的对象池
+ * @Date：2026/10/19 16:00
+ * 输出收集器按块借用、用完归还，用例之间复用，不再每个用例从小数组开始倍增扩容；
+ * 空闲块超过 maxIdle 时归还的块直接丢弃，由 GC 回收。
+ * 使用堆内数组而不是直接内存：输出最终要复制成结果数组、按 UTF-8 解码，都需要堆内数组
+ */
+public class ByteChunkPool {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * 默认最多缓存 8MB
+     */
+    private static final ByteChunkPool GLOBAL = new ByteChunkPool(DEFAULT_CHUNK_SIZE, 1024);
+
+    private final int chunkSize;
+
+    private final int maxIdle;
+
+    private final ConcurrentLinkedQueue<byte[]> idleChunks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public ByteChunkPool(int chunkSize, int maxIdle) {
+        this.chunkSize = chunkSize;
+        this.maxIdle = maxIdle;
+    }
+
+    public static ByteChunkPool global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 借出一个字节块，内容是上一次使用留下的，不会清零
+     *
+     * @return
+     */
+    public byte[] acquire() {
+        byte[] chunk = idleChunks.poll();
+        if (chunk == null) {
+            return new byte[chunkSize];
+        }
+        idleCount.decrementAndGet();
+        return chunk;
+    }
+
+    /**
+     * 归还字节块，归还后调用方不能再使用
+     *
+     * @param chunk
+     */
+    public void release(byte[] chunk) {
+        if (chunk.length != chunkSize || idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        idleChunks.offer(chunk);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
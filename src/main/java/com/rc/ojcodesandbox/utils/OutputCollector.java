@@ -0,0 +1,144 @@
+package com.rc.ojcodesandbox.utils;
+
+import com.rc.ojcodesandbox.model.OutputText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author：rancheng
+ * @name：OutputCollector 有上限的进程输出收集器
+ * @Date：2026/10/18 12:20
+ * 直接按字节追加，不再逐行读取到 List 再拼接；超过上限后拒绝继续写入。
+ * 收集期间写入从 ByteChunkPool 借来的字节块，结束时复制成一个大小正好的数组，字节块立即归还：
+ * 每个用例只分配一次结果数组，不再倍增扩容；结果保持为字节（OutputText），返回时才解码
+ */
+public class OutputCollector {
+
+    private final long limit;
+
+    /**
+     * 最多保留的字节数，超出部分只计数、不保存
+     */
+    private final long retainLimit;
+
+    private final ByteChunkPool chunkPool;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private long total;
+
+    private int count;
+
+    private volatile boolean exceeded;
+
+    /**
+     * 结果已经取出或已释放，之后写入的内容直接丢弃
+     */
+    private boolean released;
+
+    public OutputCollector(long limit) {
+        this(limit, limit);
+    }
+
+    /**
+     * @param limit       输出上限
+     * @param retainLimit 最多保留的字节数，输出交给 CheckSession 比较时不需要保留完整输出
+     */
+    public OutputCollector(long limit, long retainLimit) {
+        this(limit, retainLimit, ByteChunkPool.global());
+    }
+
+    public OutputCollector(long limit, long retainLimit, ByteChunkPool chunkPool) {
+        this.limit = limit;
+        this.retainLimit = Math.min(Math.min(limit, retainLimit), Integer.MAX_VALUE - 8);
+        this.chunkPool = chunkPool;
+    }
+
+    /**
+     * 追加一段输出
+     *
+     * @return 超过上限返回 false，超出的部分不会写入
+     */
+    public synchronized boolean append(byte[] bytes, int off, int len) {
+        if (total + len > limit) {
+            int remaining = (int) (limit - total);
+            write(bytes, off, remaining);
+            total = limit;
+            exceeded = true;
+            return false;
+        }
+        write(bytes, off, len);
+        total += len;
+        return true;
+    }
+
+    private void write(byte[] bytes, int off, int len) {
+        len = (int) Math.min(len, retainLimit - count);
+        if (released || len <= 0) {
+            return;
+        }
+        int chunkSize = chunkPool.getChunkSize();
+        while (len > 0) {
+            int chunkOffset = count % chunkSize;
+            if (chunkOffset == 0) {
+                chunks.add(chunkPool.acquire());
+            }
+            int n = Math.min(len, chunkSize - chunkOffset);
+            System.arraycopy(bytes, off, chunks.get(chunks.size() - 1), chunkOffset, n);
+            off += n;
+            len -= n;
+            count += n;
+        }
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * 取出收集到的输出并归还字节块，只能调用一次
+     *
+     * @return
+     */
+    public synchronized OutputText toOutputText() {
+        if (released || count == 0) {
+            release();
+            return OutputText.EMPTY;
+        }
+        byte[] bytes = new byte[count];
+        int chunkSize = chunkPool.getChunkSize();
+        for (int i = 0, copied = 0; copied < count; i++) {
+            int n = Math.min(chunkSize, count - copied);
+            System.arraycopy(chunks.get(i), 0, bytes, copied, n);
+            copied += n;
+        }
+        release();
+        return OutputText.wrap(bytes, bytes.length);
+    }
+
+    /**
+     * 按 UTF-8 解码，与原来逐行读取再用 \n 拼接的结果保持一致：
+     * \r\n 统一为 \n，并去掉末尾的一个换行
+     *
+     * @return
+     */
+    public String toText() {
+        return toOutputText().toString();
+    }
+
+    /**
+     * 归还字节块，不再需要结果时（出错、超时）调用，可以重复调用
+     */
+    public synchronized void release() {
+        released = true;
+        for (byte[] chunk : chunks) {
+            chunkPool.release(chunk);
+        }
+        chunks.clear();
+    }
+}
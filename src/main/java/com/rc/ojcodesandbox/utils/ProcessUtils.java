@@ -1,112 +1,245 @@
 package com.rc.ojcodesandbox.utils;
 
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
 import cn.hutool.core.util.StrUtil;
+import com.rc.ojcodesandbox.checker.CheckSession;
+import com.rc.ojcodesandbox.execute.InputSource;
 import com.rc.ojcodesandbox.model.ExecuteMessage;
-import org.apache.commons.lang3.StringUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StopWatch;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @Author：rancheng
  * @name：ProcesstUtils
  * @Date：2024/6/16 22:38
  */
+@Slf4j
 public class ProcessUtils {
+
+    /**
+     * 每个进程结束都会输出的日志，每秒最多 20 条
+     */
+    private static final RateLimitedLogger RATE_LIMITED_LOG = new RateLimitedLogger(log, 20, 1000L);
+
+    /**
+     * 默认的输出上限（字节），stdout 与 stderr 分别计算
+     */
+    public static final long DEFAULT_OUTPUT_LIMIT = 8 * 1024 * 1024L;
+
+    /**
+     * 进程结束后等待输出读取完成的最长时间，防止子进程派生的后代进程一直占着管道
+     */
+    private static final long DRAIN_TIMEOUT_MILLIS = 1000L;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * 读取缓冲区按线程复用
+     */
+    private static final ThreadLocal<byte[]> READ_BUFFER = ThreadLocal.withInitial(() -> new byte[READ_BUFFER_SIZE]);
+
+    /**
+     * 负责读取子进程 stdout/stderr 的线程
+     */
+    private static final ExecutorService DRAIN_EXECUTOR = Executors.newCachedThreadPool(new NamedThreadFactory("process-drain-", true));
+
+    /**
+     * 被信号杀死的进程退出码为 128 + 信号值
+     */
+    private static final Map<Integer, String> SIGNAL_NAME_MAP = new HashMap<>();
+
+    static {
+        SIGNAL_NAME_MAP.put(4, "SIGILL");
+        SIGNAL_NAME_MAP.put(6, "SIGABRT");
+        SIGNAL_NAME_MAP.put(7, "SIGBUS");
+        SIGNAL_NAME_MAP.put(8, "SIGFPE");
+        SIGNAL_NAME_MAP.put(9, "SIGKILL");
+        SIGNAL_NAME_MAP.put(11, "SIGSEGV");
+        SIGNAL_NAME_MAP.put(13, "SIGPIPE");
+        SIGNAL_NAME_MAP.put(15, "SIGTERM");
+    }
+
+    /**
+     * 异常退出时的错误信息：优先使用 stderr；原生语言崩溃时通常没有 stderr，改为退出码和信号，
+     * 保证 getOutputResponse 能识别出错误
+     *
+     * @param exitValue
+     * @param errorText stderr 内容
+     * @return
+     */
+    public static String getExitErrorMessage(int exitValue, String errorText) {
+        if (StrUtil.isNotBlank(errorText)) {
+            return errorText;
+        }
+        String signalName = SIGNAL_NAME_MAP.get(exitValue - 128);
+        return "程序异常退出，退出码：" + exitValue + (signalName == null ? "" : "（" + signalName + "）");
+    }
+
     public static ExecuteMessage runProcessAndGetMessage(Process runProcess, String opName) {
+        return runProcessAndGetMessage(runProcess, opName, DEFAULT_OUTPUT_LIMIT);
+    }
+
+    public static ExecuteMessage runProcessAndGetMessage(Process runProcess, String opName, long outputLimit) {
+        return runProcessAndGetMessage(runProcess, opName, outputLimit, null);
+    }
+
+    /**
+     * 运行进程并获取执行信息
+     * 进程运行期间同时读取 stdout 和 stderr，避免输出填满管道缓冲区后进程阻塞；
+     * 任一输出超过 outputLimit 时立即杀死进程；有标准输入时同时通过 NIO 通道分块写入
+     *
+     * @param runProcess
+     * @param opName
+     * @param outputLimit 输出上限（字节）
+     * @param input       标准输入，为 null 时直接关闭进程的标准输入
+     * @return
+     */
+    public static ExecuteMessage runProcessAndGetMessage(Process runProcess, String opName, long outputLimit, InputSource input) {
+        return runProcessAndGetMessage(runProcess, opName, outputLimit, input, null);
+    }
+
+    /**
+     * 运行进程并获取执行信息，stdout 同时交给 checkSession 比较：
+     * 发现不一致立即杀死进程，不再等程序跑完；比较时不保留完整输出，message 为空
+     *
+     * @param runProcess
+     * @param opName
+     * @param outputLimit  输出上限（字节）
+     * @param input        标准输入，为 null 时直接关闭进程的标准输入
+     * @param checkSession 输出比较，为 null 时不比较
+     * @return
+     */
+    public static ExecuteMessage runProcessAndGetMessage(Process runProcess, String opName, long outputLimit,
+                                                         InputSource input, CheckSession checkSession) {
         ExecuteMessage executeMessage = new ExecuteMessage();
+        if (input == null) {
+            IoUtil.close(runProcess.getOutputStream());
+        } else {
+            DRAIN_EXECUTOR.execute(() -> feed(runProcess, input));
+        }
+        OutputCollector outputCollector = new OutputCollector(outputLimit, checkSession == null ? outputLimit : 0);
+        OutputCollector errorCollector = new OutputCollector(outputLimit);
+        Future<?> outputFuture = DRAIN_EXECUTOR.submit(() -> drain(runProcess, runProcess.getInputStream(), outputCollector, checkSession));
+        Future<?> errorFuture = DRAIN_EXECUTOR.submit(() -> drain(runProcess, runProcess.getErrorStream(), errorCollector, null));
         try {
             StopWatch stopWatch = new StopWatch();//记录程序执行时间
             stopWatch.start();
             // 等待程序执⾏，获取错误码
             int exitValue = runProcess.waitFor();
+            stopWatch.stop();
+            awaitDrain(outputFuture, runProcess.getInputStream());
+            awaitDrain(errorFuture, runProcess.getErrorStream());
             executeMessage.setExitValue(exitValue);
-            // 正常退出
-            if (exitValue == 0) {
-                System.out.println(opName + "成功");
-                // 分批获取进程的正常输出
-                BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(runProcess.getInputStream()));
-                List<String> outputStrList = new ArrayList<>();
-                // 逐⾏读取
-                String compileOutputLine;
-                while ((compileOutputLine = bufferedReader.readLine()) != null) {
-                    outputStrList.add(compileOutputLine);
-//                    compileOutputStringBuilder.append(compileOutputLine).append("\n");
+            executeMessage.setOutput(outputCollector.toOutputText());
+            if (checkSession != null && checkSession.isRejected()) {
+                // 输出已经不一致，进程是被比较线程杀死的，不算运行错误
+                log.debug("{}输出不一致", opName);
+                executeMessage.setCheckResult(checkSession.finish());
+            } else if (outputCollector.isExceeded() || errorCollector.isExceeded()) {
+                RATE_LIMITED_LOG.info("{}输出超出限制", opName);
+                executeMessage.setOutputLimitExceeded(true);
+                executeMessage.setErrorMessage("输出超出限制");
+            } else if (exitValue == 0) {
+                // 正常退出
+                log.debug("{}成功", opName);
+                if (checkSession != null) {
+                    executeMessage.setCheckResult(checkSession.finish());
                 }
-                String outputStr = StringUtils.join(outputStrList, "\n");
-                executeMessage.setMessage(outputStr);
             } else {
                 // 异常退出
-                System.out.println(opName + "失败，错误码： " + exitValue);
-                // 分批获取进程的正常输出
-                BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(runProcess.getInputStream()));
-                List<String> outputStrList = new ArrayList<>();
-                // 逐⾏读取
-                String compileOutputLine;
-                while ((compileOutputLine = bufferedReader.readLine()) != null) {
-                    outputStrList.add(compileOutputLine);
-//                    compileOutputStringBuilder.append(compileOutputLine).append("\n");
-                }
-                String outputStr = StringUtils.join(outputStrList, "\n");
-                executeMessage.setMessage(outputStr);
-                // 分批获取进程的错误输出
-                BufferedReader errorBufferedReader = new BufferedReader(new InputStreamReader(runProcess.getErrorStream()));
-                List<String> errorOutputStrList = new ArrayList<>();
-                // 逐⾏读取
-                String errorCompileOutputLine;
-                while ((errorCompileOutputLine = errorBufferedReader.readLine()) != null) {
-                    errorOutputStrList.add(errorCompileOutputLine);
-                }
-                String errorOutputStr= StringUtils.join(errorOutputStrList, "\n");
-                executeMessage.setErrorMessage(errorOutputStr);
+                RATE_LIMITED_LOG.info("{}失败，错误码：{}", opName, exitValue);
+                executeMessage.setErrorMessage(getExitErrorMessage(exitValue, errorCollector.toText()));
             }
-            stopWatch.stop();
             executeMessage.setTime(stopWatch.getLastTaskTimeMillis());
+        } catch (InterruptedException e) {
+            // 用例被取消，强制结束子进程（忽略 SIGTERM 的程序 destroy() 杀不掉），保留中断标记
+            runProcess.destroyForcibly();
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            e.printStackTrace();
+            runProcess.destroyForcibly();
+            RATE_LIMITED_LOG.warn("{}异常：{}", opName, e.toString());
+        } finally {
+            // 没有取出结果时（出错、被取消）归还字节块
+            outputCollector.release();
+            errorCollector.release();
         }
         return executeMessage;
     }
 
     /**
-     * 执⾏交互式进程并获取信息
+     * 把输入流读到收集器中，超出上限或与期望输出不一致时杀死进程
      *
      * @param runProcess
-     * @param args
-     * @return
+     * @param inputStream
+     * @param outputCollector
+     * @param checkSession    为 null 时不比较
      */
-    public static ExecuteMessage runInteractProcessAndGetMessage(Process runProcess, String args) {
-        ExecuteMessage executeMessage = new ExecuteMessage();
+    private static void drain(Process runProcess, InputStream inputStream, OutputCollector outputCollector,
+                              CheckSession checkSession) {
+        byte[] buffer = READ_BUFFER.get();
         try {
-            // 向控制台输⼊程序
-            OutputStream outputStream = runProcess.getOutputStream();
-            OutputStreamWriter outputStreamWriter = new OutputStreamWriter(outputStream);
-            String[] s = args.split(" ");
-            String join = StrUtil.join("\n", s) + "\n";
-            outputStreamWriter.write(join);
-            // 相当于按了回⻋，执⾏输⼊的发送
-            outputStreamWriter.flush();
-            // 分批获取进程的正常输出
-            InputStream inputStream = runProcess.getInputStream();
-            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
-            StringBuilder compileOutputStringBuilder = new StringBuilder();
-            // 逐⾏读取
-            String compileOutputLine;
-            while ((compileOutputLine = bufferedReader.readLine()) != null) {
-                compileOutputStringBuilder.append(compileOutputLine);
+            int len;
+            while ((len = inputStream.read(buffer)) != -1) {
+                if (!outputCollector.append(buffer, 0, len)
+                        || (checkSession != null && !checkSession.feed(buffer, 0, len))) {
+                    runProcess.destroyForcibly();
+                    break;
+                }
             }
-            executeMessage.setMessage(compileOutputStringBuilder.toString());
-            // 记得资源的释放，否则会卡死
-            outputStreamWriter.close();
-            outputStream.close();
-            inputStream.close();
-            runProcess.destroy();
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IOException e) {
+            // 进程被杀死或流被关闭
+        } finally {
+            IoUtil.close(inputStream);
         }
-        return executeMessage;
     }
-}
 
+    /**
+     * 把输入写到进程的标准输入，写完后关闭，让程序读到 EOF
+     *
+     * @param runProcess
+     * @param input
+     */
+    private static void feed(Process runProcess, InputSource input) {
+        try (WritableByteChannel channel = Channels.newChannel(runProcess.getOutputStream())) {
+            input.transferTo(channel);
+        } catch (IOException e) {
+            // 程序没有读完输入就退出了，管道已关闭
+        }
+    }
+
+    private static void awaitDrain(Future<?> future, InputStream inputStream) throws InterruptedException {
+        try {
+            future.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            IoUtil.close(inputStream);
+            future.cancel(true);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * 执⾏交互式进程并获取信息，参数按空格拆分后逐行写入标准输入
+     *
+     * @param runProcess
+     * @param args
+     * @return
+     */
+    public static ExecuteMessage runInteractProcessAndGetMessage(Process runProcess, String args) {
+        String input = StrUtil.join("\n", (Object[]) args.split(" ")) + "\n";
+        return runProcessAndGetMessage(runProcess, "交互式运行", DEFAULT_OUTPUT_LIMIT, InputSource.of(input));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rc.ojcodesandbox.utils;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author：rancheng
+ * @name：RateLimitedLogger 限速日志
+ * @Date：2026/10/18 23:10
+ * 热路径（每个用例、每次编译）上的日志每个时间窗口最多输出 permits 条，超出的丢弃并计数，
+ * 下一个窗口的第一条日志带上丢弃的条数。开启 debug 级别时不限速
+ */
+public class RateLimitedLogger {
+
+    private final Logger logger;
+
+    private final int permits;
+
+    private final long windowNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    private final AtomicInteger used = new AtomicInteger();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param logger
+     * @param permits      每个时间窗口最多输出的条数
+     * @param windowMillis 时间窗口（毫秒）
+     */
+    public RateLimitedLogger(Logger logger, int permits, long windowMillis) {
+        this.logger = logger;
+        this.permits = permits;
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    public void info(String format, Object... args) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long droppedCount = tryAcquire();
+        if (droppedCount < 0) {
+            return;
+        }
+        if (droppedCount > 0) {
+            logger.info("（已省略 " + droppedCount + " 条）" + format, args);
+        } else {
+            logger.info(format, args);
+        }
+    }
+
+    public void warn(String format, Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long droppedCount = tryAcquire();
+        if (droppedCount < 0) {
+            return;
+        }
+        if (droppedCount > 0) {
+            logger.warn("（已省略 " + droppedCount + " 条）" + format, args);
+        } else {
+            logger.warn(format, args);
+        }
+    }
+
+    /**
+     * @return 允许输出时返回上个窗口以来丢弃的条数，不允许输出时返回 -1
+     */
+    private long tryAcquire() {
+        if (logger.isDebugEnabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        int count = used.incrementAndGet();
+        if (count > permits) {
+            dropped.incrementAndGet();
+            return -1;
+        }
+        return count == 1 ? dropped.getAndSet(0) : 0;
+    }
+}
@@ -0,0 +1,261 @@
+package com.rc.ojcodesandbox.workspace;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.lang.UUID;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * @Author：rancheng
+ * @name：WorkspaceManager 用户代码工作目录管理
+ * @Date：2026/10/18 19:20
+ * 1.工作目录可以放在磁盘或 /dev/shm 等内存文件系统上
+ * 2.归还的目录清空后放回池中复用，减少目录的创建和删除
+ * 3.每个实例使用根目录下独立的子目录，并持有其中 .lock 文件的锁；
+ * 后台清理线程回收超时未归还的目录，以及锁已释放（进程已退出）的其他实例遗留的目录
+ */
+@Slf4j
+public class WorkspaceManager {
+
+    private static final String SHM_PATH = "/dev/shm";
+
+    private static final String INSTANCE_PREFIX = "instance-";
+
+    private static final String LOCK_FILE_NAME = ".lock";
+
+    private final CodeSandboxProperties.Workspace workspaceProperties;
+
+    private final File rootDir;
+
+    private final File instanceDir;
+
+    private final FileChannel lockChannel;
+
+    private final FileLock instanceLock;
+
+    private final ConcurrentLinkedDeque<File> idleDirs = new ConcurrentLinkedDeque<>();
+
+    /**
+     * 使用中的目录 -> 借出时间
+     */
+    private final Map<File, Long> leasedDirs = new ConcurrentHashMap<>();
+
+    private final AtomicLong sweptCount = new AtomicLong();
+
+    private final ScheduledExecutorService sweepScheduler;
+
+    /**
+     * @param workspaceProperties
+     * @param diskRootPath        使用磁盘时的根目录
+     */
+    public WorkspaceManager(CodeSandboxProperties.Workspace workspaceProperties, String diskRootPath) {
+        this.workspaceProperties = workspaceProperties;
+        this.rootDir = resolveRoot(workspaceProperties, diskRootPath);
+        this.instanceDir = new File(rootDir, INSTANCE_PREFIX + UUID.fastUUID().toString(true));
+        FileUtil.mkdir(instanceDir);
+        try {
+            this.lockChannel = FileChannel.open(new File(instanceDir, LOCK_FILE_NAME).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.instanceLock = lockChannel.lock();
+        } catch (IOException e) {
+            throw new IllegalStateException("无法锁定工作目录：" + instanceDir, e);
+        }
+        log.info("workspace root: {}", instanceDir.getAbsolutePath());
+        sweepOrphanInstances();
+        for (int i = 0; i < workspaceProperties.getPoolSize(); i++) {
+            idleDirs.offer(newDir());
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("workspace-sweeper-", true));
+        long sweepInterval = workspaceProperties.getSweepIntervalMillis();
+        executor.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+        this.sweepScheduler = executor;
+    }
+
+    /**
+     * 选择根目录
+     *
+     * @param workspaceProperties
+     * @param diskRootPath
+     * @return
+     */
+    static File resolveRoot(CodeSandboxProperties.Workspace workspaceProperties, String diskRootPath) {
+        if (workspaceProperties.getRoot() != null && !workspaceProperties.getRoot().isEmpty()) {
+            return new File(workspaceProperties.getRoot());
+        }
+        File shmRoot = new File(SHM_PATH, "oj-codesandbox");
+        switch (workspaceProperties.getType()) {
+            case SHM:
+                return shmRoot;
+            case AUTO:
+                Path shm = Paths.get(SHM_PATH);
+                if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+                    return shmRoot;
+                }
+                return new File(diskRootPath);
+            default:
+                return new File(diskRootPath);
+        }
+    }
+
+    /**
+     * 借出一个空的工作目录
+     *
+     * @return
+     */
+    public File acquire() {
+        File dir = idleDirs.poll();
+        if (dir == null || !dir.isDirectory()) {
+            dir = newDir();
+        }
+        leasedDirs.put(dir, System.currentTimeMillis());
+        return dir;
+    }
+
+    /**
+     * 归还工作目录：清空后放回池中，池满时删除。不是由本管理器借出的目录直接删除
+     *
+     * @param dir
+     * @return 清理是否成功
+     */
+    public boolean release(File dir) {
+        if (dir == null) {
+            return true;
+        }
+        if (leasedDirs.remove(dir) == null) {
+            return FileUtil.del(dir);
+        }
+        if (idleDirs.size() < workspaceProperties.getPoolSize() && FileUtil.clean(dir)) {
+            idleDirs.offer(dir);
+            return true;
+        }
+        return FileUtil.del(dir);
+    }
+
+    public WorkspaceStats getStats() {
+        WorkspaceStats workspaceStats = new WorkspaceStats();
+        workspaceStats.setRoot(instanceDir.getAbsolutePath());
+        workspaceStats.setLeasedCount(leasedDirs.size());
+        workspaceStats.setIdleCount(idleDirs.size());
+        workspaceStats.setBytesUsed(bytesUsed());
+        workspaceStats.setSweptCount(sweptCount.get());
+        return workspaceStats;
+    }
+
+    public int getLeasedCount() {
+        return leasedDirs.size();
+    }
+
+    public int getIdleCount() {
+        return idleDirs.size();
+    }
+
+    public File getInstanceDir() {
+        return instanceDir;
+    }
+
+    public void shutdown() {
+        sweepScheduler.shutdownNow();
+        try {
+            instanceLock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("release workspace lock error", e);
+        }
+        FileUtil.del(instanceDir);
+    }
+
+    /**
+     * 回收超时未归还的目录和已退出实例遗留的目录
+     */
+    void sweep() {
+        try {
+            long expireBefore = System.currentTimeMillis() - workspaceProperties.getStaleMillis();
+            for (Map.Entry<File, Long> entry : leasedDirs.entrySet()) {
+                if (entry.getValue() < expireBefore && leasedDirs.remove(entry.getKey(), entry.getValue())) {
+                    log.warn("sweep stale workspace {}", entry.getKey());
+                    FileUtil.del(entry.getKey());
+                    sweptCount.incrementAndGet();
+                }
+            }
+            sweepOrphanInstances();
+        } catch (Exception e) {
+            log.error("sweep workspace error", e);
+        }
+    }
+
+    private void sweepOrphanInstances() {
+        File[] instanceDirs = rootDir.listFiles(file -> file.isDirectory() && file.getName().startsWith(INSTANCE_PREFIX));
+        if (instanceDirs == null) {
+            return;
+        }
+        for (File dir : instanceDirs) {
+            if (!dir.equals(instanceDir) && !isLocked(dir)) {
+                log.info("sweep orphan workspace instance {}", dir);
+                FileUtil.del(dir);
+                sweptCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 其他实例的锁是否仍被持有。同一个 JVM 中的另一个实例持有时 tryLock 抛出 OverlappingFileLockException
+     *
+     * @param dir
+     * @return
+     */
+    private static boolean isLocked(File dir) {
+        File lockFile = new File(dir, LOCK_FILE_NAME);
+        if (!lockFile.exists()) {
+            // 刚创建还没来得及加锁，或是无法识别的目录，只处理超过一天的
+            return System.currentTimeMillis() - dir.lastModified() < TimeUnit.DAYS.toMillis(1);
+        }
+        if (System.currentTimeMillis() - lockFile.lastModified() < TimeUnit.MINUTES.toMillis(1)) {
+            // 锁文件刚创建，实例可能还没来得及加锁
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.WRITE)) {
+            FileLock fileLock = channel.tryLock();
+            if (fileLock == null) {
+                return true;
+            }
+            fileLock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private File newDir() {
+        return FileUtil.mkdir(new File(instanceDir, UUID.fastUUID().toString(true)));
+    }
+
+    private long bytesUsed() {
+        try (Stream<Path> pathStream = Files.walk(instanceDir.toPath())) {
+            return pathStream.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException | RuntimeException e) {
+            // 统计期间目录被删除
+            return -1;
+        }
+    }
+}
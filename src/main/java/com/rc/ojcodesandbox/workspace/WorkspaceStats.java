@@ -0,0 +1,32 @@
+package com.rc.ojcodesandbox.workspace;
+
+import lombok.Data;
+
+/**
+ * @Author：rancheng
+ * @name：WorkspaceStats 工作目录统计
+ * @Date：2026/10/18 19:20
+ */
+@Data
+public class WorkspaceStats {
+    /**
+     * 当前实例的工作目录根路径
+     */
+    private String root;
+    /**
+     * 正在使用的工作目录数
+     */
+    private int leasedCount;
+    /**
+     * 池中空闲的工作目录数
+     */
+    private int idleCount;
+    /**
+     * 工作目录占用的字节数
+     */
+    private long bytesUsed;
+    /**
+     * 累计被清理线程回收的工作目录数（超时未归还 + 已退出实例遗留）
+     */
+    private long sweptCount;
+}
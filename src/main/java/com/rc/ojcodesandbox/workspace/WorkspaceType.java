@@ -0,0 +1,21 @@
+package com.rc.ojcodesandbox.workspace;
+
+/**
+ * @Author：rancheng
+ * @name：WorkspaceType 工作目录所在的存储
+ * @Date：2026/10/18 19:20
+ */
+public enum WorkspaceType {
+    /**
+     * 项目目录下的 tempCode/workspace（原有方式）
+     */
+    DISK,
+    /**
+     * /dev/shm 等内存文件系统，避免磁盘元数据写入
+     */
+    SHM,
+    /**
+     * /dev/shm 可写时使用内存文件系统，否则使用磁盘
+     */
+    AUTO
+}
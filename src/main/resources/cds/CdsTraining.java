@@ -0,0 +1,81 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StreamTokenizer;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 生成 CDS 归档时运行的训练程序，覆盖判题代码常用的 JDK 类：
+ * 输入输出（Scanner、BufferedReader、StreamTokenizer、PrintWriter）、集合、Stream 与 lambda、
+ * 大数、字符串格式化、异常栈打印。标准输入为 CdsArchiveManager 中的训练输入
+ */
+public class CdsTraining {
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        String first = reader.readLine();
+        String second = reader.readLine();
+        Scanner scanner = new Scanner(first);
+        int n = scanner.nextInt();
+        List<Integer> list = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(second);
+        while (tokenizer.hasMoreTokens()) {
+            list.add(Integer.parseInt(tokenizer.nextToken()));
+        }
+        StreamTokenizer streamTokenizer = new StreamTokenizer(new StringReader(second));
+        long sum = 0;
+        while (streamTokenizer.nextToken() != StreamTokenizer.TT_EOF) {
+            sum += (long) streamTokenizer.nval;
+        }
+
+        Map<Integer, Integer> countMap = new HashMap<>();
+        list.forEach(value -> countMap.merge(value, 1, Integer::sum));
+        TreeMap<Integer, Integer> treeMap = new TreeMap<>(countMap);
+        Set<Integer> set = new HashSet<>(list);
+        LinkedHashSet<Integer> linkedHashSet = new LinkedHashSet<>(list);
+        PriorityQueue<Integer> priorityQueue = new PriorityQueue<>(Comparator.reverseOrder());
+        priorityQueue.addAll(list);
+        Deque<Integer> deque = new ArrayDeque<>(list);
+        LinkedList<Integer> linkedList = new LinkedList<>(list);
+        int[] array = list.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(array);
+        Integer[] boxed = list.toArray(new Integer[0]);
+        Arrays.sort(boxed, (a, b) -> b - a);
+        Collections.sort(linkedList);
+        BitSet bitSet = new BitSet();
+        bitSet.set(n);
+
+        PrintWriter writer = new PrintWriter(System.out);
+        writer.println(list.stream().map(String::valueOf).collect(Collectors.joining(" ")));
+        writer.println(IntStream.rangeClosed(1, n).filter(i -> i % 2 == 1).boxed().collect(Collectors.toList()));
+        writer.printf("%d %d %.3f %s%n", n, sum, Math.sqrt(sum), treeMap);
+        writer.println(String.format("%5s|%-5s|%08.2f", set.size(), linkedHashSet.size(), Math.pow(2, 0.5)));
+        writer.println(priorityQueue.peek() + " " + deque.peekLast() + " " + linkedList.getFirst() + " " + Arrays.toString(boxed)
+                + " " + bitSet.cardinality());
+        writer.println(new BigInteger("123456789123456789").pow(3).mod(BigInteger.valueOf(1_000_000_007)));
+        writer.println(new BigDecimal("1").divide(new BigDecimal("3"), 20, RoundingMode.HALF_UP));
+        StringBuilder builder = new StringBuilder();
+        for (char c : "training".toCharArray()) {
+            builder.append(Character.toUpperCase(c));
+        }
+        writer.println(builder.reverse() + " " + "a,b,c".split(",").length + " " + "x".repeat(3) + " " + Long.MAX_VALUE);
+        writer.flush();
+
+        // 运行错误时打印异常栈
+        try {
+            Object[] objects = new Object[1];
+            System.out.println(objects[n]);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            e.printStackTrace(new PrintStream(new ByteArrayOutputStream()));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rc.ojcodesandbox;
+
+import cn.hutool.core.io.FileUtil;
+import com.rc.ojcodesandbox.artifact.ArtifactNotFoundException;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.model.CompileResponse;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.InputModeEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：JavaCodeSandboxTemplateTest
+ * @Date：2026/10/18 18:10
+ */
+class JavaCodeSandboxTemplateTest {
+
+    @Test
+    void batchCompilesEachSourceOnce() {
+        AtomicInteger compileCount = new AtomicInteger();
+        AtomicInteger runCount = new AtomicInteger();
+        JavaCodeSandboxTemplate codeSandbox = new JavaCodeSandboxTemplate() {
+            @Override
+            public ExecuteMessage compileFile(File userCodeFile) {
+                compileCount.incrementAndGet();
+                ExecuteMessage executeMessage = new ExecuteMessage();
+                executeMessage.setExitValue(userCodeFile.length() > 1 ? 0 : 1);
+                executeMessage.setErrorMessage(userCodeFile.length() > 1 ? null : "编译错误");
+                return executeMessage;
+            }
+
+            @Override
+            public List<ExecuteMessage> runFile(File userCodeFile, List<String> inputList, InputModeEnum inputMode) {
+                runCount.incrementAndGet();
+                List<ExecuteMessage> executeMessageList = new ArrayList<>();
+                for (String input : inputList) {
+                    ExecuteMessage executeMessage = new ExecuteMessage();
+                    executeMessage.setMessage(input);
+                    executeMessageList.add(executeMessage);
+                }
+                return executeMessageList;
+            }
+        };
+        List<ExecuteCodeRequest> requestList = Arrays.asList(
+                request("aa", "1"), request("bb", "1"), request("aa", "1"), request("aa", "2"), request("x", "1"));
+        Map<Integer, ExecuteCodeResponse> responseMap = Collections.synchronizedMap(new TreeMap<>());
+        codeSandbox.executeCodeBatch(requestList, responseMap::put);
+
+        assertEquals(5, responseMap.size());
+        assertEquals(3, compileCount.get());
+        // aa+1 只执行一次，aa+2、bb+1 各一次，编译失败的不执行
+        assertEquals(3, runCount.get());
+        assertSame(responseMap.get(0), responseMap.get(2));
+        assertEquals(Collections.singletonList("2"), responseMap.get(3).getOutputList());
+        assertEquals(3, responseMap.get(4).getStatus());
+    }
+
+    @Test
+    void compileOnceRunFromArtifact(@TempDir Path tempDir) throws Exception {
+        AtomicInteger compileCount = new AtomicInteger();
+        JavaCodeSandboxTemplate codeSandbox = new JavaCodeSandboxTemplate() {
+            @Override
+            public ExecuteMessage compileFile(File userCodeFile) {
+                compileCount.incrementAndGet();
+                FileUtil.writeString("class", new File(userCodeFile.getParentFile(), "Main.class"), StandardCharsets.UTF_8);
+                ExecuteMessage executeMessage = new ExecuteMessage();
+                executeMessage.setExitValue(0);
+                return executeMessage;
+            }
+
+            @Override
+            public List<ExecuteMessage> runFile(File userCodeFile, List<String> inputList, InputModeEnum inputMode) {
+                // 运行时工作目录中应当有编译产物
+                assertTrue(new File(userCodeFile.getParentFile(), "Main.class").isFile());
+                ExecuteMessage executeMessage = new ExecuteMessage();
+                executeMessage.setMessage(inputList.get(0));
+                return Collections.singletonList(executeMessage);
+            }
+        };
+        CodeSandboxProperties codeSandboxProperties = new CodeSandboxProperties();
+        codeSandboxProperties.getWorkspace().setRoot(tempDir.resolve("workspace").toString());
+        codeSandboxProperties.getArtifact().setRoot(tempDir.resolve("artifact").toString());
+        codeSandbox.setCodeSandboxProperties(codeSandboxProperties);
+
+        CompileResponse compileResponse = codeSandbox.compile(request("code", null));
+        assertEquals(1, compileResponse.getStatus());
+        for (String input : Arrays.asList("1", "2")) {
+            ExecuteCodeRequest executeCodeRequest = request(null, input);
+            executeCodeRequest.setArtifactId(compileResponse.getArtifactId());
+            assertEquals(Collections.singletonList(input), codeSandbox.executeCode(executeCodeRequest).getOutputList());
+        }
+        assertEquals(1, compileCount.get());
+
+        // 未通过预检的代码不保存、不编译
+        assertEquals(3, codeSandbox.compile(request("Runtime.getRuntime().exec(\"ls\")", null)).getStatus());
+        assertEquals(3, codeSandbox.executeCode(request("Runtime.getRuntime().exec(\"ls\")", "1")).getStatus());
+        assertEquals(1, compileCount.get());
+
+        ExecuteCodeRequest missingRequest = request(null, "1");
+        missingRequest.setArtifactId("missing");
+        assertThrows(ArtifactNotFoundException.class, () -> codeSandbox.executeCode(missingRequest));
+        codeSandbox.getArtifactStore().shutdown();
+        codeSandbox.getWorkspaceManager().shutdown();
+    }
+
+    @Test
+    void interruptedCaseKillsChild() throws Exception {
+        JavaCodeSandboxTemplate codeSandbox = new JavaCodeSandboxTemplate() {
+        };
+        // 忽略 SIGTERM，只能被强制杀死
+        Process process = new ProcessBuilder("sh", "-c", "trap '' TERM; exec sleep 60").start();
+        Thread worker = new Thread(() -> codeSandbox.runProcess(process, null, 60_000));
+        worker.start();
+        Thread.sleep(300);
+        worker.interrupt();
+        worker.join(5000);
+        assertFalse(worker.isAlive());
+        assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+        assertEquals(0, codeSandbox.getProcessReaper().getTrackedCount());
+        codeSandbox.getProcessReaper().shutdown();
+        codeSandbox.getProcessStatsSampler().shutdown();
+    }
+
+    private static ExecuteCodeRequest request(String code, String input) {
+        ExecuteCodeRequest executeCodeRequest = new ExecuteCodeRequest();
+        executeCodeRequest.setCode(code);
+        executeCodeRequest.setInputList(Collections.singletonList(input));
+        return executeCodeRequest;
+    }
+}
@@ -0,0 +1,90 @@
+package com.rc.ojcodesandbox.admission;
+
+import com.rc.ojcodesandbox.model.enums.PriorityEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：AdmissionControllerTest
+ * @Date：2026/10/18 17:30
+ */
+class AdmissionControllerTest {
+
+    @Test
+    void priorityThenTenantRoundRobin() throws Exception {
+        AdmissionController admissionController = new AdmissionController(1, 10, 10000);
+        AdmissionController.Permit holder = admissionController.acquire(PriorityEnum.PRACTICE, "a");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threadList = new ArrayList<>();
+        // 依次排队：租户 a 的 3 个练习、租户 b 的 1 个练习、1 个重判、1 个比赛
+        String[][] submissions = {{"practice", "a"}, {"practice", "a"}, {"practice", "a"}, {"practice", "b"}, {"rejudge", "a"}, {"contest", "c"}};
+        for (String[] submission : submissions) {
+            int queued = admissionController.getStats().getQueued();
+            Thread thread = new Thread(() -> {
+                try (AdmissionController.Permit permit = admissionController.acquire(PriorityEnum.getEnumByValue(submission[0]), submission[1])) {
+                    order.add(submission[0] + "-" + submission[1]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threadList.add(thread);
+            while (admissionController.getStats().getQueued() == queued) {
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(6, admissionController.getStats().getQueued());
+        assertEquals(4, admissionController.getStats().getQueuedByPriority().get("practice"));
+        holder.close();
+        for (Thread thread : threadList) {
+            thread.join(5000);
+        }
+        assertEquals(
+                Arrays.asList("contest-c", "practice-a", "practice-b", "practice-a", "practice-a", "rejudge-a"),
+                order);
+        AdmissionStats admissionStats = admissionController.getStats();
+        assertEquals(0, admissionStats.getRunning());
+        assertEquals(7, admissionStats.getAdmittedCount());
+    }
+
+    @Test
+    void rejectWhenQueueFullOrTimeout() throws Exception {
+        AdmissionController admissionController = new AdmissionController(1, 1, 100);
+        AdmissionController.Permit holder = admissionController.acquire(PriorityEnum.CONTEST, null);
+        CountDownLatch queuedLatch = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            queuedLatch.countDown();
+            assertThrows(AdmissionRejectedException.class, () -> admissionController.acquire(PriorityEnum.CONTEST, null));
+        });
+        waiter.start();
+        queuedLatch.await(1, TimeUnit.SECONDS);
+        while (admissionController.getStats().getQueued() == 0 && waiter.isAlive()) {
+            Thread.sleep(1);
+        }
+        assertThrows(AdmissionRejectedException.class, () -> admissionController.acquire(PriorityEnum.CONTEST, null));
+        waiter.join(5000);
+        assertEquals(0, admissionController.getStats().getQueued());
+        assertEquals(2, admissionController.getStats().getRejectedCount());
+        holder.close();
+        admissionController.acquire(PriorityEnum.REJUDGE, null).close();
+        assertEquals(0, admissionController.getStats().getRunning());
+    }
+
+    @Test
+    void defaultSlotsAndUnknownPriority() {
+        // 物理内存能够读取时，单个提交预留的内存足够大只能有一个槽位
+        assertEquals(1, AdmissionController.defaultSlots(Long.MAX_VALUE));
+        assertEquals(Runtime.getRuntime().availableProcessors(), AdmissionController.defaultSlots(0));
+        assertEquals(PriorityEnum.PRACTICE, PriorityEnum.getEnumByValue(null));
+        assertThrows(IllegalArgumentException.class, () -> PriorityEnum.getEnumByValue("vip"));
+    }
+}
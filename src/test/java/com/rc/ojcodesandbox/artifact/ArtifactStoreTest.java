@@ -0,0 +1,82 @@
+package com.rc.ojcodesandbox.artifact;
+
+import cn.hutool.core.io.FileUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：ArtifactStoreTest
+ * @Date：2026/10/19 14:00
+ */
+class ArtifactStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void evictLeastRecentlyUsedOverMaxBytes() throws IOException {
+        ArtifactStore artifactStore = new ArtifactStore(properties(10, 60000), tempDir.resolve("artifact").toString());
+        try {
+            Artifact first = artifactStore.save("java", workDir("first", "aaaa"));
+            Artifact second = artifactStore.save("java", workDir("second", "bbbb"));
+            assertEquals(8, artifactStore.getBytesUsed());
+            // 访问 first 后 second 成为最久未使用的
+            assertNotNull(artifactStore.get(first.getArtifactId()));
+            artifactStore.save("java", workDir("third", "cccc"));
+            assertNull(artifactStore.get(second.getArtifactId()));
+            assertFalse(second.getDir().toFile().exists());
+            assertEquals(1, artifactStore.getEvictedCount());
+            assertEquals(2, artifactStore.getCount());
+
+            File targetDir = tempDir.resolve("run").toFile();
+            artifactStore.copyTo(first, FileUtil.mkdir(targetDir));
+            assertEquals("aaaa", FileUtil.readString(new File(targetDir, "Main.class"), StandardCharsets.UTF_8));
+            assertTrue(artifactStore.delete(first.getArtifactId()));
+            assertFalse(artifactStore.delete(first.getArtifactId()));
+            assertEquals(4, artifactStore.getBytesUsed());
+            // 单个产物超过上限时拒绝保存
+            assertThrows(IOException.class, () -> artifactStore.save("java", workDir("huge", "0123456789ab")));
+            assertEquals(1, artifactStore.getCount());
+        } finally {
+            artifactStore.shutdown();
+        }
+    }
+
+    @Test
+    void expireUnusedArtifacts() throws IOException, InterruptedException {
+        ArtifactStore artifactStore = new ArtifactStore(properties(1024, 50), tempDir.resolve("artifact").toString());
+        try {
+            Artifact artifact = artifactStore.save("cpp", workDir("first", "main"));
+            Thread.sleep(100);
+            artifactStore.sweep();
+            assertEquals(0, artifactStore.getCount());
+            assertNull(artifactStore.get(artifact.getArtifactId()));
+            assertFalse(artifact.getDir().toFile().exists());
+        } finally {
+            artifactStore.shutdown();
+        }
+    }
+
+    private File workDir(String name, String classContent) {
+        File dir = FileUtil.mkdir(tempDir.resolve(name).toFile());
+        FileUtil.writeString(classContent, new File(dir, "Main.class"), StandardCharsets.UTF_8);
+        return dir;
+    }
+
+    private static CodeSandboxProperties.Artifact properties(long maxBytes, long expireMillis) {
+        CodeSandboxProperties.Artifact artifact = new CodeSandboxProperties.Artifact();
+        artifact.setMaxBytes(maxBytes);
+        artifact.setExpireMillis(expireMillis);
+        artifact.setSweepIntervalMillis(60000);
+        return artifact;
+    }
+}
@@ -0,0 +1,105 @@
+package com.rc.ojcodesandbox.cgroup;
+
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：CgroupManagerTest
+ * @Date：2026/10/19 11:30
+ * 用普通目录模拟 cgroup v2 的控制文件，验证启用控制器、写入限制、统计增量和叶子复用
+ */
+class CgroupManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void leaseReportsDeltasAndRecyclesLeaf() throws IOException {
+        write(tempDir.resolve("cgroup.controllers"), "cpuset cpu io memory pids");
+        write(tempDir.resolve("cgroup.subtree_control"), "");
+        CgroupManager cgroupManager = new CgroupManager(properties());
+        try {
+            assertTrue(cgroupManager.isAvailable());
+            assertEquals("+memory +cpu +pids", read(tempDir.resolve("cgroup.subtree_control")));
+            // 同一目录下还有 cgroup.subtree_control，列出顺序不固定
+            Path instanceDir = Files.list(tempDir.resolve("oj-codesandbox")).filter(Files::isDirectory)
+                    .findFirst().orElseThrow(IllegalStateException::new);
+            for (String leafName : Arrays.asList("leaf-1", "leaf-2")) {
+                Path leafDir = instanceDir.resolve(leafName);
+                assertEquals("268435456", read(leafDir.resolve("memory.max")));
+                assertEquals("150000 100000", read(leafDir.resolve("cpu.max")));
+                assertEquals("64", read(leafDir.resolve("pids.max")));
+                write(leafDir.resolve("cgroup.procs"), "");
+                write(leafDir.resolve("cpu.stat"), "usage_usec 1000000\nuser_usec 800000\n");
+                write(leafDir.resolve("memory.events"), "low 0\nhigh 0\nmax 3\noom 1\noom_kill 1\n");
+                write(leafDir.resolve("memory.peak"), "1048576");
+            }
+
+            CgroupLeaf leaf = cgroupManager.lease();
+            assertEquals(1, cgroupManager.getLeasedCount());
+            // 模拟用例运行后内核更新的统计
+            write(leaf.getDir().resolve("cpu.stat"), "usage_usec 1250000\nuser_usec 1000000\n");
+            write(leaf.getDir().resolve("memory.peak"), "2097152");
+            assertEquals(250L, leaf.getCpuTimeMillis());
+            assertEquals(2048L, leaf.getPeakMemoryKb());
+            assertFalse(leaf.isOomKilled());
+            write(leaf.getDir().resolve("memory.events"), "low 0\nhigh 0\nmax 5\noom 2\noom_kill 2\n");
+            assertTrue(leaf.isOomKilled());
+
+            List<String> command = leaf.wrap(Arrays.asList("java", "-cp", "/tmp/code", "Main"));
+            assertEquals("/bin/sh", command.get(0));
+            assertEquals(leaf.getDir().resolve("cgroup.procs").toString(), command.get(3));
+            assertEquals(Arrays.asList("java", "-cp", "/tmp/code", "Main"), command.subList(4, command.size()));
+
+            cgroupManager.release(leaf);
+            assertEquals(0, cgroupManager.getLeasedCount());
+            assertEquals(2, cgroupManager.getIdleCount());
+            assertEquals(0, cgroupManager.getDiscardedCount());
+            // 叶子复用，不再创建新的目录
+            cgroupManager.release(cgroupManager.lease());
+            cgroupManager.release(cgroupManager.lease());
+            assertFalse(Files.exists(instanceDir.resolve("leaf-3")));
+            assertEquals(2, cgroupManager.getCpuLimit());
+        } finally {
+            cgroupManager.shutdown();
+        }
+    }
+
+    @Test
+    void unavailableWithoutControllers() throws IOException {
+        write(tempDir.resolve("cgroup.controllers"), "cpu io");
+        CgroupManager cgroupManager = new CgroupManager(properties());
+        assertFalse(cgroupManager.isAvailable());
+        assertThrows(IOException.class, cgroupManager::lease);
+        assertFalse(Files.exists(tempDir.resolve("oj-codesandbox")));
+    }
+
+    private CodeSandboxProperties.Cgroup properties() {
+        CodeSandboxProperties.Cgroup cgroup = new CodeSandboxProperties.Cgroup();
+        cgroup.setRoot(tempDir.toString());
+        cgroup.setMemoryMax(256 * 1024 * 1024L);
+        cgroup.setCpuCount(1.5);
+        cgroup.setPidsMax(64);
+        cgroup.setPoolSize(2);
+        return cgroup;
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII);
+    }
+}
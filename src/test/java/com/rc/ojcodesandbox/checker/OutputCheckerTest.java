@@ -0,0 +1,72 @@
+package com.rc.ojcodesandbox.checker;
+
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.model.CheckResult;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.enums.CaseVerdictEnum;
+import com.rc.ojcodesandbox.utils.ProcessUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：OutputCheckerTest
+ * @Date：2026/10/18 21:30
+ */
+class OutputCheckerTest {
+
+    @Test
+    void exactIgnoresCarriageReturnAndTrailingNewlines() throws IOException {
+        ExactOutputChecker exactOutputChecker = new ExactOutputChecker();
+        assertTrue(check(exactOutputChecker, "1 2\r\n3\r\n\r\n", "1 2\n3\n").isAccepted());
+        assertTrue(check(exactOutputChecker, "1 2\n3", "1 2\n3\n\n").isAccepted());
+
+        CheckResult checkResult = check(exactOutputChecker, "1 2\n3 5\n", "1 2\n3 4\n");
+        assertEquals(CaseVerdictEnum.WRONG_ANSWER, checkResult.getVerdict());
+        assertEquals("第 2 行不一致，期望：3 4，实际：3 5", checkResult.getMessage());
+        assertEquals("第 2 行不一致，期望：4，实际：[EOF]", check(exactOutputChecker, "1\n", "1\n4\n").getMessage());
+        assertEquals("第 1 行不一致，期望：1 [EOF]，实际：1  ", check(exactOutputChecker, "1  ", "1 ").getMessage());
+    }
+
+    @Test
+    void tokenAndFloat() throws IOException {
+        TokenOutputChecker whitespaceChecker = new TokenOutputChecker(null);
+        assertTrue(check(whitespaceChecker, "1   2\n\n3", "1 2 3\n").isAccepted());
+        assertEquals("第 3 个数据不一致，期望：3，实际：[EOF]", check(whitespaceChecker, "1 2", "1 2 3").getMessage());
+        assertEquals("第 2 个数据不一致，期望：2.0，实际：2", check(whitespaceChecker, "1 2", "1 2.0").getMessage());
+
+        TokenOutputChecker floatChecker = new TokenOutputChecker(1e-6);
+        assertTrue(check(floatChecker, "3.1415926 abc 1e9", "3.14159265 abc 1000000001").isAccepted());
+        assertFalse(check(floatChecker, "3.1416", "3.14159265").isAccepted());
+        assertFalse(check(floatChecker, "abd", "abc").isAccepted());
+    }
+
+    @Test
+    void stopProcessAtFirstMismatch() throws IOException {
+        Process process = new ProcessBuilder("yes").start();
+        try (CheckSession checkSession = new ExactOutputChecker().open(new CheckCase(null, InputSource.of("y\ny\nn\n"), null, null))) {
+            ExecuteMessage executeMessage = ProcessUtils.runProcessAndGetMessage(process, "运行",
+                    ProcessUtils.DEFAULT_OUTPUT_LIMIT, null, checkSession);
+            assertEquals(CaseVerdictEnum.WRONG_ANSWER, executeMessage.getCheckResult().getVerdict());
+            assertNull(executeMessage.getErrorMessage());
+            assertNull(executeMessage.getOutputLimitExceeded());
+            assertEquals("", executeMessage.getMessage());
+        }
+    }
+
+    private static CheckResult check(OutputChecker outputChecker, String output, String expected) throws IOException {
+        try (CheckSession checkSession = outputChecker.open(new CheckCase(null, InputSource.of(expected), null, null))) {
+            byte[] bytes = output.getBytes();
+            // 按单字节分块写入，覆盖跨块的情况
+            for (int i = 0; i < bytes.length; i++) {
+                if (!checkSession.feed(bytes, i, 1)) {
+                    break;
+                }
+            }
+            return checkSession.finish();
+        }
+    }
+}
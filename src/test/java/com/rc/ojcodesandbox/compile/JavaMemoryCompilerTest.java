@@ -0,0 +1,47 @@
+package com.rc.ojcodesandbox.compile;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaMemoryCompilerTest {
+
+    @Test
+    void compileAndHitCache() {
+        JavaMemoryCompiler javaMemoryCompiler = new JavaMemoryCompiler(16);
+        String code = ResourceUtil.readStr("testCode/AaddB/Main.java", StandardCharsets.UTF_8);
+
+        CompileResult first = javaMemoryCompiler.compile("Main.java", code);
+        assertTrue(first.isSuccess());
+        assertFalse(first.isCacheHit());
+        assertTrue(first.getClasses().containsKey("Main"));
+
+        CompileResult second = javaMemoryCompiler.compile("Main.java", code);
+        assertTrue(second.isCacheHit());
+        assertSame(first.getClasses(), second.getClasses());
+        javaMemoryCompiler.close();
+    }
+
+    @Test
+    void compileError() {
+        JavaMemoryCompiler javaMemoryCompiler = new JavaMemoryCompiler(16);
+        CompileResult compileResult = javaMemoryCompiler.compile("Main.java", "class Main { int a = ; }");
+        assertFalse(compileResult.isSuccess());
+        assertNotNull(compileResult.getMessage());
+        javaMemoryCompiler.close();
+    }
+
+    @Test
+    void sandboxClasspathNotVisible() {
+        JavaMemoryCompiler javaMemoryCompiler = new JavaMemoryCompiler(16, "8");
+        // 沙箱自己的依赖不在用户代码的类路径上
+        CompileResult compileResult = javaMemoryCompiler.compile("Main.java",
+                "@lombok.Data public class Main { private int a; }");
+        assertFalse(compileResult.isSuccess());
+        assertTrue(compileResult.getMessage().contains("lombok"));
+        javaMemoryCompiler.close();
+    }
+}
@@ -0,0 +1,145 @@
+package com.rc.ojcodesandbox.docker;
+
+import cn.hutool.core.io.FileUtil;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.command.ExecStartCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.RemoveContainerCmd;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.StreamType;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ContainerPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DockerClient dockerClient;
+
+    private CodeSandboxProperties.Docker dockerProperties;
+
+    private ContainerPool containerPool;
+
+    private int containerIndex;
+
+    /**
+     * 归还时清理命令输出的残留进程
+     */
+    private String leftoverPids = "";
+
+    @BeforeEach
+    void setUp() {
+        dockerClient = mock(DockerClient.class, RETURNS_DEEP_STUBS);
+        CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.createContainerCmd(anyString())).thenReturn(createContainerCmd);
+        when(createContainerCmd.withHostConfig(any(HostConfig.class))).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenAnswer(invocation -> {
+            CreateContainerResponse createContainerResponse = new CreateContainerResponse();
+            createContainerResponse.setId("container-" + (++containerIndex));
+            return createContainerResponse;
+        });
+        // 容器在维护线程上异步删除，提前打桩，避免深度桩在并发调用时临时生成返回值
+        RemoveContainerCmd removeContainerCmd = mock(RemoveContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.removeContainerCmd(anyString())).thenReturn(removeContainerCmd);
+        InspectContainerResponse.ContainerState running = mock(InspectContainerResponse.ContainerState.class);
+        when(running.getRunning()).thenReturn(true);
+        when(dockerClient.inspectContainerCmd(anyString()).exec().getState()).thenReturn(running);
+
+        ExecStartCmd execStartCmd = mock(ExecStartCmd.class, RETURNS_SELF);
+        when(dockerClient.execStartCmd(any())).thenReturn(execStartCmd);
+        when(execStartCmd.exec(any())).thenAnswer(invocation -> {
+            ResultCallback.Adapter<Frame> callback = invocation.getArgument(0);
+            callback.onNext(new Frame(StreamType.STDOUT, leftoverPids.getBytes(StandardCharsets.UTF_8)));
+            callback.onComplete();
+            return callback;
+        });
+
+        dockerProperties = new CodeSandboxProperties.Docker();
+        dockerProperties.setPoolSize(1);
+        dockerProperties.setMaxLeases(2);
+        containerPool = new ContainerPool(dockerClient, dockerProperties, tempDir.resolve("docker").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        containerPool.shutdown();
+    }
+
+    @Test
+    void reuseContainerAndWipeWorkspace() {
+        File codeDir = tempDir.resolve("code").toFile();
+        FileUtil.writeString("class", new File(codeDir, "Main.class"), StandardCharsets.UTF_8);
+
+        ContainerPool.PooledContainer first = containerPool.lease(codeDir.getPath());
+        assertTrue(new File(first.getWorkspace(), "Main.class").exists());
+        containerPool.release(first, false);
+        assertEquals(0, new File(first.getWorkspace()).listFiles().length);
+
+        ContainerPool.PooledContainer second = containerPool.lease(codeDir.getPath());
+        assertEquals(first.getId(), second.getId());
+        containerPool.release(second, false);
+
+        // 借出次数达到 maxLeases，换一个新容器
+        ContainerPool.PooledContainer third = containerPool.lease(codeDir.getPath());
+        assertNotEquals(first.getId(), third.getId());
+        containerPool.release(third, false);
+        assertEquals(1, containerPool.getContainerCount());
+    }
+
+    @Test
+    void replaceDirtyContainer() {
+        File codeDir = tempDir.resolve("code").toFile();
+        FileUtil.mkdir(codeDir);
+        ContainerPool.PooledContainer first = containerPool.lease(codeDir.getPath());
+        containerPool.release(first, true);
+        ContainerPool.PooledContainer second = containerPool.lease(codeDir.getPath());
+        assertNotEquals(first.getId(), second.getId());
+        containerPool.release(second, false);
+    }
+
+    @Test
+    void releaseAsyncFreesSlot() {
+        File codeDir = tempDir.resolve("code").toFile();
+        FileUtil.mkdir(codeDir);
+        ContainerPool.PooledContainer first = containerPool.lease(codeDir.getPath());
+        // 池里只有一个容器，异步归还后下一次借出能拿到同一个容器
+        containerPool.releaseAsync(first, false);
+        ContainerPool.PooledContainer second = containerPool.lease(codeDir.getPath());
+        assertEquals(first.getId(), second.getId());
+        containerPool.releaseAsync(second, true);
+        ContainerPool.PooledContainer third = containerPool.lease(codeDir.getPath());
+        assertNotEquals(first.getId(), third.getId());
+        containerPool.release(third, false);
+    }
+
+    @Test
+    void replaceContainerWithLeftoverProcess() {
+        File codeDir = tempDir.resolve("code").toFile();
+        FileUtil.mkdir(codeDir);
+        ContainerPool.PooledContainer first = containerPool.lease(codeDir.getPath());
+        // 用户程序留下的后台进程没能杀掉，容器不能交给下一次提交
+        leftoverPids = "42\n";
+        containerPool.release(first, false);
+        leftoverPids = "";
+        ContainerPool.PooledContainer second = containerPool.lease(codeDir.getPath());
+        assertNotEquals(first.getId(), second.getId());
+        containerPool.release(second, false);
+    }
+}
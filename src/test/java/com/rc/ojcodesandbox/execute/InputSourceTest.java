@@ -0,0 +1,40 @@
+package com.rc.ojcodesandbox.execute;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void encodeStringAcrossBuffers() throws Exception {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            stringBuilder.append("输入").append(i).append('\n');
+        }
+        String text = stringBuilder.toString();
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), InputSource.of(text).readAllBytes());
+        assertEquals(0, InputSource.EMPTY.readAllBytes().length);
+    }
+
+    @Test
+    void replaceLoneSurrogate() throws Exception {
+        String text = "1 \ud800 2";
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), InputSource.of(text).readAllBytes());
+    }
+
+    @Test
+    void transferFile() throws Exception {
+        Path file = tempDir.resolve("1.in");
+        Files.write(file, "1 2\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals("1 2\n", new String(InputSource.of(file).readAllBytes(), StandardCharsets.UTF_8));
+    }
+}
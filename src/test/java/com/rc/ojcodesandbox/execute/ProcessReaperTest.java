@@ -0,0 +1,126 @@
+package com.rc.ojcodesandbox.execute;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author：rancheng
+ * @name：ProcessReaperTest
+ * @Date：2026/10/19 20:10
+ */
+class ProcessReaperTest {
+
+    @Test
+    void destroyThenDestroyForciblyAfterGrace() throws Exception {
+        ProcessReaper processReaper = new ProcessReaper(50);
+        try {
+            // destroy() 之后仍不退出
+            Process process = mock(Process.class);
+            when(process.isAlive()).thenReturn(true);
+            ProcessReaper.Deadline deadline = processReaper.register(process, 50);
+            assertEquals(1, processReaper.getTrackedCount());
+
+            verify(process, timeout(2000)).destroyForcibly();
+            InOrder order = inOrder(process);
+            order.verify(process).destroy();
+            order.verify(process).destroyForcibly();
+            assertTrue(deadline.isTimedOut());
+            assertEquals(1, processReaper.getTimeoutCount());
+            waitUntilUntracked(processReaper);
+            // 超时后再 cancel 不会出错
+            deadline.cancel();
+            assertEquals(0, processReaper.getTrackedCount());
+        } finally {
+            processReaper.shutdown();
+        }
+    }
+
+    @Test
+    void noForcibleKillWhenDestroyIsEnough() throws Exception {
+        ProcessReaper processReaper = new ProcessReaper(50);
+        try {
+            Process process = mock(Process.class);
+            AtomicBoolean alive = new AtomicBoolean(true);
+            when(process.isAlive()).thenAnswer(invocation -> alive.get());
+            doAnswer(invocation -> {
+                alive.set(false);
+                return null;
+            }).when(process).destroy();
+            ProcessReaper.Deadline deadline = processReaper.register(process, 50);
+
+            verify(process, timeout(2000)).destroy();
+            waitUntilUntracked(processReaper);
+            verify(process, never()).destroyForcibly();
+            assertTrue(deadline.isTimedOut());
+        } finally {
+            processReaper.shutdown();
+        }
+    }
+
+    @Test
+    void cancelOnExitStopsDeadline() throws Exception {
+        ProcessReaper processReaper = new ProcessReaper(50);
+        try {
+            Process process = mock(Process.class);
+            when(process.isAlive()).thenReturn(true);
+            ProcessReaper.Deadline first = processReaper.register(process, 100);
+            ProcessReaper.Deadline second = processReaper.register(mock(Process.class), 60_000);
+            assertEquals(2, processReaper.getTrackedCount());
+
+            first.cancel();
+            assertEquals(1, processReaper.getTrackedCount());
+            // 超过原来的截止时间，已经取消的进程不会被杀死
+            Thread.sleep(300);
+            verify(process, never()).destroy();
+            verify(process, never()).destroyForcibly();
+            assertFalse(first.isTimedOut());
+            assertEquals(0, processReaper.getTimeoutCount());
+
+            second.cancel();
+            assertEquals(0, processReaper.getTrackedCount());
+        } finally {
+            processReaper.shutdown();
+        }
+    }
+
+    @Test
+    void finishKillsLiveProcess() {
+        ProcessReaper processReaper = new ProcessReaper(50);
+        try {
+            Process alive = mock(Process.class);
+            when(alive.isAlive()).thenReturn(true);
+            Process exited = mock(Process.class);
+            ProcessReaper.Deadline aliveDeadline = processReaper.register(alive, 60_000);
+            ProcessReaper.Deadline exitedDeadline = processReaper.register(exited, 60_000);
+            // 等待进程的代码被中断，进程仍存活，直接强制杀死
+            aliveDeadline.finish();
+            exitedDeadline.finish();
+            verify(alive).destroyForcibly();
+            verify(exited, never()).destroyForcibly();
+            assertEquals(0, processReaper.getTrackedCount());
+        } finally {
+            processReaper.shutdown();
+        }
+    }
+
+    private static void waitUntilUntracked(ProcessReaper processReaper) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (processReaper.getTrackedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, processReaper.getTrackedCount());
+    }
+}
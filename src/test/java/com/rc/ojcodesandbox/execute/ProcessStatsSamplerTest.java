@@ -0,0 +1,55 @@
+package com.rc.ojcodesandbox.execute;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @Author：rancheng
+ * @name：ProcessStatsSamplerTest
+ * @Date：2026/10/18 15:50
+ */
+class ProcessStatsSamplerTest {
+
+    @Test
+    void sampleRunningProcess() throws Exception {
+        ProcessStatsSampler sampler = new ProcessStatsSampler(5);
+        try {
+            assumeTrue(sampler.isSupported());
+            Process process = new ProcessBuilder("sh", "-c", "i=0; while [ $i -lt 100000 ]; do i=$((i+1)); done").start();
+            ProcessStatsSampler.Sample sample = sampler.track(process);
+            assertEquals(1, sampler.getTrackedCount());
+            process.waitFor();
+            sample.stop();
+            assertEquals(0, sampler.getTrackedCount());
+            assertNotNull(sample.getPeakMemoryKb());
+            assertTrue(sample.getPeakMemoryKb() > 0);
+            assertNotNull(sample.getCpuTimeMillis());
+            assertTrue(sample.isAvailable());
+            assertTrue(sampler.getClockTicksPerSecond() > 0);
+        } finally {
+            sampler.shutdown();
+        }
+    }
+
+    @Test
+    void exitedProcessHasNoSample() throws Exception {
+        ProcessStatsSampler sampler = new ProcessStatsSampler(5);
+        try {
+            Process process = new ProcessBuilder("true").start();
+            process.waitFor();
+            ProcessStatsSampler.Sample sample = sampler.track(process);
+            sample.stop();
+            assertNull(sample.getCpuTimeMillis());
+            assertNull(sample.getPeakMemoryKb());
+            assertFalse(sample.isAvailable());
+        } finally {
+            sampler.shutdown();
+        }
+    }
+}
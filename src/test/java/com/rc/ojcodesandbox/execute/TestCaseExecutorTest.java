@@ -0,0 +1,191 @@
+package com.rc.ojcodesandbox.execute;
+
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCaseExecutorTest {
+
+    private final TestCaseExecutor testCaseExecutor = new TestCaseExecutor(8, 3);
+
+    @AfterEach
+    void tearDown() {
+        testCaseExecutor.shutdown();
+    }
+
+    @Test
+    void keepInputOrderAndLimitConcurrency() {
+        List<String> inputList = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            inputList.add(String.valueOf(i));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ExecuteMessage> executeMessageList = testCaseExecutor.executeAll(inputList, input -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // 让靠前的用例更晚结束，验证结果仍按输入顺序返回
+                Thread.sleep(30 - Integer.parseInt(input));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setMessage(input);
+            return executeMessage;
+        });
+        assertEquals(20, executeMessageList.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(String.valueOf(i), executeMessageList.get(i).getMessage());
+        }
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    void stopAtFirstFailure() {
+        List<String> inputList = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            inputList.add(String.valueOf(i));
+        }
+        AtomicInteger executed = new AtomicInteger();
+        List<ExecuteMessage> executeMessageList = testCaseExecutor.executeAll(inputList, input -> {
+            executed.incrementAndGet();
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setMessage(input);
+            if ("2".equals(input)) {
+                executeMessage.setErrorMessage("error");
+            }
+            return executeMessage;
+        });
+        assertEquals(3, executeMessageList.size());
+        assertEquals("error", executeMessageList.get(2).getErrorMessage());
+        assertTrue(executed.get() < 50);
+    }
+
+    @Test
+    void returnAfterCancelledCasesStop() {
+        List<String> inputList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inputList.add(String.valueOf(i));
+        }
+        AtomicInteger running = new AtomicInteger();
+        List<ExecuteMessage> executeMessageList = testCaseExecutor.executeAll(inputList, input -> {
+            running.incrementAndGet();
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setMessage(input);
+            if ("0".equals(input)) {
+                sleepIgnoringInterrupt(50);
+                executeMessage.setErrorMessage("error");
+            } else {
+                // 被取消后仍要一段时间才能结束，相当于子进程还没被杀死
+                sleepIgnoringInterrupt(300);
+            }
+            running.decrementAndGet();
+            return executeMessage;
+        });
+        assertEquals(1, executeMessageList.size());
+        // 返回时被取消的用例已经结束，名额不会提前归还
+        assertEquals(0, running.get());
+    }
+
+    @Test
+    void asyncKeepOrderAndStopAtFirstFailure() {
+        List<String> inputList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inputList.add(String.valueOf(i));
+        }
+        List<ExecuteMessage> executeMessageList = testCaseExecutor.executeAllAsync(inputList,
+                input -> CompletableFuture.supplyAsync(() -> {
+                    ExecuteMessage executeMessage = new ExecuteMessage();
+                    executeMessage.setMessage(input);
+                    if ("5".equals(input)) {
+                        executeMessage.setErrorMessage("error");
+                    }
+                    return executeMessage;
+                }));
+        assertEquals(6, executeMessageList.size());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(String.valueOf(i), executeMessageList.get(i).getMessage());
+        }
+    }
+
+    @Test
+    void asyncSeriallyWithConcurrencyOne() {
+        List<String> inputList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inputList.add(String.valueOf(i));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger submitted = new AtomicInteger();
+        List<ExecuteMessage> executeMessageList = testCaseExecutor.executeAllAsync(inputList, input -> {
+            submitted.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                ExecuteMessage executeMessage = new ExecuteMessage();
+                executeMessage.setMessage(input);
+                if ("3".equals(input)) {
+                    executeMessage.setErrorMessage("error");
+                }
+                running.decrementAndGet();
+                return executeMessage;
+            });
+        }, null, 1);
+        assertEquals(4, executeMessageList.size());
+        assertEquals(1, maxRunning.get());
+        // 失败的用例之后不再提交
+        assertEquals(4, submitted.get());
+    }
+
+    @Test
+    void notifyEachCaseAndStopWhenCancelled() {
+        List<String> inputList = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            inputList.add(String.valueOf(i));
+        }
+        List<Integer> notifiedList = new CopyOnWriteArrayList<>();
+        ExecuteListener executeListener = new ExecuteListener() {
+            @Override
+            public void onCase(int index, ExecuteMessage executeMessage) {
+                assertEquals(String.valueOf(index), executeMessage.getMessage());
+                notifiedList.add(index);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                // 模拟收到 5 个结果后客户端断开
+                return notifiedList.size() >= 5;
+            }
+        };
+        List<ExecuteMessage> executeMessageList = testCaseExecutor.executeAll(inputList, input -> {
+            ExecuteMessage executeMessage = new ExecuteMessage();
+            executeMessage.setMessage(input);
+            return executeMessage;
+        }, executeListener);
+        assertTrue(notifiedList.size() < 50);
+        assertTrue(executeMessageList.size() <= notifiedList.size());
+        for (int i = 0; i < executeMessageList.size(); i++) {
+            assertEquals(String.valueOf(i), executeMessageList.get(i).getMessage());
+        }
+    }
+
+    private static void sleepIgnoringInterrupt(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            try {
+                Thread.sleep(remaining);
+            } catch (InterruptedException e) {
+                // 忽略取消
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.rc.ojcodesandbox.job;
+
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteJob;
+import com.rc.ojcodesandbox.model.enums.JobStatusEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：ExecuteJobManagerTest
+ * @Date：2026/10/18 16:40
+ */
+class ExecuteJobManagerTest {
+
+    @Test
+    void submitAndWait() throws Exception {
+        CodeSandboxProperties.Job jobProperties = new CodeSandboxProperties.Job();
+        ExecuteJobManager executeJobManager = new ExecuteJobManager(request -> {
+            ExecuteCodeResponse executeCodeResponse = new ExecuteCodeResponse();
+            executeCodeResponse.setStatus(1);
+            executeCodeResponse.setMessage(request.getCode());
+            return executeCodeResponse;
+        }, jobProperties);
+        try {
+            ExecuteCodeRequest executeCodeRequest = new ExecuteCodeRequest();
+            executeCodeRequest.setCode("code");
+            ExecuteJob submitted = executeJobManager.submit(executeCodeRequest, null);
+            assertNotNull(submitted.getJobId());
+            ExecuteJob finished = executeJobManager.getCompletion(submitted.getJobId()).get(5, TimeUnit.SECONDS);
+            assertEquals(JobStatusEnum.SUCCEED.getValue(), finished.getStatus());
+            assertEquals("code", finished.getResponse().getMessage());
+            assertEquals(JobStatusEnum.SUCCEED.getValue(), executeJobManager.get(submitted.getJobId()).getStatus());
+            assertNull(executeJobManager.get("missing"));
+        } finally {
+            executeJobManager.shutdown();
+        }
+    }
+
+    @Test
+    void rejectWhenQueueFullAndEvictFinished() throws Exception {
+        CodeSandboxProperties.Job jobProperties = new CodeSandboxProperties.Job();
+        jobProperties.setWorkerThreads(1);
+        jobProperties.setQueueCapacity(1);
+        jobProperties.setMaxJobs(2);
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecuteJobManager executeJobManager = new ExecuteJobManager(request -> {
+            if ("block".equals(request.getCode())) {
+                latch.await();
+            }
+            return new ExecuteCodeResponse();
+        }, jobProperties);
+        try {
+            ExecuteCodeRequest block = new ExecuteCodeRequest();
+            block.setCode("block");
+            ExecuteJob first = executeJobManager.submit(block, null);
+            executeJobManager.submit(new ExecuteCodeRequest(), null);
+            assertThrows(JobRejectedException.class, () -> executeJobManager.submit(new ExecuteCodeRequest(), null));
+            latch.countDown();
+            executeJobManager.getCompletion(first.getJobId()).get(5, TimeUnit.SECONDS);
+            ExecuteJob third = executeJobManager.submit(new ExecuteCodeRequest(), null);
+            executeJobManager.getCompletion(third.getJobId()).get(5, TimeUnit.SECONDS);
+            // 超出 maxJobs 后最早结束的任务被淘汰
+            assertNull(executeJobManager.get(first.getJobId()));
+            assertEquals(2, executeJobManager.getJobCount());
+        } finally {
+            executeJobManager.shutdown();
+        }
+    }
+
+    @Test
+    void onlyCallbackAllowedHosts() {
+        CodeSandboxProperties.Job jobProperties = new CodeSandboxProperties.Job();
+        ExecuteJobManager executeJobManager = new ExecuteJobManager(request -> new ExecuteCodeResponse(), jobProperties);
+        try {
+            // 默认不允许回调
+            assertThrows(IllegalArgumentException.class,
+                    () -> executeJobManager.submit(new ExecuteCodeRequest(), "http://127.0.0.1:8080/callback"));
+            jobProperties.getCallbackAllowedHosts().add("oj.example.com");
+            jobProperties.getCallbackAllowedHosts().add("*.judge.example.com");
+            assertTrue(executeJobManager.isCallbackAllowed("https://oj.example.com/api/callback"));
+            assertTrue(executeJobManager.isCallbackAllowed("http://node1.judge.example.com:8080/callback"));
+            assertFalse(executeJobManager.isCallbackAllowed("http://evil-judge.example.com/callback"));
+            assertFalse(executeJobManager.isCallbackAllowed("http://oj.example.com@169.254.169.254/latest"));
+            assertFalse(executeJobManager.isCallbackAllowed("file://oj.example.com/etc/passwd"));
+            assertFalse(executeJobManager.isCallbackAllowed("not a url"));
+            assertNotNull(executeJobManager.submit(new ExecuteCodeRequest(), "https://oj.example.com/api/callback").getJobId());
+        } finally {
+            executeJobManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.rc.ojcodesandbox.language;
+
+import com.rc.ojcodesandbox.NativeLanguageCodeSandbox;
+import com.rc.ojcodesandbox.model.ExecuteCodeRequest;
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.enums.LanguageEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxRegistryTest 依赖本机安装的工具链，未安装的语言跳过
+ * @Date：2026/10/18 19:00
+ */
+class CodeSandboxRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runC() throws Exception {
+        String code = "#include <stdio.h>\n#include <stdlib.h>\nint main(int argc, char **argv) {\n"
+                + "    printf(\"%d\\n\", atoi(argv[1]) + atoi(argv[2]));\n    return 0;\n}\n";
+        ExecuteCodeResponse executeCodeResponse = execute(new CLanguageStrategy(), "c", code, null);
+        assertEquals(1, executeCodeResponse.getStatus());
+        assertEquals(Arrays.asList("3", "7"), executeCodeResponse.getOutputList());
+    }
+
+    @Test
+    void crashWithoutStderrIsRuntimeError() throws Exception {
+        String code = "#include <stdio.h>\nint main() {\n    printf(\"x\\n\");\n    fflush(stdout);\n"
+                + "    int *p = 0;\n    *p = 1;\n    return 0;\n}\n";
+        ExecuteCodeResponse executeCodeResponse = execute(new CLanguageStrategy(), "c", code, null);
+        assertEquals(3, executeCodeResponse.getStatus());
+        assertTrue(executeCodeResponse.getMessage().contains("SIGSEGV"), executeCodeResponse.getMessage());
+    }
+
+    @Test
+    void runCppWithPrecompiledHeader() throws Exception {
+        CppLanguageStrategy cppLanguageStrategy = new CppLanguageStrategy(true);
+        assumeTrue(CodeSandboxRegistry.isAvailable(cppLanguageStrategy));
+        cppLanguageStrategy.warmUp(tempDir.resolve("cpp").toString());
+        String code = "#include <bits/stdc++.h>\nusing namespace std;\nint main() {\n"
+                + "    long long a, b;\n    cin >> a >> b;\n    cout << a + b << endl;\n}\n";
+        ExecuteCodeResponse executeCodeResponse = execute(cppLanguageStrategy, "C++", code, "stdin");
+        assertEquals(1, executeCodeResponse.getStatus());
+        assertEquals(Arrays.asList("3", "7"), executeCodeResponse.getOutputList());
+    }
+
+    @Test
+    void pythonSyntaxErrorIsCompileError() throws Exception {
+        ExecuteCodeResponse executeCodeResponse = execute(new PythonLanguageStrategy(), "python", "print(1 +\n", null);
+        assertEquals(3, executeCodeResponse.getStatus());
+        assertTrue(executeCodeResponse.getOutputList().isEmpty());
+
+        executeCodeResponse = execute(new PythonLanguageStrategy(), "python3",
+                "import sys\nprint(int(sys.argv[1]) + int(sys.argv[2]))\n", null);
+        assertEquals(Arrays.asList("3", "7"), executeCodeResponse.getOutputList());
+    }
+
+    @Test
+    void unsupportedLanguage() throws Exception {
+        CodeSandboxRegistry codeSandboxRegistry = new CodeSandboxRegistry();
+        ExecuteCodeRequest executeCodeRequest = new ExecuteCodeRequest();
+        executeCodeRequest.setLanguage("rust");
+        executeCodeRequest.setInputList(Collections.singletonList("1"));
+        assertEquals(2, codeSandboxRegistry.executeCode(executeCodeRequest).getStatus());
+        assertTrue(codeSandboxRegistry.getSupportedLanguages().isEmpty());
+    }
+
+    private ExecuteCodeResponse execute(LanguageStrategy languageStrategy, String language, String code, String inputMode)
+            throws InterruptedException {
+        assumeTrue(CodeSandboxRegistry.isAvailable(languageStrategy));
+        CodeSandboxRegistry codeSandboxRegistry = new CodeSandboxRegistry();
+        codeSandboxRegistry.register(new NativeLanguageCodeSandbox(languageStrategy));
+        assertEquals(languageStrategy.getLanguage(), LanguageEnum.getEnumByValue(language));
+        List<String> inputList = Arrays.asList("1 2", "3 4");
+        ExecuteCodeRequest executeCodeRequest = new ExecuteCodeRequest();
+        executeCodeRequest.setCode(code);
+        executeCodeRequest.setLanguage(language);
+        executeCodeRequest.setInputList(inputList);
+        executeCodeRequest.setInputMode(inputMode);
+        return codeSandboxRegistry.executeCode(executeCodeRequest);
+    }
+}
@@ -0,0 +1,71 @@
+package com.rc.ojcodesandbox.metrics;
+
+import com.rc.ojcodesandbox.model.ExecuteCodeResponse;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import com.rc.ojcodesandbox.model.JudgeInfo;
+import com.rc.ojcodesandbox.model.enums.ExecuteVerdictEnum;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：CodeSandboxMetricsTest
+ * @Date：2026/10/18 23:40
+ */
+class CodeSandboxMetricsTest {
+
+    @Test
+    void recordStageAndVerdict() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CodeSandboxMetrics codeSandboxMetrics = new CodeSandboxMetrics(registry);
+        long start = System.nanoTime();
+        codeSandboxMetrics.recordStage("java", CodeSandboxMetrics.STAGE_COMPILE, start);
+        codeSandboxMetrics.recordStage("java", CodeSandboxMetrics.STAGE_COMPILE, start);
+        codeSandboxMetrics.recordVerdict("java", ExecuteVerdictEnum.TIMEOUT);
+
+        Timer timer = registry.get("codesandbox.stage").tag("stage", "compile").tag("language", "java").timer();
+        assertEquals(2, timer.count());
+        assertEquals(1.0, registry.get("codesandbox.verdict").tag("verdict", "timeout").counter().count());
+    }
+
+    @Test
+    void getVerdict() {
+        ExecuteMessage compileError = new ExecuteMessage();
+        compileError.setExitValue(1);
+        assertEquals(ExecuteVerdictEnum.COMPILE_ERROR, CodeSandboxMetrics.getVerdict(compileError, null, response(3)));
+        assertEquals(ExecuteVerdictEnum.SYSTEM_ERROR, CodeSandboxMetrics.getVerdict(null, null, null));
+
+        ExecuteMessage timeout = new ExecuteMessage();
+        timeout.setTimeout(true);
+        timeout.setErrorMessage("代码运行超时");
+        assertEquals(ExecuteVerdictEnum.TIMEOUT, CodeSandboxMetrics.getVerdict(null, Collections.singletonList(timeout), response(3)));
+
+        ExecuteMessage outOfMemory = new ExecuteMessage();
+        outOfMemory.setErrorMessage("Exception in thread \"main\" java.lang.OutOfMemoryError: Java heap space");
+        assertEquals(ExecuteVerdictEnum.MEMORY_LIMIT_EXCEEDED,
+                CodeSandboxMetrics.getVerdict(null, Collections.singletonList(outOfMemory), response(3)));
+
+        List<ExecuteMessage> executeMessageList = new ArrayList<>();
+        executeMessageList.add(new ExecuteMessage());
+        assertEquals(ExecuteVerdictEnum.RUNTIME_ERROR, CodeSandboxMetrics.getVerdict(null, executeMessageList, response(3)));
+        assertEquals(ExecuteVerdictEnum.SUCCESS, CodeSandboxMetrics.getVerdict(null, executeMessageList, response(1)));
+
+        ExecuteCodeResponse wrongAnswer = response(1);
+        wrongAnswer.getJudgeInfo().setMessage("Wrong Answer");
+        assertEquals(ExecuteVerdictEnum.WRONG_ANSWER, CodeSandboxMetrics.getVerdict(null, executeMessageList, wrongAnswer));
+    }
+
+    private static ExecuteCodeResponse response(int status) {
+        ExecuteCodeResponse executeCodeResponse = new ExecuteCodeResponse();
+        executeCodeResponse.setStatus(status);
+        executeCodeResponse.setJudgeInfo(new JudgeInfo());
+        return executeCodeResponse;
+    }
+}
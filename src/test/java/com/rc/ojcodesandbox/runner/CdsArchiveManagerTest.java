@@ -0,0 +1,49 @@
+package com.rc.ojcodesandbox.runner;
+
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @Author：rancheng
+ * @name：CdsArchiveManagerTest
+ * @Date：2026/10/19 10:30
+ */
+class CdsArchiveManagerTest {
+
+    @Test
+    void keepsOnlyJdkClasses() {
+        assertTrue(CdsArchiveManager.isJdkClassLine("java/util/ArrayList"));
+        assertTrue(CdsArchiveManager.isJdkClassLine("jdk/internal/misc/Unsafe id: 12"));
+        assertTrue(CdsArchiveManager.isJdkClassLine("@lambda-form-invoker [LF_RESOLVE] java.lang.invoke.Invokers$Holder invokeExact_MT L8_L"));
+        assertTrue(CdsArchiveManager.isJdkClassLine("@lambda-proxy java/util/regex/Pattern is ()Ljava/util/regex/Pattern$CharPredicate;"));
+        assertFalse(CdsArchiveManager.isJdkClassLine("# NOTE: Do not modify this file."));
+        assertFalse(CdsArchiveManager.isJdkClassLine("CdsTraining"));
+        assertFalse(CdsArchiveManager.isJdkClassLine("@lambda-proxy CdsTraining apply ()Ljava/util/function/Function;"));
+    }
+
+    @Test
+    void buildsArchiveOncePerJdk(@TempDir Path tempDir) throws Exception {
+        CdsArchiveManager cdsArchiveManager = new CdsArchiveManager(new CodeSandboxProperties.Cds(), tempDir.toString());
+        try {
+            // JDK 11 以下不支持
+            assumeTrue(cdsArchiveManager.refresh());
+            assertEquals(3, cdsArchiveManager.getJvmOptions().size());
+            File[] archives = tempDir.toFile().listFiles((dir, name) -> name.endsWith(".jsa"));
+            assertNotNull(archives);
+            assertEquals(1, archives.length);
+            long lastModified = archives[0].lastModified();
+            assertTrue(cdsArchiveManager.refresh());
+            assertEquals(lastModified, archives[0].lastModified());
+            assertEquals(1, tempDir.toFile().list().length);
+        } finally {
+            cdsArchiveManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rc.ojcodesandbox.runner;
+
+import cn.hutool.core.io.FileUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import com.rc.ojcodesandbox.execute.ProcessReaper;
+import com.rc.ojcodesandbox.model.ExecuteMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @Author：rancheng
+ * @name：JavaRunnerPoolTest
+ * @Date：2026/10/19 20:30
+ */
+class JavaRunnerPoolTest {
+
+    /**
+     * 输出执行器 JVM 的进程名（pid@host），用来判断两次执行是否在同一个执行器中
+     */
+    private static final String PRINT_RUNNER =
+            "public class Main { public static void main(String[] args) { "
+                    + "System.out.println(java.lang.management.ManagementFactory.getRuntimeMXBean().getName()); } }";
+
+    @TempDir
+    Path tempDir;
+
+    private ProcessReaper processReaper;
+
+    private JavaRunnerPool javaRunnerPool;
+
+    @BeforeEach
+    void setUp() {
+        processReaper = new ProcessReaper(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (javaRunnerPool != null) {
+            javaRunnerPool.shutdown();
+        }
+        processReaper.shutdown();
+    }
+
+    @Test
+    void recycleAfterMaxRuns() throws Exception {
+        CodeSandboxProperties.Runner runnerProperties = new CodeSandboxProperties.Runner();
+        runnerProperties.setPoolSize(1);
+        runnerProperties.setMaxRuns(2);
+        javaRunnerPool = newPool(runnerProperties);
+        String classDir = compile("print", PRINT_RUNNER);
+
+        String first = runnerName(javaRunnerPool.run(classDir, Collections.emptyList(), new byte[0], 10000));
+        String second = runnerName(javaRunnerPool.run(classDir, Collections.emptyList(), new byte[0], 10000));
+        // 执行满 maxRuns 次后销毁，下一次换成新的执行器
+        String third = runnerName(javaRunnerPool.run(classDir, Collections.emptyList(), new byte[0], 10000));
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+        assertTrue(javaRunnerPool.getRunnerCount() <= 1);
+    }
+
+    @Test
+    void replaceMisbehavingRunner() throws Exception {
+        CodeSandboxProperties.Runner runnerProperties = new CodeSandboxProperties.Runner();
+        runnerProperties.setPoolSize(1);
+        javaRunnerPool = newPool(runnerProperties);
+        String printDir = compile("print", PRINT_RUNNER);
+        String exitDir = compile("exit", "public class Main { public static void main(String[] args) { System.exit(3); } }");
+        String loopDir = compile("loop", "public class Main { public static void main(String[] args) { while (true) { } } }");
+        String threadDir = compile("thread", "public class Main { public static void main(String[] args) { "
+                + "Thread t = new Thread(() -> { try { Thread.sleep(60000); } catch (InterruptedException e) { } }); "
+                + "t.setDaemon(true); t.start(); } }");
+
+        String runner = runnerName(javaRunnerPool.run(printDir, Collections.emptyList(), new byte[0], 10000));
+        assertEquals(runner, runnerName(javaRunnerPool.run(printDir, Collections.emptyList(), new byte[0], 10000)));
+
+        // System.exit：以 JVM 的退出码为准，执行器不再复用
+        ExecuteMessage exitMessage = javaRunnerPool.run(exitDir, Collections.emptyList(), new byte[0], 10000);
+        assertEquals(3, exitMessage.getExitValue());
+        String afterExit = runnerName(javaRunnerPool.run(printDir, Collections.emptyList(), new byte[0], 10000));
+        assertNotEquals(runner, afterExit);
+
+        // 超时：整个执行器被杀死
+        ExecuteMessage loopMessage = javaRunnerPool.run(loopDir, Collections.emptyList(), new byte[0], 500);
+        assertEquals(Boolean.TRUE, loopMessage.getTimeout());
+        String afterTimeout = runnerName(javaRunnerPool.run(printDir, Collections.emptyList(), new byte[0], 10000));
+        assertNotEquals(afterExit, afterTimeout);
+
+        // 遗留线程
+        assertEquals(0, javaRunnerPool.run(threadDir, Collections.emptyList(), new byte[0], 10000).getExitValue());
+        String afterThread = runnerName(javaRunnerPool.run(printDir, Collections.emptyList(), new byte[0], 10000));
+        assertNotEquals(afterTimeout, afterThread);
+        assertTrue(javaRunnerPool.getRunnerCount() <= 1);
+    }
+
+    @Test
+    void rejectForgedFrameAndRestoreProperties() throws Exception {
+        CodeSandboxProperties.Runner runnerProperties = new CodeSandboxProperties.Runner();
+        runnerProperties.setPoolSize(1);
+        javaRunnerPool = newPool(runnerProperties);
+        // 直接向协议使用的 stdout 写一份"通过"的返回信息
+        String forgeDir = compile("forge", "import java.io.*; public class Main { public static void main(String[] args) throws Exception { "
+                + "DataOutputStream d = new DataOutputStream(new FileOutputStream(FileDescriptor.out)); "
+                + "d.writeInt(0x4F4A5231); d.writeLong(0L); d.writeInt(0); d.writeBoolean(false); d.writeBoolean(false); "
+                + "d.writeBoolean(false); d.writeLong(1L); byte[] b = \"forged\".getBytes(); d.writeInt(b.length); d.write(b); "
+                + "d.writeInt(0); d.flush(); } }");
+        String setDir = compile("set", "public class Main { public static void main(String[] args) { System.setProperty(\"oj.leak\", \"1\"); } }");
+        String getDir = compile("get", "public class Main { public static void main(String[] args) { System.out.println(System.getProperty(\"oj.leak\")); } }");
+
+        ExecuteMessage forged = javaRunnerPool.run(forgeDir, Collections.emptyList(), new byte[0], 10000);
+        assertNotEquals(0, forged.getExitValue());
+        assertTrue(forged.getOutput() == null || !"forged".equals(forged.getOutput().toString()));
+
+        assertEquals(0, javaRunnerPool.run(setDir, Collections.emptyList(), new byte[0], 10000).getExitValue());
+        assertEquals("null", javaRunnerPool.run(getDir, Collections.emptyList(), new byte[0], 10000).getOutput().toString());
+    }
+
+    private JavaRunnerPool newPool(CodeSandboxProperties.Runner runnerProperties) {
+        return new JavaRunnerPool(runnerProperties, processReaper, tempDir.resolve("runner").toString(), 1024 * 1024);
+    }
+
+    private String compile(String name, String code) {
+        JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
+        assumeTrue(javaCompiler != null);
+        File source = FileUtil.writeString(code, tempDir.resolve(name).resolve("Main.java").toFile(), StandardCharsets.UTF_8);
+        assertEquals(0, javaCompiler.run(null, null, null, source.getPath()));
+        return source.getParent();
+    }
+
+    private static String runnerName(ExecuteMessage executeMessage) {
+        assertEquals(0, executeMessage.getExitValue(), executeMessage.getErrorMessage());
+        String name = executeMessage.getOutput().toString();
+        assertFalse(name.isEmpty());
+        return name;
+    }
+}
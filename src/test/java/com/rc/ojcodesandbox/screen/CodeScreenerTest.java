@@ -0,0 +1,87 @@
+package com.rc.ojcodesandbox.screen;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：CodeScreenerTest
+ * @Date：2026/10/19 15:00
+ */
+class CodeScreenerTest {
+
+    @Test
+    void matcherFindsEarliestOverlappingKeyword() {
+        KeywordMatcher keywordMatcher = new KeywordMatcher(Arrays.asList("he", "she", "his", "hers", "", "he"));
+        assertEquals(4, keywordMatcher.size());
+        // "she" 与 "he" 在同一位置结束，后缀 "he" 通过失配指针同样命中
+        assertEquals("she", keywordMatcher.find("ushers"));
+        assertEquals("he", keywordMatcher.find("ahem"));
+        assertEquals("his", keywordMatcher.find("thxhis"));
+        assertNull(keywordMatcher.find("hs sh ehs"));
+        // 非 ASCII 字符回到初始状态
+        assertNull(keywordMatcher.find("sh中e"));
+        assertEquals("he", keywordMatcher.find("中文he"));
+        assertNull(new KeywordMatcher(Collections.<String>emptyList()).find("he"));
+        assertThrows(IllegalArgumentException.class, () -> new KeywordMatcher(Collections.singletonList("中文")));
+    }
+
+    @Test
+    void screenByLanguageAndProblem() {
+        CodeSandboxProperties.Screen screen = new CodeSandboxProperties.Screen();
+        screen.getProblemRules().put("sort-by-hand", Arrays.asList("Arrays.sort", "sort("));
+        CodeScreener codeScreener = new CodeScreener(screen);
+
+        assertEquals("java.nio.file", codeScreener.screen("java", null, read("unsafeCode/ReadFileError.java")));
+        assertEquals("java.nio.file", codeScreener.screen("java", null, read("unsafeCode/WriteFileError.java")));
+        assertEquals("Runtime.getRuntime", codeScreener.screen("java", null, read("unsafeCode/runFileError.java")));
+        String aAddB = read("AaddB/Main.java");
+        assertNull(codeScreener.screen("java", null, aAddB));
+        assertNull(codeScreener.screen("java", "a-add-b", aAddB));
+
+        String sortCode = "import java.util.Arrays;\npublic class Main { void f(int[] a) { Arrays.sort(a); } }";
+        assertNull(codeScreener.screen("java", null, sortCode));
+        assertEquals("Arrays.sort", codeScreener.screen("java", "sort-by-hand", sortCode));
+        // 题目的关键词与语言的关键词合并
+        assertEquals("system(", codeScreener.screen("cpp", "sort-by-hand", "int main() { system(\"ls\"); sort(a, a + n); }"));
+        assertEquals("sort(", codeScreener.screen("cpp", "sort-by-hand", "int main() { sort(a, a + n); }"));
+        assertNull(codeScreener.screen("rust", null, "std::process::Command"));
+
+        screen.setEnabled(false);
+        assertNull(codeScreener.screen("java", null, read("unsafeCode/runFileError.java")));
+    }
+
+    @Test
+    void skipCommentsStringsAndMatchOnTokenBoundary() {
+        CodeScreener codeScreener = new CodeScreener(new CodeSandboxProperties.Screen());
+        // 注释、字符串中的内容和其他标识符的一部分不算
+        assertNull(codeScreener.screen("java", null, "class Main { // Files.write\n /* Runtime.getRuntime */ "
+                + "String s = \"ProcessBuilder\\\" Files.\"; char q = '\"'; void f() { openFiles.add(1); } }"));
+        assertEquals("Files.", codeScreener.screen("java", null, "class Main { void f() { Files.write(p, b); } }"));
+        assertNull(codeScreener.screen("python", null, "my_socket = 1\n# import subprocess\ns = '''\nimport shutil\n'''\n"));
+        assertEquals("socket", codeScreener.screen("python", null, "import socket\n"));
+        // f-string 中 {} 的内容是代码
+        assertEquals("__import__", codeScreener.screen("python", null, "print(f\"{__import__('os')}\")"));
+        assertEquals("\"os/exec\"", codeScreener.screen("go", null, "import (\n\t\"fmt\"\n\t\"os/exec\"\n)"));
+        assertNull(codeScreener.screen("go", null, "// \"os/exec\"\nvar s = `os.Remove(x)`\nfunc main() { fmt.Println(\"os/exec is\") }"));
+        assertEquals("execlp", codeScreener.screen("c", null, "int main() { execlp(\"ls\", \"ls\", 0); }"));
+        // 类名藏在字符串里，通过反射调用
+        assertEquals("forName", codeScreener.screen("java", null, "class Main { public static void main(String[] a) throws Exception { "
+                + "Class.forName(\"java.lang.Run\" + \"time\").getMethod(\"exec\", String.class).invoke(null, \"ls\"); } }"));
+        assertEquals("invoke", codeScreener.screen("java", null, "class Main { void f() throws Exception { "
+                + "Object.class.getMethods()[0].invoke(null); } }"));
+        // C++14 的数字分隔符不会被当成字符，不能借此藏住后面的代码
+        assertEquals("system(", codeScreener.screen("cpp", null, "int x = 1'0; system(\"ls\"); int y = 2'0;"));
+    }
+
+    private static String read(String path) {
+        return ResourceUtil.readStr("testCode/" + path, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rc.ojcodesandbox.testcase;
+
+import com.rc.ojcodesandbox.execute.InputSource;
+import com.rc.ojcodesandbox.model.TestCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：TestCaseStoreTest
+ * @Date：2026/10/18 20:40
+ */
+class TestCaseStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void saveGetAndReplace() throws Exception {
+        TestCaseStore testCaseStore = new TestCaseStore(tempDir.toString());
+        assertNull(testCaseStore.get("1001", "v1"));
+
+        TestCaseSet testCaseSet = testCaseStore.save("1001", "v1", Arrays.asList(testCase("1 2\n", "3\n"), testCase("3 4\n", null)));
+        assertEquals(2, testCaseSet.size());
+        assertNotNull(testCaseSet.getOutputPaths().get(0));
+        assertNull(testCaseSet.getOutputPaths().get(1));
+        List<InputSource> inputSources = testCaseSet.toInputSources();
+        assertEquals("3 4\n", new String(inputSources.get(1).readAllBytes(), StandardCharsets.UTF_8));
+        assertSame(testCaseSet, testCaseStore.get("1001", "v1"));
+
+        // 重新上传同一版本时整体替换，缓存同时失效
+        TestCaseSet replaced = testCaseStore.save("1001", "v1", Arrays.asList(testCase("5 6\n", "11\n")));
+        assertEquals(1, replaced.size());
+        assertEquals(1, new TestCaseStore(tempDir.toString()).get("1001", "v1").size());
+
+        assertTrue(testCaseStore.delete("1001", "v1"));
+        assertNull(testCaseStore.get("1001", "v1"));
+        assertFalse(testCaseStore.delete("1001", "v1"));
+    }
+
+    @Test
+    void rejectIllegalId() {
+        TestCaseStore testCaseStore = new TestCaseStore(tempDir.toString());
+        assertThrows(IllegalArgumentException.class, () -> testCaseStore.get("..", "v1"));
+        assertThrows(IllegalArgumentException.class, () -> testCaseStore.get("1001", "../v1"));
+        assertThrows(IllegalArgumentException.class, () -> testCaseStore.get("1001", null));
+    }
+
+    private static TestCase testCase(String input, String output) {
+        TestCase testCase = new TestCase();
+        testCase.setInput(input);
+        testCase.setOutput(output);
+        return testCase;
+    }
+}
@@ -0,0 +1,63 @@
+package com.rc.ojcodesandbox.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rc.ojcodesandbox.model.OutputText;
+import com.rc.ojcodesandbox.model.OutputTextList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputCollectorTest {
+
+    @Test
+    void normalizeLineEndings() {
+        OutputCollector outputCollector = new OutputCollector(1024);
+        byte[] bytes = "1\r\n2\n结果\n".getBytes(StandardCharsets.UTF_8);
+        assertTrue(outputCollector.append(bytes, 0, bytes.length));
+        assertEquals("1\n2\n结果", outputCollector.toText());
+    }
+
+    @Test
+    void rejectOverLimit() {
+        OutputCollector outputCollector = new OutputCollector(4);
+        byte[] bytes = "123456".getBytes(StandardCharsets.UTF_8);
+        assertFalse(outputCollector.append(bytes, 0, bytes.length));
+        assertTrue(outputCollector.isExceeded());
+        assertEquals(4, outputCollector.size());
+    }
+
+    @Test
+    void spanChunksAndSerializeFromBytes() throws Exception {
+        ByteChunkPool chunkPool = new ByteChunkPool(4, 8);
+        OutputCollector outputCollector = new OutputCollector(1024, 1024, chunkPool);
+        byte[] bytes = "0123456789\n".getBytes(StandardCharsets.UTF_8);
+        assertTrue(outputCollector.append(bytes, 0, 3));
+        assertTrue(outputCollector.append(bytes, 3, bytes.length - 3));
+        OutputText outputText = outputCollector.toOutputText();
+        assertEquals("0123456789", outputText.toString());
+        assertTrue(outputText.isPlain());
+        // 3 个字节块全部归还，释放后写入的内容被丢弃
+        assertEquals(3, chunkPool.getIdleCount());
+        assertTrue(outputCollector.append(bytes, 0, bytes.length));
+        assertEquals(3, chunkPool.getIdleCount());
+
+        List<OutputText> outputTextList = new ArrayList<>();
+        for (String output : Arrays.asList("a\"b\\c\td\n", "1\r\n2\r\n", "结果\n", "")) {
+            byte[] outputBytes = output.getBytes(StandardCharsets.UTF_8);
+            outputTextList.add(OutputText.wrap(outputBytes, outputBytes.length));
+        }
+        outputTextList.add(null);
+        OutputTextList outputList = new OutputTextList(outputTextList);
+        List<String> expected = Arrays.asList("a\"b\\c\td", "1\n2", "结果", "", null);
+        assertEquals(expected, outputList);
+        ObjectMapper objectMapper = new ObjectMapper();
+        // 直接写字节与写 String 的 JSON 一致
+        assertArrayEquals(objectMapper.writeValueAsBytes(expected), objectMapper.writeValueAsBytes(outputList));
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(outputList));
+    }
+}
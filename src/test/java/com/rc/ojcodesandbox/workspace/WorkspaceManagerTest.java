@@ -0,0 +1,88 @@
+package com.rc.ojcodesandbox.workspace;
+
+import cn.hutool.core.io.FileUtil;
+import com.rc.ojcodesandbox.config.CodeSandboxProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author：rancheng
+ * @name：WorkspaceManagerTest
+ * @Date：2026/10/18 19:50
+ */
+class WorkspaceManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reuseCleanedDirectory() {
+        WorkspaceManager workspaceManager = new WorkspaceManager(properties(1, 60000), tempDir.toString());
+        try {
+            File first = workspaceManager.acquire();
+            FileUtil.writeString("code", new File(first, "Main.java"), StandardCharsets.UTF_8);
+            File second = workspaceManager.acquire();
+            assertNotEquals(first, second);
+            assertEquals(2, workspaceManager.getStats().getLeasedCount());
+            assertEquals(4, workspaceManager.getStats().getBytesUsed());
+
+            assertTrue(workspaceManager.release(first));
+            // 池只保留一个空闲目录，第二个归还时删除
+            assertTrue(workspaceManager.release(second));
+            assertFalse(second.exists());
+            assertEquals(0, first.list().length);
+            assertEquals(first, workspaceManager.acquire());
+        } finally {
+            workspaceManager.shutdown();
+        }
+        assertFalse(workspaceManager.getInstanceDir().exists());
+    }
+
+    @Test
+    void sweepStaleAndOrphanWorkspaces() throws Exception {
+        File orphan = new File(tempDir.toFile(), "instance-orphan");
+        File orphanLock = FileUtil.touch(new File(orphan, ".lock"));
+        assertTrue(orphanLock.setLastModified(System.currentTimeMillis() - 3600 * 1000L));
+        WorkspaceManager other = new WorkspaceManager(properties(0, 60000), tempDir.toString());
+        WorkspaceManager workspaceManager = new WorkspaceManager(properties(0, 0), tempDir.toString());
+        try {
+            // 启动时回收已退出实例遗留的目录，仍在运行的实例不受影响
+            assertFalse(orphan.exists());
+            assertTrue(other.getInstanceDir().exists());
+
+            File leased = workspaceManager.acquire();
+            Thread.sleep(5);
+            workspaceManager.sweep();
+            assertFalse(leased.exists());
+            assertEquals(0, workspaceManager.getStats().getLeasedCount());
+            assertEquals(1, workspaceManager.getStats().getSweptCount());
+            assertEquals(1, other.getStats().getSweptCount());
+        } finally {
+            workspaceManager.shutdown();
+            other.shutdown();
+        }
+    }
+
+    @Test
+    void resolveRoot() {
+        CodeSandboxProperties.Workspace workspace = new CodeSandboxProperties.Workspace();
+        workspace.setType(WorkspaceType.DISK);
+        assertEquals(tempDir.toFile(), WorkspaceManager.resolveRoot(workspace, tempDir.toString()));
+        workspace.setRoot("/mnt/tmpfs");
+        assertEquals(new File("/mnt/tmpfs"), WorkspaceManager.resolveRoot(workspace, tempDir.toString()));
+    }
+
+    private static CodeSandboxProperties.Workspace properties(int poolSize, long staleMillis) {
+        CodeSandboxProperties.Workspace workspace = new CodeSandboxProperties.Workspace();
+        workspace.setType(WorkspaceType.DISK);
+        workspace.setPoolSize(poolSize);
+        workspace.setStaleMillis(staleMillis);
+        return workspace;
+    }
+}